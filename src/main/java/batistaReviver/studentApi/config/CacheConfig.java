@@ -0,0 +1,48 @@
+package batistaReviver.studentApi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache configuration for the application.
+ *
+ * <p>Caches are transaction aware: evictions issued inside a transaction are applied only after it
+ * commits, so a concurrent read cannot re-populate a cache with data that is about to change.
+ *
+ * <p>Caches are bounded: each holds at most {@code api.cache.maximum-size} entries, evicting the
+ * least valuable ones beyond that, and drops entries {@code api.cache.expire-after-write-minutes}
+ * after they were written, so an eviction that was missed cannot serve stale data forever.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  /** Cache of {@link batistaReviver.studentApi.dto.StudentDashboardDto}s, keyed by student ID. */
+  public static final String STUDENT_DASHBOARDS = "studentDashboards";
+
+  /**
+   * Provides the application's {@link CacheManager}.
+   *
+   * @param maximumSize The maximum number of entries per cache.
+   * @param expireAfterWriteMinutes The minutes after which an entry is dropped.
+   * @return A transaction-aware, bounded in-memory cache manager.
+   */
+  @Bean
+  public CacheManager cacheManager(
+      @Value("${api.cache.maximum-size:10000}") long maximumSize,
+      @Value("${api.cache.expire-after-write-minutes:30}") long expireAfterWriteMinutes) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager(STUDENT_DASHBOARDS);
+    cacheManager.setCaffeine(
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes)));
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -0,0 +1,65 @@
+package batistaReviver.studentApi.config;
+
+import batistaReviver.studentApi.util.RequestDeadline;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets the request deadline detect clients that disconnected, on the embedded Tomcat.
+ *
+ * <p>The Servlet API has no way to tell that a client went away while a request is still being
+ * processed, so a Tomcat valve attaches a probe to every request under {@link
+ * RequestDeadline#CONNECTION_PROBE_ATTRIBUTE}. Once the request body has been read, the probe does
+ * a non-blocking read on the connection: a closed connection (or, rarely, a pipelined request)
+ * makes data "available". It is only called while the request thread is blocked in a JDBC call.
+ */
+@Configuration
+@ConditionalOnClass(ValveBase.class)
+public class ConnectionProbeConfig {
+
+  /**
+   * Registers the valve that attaches the connection probe.
+   *
+   * @return The Tomcat factory customizer.
+   */
+  @Bean
+  public WebServerFactoryCustomizer<TomcatServletWebServerFactory> connectionProbeCustomizer() {
+    return factory -> factory.addContextValves(new ConnectionProbeValve());
+  }
+
+  /** Valve attaching a {@link BooleanSupplier} that reports a closed client connection. */
+  static class ConnectionProbeValve extends ValveBase {
+
+    ConnectionProbeValve() {
+      super(true);
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+      BooleanSupplier clientGone = () -> isClientGone(request.getCoyoteRequest());
+      request.setAttribute(RequestDeadline.CONNECTION_PROBE_ATTRIBUTE, clientGone);
+      getNext().invoke(request, response);
+    }
+
+    private static boolean isClientGone(org.apache.coyote.Request request) {
+      AtomicBoolean bodyRead = new AtomicBoolean();
+      request.action(ActionCode.REQUEST_BODY_FULLY_READ, bodyRead);
+      if (!bodyRead.get()) {
+        return false; // Unread body bytes would look like a disconnect.
+      }
+      request.action(ActionCode.AVAILABLE, Boolean.TRUE);
+      return request.getAvailable() > 0;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package batistaReviver.studentApi.config;
+
+import batistaReviver.studentApi.metrics.EndpointMetricsInterceptor;
+import batistaReviver.studentApi.metrics.EntityLoadCountingInterceptor;
+import batistaReviver.studentApi.metrics.TimedJsonHttpMessageConverter;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires the hot-path metrics: the controller timers of {@link EndpointMetricsInterceptor}, the
+ * per-request entity load count of {@link EntityLoadCountingInterceptor} and the serialization
+ * measurement of {@link TimedJsonHttpMessageConverter}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+  private final EndpointMetricsInterceptor endpointMetricsInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(endpointMetricsInterceptor);
+  }
+
+  /** Replaces the JSON converter with one that measures serialization. */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.replaceAll(
+        converter ->
+            converter instanceof MappingJackson2HttpMessageConverter json
+                    && !(converter instanceof TimedJsonHttpMessageConverter)
+                ? new TimedJsonHttpMessageConverter(json.getObjectMapper())
+                : converter);
+  }
+
+  /**
+   * Registers the entity load counter as the session factory interceptor.
+   *
+   * @return A customizer of the Hibernate properties.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer entityLoadCountingCustomizer() {
+    return properties ->
+        properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+  }
+}
@@ -0,0 +1,99 @@
+package batistaReviver.studentApi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Routes read-only transactions to a read replica when {@code api.datasource.replica.url} is set.
+ *
+ * <p>The application {@link DataSource} becomes a {@link LazyConnectionDataSourceProxy} over the
+ * primary pool, with the replica pool as its read-only data source. A transaction declared with
+ * {@code @Transactional(readOnly = true)} flags its connection read-only before the first
+ * statement, so the proxy takes the physical connection from the replica; every other connection
+ * comes from the primary. Since open-in-view is disabled, each transaction gets its own session and
+ * connection, and a read-only transaction never reuses the connection of a write.
+ *
+ * <p>The primary pool is configured by {@code spring.datasource.*}; the replica pool reuses its
+ * driver and credentials unless {@code api.datasource.replica.username} and {@code password} are
+ * set, and is tuned by {@code api.datasource.replica.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.datasource.replica.url")
+public class ReadReplicaConfig {
+
+  /**
+   * Creates the primary and replica pools and the data source routing between them.
+   *
+   * @param properties The {@code spring.datasource.*} properties of the primary.
+   * @param environment The environment holding the pool settings.
+   * @param meterRegistry The registry the replica pool metrics are published to, if any.
+   * @param url The JDBC URL of the replica.
+   * @param username The user of the replica; the primary's if empty.
+   * @param password The password of the replica; the primary's if empty.
+   * @return The routing data source.
+   */
+  @Bean
+  public DataSource dataSource(
+      DataSourceProperties properties,
+      Environment environment,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      @Value("${api.datasource.replica.url}") String url,
+      @Value("${api.datasource.replica.username:}") String username,
+      @Value("${api.datasource.replica.password:}") String password) {
+    HikariDataSource primary =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+    HikariDataSource replica =
+        DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username.isEmpty() ? properties.determineUsername() : username)
+            .password(password.isEmpty() ? properties.determinePassword() : password)
+            .build();
+    Binder.get(environment).bind("api.datasource.replica.hikari", Bindable.ofInstance(replica));
+    if (replica.getPoolName() == null) {
+      replica.setPoolName("replica");
+    }
+    meterRegistry.ifAvailable(
+        registry ->
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+    return new ReplicaRoutingDataSource(primary, replica);
+  }
+
+  /** Routing data source that closes both pools with the application context. */
+  static class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy
+      implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica) {
+      super(primary);
+      setReadOnlyDataSource(replica);
+      this.primary = primary;
+      this.replica = replica;
+    }
+
+    @Override
+    public void close() {
+      replica.close();
+      primary.close();
+    }
+  }
+}
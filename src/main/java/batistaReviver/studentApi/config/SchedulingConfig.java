@@ -0,0 +1,9 @@
+package batistaReviver.studentApi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} background tasks, such as seat counter reconciliation. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -0,0 +1,59 @@
+package batistaReviver.studentApi.config;
+
+import batistaReviver.studentApi.util.RequestDeadline;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Replaces the auto-configured transaction manager with one that caps every transaction timeout to
+ * the time left before the current {@link RequestDeadline}. Spring applies the transaction timeout
+ * to each JPA query of the transaction, so repository calls stop at the deadline too.
+ */
+@Configuration
+public class TransactionConfig {
+
+  /**
+   * Creates the deadline-aware JPA transaction manager.
+   *
+   * @param entityManagerFactory The JPA entity manager factory.
+   * @param customizers The Spring Boot transaction manager customizers.
+   * @return The transaction manager.
+   */
+  @Bean
+  public PlatformTransactionManager transactionManager(
+      EntityManagerFactory entityManagerFactory,
+      ObjectProvider<TransactionManagerCustomizers> customizers) {
+    JpaTransactionManager transactionManager =
+        new DeadlineAwareTransactionManager(entityManagerFactory);
+    customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+    return transactionManager;
+  }
+
+  /** {@link JpaTransactionManager} whose timeouts never outlive the request deadline. */
+  static class DeadlineAwareTransactionManager extends JpaTransactionManager {
+
+    DeadlineAwareTransactionManager(EntityManagerFactory entityManagerFactory) {
+      super(entityManagerFactory);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+      int timeout = super.determineTimeout(definition);
+      RequestDeadline deadline = RequestDeadline.current();
+      if (deadline == null) {
+        return timeout;
+      }
+      deadline.checkNotCancelled();
+      int remaining = deadline.remainingSeconds();
+      return timeout == TransactionDefinition.TIMEOUT_DEFAULT
+          ? remaining
+          : Math.min(timeout, remaining);
+    }
+  }
+}
@@ -0,0 +1,306 @@
+package batistaReviver.studentApi.config;
+
+import batistaReviver.studentApi.model.UserApp;
+import batistaReviver.studentApi.repository.SubscriptionRepository;
+import batistaReviver.studentApi.service.JwtService;
+import batistaReviver.studentApi.service.StudentService;
+import batistaReviver.studentApi.util.Role;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms the application up before it reports ready.
+ *
+ * <p>Spring Boot only moves the readiness state to {@code ACCEPTING_TRAFFIC} once every {@link
+ * ApplicationRunner} has returned, so {@code /actuator/health/readiness} stays {@code
+ * OUT_OF_SERVICE} while this runner works through its steps:
+ *
+ * <ol>
+ *   <li>opens {@code connections} connections at once, filling the connection pool;
+ *   <li>samples a few IDs of each table and runs every {@link SubscriptionRepository} query with
+ *       them, so Hibernate parses and caches the query plans;
+ *   <li>primes the student dashboard cache for the sampled students;
+ *   <li>issues and parses JWTs;
+ *   <li>sends {@code requests} authenticated GET requests to {@code paths} on the local server,
+ *       which compiles the filter chain, the controllers and the Jackson serializers.
+ * </ol>
+ *
+ * <p>Each step is skipped once {@code max-duration-seconds} have elapsed, and failures are logged
+ * without failing the startup. Warm-up requests carry the {@value #WARM_UP_HEADER} header, so the
+ * traffic capture ignores them.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "api.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+  /** Header marking the requests sent by the warm-up. */
+  public static final String WARM_UP_HEADER = "X-Warm-Up";
+
+  private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final SubscriptionRepository subscriptionRepository;
+  private final StudentService studentService;
+  private final JwtService jwtService;
+  private final Environment environment;
+  private final Duration maxDuration;
+  private final int connections;
+  private final int sampleSize;
+  private final int requests;
+  private final int concurrency;
+  private final List<String> paths;
+
+  public WarmUpRunner(
+      DataSource dataSource,
+      JdbcTemplate jdbcTemplate,
+      SubscriptionRepository subscriptionRepository,
+      StudentService studentService,
+      JwtService jwtService,
+      Environment environment,
+      @Value("${api.warmup.max-duration-seconds:30}") long maxDurationSeconds,
+      @Value("${api.warmup.connections:10}") int connections,
+      @Value("${api.warmup.sample-size:20}") int sampleSize,
+      @Value("${api.warmup.requests:2000}") int requests,
+      @Value("${api.warmup.concurrency:4}") int concurrency,
+      @Value(
+              "${api.warmup.paths:/courses?fields=name,/courses/{courseId},"
+                  + "/study-classes/{studyClassId},/study-classes/course/{courseId},"
+                  + "/subscriptions?studyClassId={studyClassId},/students/{studentId},"
+                  + "/students/{studentId}/dashboard}")
+          List<String> paths) {
+    this.dataSource = dataSource;
+    this.jdbcTemplate = jdbcTemplate;
+    this.subscriptionRepository = subscriptionRepository;
+    this.studentService = studentService;
+    this.jwtService = jwtService;
+    this.environment = environment;
+    this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+    this.connections = connections;
+    this.sampleSize = sampleSize;
+    this.requests = requests;
+    this.concurrency = concurrency;
+    this.paths = paths;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long started = System.nanoTime();
+    long deadline = started + maxDuration.toNanos();
+    logger.info("Warm-up started; readiness is held until it completes.");
+
+    step("connection pool", deadline, this::fillConnectionPool);
+    Map<String, List<Long>> ids = new TreeMap<>();
+    step("ID sample", deadline, () -> sampleIds(ids));
+    step("repository queries", deadline, () -> runRepositoryQueries(ids, deadline));
+    step("dashboard cache", deadline, () -> primeDashboards(ids, deadline));
+    String token = jwtService.generateAccessToken(warmUpUser());
+    step("JWT", deadline, () -> parseTokens(token, deadline));
+    step("HTTP requests", deadline, () -> sendRequests(ids, token, deadline));
+
+    logger.info(
+        "Warm-up finished in {} ms{}.",
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+        System.nanoTime() > deadline ? " (time budget exhausted)" : "");
+  }
+
+  private void step(String name, long deadline, WarmUpStep step) {
+    if (System.nanoTime() > deadline) {
+      logger.info("Warm-up step '{}' skipped: time budget exhausted.", name);
+      return;
+    }
+    long started = System.nanoTime();
+    try {
+      step.run();
+      logger.info(
+          "Warm-up step '{}' done in {} ms.",
+          name,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    } catch (Exception e) {
+      logger.warn("Warm-up step '{}' failed: {}", name, e.toString());
+    }
+  }
+
+  /** Holds {@code connections} connections at once so the pool opens them all. */
+  private void fillConnectionPool() throws SQLException {
+    List<Connection> open = new ArrayList<>();
+    try {
+      for (int i = 0; i < connections; i++) {
+        Connection connection = dataSource.getConnection();
+        open.add(connection);
+        connection.isValid(1);
+      }
+    } finally {
+      for (Connection connection : open) {
+        connection.close();
+      }
+    }
+  }
+
+  private void sampleIds(Map<String, List<Long>> ids) {
+    ids.put("studentId", sample("students"));
+    ids.put("studyClassId", sample("study_classes"));
+    ids.put("courseId", sample("courses"));
+    ids.put("professorId", sample("professors"));
+  }
+
+  private List<Long> sample(String table) {
+    return jdbcTemplate.queryForList(
+        "SELECT id FROM " + table + " ORDER BY id LIMIT ?", Long.class, sampleSize);
+  }
+
+  private void runRepositoryQueries(Map<String, List<Long>> ids, long deadline) {
+    List<Long> students = ids.get("studentId");
+    List<Long> classes = ids.get("studyClassId");
+    for (int i = 0; i < Math.max(students.size(), classes.size()); i++) {
+      if (System.nanoTime() > deadline) {
+        return;
+      }
+      Long studentId = students.isEmpty() ? 0L : students.get(i % students.size());
+      Long classId = classes.isEmpty() ? 0L : classes.get(i % classes.size());
+      subscriptionRepository.findHistoryByStudentId(studentId);
+      subscriptionRepository.findByStudyClassId(classId);
+      subscriptionRepository.countByStudyClassId(classId);
+      subscriptionRepository.existsByStudentIdAndStudyClassId(studentId, classId);
+      subscriptionRepository.existsByStudentId(studentId);
+      subscriptionRepository.existsByStudyClassId(classId);
+    }
+  }
+
+  private void primeDashboards(Map<String, List<Long>> ids, long deadline) {
+    for (Long studentId : ids.get("studentId")) {
+      if (System.nanoTime() > deadline) {
+        return;
+      }
+      studentService.getDashboard(studentId);
+    }
+  }
+
+  private void parseTokens(String token, long deadline) {
+    for (int i = 0; i < 1_000 && System.nanoTime() < deadline; i++) {
+      jwtService.validateOrThrow(token);
+      jwtService.getUserIdFromToken(token);
+      jwtService.getRoleFromToken(token);
+    }
+  }
+
+  /** Sends GET requests round-robin over the paths whose placeholders have sampled IDs. */
+  private void sendRequests(Map<String, List<Long>> ids, String token, long deadline)
+      throws Exception {
+    String port = environment.getProperty("local.server.port");
+    if (port == null) {
+      logger.info("Warm-up requests skipped: no web server is running.");
+      return;
+    }
+    String base =
+        "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+    List<LongFunction<String>> targets = new ArrayList<>();
+    for (String path : paths) {
+      if (ids.entrySet().stream()
+          .noneMatch(e -> path.contains("{" + e.getKey() + "}") && e.getValue().isEmpty())) {
+        targets.add(n -> expand(path, ids, n));
+      }
+    }
+    if (targets.isEmpty()) {
+      return;
+    }
+
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    AtomicInteger sent = new AtomicInteger();
+    Map<Integer, AtomicInteger> statuses = new TreeMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, concurrency));
+    try {
+      List<Future<?>> workers = new ArrayList<>();
+      for (int w = 0; w < concurrency; w++) {
+        workers.add(
+            executor.submit(
+                () -> {
+                  for (int n = sent.getAndIncrement();
+                      n < requests && System.nanoTime() < deadline;
+                      n = sent.getAndIncrement()) {
+                    String path = targets.get(n % targets.size()).apply(n / targets.size());
+                    HttpRequest request =
+                        HttpRequest.newBuilder(URI.create(base + path))
+                            .timeout(Duration.ofSeconds(10))
+                            .header("Authorization", "Bearer " + token)
+                            .header(WARM_UP_HEADER, "true")
+                            .GET()
+                            .build();
+                    int status =
+                        client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    synchronized (statuses) {
+                      statuses
+                          .computeIfAbsent(status, key -> new AtomicInteger())
+                          .incrementAndGet();
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    logger.info("Warm-up requests by status: {}", statuses);
+  }
+
+  /** Replaces each placeholder with the {@code n}-th sampled ID, cycling through the sample. */
+  private static String expand(String path, Map<String, List<Long>> ids, long n) {
+    String expanded = path;
+    for (Map.Entry<String, List<Long>> entry : ids.entrySet()) {
+      List<Long> values = entry.getValue();
+      if (!values.isEmpty()) {
+        expanded =
+            expanded.replace(
+                "{" + entry.getKey() + "}", values.get((int) (n % values.size())).toString());
+      }
+    }
+    return expanded;
+  }
+
+  /** A user that only exists in the warm-up token; the JWT filter does not look users up. */
+  private static UserApp warmUpUser() {
+    UserApp user = new UserApp("Warm-up", "warmup@studysystem.local", "", Role.USER);
+    user.setId(0L);
+    return user;
+  }
+
+  @FunctionalInterface
+  private interface WarmUpStep {
+    void run() throws Exception;
+  }
+}
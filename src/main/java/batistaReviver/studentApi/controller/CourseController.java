@@ -2,6 +2,7 @@ package batistaReviver.studentApi.controller;
 
 import batistaReviver.studentApi.model.Course;
 import batistaReviver.studentApi.service.CourseService;
+import batistaReviver.studentApi.util.SparseFields;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -24,13 +25,28 @@ public class CourseController {
   private final CourseService courseService;
 
   /**
-   * Handles HTTP GET requests to retrieve all courses.
+   * Handles HTTP GET requests to retrieve all courses, or only the courses with the given IDs.
    *
-   * @return A {@link ResponseEntity} containing a list of all {@link Course} entities and an OK
-   *     status.
+   * @param ids Optional list of course IDs (e.g. "1,2,3") to fetch in a single request.
+   * @param fields Optional comma-separated list of fields to return (e.g. "id,name").
+   * @return A {@link ResponseEntity} containing a list of all {@link Course} entities, or only the
+   *     requested fields of each course, and an OK status. With {@code ids}, a {@link
+   *     batistaReviver.studentApi.dto.BatchResponse} that also lists the IDs not found.
    */
   @GetMapping
-  public ResponseEntity<List<Course>> getAllCourses() {
+  public ResponseEntity<?> getAllCourses(
+      @RequestParam(required = false) List<Long> ids,
+      @RequestParam(required = false) String fields) {
+    if (ids != null) {
+      return ResponseEntity.ok(
+          SparseFields.isRequested(fields)
+              ? courseService.getCoursesByIds(ids, SparseFields.select(fields, SparseFields.COURSE))
+              : courseService.getCoursesByIds(ids));
+    }
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          courseService.getAllCourses(SparseFields.select(fields, SparseFields.COURSE)));
+    }
     List<Course> courses = courseService.getAllCourses();
     return ResponseEntity.ok(courses);
   }
@@ -39,11 +55,17 @@ public class CourseController {
    * Handles HTTP GET requests to retrieve a single course by its ID.
    *
    * @param id The ID of the course to retrieve.
+   * @param fields Optional comma-separated list of fields to return.
    * @return A {@link ResponseEntity} containing the found {@link Course} and an OK status. If not
    *     found, an exception will be thrown and handled globally.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
+  public ResponseEntity<?> getCourseById(
+      @PathVariable Long id, @RequestParam(required = false) String fields) {
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          courseService.getCourseById(id, SparseFields.select(fields, SparseFields.COURSE)));
+    }
     Course course = courseService.getCourseById(id);
     return ResponseEntity.ok(course);
   }
@@ -0,0 +1,144 @@
+package batistaReviver.studentApi.controller;
+
+import batistaReviver.studentApi.dto.JobDto;
+import batistaReviver.studentApi.jobs.JobService;
+import batistaReviver.studentApi.util.FileDownload;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for background jobs, such as term exports and bulk imports. Restricted to ADMIN
+ * users.
+ *
+ * <p>A submission answers {@code 202 Accepted} with the queued job at once; its progress is polled
+ * with {@code GET /manage/jobs/{id}} and its result downloaded from {@code
+ * /manage/jobs/{id}/result} once it has succeeded.
+ */
+@RestController
+@RequestMapping("/manage/jobs")
+@RequiredArgsConstructor
+public class JobController {
+
+  private final JobService jobService;
+
+  /**
+   * DTO for submitting a job without an input.
+   *
+   * @param type The type of the job, e.g. {@code subscription-export}.
+   * @param parameters The parameters of the job, e.g. {@code "year": "2025"} (optional).
+   */
+  public record SubmitJobRequest(String type, Map<String, String> parameters) {}
+
+  /**
+   * Handles HTTP POST requests to submit a job without an input.
+   *
+   * @param request A {@link SubmitJobRequest} with the type and parameters of the job.
+   * @return A {@link ResponseEntity} containing the queued {@link JobDto} and an ACCEPTED status.
+   */
+  @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<JobDto> submitJob(@RequestBody SubmitJobRequest request) {
+    return new ResponseEntity<>(
+        jobService.submit(request.type(), request.parameters()), HttpStatus.ACCEPTED);
+  }
+
+  /**
+   * Handles HTTP POST requests to submit a job with a CSV input, such as {@code student-import}.
+   * The request body is streamed to disk before the job is queued.
+   *
+   * @param type The type of the job.
+   * @param parameters The other query parameters, passed to the job as its parameters.
+   * @param request The HTTP request whose body is the input of the job.
+   * @return A {@link ResponseEntity} containing the queued {@link JobDto} and an ACCEPTED status.
+   * @throws IOException if the request body cannot be read.
+   */
+  @PostMapping(consumes = "text/csv")
+  public ResponseEntity<JobDto> submitJobWithInput(
+      @RequestParam String type,
+      @RequestParam Map<String, String> parameters,
+      HttpServletRequest request)
+      throws IOException {
+    Map<String, String> jobParameters = new HashMap<>(parameters);
+    jobParameters.remove("type");
+    return new ResponseEntity<>(
+        jobService.submit(type, jobParameters, request.getInputStream()), HttpStatus.ACCEPTED);
+  }
+
+  /**
+   * Handles HTTP GET requests to list the jobs.
+   *
+   * @return A {@link ResponseEntity} containing the {@link JobDto}s, newest first, and an OK
+   *     status.
+   */
+  @GetMapping
+  public ResponseEntity<List<JobDto>> getJobs() {
+    return ResponseEntity.ok(jobService.list());
+  }
+
+  /**
+   * Handles HTTP GET requests to retrieve a job and its progress.
+   *
+   * @param id The ID of the job.
+   * @return A {@link ResponseEntity} containing the {@link JobDto} and an OK status.
+   */
+  @GetMapping("/{id}")
+  public ResponseEntity<JobDto> getJob(@PathVariable long id) {
+    return ResponseEntity.ok(jobService.get(id));
+  }
+
+  /**
+   * Handles HTTP POST requests to cancel a job. A running job stops at its next checkpoint.
+   *
+   * @param id The ID of the job.
+   * @return A {@link ResponseEntity} containing the {@link JobDto} and an OK status.
+   */
+  @PostMapping("/{id}/cancel")
+  public ResponseEntity<JobDto> cancelJob(@PathVariable long id) {
+    return ResponseEntity.ok(jobService.cancel(id));
+  }
+
+  /**
+   * Handles HTTP GET requests to download the result of a job that succeeded. The file is sent with
+   * zero-copy {@code FileChannel.transferTo}.
+   *
+   * @param id The ID of the job.
+   * @param request The HTTP request.
+   * @param response The HTTP response the file is written to.
+   * @throws IOException if the file cannot be sent.
+   */
+  @GetMapping("/{id}/result")
+  public void downloadResult(
+      @PathVariable long id, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    JobDto job = jobService.get(id);
+    FileDownload.send(
+        request, response, jobService.result(id), "text/csv", job.type() + "-" + id + ".csv");
+  }
+
+  /**
+   * Handles HTTP DELETE requests to delete a finished job and its files.
+   *
+   * @param id The ID of the job.
+   * @return A {@link ResponseEntity} with NO_CONTENT status.
+   */
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> deleteJob(@PathVariable long id) {
+    jobService.delete(id);
+    return ResponseEntity.noContent().build();
+  }
+}
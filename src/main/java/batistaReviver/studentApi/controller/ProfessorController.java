@@ -2,6 +2,7 @@ package batistaReviver.studentApi.controller;
 
 import batistaReviver.studentApi.model.Professor;
 import batistaReviver.studentApi.service.ProfessorService;
+import batistaReviver.studentApi.util.SparseFields;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -36,13 +37,30 @@ public class ProfessorController {
   }
 
   /**
-   * Handles HTTP GET requests to retrieve all professors.
+   * Handles HTTP GET requests to retrieve all professors, or only the professors with the given
+   * IDs.
    *
-   * @return A {@link ResponseEntity} containing a list of all {@link Professor} entities and an OK
-   *     status.
+   * @param ids Optional list of professor IDs (e.g. "1,2,3") to fetch in a single request.
+   * @param fields Optional comma-separated list of fields to return (e.g. "id,name").
+   * @return A {@link ResponseEntity} containing a list of all {@link Professor} entities, or only
+   *     the requested fields of each professor, and an OK status. With {@code ids}, a {@link
+   *     batistaReviver.studentApi.dto.BatchResponse} that also lists the IDs not found.
    */
   @GetMapping
-  public ResponseEntity<List<Professor>> getAllProfessors() {
+  public ResponseEntity<?> getAllProfessors(
+      @RequestParam(required = false) List<Long> ids,
+      @RequestParam(required = false) String fields) {
+    if (ids != null) {
+      return ResponseEntity.ok(
+          SparseFields.isRequested(fields)
+              ? professorService.getProfessorsByIds(
+                  ids, SparseFields.select(fields, SparseFields.PROFESSOR))
+              : professorService.getProfessorsByIds(ids));
+    }
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          professorService.getAllProfessors(SparseFields.select(fields, SparseFields.PROFESSOR)));
+    }
     return ResponseEntity.ok(professorService.getAllProfessors());
   }
 
@@ -50,10 +68,17 @@ public class ProfessorController {
    * Handles HTTP GET requests to retrieve a single professor by their ID.
    *
    * @param id The ID of the professor to retrieve.
+   * @param fields Optional comma-separated list of fields to return.
    * @return A {@link ResponseEntity} containing the found {@link Professor} and an OK status.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<Professor> getProfessorById(@PathVariable Long id) {
+  public ResponseEntity<?> getProfessorById(
+      @PathVariable Long id, @RequestParam(required = false) String fields) {
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          professorService.getProfessorById(
+              id, SparseFields.select(fields, SparseFields.PROFESSOR)));
+    }
     return ResponseEntity.ok(professorService.getProfessorById(id));
   }
 
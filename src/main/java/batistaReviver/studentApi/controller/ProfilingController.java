@@ -0,0 +1,147 @@
+package batistaReviver.studentApi.controller;
+
+import batistaReviver.studentApi.diagnostics.FlightRecorderService;
+import batistaReviver.studentApi.diagnostics.LiveProfiler;
+import batistaReviver.studentApi.dto.ProfilingSummaryDto;
+import batistaReviver.studentApi.dto.RecordingDto;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for on-demand JDK Flight Recorder profiling. Restricted to ADMIN users.
+ *
+ * <p>Recordings can be started with chosen settings, stopped and downloaded as {@code .jfr} files
+ * (to open in JDK Mission Control); a live summary of hot methods, allocations and lock contention
+ * can be collected without downloading anything.
+ */
+@RestController
+@RequestMapping("/manage/profiling")
+@RequiredArgsConstructor
+public class ProfilingController {
+
+  private final FlightRecorderService flightRecorderService;
+  private final LiveProfiler liveProfiler;
+
+  /**
+   * DTO for starting a recording.
+   *
+   * @param name A name for the recording (optional).
+   * @param settings The base JFR settings: {@code default} or {@code profile} (optional).
+   * @param overrides Event settings to apply on top, e.g. {@code
+   *     "jdk.ObjectAllocationSample#throttle": "500/s"} (optional).
+   * @param durationSeconds After how long the recording stops by itself (optional).
+   */
+  public record StartRecordingRequest(
+      String name, String settings, Map<String, String> overrides, Long durationSeconds) {}
+
+  /**
+   * Handles HTTP POST requests to start a recording.
+   *
+   * @param request A {@link StartRecordingRequest} with the recording options.
+   * @return A {@link ResponseEntity} containing the started {@link RecordingDto} and a CREATED
+   *     status.
+   */
+  @PostMapping("/recordings")
+  public ResponseEntity<RecordingDto> startRecording(@RequestBody StartRecordingRequest request) {
+    return new ResponseEntity<>(
+        flightRecorderService.start(
+            request.name(), request.settings(), request.overrides(), request.durationSeconds()),
+        HttpStatus.CREATED);
+  }
+
+  /**
+   * Handles HTTP GET requests to list the recordings.
+   *
+   * @return A {@link ResponseEntity} containing the {@link RecordingDto}s and an OK status.
+   */
+  @GetMapping("/recordings")
+  public ResponseEntity<List<RecordingDto>> getRecordings() {
+    return ResponseEntity.ok(flightRecorderService.list());
+  }
+
+  /**
+   * Handles HTTP GET requests to retrieve a recording.
+   *
+   * @param id The ID of the recording.
+   * @return A {@link ResponseEntity} containing the {@link RecordingDto} and an OK status.
+   */
+  @GetMapping("/recordings/{id}")
+  public ResponseEntity<RecordingDto> getRecording(@PathVariable long id) {
+    return ResponseEntity.ok(flightRecorderService.get(id));
+  }
+
+  /**
+   * Handles HTTP POST requests to stop a recording.
+   *
+   * @param id The ID of the recording.
+   * @return A {@link ResponseEntity} containing the stopped {@link RecordingDto} and an OK status.
+   */
+  @PostMapping("/recordings/{id}/stop")
+  public ResponseEntity<RecordingDto> stopRecording(@PathVariable long id) {
+    return ResponseEntity.ok(flightRecorderService.stop(id));
+  }
+
+  /**
+   * Handles HTTP GET requests to download the {@code .jfr} file of a recording. A running recording
+   * is downloaded as a snapshot of the data recorded so far.
+   *
+   * @param id The ID of the recording.
+   * @return A {@link ResponseEntity} streaming the file.
+   */
+  @GetMapping("/recordings/{id}/file")
+  public ResponseEntity<Resource> downloadRecording(@PathVariable long id) {
+    Path file = flightRecorderService.file(id);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename(file.getFileName().toString())
+                .build()
+                .toString())
+        .body(new FileSystemResource(file));
+  }
+
+  /**
+   * Handles HTTP DELETE requests to delete a recording and its files.
+   *
+   * @param id The ID of the recording.
+   * @return A {@link ResponseEntity} with NO_CONTENT status.
+   */
+  @DeleteMapping("/recordings/{id}")
+  public ResponseEntity<Void> deleteRecording(@PathVariable long id) {
+    flightRecorderService.delete(id);
+    return ResponseEntity.noContent().build();
+  }
+
+  /**
+   * Handles HTTP GET requests for a live profiling summary. The response is sent once the events
+   * have been collected.
+   *
+   * @param seconds How long to collect events.
+   * @param top The number of entries in each list.
+   * @return A {@link ResponseEntity} containing the {@link ProfilingSummaryDto} and an OK status.
+   */
+  @GetMapping("/summary")
+  public ResponseEntity<ProfilingSummaryDto> getSummary(
+      @RequestParam(defaultValue = "10") long seconds, @RequestParam(defaultValue = "20") int top) {
+    return ResponseEntity.ok(liveProfiler.summarize(seconds, top));
+  }
+}
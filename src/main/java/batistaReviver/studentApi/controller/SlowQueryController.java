@@ -0,0 +1,52 @@
+package batistaReviver.studentApi.controller;
+
+import batistaReviver.studentApi.diagnostics.SlowQueryStatistics;
+import batistaReviver.studentApi.dto.SlowQueryShapeDto;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the statement shapes that take the most time. Restricted to ADMIN users.
+ */
+@RestController
+@RequestMapping("/manage/slow-queries")
+@RequiredArgsConstructor
+public class SlowQueryController {
+
+  private static final int MAX_LIMIT = 1000;
+
+  private final SlowQueryStatistics slowQueryStatistics;
+
+  /**
+   * Handles HTTP GET requests to retrieve the slowest statement shapes.
+   *
+   * @param limit The number of shapes to return (at most 1000).
+   * @param sort The order, always descending: {@code max} (slowest execution), {@code total},
+   *     {@code mean}, {@code count} or {@code slow} (executions above the threshold).
+   * @return A {@link ResponseEntity} containing the top {@link SlowQueryShapeDto}s and an OK
+   *     status.
+   */
+  @GetMapping
+  public ResponseEntity<List<SlowQueryShapeDto>> getSlowQueries(
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(defaultValue = "max") String sort) {
+    return ResponseEntity.ok(slowQueryStatistics.top(Math.min(limit, MAX_LIMIT), sort));
+  }
+
+  /**
+   * Handles HTTP DELETE requests to reset the statement statistics.
+   *
+   * @return A {@link ResponseEntity} with NO_CONTENT status.
+   */
+  @DeleteMapping
+  public ResponseEntity<Void> resetSlowQueries() {
+    slowQueryStatistics.reset();
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -1,7 +1,9 @@
 package batistaReviver.studentApi.controller;
 
+import batistaReviver.studentApi.dto.StudentDashboardDto;
 import batistaReviver.studentApi.model.Student;
 import batistaReviver.studentApi.service.StudentService;
+import batistaReviver.studentApi.util.SparseFields;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -22,28 +24,65 @@ public class StudentController {
   private final StudentService studentService;
 
   /**
-   * Retrieves a list of all students.
+   * Retrieves a list of all students, or only the students with the given IDs.
    *
-   * @return A list of all {@link Student} entities.
+   * @param ids Optional list of student IDs (e.g. "1,2,3") to fetch in a single request.
+   * @param fields Optional comma-separated list of fields to return (e.g. "id,name").
+   * @return A {@link ResponseEntity} containing all {@link Student} entities, or only the requested
+   *     fields of each student. With {@code ids}, a {@link
+   *     batistaReviver.studentApi.dto.BatchResponse} that also lists the IDs not found.
    */
   @GetMapping
-  public List<Student> getAllStudents() {
-    return studentService.getAllStudents();
+  public ResponseEntity<?> getAllStudents(
+      @RequestParam(required = false) List<Long> ids,
+      @RequestParam(required = false) String fields) {
+    if (ids != null) {
+      return ResponseEntity.ok(
+          SparseFields.isRequested(fields)
+              ? studentService.getStudentsByIds(
+                  ids, SparseFields.select(fields, SparseFields.STUDENT))
+              : studentService.getStudentsByIds(ids));
+    }
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          studentService.getAllStudents(SparseFields.select(fields, SparseFields.STUDENT)));
+    }
+    return ResponseEntity.ok(studentService.getAllStudents());
   }
 
   /**
    * Retrieves a specific student by their ID.
    *
    * @param id The ID of the student to retrieve.
+   * @param fields Optional comma-separated list of fields to return.
    * @return A {@link ResponseEntity} containing the student if found.
    * @throws batistaReviver.studentApi.exception.EntityNotFoundException if the student is not
    *     found.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<Student> getStudentById(@PathVariable Long id) {
+  public ResponseEntity<?> getStudentById(
+      @PathVariable Long id, @RequestParam(required = false) String fields) {
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          studentService.getStudentById(id, SparseFields.select(fields, SparseFields.STUDENT)));
+    }
     return ResponseEntity.ok(studentService.getStudentById(id));
   }
 
+  /**
+   * Retrieves the dashboard of a student: the student together with every class they are enrolled
+   * in, including course and professor names.
+   *
+   * @param id The ID of the student.
+   * @return A {@link ResponseEntity} containing the {@link StudentDashboardDto}.
+   * @throws batistaReviver.studentApi.exception.EntityNotFoundException if the student is not
+   *     found.
+   */
+  @GetMapping("/{id}/dashboard")
+  public ResponseEntity<StudentDashboardDto> getStudentDashboard(@PathVariable Long id) {
+    return ResponseEntity.ok(studentService.getDashboard(id));
+  }
+
   /**
    * Create a new student.
    *
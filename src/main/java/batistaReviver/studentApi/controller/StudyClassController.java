@@ -1,10 +1,12 @@
 package batistaReviver.studentApi.controller;
 
 import batistaReviver.studentApi.dto.StudyClassDto;
+import batistaReviver.studentApi.metrics.StatementBudget;
 import batistaReviver.studentApi.model.StudyClass;
 import batistaReviver.studentApi.service.StudyClassService;
+import batistaReviver.studentApi.util.SparseFields;
 import jakarta.validation.Valid;
-import java.util.List; // Import List
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,20 +26,42 @@ public class StudyClassController {
 
   private final StudyClassService studyClassService;
 
-  /** DTO for creating a new StudyClass. */
-  public record CreateStudyClassRequest(int year, int semester, Long courseId, Long professorId) {}
+  /** DTO for creating a new StudyClass. The capacity is optional (null means unlimited). */
+  public record CreateStudyClassRequest(
+      int year, int semester, Long courseId, Long professorId, Integer capacity) {}
+
+  /** DTO for changing the capacity of a StudyClass (null means unlimited). */
+  public record UpdateCapacityRequest(Integer capacity) {}
 
   /** DTO for assigning a professor to a StudyClass. */
   public record AssignProfessorRequest(Long professorId) {}
 
   /**
-   * Handles HTTP GET requests to retrieve all study classes.
+   * Handles HTTP GET requests to retrieve all study classes, or only the classes with the given
+   * IDs.
    *
-   * @return A {@link ResponseEntity} containing a list of all {@link StudyClassDto} objects and an
-   *     OK status.
+   * @param ids Optional list of class IDs (e.g. "1,2,3") to fetch in a single request.
+   * @param fields Optional comma-separated list of fields to return (e.g. "id,classCode").
+   * @return A {@link ResponseEntity} containing a list of all {@link StudyClassDto} objects, or
+   *     only the requested fields of each class, and an OK status. With {@code ids}, a {@link
+   *     batistaReviver.studentApi.dto.BatchResponse} that also lists the IDs not found.
    */
   @GetMapping
-  public ResponseEntity<List<StudyClassDto>> getAllStudyClasses() {
+  public ResponseEntity<?> getAllStudyClasses(
+      @RequestParam(required = false) List<Long> ids,
+      @RequestParam(required = false) String fields) {
+    if (ids != null) {
+      return ResponseEntity.ok(
+          SparseFields.isRequested(fields)
+              ? studyClassService.getStudyClassesByIds(
+                  ids, SparseFields.select(fields, SparseFields.STUDY_CLASS))
+              : studyClassService.getStudyClassesByIds(ids));
+    }
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          studyClassService.getAllStudyClasses(
+              SparseFields.select(fields, SparseFields.STUDY_CLASS)));
+    }
     return ResponseEntity.ok(studyClassService.getAllStudyClasses());
   }
 
@@ -45,11 +69,18 @@ public class StudyClassController {
    * Handles HTTP GET requests to retrieve all study classes for a specific course.
    *
    * @param courseId The ID of the course to filter classes by.
+   * @param fields Optional comma-separated list of fields to return.
    * @return A {@link ResponseEntity} containing a list of {@link StudyClassDto} objects and an OK
    *     status.
    */
   @GetMapping("/course/{courseId}")
-  public ResponseEntity<List<StudyClassDto>> findStudyClassesByCourse(@PathVariable Long courseId) {
+  public ResponseEntity<?> findStudyClassesByCourse(
+      @PathVariable Long courseId, @RequestParam(required = false) String fields) {
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          studyClassService.getClassesByCourse(
+              courseId, SparseFields.select(fields, SparseFields.STUDY_CLASS)));
+    }
     return ResponseEntity.ok(studyClassService.getClassesByCourse(courseId));
   }
 
@@ -57,12 +88,18 @@ public class StudyClassController {
    * Handles HTTP GET requests to retrieve all study classes taught by a specific professor.
    *
    * @param professorId The ID of the professor to filter classes by.
+   * @param fields Optional comma-separated list of fields to return.
    * @return A {@link ResponseEntity} containing a list of {@link StudyClassDto} objects and an OK
    *     status.
    */
   @GetMapping("/professor/{professorId}")
-  public ResponseEntity<List<StudyClassDto>> findStudyClassesByProfessor(
-      @PathVariable Long professorId) {
+  public ResponseEntity<?> findStudyClassesByProfessor(
+      @PathVariable Long professorId, @RequestParam(required = false) String fields) {
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          studyClassService.getClassesByProfessor(
+              professorId, SparseFields.select(fields, SparseFields.STUDY_CLASS)));
+    }
     return ResponseEntity.ok(studyClassService.getClassesByProfessor(professorId));
   }
 
@@ -70,10 +107,18 @@ public class StudyClassController {
    * Handles HTTP GET requests to retrieve a single study class by its ID.
    *
    * @param id The ID of the study class to retrieve.
+   * @param fields Optional comma-separated list of fields to return.
    * @return A {@link ResponseEntity} containing the found {@link StudyClassDto} and an OK status.
    */
   @GetMapping("/{id}")
-  public ResponseEntity<StudyClassDto> getStudyClassById(@PathVariable Long id) {
+  @StatementBudget(3)
+  public ResponseEntity<?> getStudyClassById(
+      @PathVariable Long id, @RequestParam(required = false) String fields) {
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          studyClassService.getStudyClassById(
+              id, SparseFields.select(fields, SparseFields.STUDY_CLASS)));
+    }
     StudyClassDto studyClass = studyClassService.getStudyClassById(id);
     return ResponseEntity.ok(studyClass);
   }
@@ -91,7 +136,11 @@ public class StudyClassController {
       @Valid @RequestBody CreateStudyClassRequest request) {
     StudyClassDto createdClass =
         studyClassService.createStudyClass(
-            request.year(), request.semester(), request.courseId(), request.professorId());
+            request.year(),
+            request.semester(),
+            request.courseId(),
+            request.professorId(),
+            request.capacity());
     return new ResponseEntity<>(createdClass, HttpStatus.CREATED);
   }
 
@@ -109,6 +158,19 @@ public class StudyClassController {
     return ResponseEntity.ok(updatedClass);
   }
 
+  /**
+   * Handles HTTP PUT requests to change the capacity of a study class.
+   *
+   * @param classId The ID of the study class.
+   * @param request A {@link UpdateCapacityRequest} containing the new capacity.
+   * @return A {@link ResponseEntity} containing the updated {@link StudyClassDto} and an OK status.
+   */
+  @PutMapping("/{classId}/capacity")
+  public ResponseEntity<StudyClassDto> updateCapacity(
+      @PathVariable Long classId, @RequestBody UpdateCapacityRequest request) {
+    return ResponseEntity.ok(studyClassService.updateCapacity(classId, request.capacity()));
+  }
+
   /**
    * Handles HTTP DELETE requests to unassign a professor from a study class.
    *
@@ -1,10 +1,18 @@
 package batistaReviver.studentApi.controller;
 
+import batistaReviver.studentApi.dto.EnrollmentTicketDto;
 import batistaReviver.studentApi.dto.SubscriptionDto;
+import batistaReviver.studentApi.dto.WaitlistEntryDto;
+import batistaReviver.studentApi.exception.EntityNotFoundException;
+import batistaReviver.studentApi.exception.StudyClassFullException;
+import batistaReviver.studentApi.metrics.StatementBudget;
 import batistaReviver.studentApi.model.Subscription;
+import batistaReviver.studentApi.service.EnrollmentQueue;
 import batistaReviver.studentApi.service.SubscriptionService;
+import batistaReviver.studentApi.service.WaitlistService;
+import batistaReviver.studentApi.util.SparseFields;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,6 +32,10 @@ import org.springframework.web.bind.annotation.*;
 public class SubscriptionController {
 
   private final SubscriptionService subscriptionService;
+  private final WaitlistService waitlistService;
+
+  /** Present only when {@code api.enrollment.write-behind.enabled} is true. */
+  private final Optional<EnrollmentQueue> enrollmentQueue;
 
   /** DTO for creating a new Subscription. */
   public record CreateSubscriptionRequest(Long studentId, Long studyClassId) {}
@@ -34,13 +46,21 @@ public class SubscriptionController {
    *
    * @param studentId Optional ID of the student to filter subscriptions by.
    * @param studyClassId Optional ID of the study class to filter subscriptions by.
-   * @return A {@link ResponseEntity} containing a list of {@link SubscriptionDto} objects and an OK
-   *     status.
+   * @param fields Optional comma-separated list of fields to return (e.g. "studentName").
+   * @return A {@link ResponseEntity} containing a list of {@link SubscriptionDto} objects, or only
+   *     the requested fields of each subscription, and an OK status.
    */
   @GetMapping
-  public ResponseEntity<List<SubscriptionDto>> findSubscriptions(
+  public ResponseEntity<?> findSubscriptions(
       @RequestParam(required = false) Long studentId,
-      @RequestParam(required = false) Long studyClassId) {
+      @RequestParam(required = false) Long studyClassId,
+      @RequestParam(required = false) String fields) {
+
+    if (SparseFields.isRequested(fields)) {
+      return ResponseEntity.ok(
+          subscriptionService.findSubscriptions(
+              studentId, studyClassId, SparseFields.select(fields, SparseFields.SUBSCRIPTION)));
+    }
 
     // This single method now handles all GET cases for better flexibility.
     if (studentId != null) {
@@ -55,19 +75,49 @@ public class SubscriptionController {
   }
 
   /**
-   * Handles HTTP POST requests to create a new subscription.
+   * Handles HTTP POST requests to create a new subscription. If the class is full, the student
+   * joins its waitlist instead. In write-behind mode the subscription is only journaled, and is
+   * written to the database later.
    *
    * @param request A {@link CreateSubscriptionRequest} containing the IDs of the student and study
    *     class.
    * @return A {@link ResponseEntity} containing the newly created {@link SubscriptionDto} and a
-   *     CREATED status.
+   *     CREATED status, an {@link EnrollmentTicketDto} and an ACCEPTED status in write-behind mode,
+   *     or a {@link WaitlistEntryDto} and an ACCEPTED status if the class is full.
    */
   @PostMapping
-  public ResponseEntity<SubscriptionDto> createSubscription(
+  @StatementBudget(10)
+  public ResponseEntity<?> createSubscription(
       @Valid @RequestBody CreateSubscriptionRequest request) {
-    SubscriptionDto createdSubscription =
-        subscriptionService.createSubscription(request.studentId(), request.studyClassId());
-    return new ResponseEntity<>(createdSubscription, HttpStatus.CREATED);
+    try {
+      if (enrollmentQueue.isPresent()) {
+        EnrollmentTicketDto ticket =
+            enrollmentQueue.get().accept(request.studentId(), request.studyClassId());
+        return new ResponseEntity<>(ticket, HttpStatus.ACCEPTED);
+      }
+
+      SubscriptionDto createdSubscription =
+          subscriptionService.createSubscription(request.studentId(), request.studyClassId());
+      return new ResponseEntity<>(createdSubscription, HttpStatus.CREATED);
+    } catch (StudyClassFullException e) {
+      WaitlistEntryDto entry = waitlistService.join(request.studentId(), request.studyClassId());
+      return new ResponseEntity<>(entry, HttpStatus.ACCEPTED);
+    }
+  }
+
+  /**
+   * Handles HTTP GET requests to retrieve the status of an enrollment accepted in write-behind
+   * mode.
+   *
+   * @param ticketId The ID of the ticket returned when the enrollment was accepted.
+   * @return A {@link ResponseEntity} containing the {@link EnrollmentTicketDto} and an OK status.
+   */
+  @GetMapping("/tickets/{ticketId}")
+  public ResponseEntity<EnrollmentTicketDto> getTicket(@PathVariable String ticketId) {
+    EnrollmentQueue queue =
+        enrollmentQueue.orElseThrow(
+            () -> new EntityNotFoundException("Enrollment ticket " + ticketId + " not found."));
+    return ResponseEntity.ok(queue.getTicket(ticketId));
   }
 
   /**
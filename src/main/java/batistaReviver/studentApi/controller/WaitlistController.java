@@ -0,0 +1,67 @@
+package batistaReviver.studentApi.controller;
+
+import batistaReviver.studentApi.dto.WaitlistEntryDto;
+import batistaReviver.studentApi.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the waitlists of {@link batistaReviver.studentApi.model.StudyClass} entities.
+ *
+ * <p>Students join a waitlist automatically when they subscribe to a full class, or explicitly
+ * through this controller. The head of the waitlist is promoted when a seat is freed.
+ */
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/study-classes/{classId}/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+  private final WaitlistService waitlistService;
+
+  /** DTO for joining a waitlist. */
+  public record JoinWaitlistRequest(Long studentId) {}
+
+  /**
+   * Handles HTTP POST requests to add a student to the waitlist of a class.
+   *
+   * @param classId The ID of the study class.
+   * @param request A {@link JoinWaitlistRequest} containing the ID of the student.
+   * @return A {@link ResponseEntity} containing the {@link WaitlistEntryDto} and a CREATED status.
+   */
+  @PostMapping
+  public ResponseEntity<WaitlistEntryDto> joinWaitlist(
+      @PathVariable Long classId, @RequestBody JoinWaitlistRequest request) {
+    return new ResponseEntity<>(
+        waitlistService.join(request.studentId(), classId), HttpStatus.CREATED);
+  }
+
+  /**
+   * Handles HTTP GET requests to retrieve the position of a student in the waitlist of a class.
+   *
+   * @param classId The ID of the study class.
+   * @param studentId The ID of the student.
+   * @return A {@link ResponseEntity} containing the {@link WaitlistEntryDto} and an OK status.
+   */
+  @GetMapping("/{studentId}")
+  public ResponseEntity<WaitlistEntryDto> getPosition(
+      @PathVariable Long classId, @PathVariable Long studentId) {
+    return ResponseEntity.ok(waitlistService.getPosition(classId, studentId));
+  }
+
+  /**
+   * Handles HTTP DELETE requests to remove a student from the waitlist of a class.
+   *
+   * @param classId The ID of the study class.
+   * @param studentId The ID of the student.
+   * @return A {@link ResponseEntity} with NO_CONTENT status indicating successful removal.
+   */
+  @DeleteMapping("/{studentId}")
+  public ResponseEntity<Void> leaveWaitlist(
+      @PathVariable Long classId, @PathVariable Long studentId) {
+    waitlistService.leave(classId, studentId);
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -0,0 +1,540 @@
+package batistaReviver.studentApi.datagen;
+
+import batistaReviver.studentApi.util.AcademicTerm;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the schema with a large synthetic dataset when the {@code datagen} profile is active.
+ *
+ * <p>The dataset is a function of {@code api.datagen.seed} and the configured sizes: every table is
+ * split into fixed chunks, and each chunk draws from its own {@link SplittableRandom} seeded from
+ * the chunk index, so the rows do not depend on how many threads insert them.
+ *
+ * <ul>
+ *   <li>Unique columns (e-mail, phone, register, course name, class code) embed the row ID, so a
+ *       second run with {@code skip-if-present=false} appends without collisions.
+ *   <li>Study classes are spread over the {@code history-years} years up to {@code last-year}, two
+ *       semesters each.
+ *   <li>Every student is active for up to four years from a random start term and enrolls in
+ *       classes of their active terms. Within a term, classes are picked with a Zipf distribution
+ *       of exponent {@code popularity-skew}, so a few classes are very popular.
+ *   <li>A student never enrolls twice in the same class, honouring {@code
+ *       uk_subscription_student_class}.
+ *   <li>Class capacities are raised to at least the number of enrolled students, which leaves the
+ *       most popular classes full.
+ * </ul>
+ *
+ * <p>Runs before the {@link batistaReviver.studentApi.config.WarmUpRunner warm-up}, so the warm-up
+ * samples the generated rows.
+ *
+ * <p>Rows are written with explicit IDs, after the highest existing ID of each table, using JDBC
+ * batches that {@code rewriteBatchedStatements=true} turns into multi-row INSERTs.
+ */
+@Component
+@Profile("datagen")
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class DatasetGenerator implements ApplicationRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+  /** Rows per chunk; each chunk has its own random stream and is inserted by one thread. */
+  private static final int CHUNK_SIZE = 10_000;
+
+  /** Longest time a student stays enrolled, in semesters. */
+  private static final int MAX_ACTIVE_TERMS = 8;
+
+  private static final String[] FIRST_NAMES = {
+    "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique", "Isabela",
+    "João", "Larissa", "Lucas", "Mariana", "Matheus", "Natália", "Otávio", "Paula", "Rafael",
+    "Sofia", "Thiago", "Valentina", "Vinícius", "Yasmin", "Pedro", "Beatriz", "Gustavo", "Júlia",
+    "Leonardo", "Camila", "Rodrigo", "Fernanda", "Diego", "Amanda", "Samuel", "Letícia", "André"
+  };
+
+  private static final String[] LAST_NAMES = {
+    "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima",
+    "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes",
+    "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques",
+    "Machado", "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira"
+  };
+
+  private static final String[] SUBJECTS = {
+    "Calculus",
+    "Linear Algebra",
+    "Physics",
+    "Chemistry",
+    "Biology",
+    "Statistics",
+    "Algorithms",
+    "Data Structures",
+    "Databases",
+    "Operating Systems",
+    "Computer Networks",
+    "Software Engineering",
+    "Compilers",
+    "Machine Learning",
+    "Economics",
+    "Accounting",
+    "Marketing",
+    "Philosophy",
+    "History",
+    "Sociology",
+    "Psychology",
+    "Literature",
+    "Portuguese",
+    "English",
+    "Spanish",
+    "Law",
+    "Anatomy",
+    "Genetics",
+    "Ecology",
+    "Geology",
+    "Architecture",
+    "Music Theory",
+    "Graphic Design",
+    "Electronics",
+    "Thermodynamics",
+    "Fluid Mechanics"
+  };
+
+  private static final String[] WORDS = {
+    "introduction",
+    "to",
+    "the",
+    "fundamental",
+    "concepts",
+    "of",
+    "and",
+    "methods",
+    "applied",
+    "problems",
+    "theory",
+    "practice",
+    "laboratory",
+    "projects",
+    "students",
+    "will",
+    "study",
+    "analysis",
+    "design",
+    "modern",
+    "techniques",
+    "with",
+    "emphasis",
+    "on",
+    "case",
+    "studies",
+    "advanced",
+    "topics",
+    "including",
+    "research",
+    "seminars",
+    "assessment",
+    "by",
+    "exams"
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final long seed;
+  private final int students;
+  private final int professors;
+  private final int courses;
+  private final int studyClasses;
+  private final long subscriptions;
+  private final int lastYear;
+  private final int historyYears;
+  private final double popularitySkew;
+  private final int batchSize;
+  private final int threads;
+  private final boolean skipIfPresent;
+
+  public DatasetGenerator(
+      JdbcTemplate jdbcTemplate,
+      @Value("${api.datagen.seed:42}") long seed,
+      @Value("${api.datagen.students:1000000}") int students,
+      @Value("${api.datagen.professors:2000}") int professors,
+      @Value("${api.datagen.courses:1000}") int courses,
+      @Value("${api.datagen.study-classes:20000}") int studyClasses,
+      @Value("${api.datagen.subscriptions:20000000}") long subscriptions,
+      @Value("${api.datagen.last-year:2025}") int lastYear,
+      @Value("${api.datagen.history-years:5}") int historyYears,
+      @Value("${api.datagen.popularity-skew:0.8}") double popularitySkew,
+      @Value("${api.datagen.batch-size:5000}") int batchSize,
+      @Value("${api.datagen.threads:4}") int threads,
+      @Value("${api.datagen.skip-if-present:true}") boolean skipIfPresent) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.seed = seed;
+    this.students = students;
+    this.professors = professors;
+    this.courses = courses;
+    this.studyClasses = studyClasses;
+    this.subscriptions = subscriptions;
+    this.lastYear = lastYear;
+    this.historyYears = historyYears;
+    this.popularitySkew = popularitySkew;
+    this.batchSize = batchSize;
+    this.threads = threads;
+    this.skipIfPresent = skipIfPresent;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (skipIfPresent && count("students") > 0) {
+      logger.info("Dataset generation skipped: the students table is not empty.");
+      return;
+    }
+    long started = System.nanoTime();
+    logger.info(
+        "Generating dataset (seed {}): {} students, {} professors, {} courses, {} classes, ~{}"
+            + " subscriptions",
+        seed,
+        students,
+        professors,
+        courses,
+        studyClasses,
+        subscriptions);
+
+    long studentBase = maxId("students");
+    long professorBase = maxId("professors");
+    long courseBase = maxId("courses");
+    long classBase = maxId("study_classes");
+    // Archived subscriptions keep their IDs, so new ones must not reuse them.
+    long subscriptionBase = Math.max(maxId("subscriptions"), maxId("subscriptions_archive"));
+
+    insertPeople("students", "S", 31, studentBase, students, 1);
+    insertPeople("professors", "P", 11, professorBase, professors, 2);
+    insertCourses(courseBase);
+    Terms terms = insertStudyClasses(classBase, courseBase, professorBase);
+    long written = insertSubscriptions(studentBase, subscriptionBase, terms);
+    fillCapacities(classBase);
+
+    logger.info(
+        "Dataset generated in {} s: {} subscriptions written.",
+        (System.nanoTime() - started) / 1_000_000_000,
+        written);
+  }
+
+  /** Inserts students or professors; unique columns embed the row ID. */
+  private void insertPeople(
+      String table, String registerPrefix, int areaCode, long base, int rows, int stream)
+      throws Exception {
+    String sql = "INSERT INTO " + table + " (id, name, phone, email, register) VALUES (?,?,?,?,?)";
+    forEachChunk(
+        table,
+        rows,
+        stream,
+        (random, from, to) -> {
+          List<Object[]> batch = new ArrayList<>(batchSize);
+          for (long n = from; n < to; n++) {
+            long id = base + n + 1;
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String middle = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            batch.add(
+                new Object[] {
+                  id,
+                  first + " " + middle + " " + last,
+                  String.format("+55 %d 9%08d", areaCode, id),
+                  ascii(first + "." + last).toLowerCase() + "." + id + "@" + table + ".example.edu",
+                  String.format("%s%08d", registerPrefix, id)
+                });
+            batch = flush(sql, batch, false);
+          }
+          flush(sql, batch, true);
+        });
+  }
+
+  /** Inserts courses named after a subject and a level, with descriptions of varied length. */
+  private void insertCourses(long base) throws Exception {
+    String sql = "INSERT INTO courses (id, name, description) VALUES (?,?,?)";
+    forEachChunk(
+        "courses",
+        courses,
+        3,
+        (random, from, to) -> {
+          List<Object[]> batch = new ArrayList<>(batchSize);
+          for (long n = from; n < to; n++) {
+            long id = base + n + 1;
+            String name =
+                SUBJECTS[(int) (id % SUBJECTS.length)] + " " + (100 + id / SUBJECTS.length);
+            StringBuilder description = new StringBuilder(name).append(':');
+            int words = 30 + random.nextInt(400);
+            for (int w = 0; w < words; w++) {
+              description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            batch.add(new Object[] {id, name, description.append('.').toString()});
+            batch = flush(sql, batch, false);
+          }
+          flush(sql, batch, true);
+        });
+  }
+
+  /**
+   * Inserts study classes spread evenly over the terms of the history, and ranks the classes of
+   * each term by popularity.
+   */
+  private Terms insertStudyClasses(long base, long courseBase, long professorBase)
+      throws Exception {
+    Terms terms = new Terms(lastYear - historyYears + 1, historyYears * 2);
+    String sql =
+        "INSERT INTO study_classes (id, class_code, year, semester, capacity, course_id,"
+            + " professor_id, archived) VALUES (?,?,?,?,?,?,?,FALSE)";
+    forEachChunk(
+        "study_classes",
+        studyClasses,
+        4,
+        (random, from, to) -> {
+          List<Object[]> batch = new ArrayList<>(batchSize);
+          for (long n = from; n < to; n++) {
+            int term = terms.termOf(n, studyClasses);
+            long courseId = courseBase + 1 + random.nextInt(courses);
+            Long professorId =
+                random.nextInt(20) == 0 ? null : professorBase + 1 + random.nextInt(professors);
+            long id = base + n + 1;
+            batch.add(
+                new Object[] {
+                  id,
+                  String.format(
+                      "%s-%d.%d-%06d",
+                      ascii(SUBJECTS[(int) (courseId % SUBJECTS.length)])
+                          .substring(0, 3)
+                          .toUpperCase(),
+                      terms.year(term),
+                      terms.semester(term),
+                      id),
+                  terms.year(term),
+                  terms.semester(term),
+                  20 + random.nextInt(100),
+                  courseId,
+                  professorId
+                });
+            batch = flush(sql, batch, false);
+          }
+          flush(sql, batch, true);
+        });
+    terms.rank(base, studyClasses, popularitySkew, new SplittableRandom(seed ^ 5));
+    return terms;
+  }
+
+  /**
+   * Inserts subscriptions student by student. Each student enrolls in a number of classes around
+   * the configured average, picked from the terms they were active in.
+   */
+  private long insertSubscriptions(long studentBase, long base, Terms terms) throws Exception {
+    String sql =
+        "INSERT INTO subscriptions (id, date, student_id, study_class_id, term)"
+            + " VALUES (?,?,?,?,?)";
+    double average = students == 0 ? 0 : (double) subscriptions / students;
+    // Subscription IDs are reserved per chunk of students so they do not depend on scheduling.
+    long idsPerChunk = (long) Math.ceil(average * 2 * CHUNK_SIZE) + CHUNK_SIZE;
+    AtomicLong written = new AtomicLong();
+    forEachChunk(
+        "subscriptions",
+        students,
+        6,
+        (random, from, to) -> {
+          long nextId = base + (from / CHUNK_SIZE) * idsPerChunk + 1;
+          long lastId = nextId + idsPerChunk - 1;
+          List<Object[]> batch = new ArrayList<>(batchSize);
+          Set<Long> enrolled = new HashSet<>();
+          for (long n = from; n < to; n++) {
+            int firstTerm = random.nextInt(terms.count());
+            int activeTerms = Math.min(MAX_ACTIVE_TERMS, terms.count() - firstTerm);
+            int wanted = (int) Math.round(average * 2 * random.nextDouble());
+            enrolled.clear();
+            for (int attempt = 0; enrolled.size() < wanted && attempt < wanted * 3; attempt++) {
+              int term = firstTerm + random.nextInt(activeTerms);
+              long classId = terms.pick(term, random);
+              if (classId < 0 || !enrolled.add(classId) || nextId > lastId) {
+                continue;
+              }
+              batch.add(
+                  new Object[] {
+                    nextId++,
+                    Timestamp.valueOf(terms.enrollmentDate(term, random)),
+                    studentBase + n + 1,
+                    classId,
+                    AcademicTerm.of(terms.year(term), terms.semester(term))
+                  });
+              batch = flush(sql, batch, false);
+            }
+          }
+          written.addAndGet(nextId - (base + (from / CHUNK_SIZE) * idsPerChunk + 1));
+          flush(sql, batch, true);
+        });
+    return written.get();
+  }
+
+  /** Raises the capacity of every generated class to at least its number of subscriptions. */
+  private void fillCapacities(long classBase) {
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE study_classes c JOIN (SELECT study_class_id, COUNT(*) AS enrolled"
+                + " FROM subscriptions GROUP BY study_class_id) s ON s.study_class_id = c.id"
+                + " SET c.capacity = GREATEST(c.capacity, s.enrolled) WHERE c.id > ?",
+            classBase);
+    logger.info("Capacities adjusted for {} classes.", updated);
+  }
+
+  /** Splits {@code rows} into chunks and inserts them on {@code threads} threads. */
+  private void forEachChunk(String table, long rows, int stream, ChunkWriter writer)
+      throws Exception {
+    long started = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+    try {
+      List<Future<?>> chunks = new ArrayList<>();
+      for (long from = 0; from < rows; from += CHUNK_SIZE) {
+        long chunkFrom = from;
+        long chunkTo = Math.min(rows, from + CHUNK_SIZE);
+        SplittableRandom random =
+            new SplittableRandom(
+                seed ^ stream * 0x9E3779B97F4A7C15L ^ (from / CHUNK_SIZE) * 0xC2B2AE3D27D4EB4FL);
+        chunks.add(
+            executor.submit(
+                () -> {
+                  writer.write(random, chunkFrom, chunkTo);
+                  return null;
+                }));
+      }
+      for (Future<?> chunk : chunks) {
+        chunk.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    logger.info(
+        "{}: {} rows generated in {} ms", table, rows, (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /** Sends the batch once it is full (or when {@code last}), returning the batch to fill next. */
+  private List<Object[]> flush(String sql, List<Object[]> batch, boolean last) {
+    if (batch.isEmpty() || (!last && batch.size() < batchSize)) {
+      return batch;
+    }
+    jdbcTemplate.batchUpdate(sql, batch);
+    return new ArrayList<>(batchSize);
+  }
+
+  private long maxId(String table) {
+    Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+    return max == null ? 0 : max;
+  }
+
+  private long count(String table) {
+    Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    return count == null ? 0 : count;
+  }
+
+  /** Strips accents so generated e-mail addresses are plain ASCII. */
+  private static String ascii(String text) {
+    return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", "");
+  }
+
+  /** Writes the rows {@code [from, to)} of a chunk. */
+  @FunctionalInterface
+  private interface ChunkWriter {
+    void write(SplittableRandom random, long from, long to) throws Exception;
+  }
+
+  /**
+   * The terms (two semesters per year) of the history and the classes offered in each, with the
+   * cumulative Zipf weights used to pick a class.
+   */
+  private static final class Terms {
+
+    private final int firstYear;
+    private final long[][] classIds;
+    private final double[][] cumulativeWeights;
+
+    Terms(int firstYear, int count) {
+      this.firstYear = firstYear;
+      this.classIds = new long[count][];
+      this.cumulativeWeights = new double[count][];
+    }
+
+    int count() {
+      return classIds.length;
+    }
+
+    int year(int term) {
+      return firstYear + term / 2;
+    }
+
+    int semester(int term) {
+      return term % 2 + 1;
+    }
+
+    /** Class {@code n} of {@code total} belongs to term {@code n * terms / total}. */
+    int termOf(long n, long total) {
+      return (int) (n * count() / total);
+    }
+
+    /** Groups the classes by term and shuffles each term into a popularity ranking. */
+    void rank(long base, long total, double skew, SplittableRandom random) {
+      long[] perTerm = new long[count()];
+      for (long n = 0; n < total; n++) {
+        perTerm[termOf(n, total)]++;
+      }
+      long first = 0;
+      for (int term = 0; term < count(); term++) {
+        long[] ids = new long[(int) perTerm[term]];
+        for (int i = 0; i < ids.length; i++) {
+          ids[i] = base + first + i + 1;
+        }
+        first += ids.length;
+        for (int i = ids.length - 1; i > 0; i--) {
+          int j = random.nextInt(i + 1);
+          long swap = ids[i];
+          ids[i] = ids[j];
+          ids[j] = swap;
+        }
+        double[] cumulative = new double[ids.length];
+        double sum = 0;
+        for (int rank = 0; rank < ids.length; rank++) {
+          sum += 1 / Math.pow(rank + 1, skew);
+          cumulative[rank] = sum;
+        }
+        classIds[term] = ids;
+        cumulativeWeights[term] = cumulative;
+      }
+    }
+
+    /** Picks a class of the term, favouring the popular ones; -1 if the term has no classes. */
+    long pick(int term, SplittableRandom random) {
+      double[] cumulative = cumulativeWeights[term];
+      if (cumulative.length == 0) {
+        return -1;
+      }
+      double target = random.nextDouble() * cumulative[cumulative.length - 1];
+      int index = Arrays.binarySearch(cumulative, target);
+      return classIds[term][index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1)];
+    }
+
+    /** A moment in the four weeks before the term starts (February or August). */
+    LocalDateTime enrollmentDate(int term, SplittableRandom random) {
+      LocalDateTime start = LocalDateTime.of(year(term), semester(term) == 1 ? 2 : 8, 1, 0, 0);
+      return start.minusSeconds(random.nextLong(28L * 24 * 3600));
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package batistaReviver.studentApi.diagnostics;
+
+import java.util.Map;
+
+/**
+ * The sanitized shape of a request recorded by the traffic capture: enough to replay it, but no
+ * headers, tokens, secret-looking parameters or body contents.
+ *
+ * @param timestampMicros When the request arrived, in microseconds since the epoch.
+ * @param method The HTTP method.
+ * @param route The route template that matched (e.g. {@code /students/{id}}), or the raw path if no
+ *     route matched.
+ * @param handler The controller method that handled the request (e.g. {@code
+ *     StudentController.getStudentById}), or null if none did.
+ * @param pathVariables The values of the route template variables.
+ * @param query The query string without secret-looking parameters, or null.
+ * @param bodySize The length of the request body in bytes, or -1 if unknown.
+ * @param status The HTTP status of the response.
+ * @param durationMicros How long the application took to answer.
+ */
+public record CapturedRequest(
+    long timestampMicros,
+    String method,
+    String route,
+    String handler,
+    Map<String, String> pathVariables,
+    String query,
+    long bodySize,
+    int status,
+    long durationMicros) {
+
+  /**
+   * The path of the request, rebuilt from the route template and the path variables.
+   *
+   * @return The path, including the query string if any.
+   */
+  public String path() {
+    String path = route;
+    for (Map.Entry<String, String> variable : pathVariables.entrySet()) {
+      path = path.replace("{" + variable.getKey() + "}", variable.getValue());
+    }
+    return query == null ? path : path + "?" + query;
+  }
+
+  /**
+   * The name results are grouped by: the controller method, or the method and route when no
+   * controller handled the request.
+   *
+   * @return For example {@code StudentController.getStudentById}.
+   */
+  public String endpoint() {
+    return handler != null ? handler : method + " " + route;
+  }
+}
@@ -0,0 +1,260 @@
+package batistaReviver.studentApi.diagnostics;
+
+import batistaReviver.studentApi.dto.RecordingDto;
+import batistaReviver.studentApi.exception.EntityNotFoundException;
+import batistaReviver.studentApi.exception.EntityValidationException;
+import batistaReviver.studentApi.exception.ProfilingBusyException;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts, stops and stores JDK Flight Recorder recordings on demand.
+ *
+ * <p>Nothing is recorded until a recording is started, so the service costs nothing while unused.
+ * Recordings are based on one of the JDK settings ({@code default}, about 1% overhead, or {@code
+ * profile}, about 2%), optionally with event settings overridden, and always stop by themselves
+ * after at most {@code api.profiling.max-duration-seconds}. Their files are written to {@code
+ * api.profiling.directory}.
+ */
+@Component
+public class FlightRecorderService {
+
+  private static final List<String> SETTINGS = List.of("default", "profile");
+
+  private final Path directory;
+  private final int maxRunning;
+  private final Duration maxDuration;
+  private final long maxSizeBytes;
+  private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+  private final Map<Long, Map<String, String>> overridesById = new ConcurrentHashMap<>();
+  private final Map<Long, String> settingsById = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs the service.
+   *
+   * @param directory Where recording files are written.
+   * @param maxRunning The most recordings running at once.
+   * @param maxDurationSeconds The longest a recording may run.
+   * @param maxSizeMb The most disk space one recording may use.
+   */
+  public FlightRecorderService(
+      @Value("${api.profiling.directory:data/profiling}") Path directory,
+      @Value("${api.profiling.max-recordings:2}") int maxRunning,
+      @Value("${api.profiling.max-duration-seconds:600}") long maxDurationSeconds,
+      @Value("${api.profiling.max-size-mb:256}") long maxSizeMb) {
+    this.directory = directory;
+    this.maxRunning = maxRunning;
+    this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+    this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+  }
+
+  /**
+   * Starts a recording.
+   *
+   * @param name A name for the recording, or null.
+   * @param settings The base settings: {@code default} or {@code profile} (null means default).
+   * @param overrides Event settings to apply on top, e.g. {@code jdk.ExecutionSample#period=10 ms};
+   *     may be null.
+   * @param durationSeconds After how long the recording stops by itself; null or larger values mean
+   *     the maximum duration.
+   * @return The started recording.
+   * @throws EntityValidationException if the settings are unknown or the duration is not positive.
+   * @throws ProfilingBusyException if the maximum number of recordings is already running.
+   */
+  public synchronized RecordingDto start(
+      String name, String settings, Map<String, String> overrides, Long durationSeconds) {
+    String base = settings == null ? "default" : settings;
+    if (!SETTINGS.contains(base)) {
+      throw new EntityValidationException(
+          "Unknown settings '" + base + "'. Allowed values: " + String.join(",", SETTINGS));
+    }
+    if (durationSeconds != null && durationSeconds <= 0) {
+      throw new EntityValidationException("Duration must be positive.");
+    }
+    long running =
+        recordings.values().stream().filter(r -> r.getState() == RecordingState.RUNNING).count();
+    if (running >= maxRunning) {
+      throw new ProfilingBusyException(
+          running + " recordings are already running. Stop one before starting another.");
+    }
+
+    Map<String, String> effective = new HashMap<>(configuration(base).getSettings());
+    Map<String, String> extra = overrides == null ? Map.of() : new LinkedHashMap<>(overrides);
+    effective.putAll(extra);
+
+    Recording recording = new Recording(effective);
+    recording.setName(name == null || name.isBlank() ? "studysystem" : name);
+    recording.setToDisk(true);
+    recording.setMaxSize(maxSizeBytes);
+    recording.setDuration(
+        durationSeconds == null || durationSeconds > maxDuration.toSeconds()
+            ? maxDuration
+            : Duration.ofSeconds(durationSeconds));
+    try {
+      Files.createDirectories(directory);
+      recording.setDestination(file(recording));
+    } catch (IOException e) {
+      recording.close();
+      throw new UncheckedIOException(e);
+    }
+    recording.start();
+    recordings.put(recording.getId(), recording);
+    settingsById.put(recording.getId(), base);
+    overridesById.put(recording.getId(), extra);
+    return toDto(recording);
+  }
+
+  /**
+   * Lists the recordings, newest first.
+   *
+   * @return All recordings that were not deleted.
+   */
+  public List<RecordingDto> list() {
+    return recordings.values().stream()
+        .sorted(Comparator.comparingLong(Recording::getId).reversed())
+        .map(this::toDto)
+        .toList();
+  }
+
+  /**
+   * Retrieves a recording.
+   *
+   * @param id The ID of the recording.
+   * @return The recording.
+   * @throws EntityNotFoundException if there is no such recording.
+   */
+  public RecordingDto get(long id) {
+    return toDto(find(id));
+  }
+
+  /**
+   * Stops a recording and writes its file.
+   *
+   * @param id The ID of the recording.
+   * @return The stopped recording.
+   * @throws EntityNotFoundException if there is no such recording.
+   */
+  public RecordingDto stop(long id) {
+    Recording recording = find(id);
+    if (recording.getState() == RecordingState.RUNNING) {
+      recording.stop();
+    }
+    return toDto(recording);
+  }
+
+  /**
+   * Returns the file of a recording. For a running recording, the data recorded so far is first
+   * written to a snapshot file.
+   *
+   * @param id The ID of the recording.
+   * @return The path of the {@code .jfr} file.
+   * @throws EntityNotFoundException if there is no such recording or it has no data.
+   */
+  public Path file(long id) {
+    Recording recording = find(id);
+    try {
+      if (recording.getState() == RecordingState.RUNNING) {
+        Path snapshot = directory.resolve("recording-" + id + "-snapshot.jfr");
+        recording.dump(snapshot);
+        return snapshot;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    Path file = file(recording);
+    if (!Files.exists(file)) {
+      throw new EntityNotFoundException("Recording " + id + " has no data.");
+    }
+    return file;
+  }
+
+  /**
+   * Stops a recording if needed and deletes it with its files.
+   *
+   * @param id The ID of the recording.
+   * @throws EntityNotFoundException if there is no such recording.
+   */
+  public void delete(long id) {
+    Recording recording = find(id);
+    recordings.remove(id);
+    settingsById.remove(id);
+    overridesById.remove(id);
+    recording.close();
+    try {
+      Files.deleteIfExists(file(recording));
+      Files.deleteIfExists(directory.resolve("recording-" + id + "-snapshot.jfr"));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Stops all recordings when the application shuts down; their files are kept. */
+  @PreDestroy
+  public void shutdown() {
+    for (Recording recording : recordings.values()) {
+      if (recording.getState() == RecordingState.RUNNING) {
+        recording.stop();
+      }
+      recording.close();
+    }
+  }
+
+  private Recording find(long id) {
+    Recording recording = recordings.get(id);
+    if (recording == null) {
+      throw new EntityNotFoundException("Recording " + id + " not found.");
+    }
+    return recording;
+  }
+
+  private Path file(Recording recording) {
+    return directory.resolve("recording-" + recording.getId() + ".jfr");
+  }
+
+  private static Configuration configuration(String name) {
+    try {
+      return Configuration.getConfiguration(name);
+    } catch (IOException | ParseException e) {
+      throw new IllegalStateException("JFR settings '" + name + "' are not available", e);
+    }
+  }
+
+  private RecordingDto toDto(Recording recording) {
+    long size;
+    try {
+      Path file = file(recording);
+      size =
+          recording.getState() == RecordingState.RUNNING || !Files.exists(file)
+              ? recording.getSize()
+              : Files.size(file);
+    } catch (IOException e) {
+      size = recording.getSize();
+    }
+    return new RecordingDto(
+        recording.getId(),
+        recording.getName(),
+        recording.getState().name(),
+        settingsById.get(recording.getId()),
+        overridesById.get(recording.getId()),
+        recording.getStartTime(),
+        recording.getStopTime(),
+        recording.getDuration() == null ? 0 : recording.getDuration().toSeconds(),
+        size);
+  }
+}
@@ -0,0 +1,214 @@
+package batistaReviver.studentApi.diagnostics;
+
+import batistaReviver.studentApi.dto.ProfilingSummaryDto;
+import batistaReviver.studentApi.dto.ProfilingSummaryDto.Allocation;
+import batistaReviver.studentApi.dto.ProfilingSummaryDto.LockContention;
+import batistaReviver.studentApi.dto.ProfilingSummaryDto.MethodSample;
+import batistaReviver.studentApi.exception.EntityValidationException;
+import batistaReviver.studentApi.exception.ProfilingBusyException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds a live profiling summary (hot methods, allocation pressure and lock contention) by
+ * streaming JDK Flight Recorder events for a few seconds.
+ *
+ * <p>The events are only enabled while a summary is being collected, and only one summary is
+ * collected at a time, so the profiler costs nothing while unused.
+ */
+@Component
+public class LiveProfiler {
+
+  private static final String APPLICATION_PACKAGE = "batistaReviver.studentApi.";
+
+  private final long maxSeconds;
+  private final Duration samplePeriod;
+  private final Duration lockThreshold;
+  private final AtomicBoolean busy = new AtomicBoolean();
+
+  /**
+   * Constructs the profiler.
+   *
+   * @param maxSeconds The longest a summary may collect events.
+   * @param samplePeriodMillis The interval between CPU execution samples of each thread.
+   * @param lockThresholdMillis Lock waits shorter than this are ignored.
+   */
+  public LiveProfiler(
+      @Value("${api.profiling.max-summary-seconds:60}") long maxSeconds,
+      @Value("${api.profiling.sample-period-ms:10}") long samplePeriodMillis,
+      @Value("${api.profiling.lock-threshold-ms:10}") long lockThresholdMillis) {
+    this.maxSeconds = maxSeconds;
+    this.samplePeriod = Duration.ofMillis(samplePeriodMillis);
+    this.lockThreshold = Duration.ofMillis(lockThresholdMillis);
+  }
+
+  /**
+   * Collects events for a while, then summarizes them. Blocks the calling thread meanwhile.
+   *
+   * @param seconds How long to collect events.
+   * @param top The number of entries in each list of the summary.
+   * @return The summary.
+   * @throws EntityValidationException if the duration is not between 1 second and the maximum.
+   * @throws ProfilingBusyException if another summary is being collected.
+   */
+  public ProfilingSummaryDto summarize(long seconds, int top) {
+    if (seconds < 1 || seconds > maxSeconds) {
+      throw new EntityValidationException(
+          "Seconds must be between 1 and " + maxSeconds + ", got " + seconds + ".");
+    }
+    if (!busy.compareAndSet(false, true)) {
+      throw new ProfilingBusyException("A profiling summary is already being collected.");
+    }
+    try {
+      Collector collector = new Collector();
+      try (RecordingStream stream = new RecordingStream()) {
+        stream.enable("jdk.ExecutionSample").withPeriod(samplePeriod).withStackTrace();
+        stream.enable("jdk.ObjectAllocationSample").withStackTrace();
+        stream.enable("jdk.GarbageCollection");
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(lockThreshold).withStackTrace();
+        stream.enable("jdk.ThreadPark").withThreshold(lockThreshold).withStackTrace();
+        stream.onEvent("jdk.ExecutionSample", collector::executionSample);
+        stream.onEvent("jdk.ObjectAllocationSample", collector::allocationSample);
+        stream.onEvent("jdk.GarbageCollection", collector::garbageCollection);
+        stream.onEvent("jdk.JavaMonitorEnter", event -> collector.lock("monitor", event));
+        stream.onEvent("jdk.ThreadPark", event -> collector.lock("park", event));
+        stream.startAsync();
+        stream.awaitTermination(Duration.ofSeconds(seconds));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return collector.summary(seconds, top);
+    } finally {
+      busy.set(false);
+    }
+  }
+
+  /** Aggregates the streamed events; called on the stream thread, read after it is closed. */
+  private static final class Collector {
+    private final Map<String, Long> topFrames = new HashMap<>();
+    private final Map<String, Long> applicationFrames = new HashMap<>();
+    private final Map<AllocationSite, Long> allocations = new HashMap<>();
+    private final Map<String, long[]> locks = new HashMap<>();
+    private long executionSamples;
+    private long allocatedBytes;
+    private long gcCount;
+    private long gcPauseNanos;
+
+    synchronized void executionSample(RecordedEvent event) {
+      RecordedStackTrace stackTrace = event.getStackTrace();
+      if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+        return;
+      }
+      executionSamples++;
+      topFrames.merge(method(stackTrace.getFrames().get(0)), 1L, Long::sum);
+      String application = applicationFrame(stackTrace);
+      if (application != null) {
+        applicationFrames.merge(application, 1L, Long::sum);
+      }
+    }
+
+    synchronized void allocationSample(RecordedEvent event) {
+      long weight = event.getLong("weight");
+      RecordedClass type = event.getClass("objectClass");
+      allocatedBytes += weight;
+      allocations.merge(
+          new AllocationSite(
+              type == null ? "<unknown>" : type.getName(), applicationFrame(event.getStackTrace())),
+          weight,
+          Long::sum);
+    }
+
+    synchronized void garbageCollection(RecordedEvent event) {
+      gcCount++;
+      gcPauseNanos += event.getDuration("sumOfPauses").toNanos();
+    }
+
+    synchronized void lock(String kind, RecordedEvent event) {
+      RecordedClass type = event.getClass(kind.equals("monitor") ? "monitorClass" : "parkedClass");
+      long nanos = event.getDuration().toNanos();
+      long[] totals =
+          locks.computeIfAbsent(
+              kind + "|" + (type == null ? "<unknown>" : type.getName()), key -> new long[3]);
+      totals[0]++;
+      totals[1] += nanos;
+      totals[2] = Math.max(totals[2], nanos);
+    }
+
+    synchronized ProfilingSummaryDto summary(long seconds, int top) {
+      return new ProfilingSummaryDto(
+          seconds,
+          executionSamples,
+          samples(topFrames, top),
+          samples(applicationFrames, top),
+          allocatedBytes,
+          allocatedBytes / 1_048_576.0 / seconds,
+          allocations.entrySet().stream()
+              .sorted(Map.Entry.<AllocationSite, Long>comparingByValue().reversed())
+              .limit(top)
+              .map(e -> new Allocation(e.getKey().type(), e.getKey().site(), e.getValue()))
+              .toList(),
+          gcCount,
+          gcPauseNanos / 1_000_000.0,
+          locks.entrySet().stream()
+              .sorted(Comparator.comparingLong(e -> -e.getValue()[1]))
+              .limit(top)
+              .map(
+                  e -> {
+                    String[] key = e.getKey().split("\\|", 2);
+                    long[] totals = e.getValue();
+                    return new LockContention(
+                        key[0],
+                        key[1],
+                        totals[0],
+                        totals[1] / 1_000_000.0,
+                        totals[2] / 1_000_000.0);
+                  })
+              .toList());
+    }
+
+    private List<MethodSample> samples(Map<String, Long> counts, int top) {
+      return counts.entrySet().stream()
+          .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+          .limit(top)
+          .map(
+              e ->
+                  new MethodSample(
+                      e.getKey(),
+                      e.getValue(),
+                      executionSamples == 0 ? 0 : 100.0 * e.getValue() / executionSamples))
+          .toList();
+    }
+
+    private static String applicationFrame(RecordedStackTrace stackTrace) {
+      if (stackTrace == null) {
+        return null;
+      }
+      for (RecordedFrame frame : stackTrace.getFrames()) {
+        String type = frame.getMethod().getType().getName();
+        if (type.startsWith(APPLICATION_PACKAGE)
+            && !type.startsWith(APPLICATION_PACKAGE + "diagnostics.")
+            && !type.contains("$$")) {
+          return method(frame);
+        }
+      }
+      return null;
+    }
+
+    private static String method(RecordedFrame frame) {
+      return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+  }
+
+  private record AllocationSite(String type, String site) {}
+}
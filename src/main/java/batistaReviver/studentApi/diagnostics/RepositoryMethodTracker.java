@@ -0,0 +1,68 @@
+package batistaReviver.studentApi.diagnostics;
+
+import batistaReviver.studentApi.metrics.RequestResources;
+import batistaReviver.studentApi.metrics.RequestResources.Phase;
+import batistaReviver.studentApi.metrics.RequestResources.Span;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps track of the Spring Data repository method running on the current thread, e.g. {@code
+ * SubscriptionRepository.existsByStudentIdAndStudyClassId}, so that the statements it executes can
+ * be attributed to it.
+ *
+ * <p>An interceptor is added to every repository proxy as it is created. Statements executed
+ * outside of a repository method (lazy loading, {@code EntityManager} queries, {@code
+ * JdbcTemplate}) have no repository method. The outermost repository call is also measured as the
+ * {@link Phase#REPOSITORY} phase of the request's {@link RequestResources}.
+ */
+@Component
+public class RepositoryMethodTracker implements BeanPostProcessor {
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Returns the repository method running on the current thread.
+   *
+   * @return The repository and method name, or null outside of a repository method.
+   */
+  public static String current() {
+    return CURRENT.get();
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) {
+    if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+      factoryBean.addRepositoryFactoryCustomizer(
+          factory ->
+              factory.addRepositoryProxyPostProcessor(
+                  (proxyFactory, information) ->
+                      proxyFactory.addAdvice(
+                          new Tracker(information.getRepositoryInterface().getSimpleName()))));
+    }
+    return bean;
+  }
+
+  private record Tracker(String repository) implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      String previous = CURRENT.get();
+      CURRENT.set(repository + "." + invocation.getMethod().getName());
+      Span span = previous == null ? RequestResources.measure(Phase.REPOSITORY) : null;
+      try {
+        return invocation.proceed();
+      } finally {
+        if (previous == null) {
+          span.stop();
+          CURRENT.remove();
+        } else {
+          CURRENT.set(previous);
+        }
+      }
+    }
+  }
+}
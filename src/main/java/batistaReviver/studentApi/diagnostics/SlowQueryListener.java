@@ -0,0 +1,164 @@
+package batistaReviver.studentApi.diagnostics;
+
+import batistaReviver.studentApi.jdbc.StatementExecution;
+import batistaReviver.studentApi.jdbc.StatementListener;
+import batistaReviver.studentApi.metrics.RequestStatistics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Slow-query log: writes the statements that took longer than {@code api.slow-query.threshold-ms},
+ * plus a random sample ({@code api.slow-query.sample-rate}) of all the others, to the {@value
+ * #LOGGER_NAME} logger, which {@code logback-spring.xml} sends asynchronously to a rolling file.
+ *
+ * <p>Each entry is one JSON line with the SQL, its bind parameters, the duration (including reading
+ * the results), the row count, the HTTP route, the repository method and the first application
+ * frame that ran the statement. Every execution is also added to the {@link SlowQueryStatistics}.
+ */
+@Component
+@ConditionalOnProperty(name = "api.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryListener implements StatementListener {
+
+  /** Name of the logger the entries are written to. */
+  public static final String LOGGER_NAME = "studysystem.slow-queries";
+
+  private static final Logger slowQueries = LoggerFactory.getLogger(LOGGER_NAME);
+  private static final Logger logger = LoggerFactory.getLogger(SlowQueryListener.class);
+  private static final String APPLICATION_PACKAGE = "batistaReviver.studentApi.";
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+  private final long thresholdNanos;
+  private final double sampleRate;
+  private final int maxParameterLength;
+  private final SlowQueryStatistics statistics;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Constructs the listener.
+   *
+   * @param thresholdMillis Statements taking at least this long are logged.
+   * @param sampleRate The fraction of the other statements that is logged, between 0 and 1.
+   * @param maxParameterLength Longer bind parameters are truncated in the log.
+   * @param statistics The statistics every execution is added to.
+   * @param objectMapper Serializes the entries.
+   */
+  public SlowQueryListener(
+      @Value("${api.slow-query.threshold-ms:200}") long thresholdMillis,
+      @Value("${api.slow-query.sample-rate:0}") double sampleRate,
+      @Value("${api.slow-query.max-parameter-length:100}") int maxParameterLength,
+      SlowQueryStatistics statistics,
+      ObjectMapper objectMapper) {
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    this.sampleRate = sampleRate;
+    this.maxParameterLength = maxParameterLength;
+    this.statistics = statistics;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public boolean needsDetails() {
+    return true;
+  }
+
+  @Override
+  public void afterComplete(StatementExecution execution) {
+    long nanos = execution.totalNanos();
+    boolean slow = nanos >= thresholdNanos;
+    statistics.record(execution.shape(), nanos, slow);
+    if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+      return;
+    }
+    if (!slowQueries.isInfoEnabled()) {
+      return;
+    }
+    try {
+      slowQueries.info(objectMapper.writeValueAsString(entry(execution, slow)));
+    } catch (JsonProcessingException e) {
+      logger.warn("Could not write slow-query entry", e);
+    }
+  }
+
+  private Entry entry(StatementExecution execution, boolean slow) {
+    List<String> parameters = new ArrayList<>(execution.parameters().size());
+    for (Object parameter : execution.parameters()) {
+      parameters.add(format(parameter));
+    }
+    return new Entry(
+        slow ? "slow" : "sampled",
+        millis(execution.totalNanos()),
+        millis(execution.elapsedNanos()),
+        execution.rows(),
+        RequestStatistics.currentEndpoint(),
+        RepositoryMethodTracker.current(),
+        caller(),
+        execution.sql(),
+        parameters,
+        execution.batch(),
+        execution.error() == null ? null : execution.error().toString());
+  }
+
+  private String format(Object parameter) {
+    if (parameter == null) {
+      return "NULL";
+    }
+    if (parameter instanceof byte[] bytes) {
+      return "<" + bytes.length + " bytes>";
+    }
+    String value = parameter.toString();
+    return value.length() > maxParameterLength
+        ? value.substring(0, maxParameterLength) + "..."
+        : value;
+  }
+
+  /** Returns the first application frame outside of the JDBC and diagnostics plumbing. */
+  private static String caller() {
+    return STACK_WALKER.walk(
+        frames ->
+            frames
+                .filter(
+                    frame -> {
+                      String type = frame.getClassName();
+                      return type.startsWith(APPLICATION_PACKAGE)
+                          && !type.startsWith(APPLICATION_PACKAGE + "jdbc.")
+                          && !type.startsWith(APPLICATION_PACKAGE + "diagnostics.")
+                          && !type.startsWith(APPLICATION_PACKAGE + "metrics.")
+                          && !type.contains("$$");
+                    })
+                .findFirst()
+                .map(
+                    frame ->
+                        frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                            + "."
+                            + frame.getMethodName()
+                            + ":"
+                            + frame.getLineNumber())
+                .orElse(null));
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  /** One line of the slow-query log. */
+  record Entry(
+      String kind,
+      double durationMs,
+      double executionMs,
+      long rows,
+      String route,
+      String repositoryMethod,
+      String caller,
+      String sql,
+      List<String> parameters,
+      boolean batch,
+      String error) {}
+}
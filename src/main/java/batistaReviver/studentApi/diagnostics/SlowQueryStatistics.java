@@ -0,0 +1,135 @@
+package batistaReviver.studentApi.diagnostics;
+
+import batistaReviver.studentApi.dto.SlowQueryShapeDto;
+import batistaReviver.studentApi.exception.EntityValidationException;
+import batistaReviver.studentApi.metrics.RequestStatistics;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Running execution statistics per statement shape, from which the slowest shapes are reported.
+ *
+ * <p>At most {@code api.slow-query.max-shapes} shapes are tracked; executions of further shapes are
+ * added to a single {@code <other>} entry.
+ */
+@Component
+public class SlowQueryStatistics {
+
+  /** Shape under which executions beyond the tracked shapes are counted. */
+  public static final String OTHER_SHAPE = "<other>";
+
+  private static final Map<String, Comparator<SlowQueryShapeDto>> ORDERS =
+      Map.of(
+          "max", Comparator.comparingDouble(SlowQueryShapeDto::maxMs),
+          "total", Comparator.comparingDouble(SlowQueryShapeDto::totalMs),
+          "mean", Comparator.comparingDouble(SlowQueryShapeDto::meanMs),
+          "count", Comparator.comparingLong(SlowQueryShapeDto::count),
+          "slow", Comparator.comparingLong(SlowQueryShapeDto::slowCount));
+
+  private final int maxShapes;
+  private final Map<String, ShapeStatistics> shapes = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs the statistics.
+   *
+   * @param maxShapes The most statement shapes tracked individually.
+   */
+  public SlowQueryStatistics(@Value("${api.slow-query.max-shapes:1000}") int maxShapes) {
+    this.maxShapes = maxShapes;
+  }
+
+  /**
+   * Records a completed execution.
+   *
+   * @param shape The shape of the statement.
+   * @param nanos The time of the execution, including reading its results.
+   * @param slow Whether the execution was above the slow-query threshold.
+   */
+  void record(String shape, long nanos, boolean slow) {
+    ShapeStatistics statistics = shapes.get(shape);
+    if (statistics == null) {
+      statistics =
+          shapes.size() < maxShapes
+              ? shapes.computeIfAbsent(shape, key -> new ShapeStatistics())
+              : shapes.computeIfAbsent(OTHER_SHAPE, key -> new ShapeStatistics());
+    }
+    statistics.record(nanos, slow);
+  }
+
+  /**
+   * Returns the slowest statement shapes.
+   *
+   * @param limit The number of shapes to return.
+   * @param sort The order: {@code max}, {@code total}, {@code mean}, {@code count} or {@code slow},
+   *     always descending.
+   * @return The top shapes.
+   * @throws EntityValidationException if the order is unknown.
+   */
+  public List<SlowQueryShapeDto> top(int limit, String sort) {
+    Comparator<SlowQueryShapeDto> order = ORDERS.get(sort);
+    if (order == null) {
+      throw new EntityValidationException(
+          "Unknown sort '" + sort + "'. Allowed values: " + String.join(",", ORDERS.keySet()));
+    }
+    return shapes.entrySet().stream()
+        .map(entry -> entry.getValue().toDto(entry.getKey()))
+        .sorted(order.reversed())
+        .limit(Math.max(0, limit))
+        .toList();
+  }
+
+  /** Forgets all the statistics recorded so far. */
+  public void reset() {
+    shapes.clear();
+  }
+
+  private static final class ShapeStatistics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder slowCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private volatile String maxRoute;
+    private volatile String maxRepositoryMethod;
+
+    void record(long nanos, boolean slow) {
+      count.increment();
+      totalNanos.add(nanos);
+      if (slow) {
+        slowCount.increment();
+      }
+      long max = maxNanos.get();
+      while (nanos > max) {
+        if (maxNanos.compareAndSet(max, nanos)) {
+          maxRoute = RequestStatistics.currentEndpoint();
+          maxRepositoryMethod = RepositoryMethodTracker.current();
+          return;
+        }
+        max = maxNanos.get();
+      }
+    }
+
+    SlowQueryShapeDto toDto(String shape) {
+      long executions = count.sum();
+      long total = totalNanos.sum();
+      return new SlowQueryShapeDto(
+          shape,
+          executions,
+          slowCount.sum(),
+          millis(total),
+          executions == 0 ? 0 : millis(total / executions),
+          millis(maxNanos.get()),
+          maxRoute,
+          maxRepositoryMethod);
+    }
+
+    private static double millis(long nanos) {
+      return nanos / 1_000_000.0;
+    }
+  }
+}
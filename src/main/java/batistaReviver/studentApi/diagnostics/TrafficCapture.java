@@ -0,0 +1,163 @@
+package batistaReviver.studentApi.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records {@link CapturedRequest}s to a {@link TrafficLogWriter binary log} for later replay.
+ *
+ * <p>Request threads only {@link #offer} the request to a bounded ring buffer, which never blocks:
+ * when the buffer is full the request is dropped and counted in {@code
+ * studysystem.traffic.capture.dropped}. A single background thread drains the buffer into the
+ * memory-mapped log {@code <directory>/capture-<timestamp>.bin}, one file per application start.
+ * Capture stops once the file reaches {@code max-size-mb}.
+ */
+@Component
+@ConditionalOnProperty(name = "api.traffic-capture.enabled", havingValue = "true")
+public class TrafficCapture {
+
+  private static final Logger logger = LoggerFactory.getLogger(TrafficCapture.class);
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+  private static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+  private final BlockingQueue<CapturedRequest> buffer;
+  private final Path directory;
+  private final long maxBytes;
+  private final Counter captured;
+  private final Counter dropped;
+  private final Thread writerThread;
+
+  private volatile boolean running = true;
+  private Path file;
+
+  /**
+   * Constructs the capture.
+   *
+   * @param meterRegistry The registry the capture and drop counters are published to.
+   * @param directory The directory the logs are written to.
+   * @param bufferSize The capacity of the ring buffer, in requests.
+   * @param maxSizeMb The size a log may not exceed.
+   */
+  public TrafficCapture(
+      MeterRegistry meterRegistry,
+      @Value("${api.traffic-capture.directory:data/traffic}") Path directory,
+      @Value("${api.traffic-capture.buffer-size:65536}") int bufferSize,
+      @Value("${api.traffic-capture.max-size-mb:1024}") long maxSizeMb) {
+    this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    this.directory = directory;
+    this.maxBytes = Math.max(maxSizeMb * 1024 * 1024, 2L * WINDOW_SIZE);
+    this.captured =
+        Counter.builder("studysystem.traffic.capture.requests")
+            .description("Requests written to the traffic capture log")
+            .register(meterRegistry);
+    this.dropped =
+        Counter.builder("studysystem.traffic.capture.dropped")
+            .description("Requests not captured because the buffer or the log was full")
+            .register(meterRegistry);
+    this.writerThread = new Thread(this::drain, "traffic-capture-writer");
+    this.writerThread.setDaemon(true);
+  }
+
+  @PostConstruct
+  void start() {
+    try {
+      Files.createDirectories(directory);
+      file = directory.resolve("capture-" + FILE_TIMESTAMP.format(Instant.now()) + ".bin");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    writerThread.start();
+    logger.info("Capturing traffic to {}", file.toAbsolutePath());
+  }
+
+  /**
+   * Queues a request for writing, without blocking.
+   *
+   * @param request The sanitized request.
+   */
+  public void offer(CapturedRequest request) {
+    if (!running || !buffer.offer(request)) {
+      dropped.increment();
+    }
+  }
+
+  /**
+   * The log being written.
+   *
+   * @return The path of the capture file.
+   */
+  public Path file() {
+    return file;
+  }
+
+  private void drain() {
+    List<CapturedRequest> batch = new ArrayList<>();
+    TrafficLogWriter writer = null;
+    try {
+      while (running || !buffer.isEmpty()) {
+        CapturedRequest first = buffer.poll(200, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        buffer.drainTo(batch);
+        if (writer == null) {
+          writer = new TrafficLogWriter(file, WINDOW_SIZE, maxBytes, first.timestampMicros());
+        }
+        for (CapturedRequest request : batch) {
+          if (writer.append(request)) {
+            captured.increment();
+          } else {
+            logger.warn("Traffic capture log {} is full; capture stopped.", file);
+            running = false;
+            dropped.increment(batch.size() + buffer.size());
+            buffer.clear();
+            break;
+          }
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException | RuntimeException e) {
+      running = false;
+      logger.error("Traffic capture failed; capture stopped.", e);
+    } finally {
+      if (writer != null) {
+        try {
+          writer.close();
+        } catch (IOException e) {
+          logger.warn("Could not close traffic capture log {}", file, e);
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    writerThread.join(TimeUnit.SECONDS.toMillis(10));
+  }
+}
@@ -0,0 +1,110 @@
+package batistaReviver.studentApi.diagnostics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the binary log written by {@link TrafficLogWriter}. A log that is still being written can
+ * be read; reading stops at the first unwritten byte.
+ */
+public final class TrafficLogReader {
+
+  private TrafficLogReader() {}
+
+  /**
+   * Reads every request of a log.
+   *
+   * @param file The log file.
+   * @return The requests, in arrival order.
+   * @throws IOException if the file cannot be read or is not a traffic log.
+   */
+  public static List<CapturedRequest> read(Path file) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.remaining() < 18 || buffer.getInt() != TrafficLogWriter.MAGIC) {
+      throw new IOException(file + " is not a traffic capture log");
+    }
+    short version = buffer.getShort();
+    if (version != TrafficLogWriter.VERSION) {
+      throw new IOException("Unsupported traffic capture log version " + version);
+    }
+    int windowSize = buffer.getInt();
+    long micros = buffer.getLong();
+
+    List<String[]> routes = new ArrayList<>();
+    List<CapturedRequest> requests = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      byte type = buffer.get();
+      if (type == TrafficLogWriter.END) {
+        break;
+      } else if (type == TrafficLogWriter.NEXT) {
+        int next = (buffer.position() / windowSize + 1) * windowSize;
+        if (next >= buffer.limit()) {
+          break;
+        }
+        buffer.position(next);
+      } else if (type == TrafficLogWriter.ROUTE) {
+        int id = (int) getVarLong(buffer);
+        String[] route = {getString(buffer), getString(buffer), getString(buffer)};
+        if (id != routes.size()) {
+          throw new IOException("Corrupt traffic capture log: route " + id + " out of order");
+        }
+        routes.add(route);
+      } else if (type == TrafficLogWriter.REQUEST) {
+        String[] route = routes.get((int) getVarLong(buffer));
+        micros += getVarLong(buffer);
+        int status = (int) getVarLong(buffer);
+        long duration = getVarLong(buffer);
+        long bodySize = getVarLong(buffer) - 1;
+        int variables = (int) getVarLong(buffer);
+        Map<String, String> pathVariables = new LinkedHashMap<>();
+        for (int i = 0; i < variables; i++) {
+          pathVariables.put(getString(buffer), getString(buffer));
+        }
+        String query = getString(buffer);
+        requests.add(
+            new CapturedRequest(
+                micros,
+                route[0],
+                route[1],
+                route[2].isEmpty() ? null : route[2],
+                pathVariables,
+                query.isEmpty() ? null : query,
+                bodySize,
+                status,
+                duration));
+      } else {
+        throw new IOException(
+            "Corrupt traffic capture log: record type " + type + " at " + buffer.position());
+      }
+    }
+    return requests;
+  }
+
+  private static long getVarLong(ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[(int) getVarLong(buffer)];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,167 @@
+package batistaReviver.studentApi.diagnostics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends {@link CapturedRequest}s to a compact binary log through a memory-mapped window of the
+ * file, so writing a record is a memory copy and the kernel persists the pages in the background.
+ *
+ * <p>Format (all integers are unsigned LEB128 varints unless noted):
+ *
+ * <pre>
+ * header:  int magic "STCP", short version, int window size, long start (epoch micros)
+ * ROUTE:   byte 1, id, method, route, handler ("" if none)
+ * REQUEST: byte 2, route id, micros since the previous request, status, duration micros,
+ *          body size + 1, variable count, (name, value)*, query ("" if none)
+ * NEXT:    byte 3: the rest of the window is unused, continue at the next window
+ * END:     byte 0 (the zero-filled remainder of the file)
+ * </pre>
+ *
+ * <p>Strings are a varint length followed by UTF-8 bytes. Each distinct method, route and handler
+ * is written once as a ROUTE record and referenced by ID afterwards. Records never span windows.
+ *
+ * <p>Not thread-safe: records are written by a single thread.
+ */
+public class TrafficLogWriter implements Closeable {
+
+  static final int MAGIC = 0x53544350;
+  static final short VERSION = 1;
+  static final byte END = 0;
+  static final byte ROUTE = 1;
+  static final byte REQUEST = 2;
+  static final byte NEXT = 3;
+
+  private final FileChannel channel;
+  private final int windowSize;
+  private final long maxBytes;
+  private final ByteBuffer record = ByteBuffer.allocate(64 * 1024);
+  private final Map<String, Integer> routeIds = new HashMap<>();
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long previousMicros;
+
+  /**
+   * Creates a log file and maps its first window.
+   *
+   * @param file The file to create.
+   * @param windowSize The size of the mapped window in bytes.
+   * @param maxBytes The size the file may not exceed.
+   * @param startMicros The time of the first request, in microseconds since the epoch.
+   * @throws IOException if the file cannot be created or mapped.
+   */
+  public TrafficLogWriter(Path file, int windowSize, long maxBytes, long startMicros)
+      throws IOException {
+    this.channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.windowSize = windowSize;
+    this.maxBytes = maxBytes;
+    this.previousMicros = startMicros;
+    this.window = channel.map(FileChannel.MapMode.READ_WRITE, 0, windowSize);
+    window.putInt(MAGIC).putShort(VERSION).putInt(windowSize).putLong(startMicros);
+  }
+
+  /**
+   * Appends a request.
+   *
+   * @param request The request to append.
+   * @return {@code false} if the file is full and the request was not written.
+   * @throws IOException if the next window cannot be mapped.
+   */
+  public boolean append(CapturedRequest request) throws IOException {
+    String routeKey =
+        request.method()
+            + ' '
+            + request.route()
+            + ' '
+            + (request.handler() == null ? "" : request.handler());
+    Integer routeId = routeIds.get(routeKey);
+    if (routeId == null) {
+      routeId = routeIds.size();
+      record.clear();
+      record.put(ROUTE);
+      putVarLong(routeId);
+      putString(request.method());
+      putString(request.route());
+      putString(request.handler() == null ? "" : request.handler());
+      if (!write()) {
+        return false;
+      }
+      routeIds.put(routeKey, routeId);
+    }
+
+    record.clear();
+    try {
+      record.put(REQUEST);
+      putVarLong(routeId);
+      putVarLong(Math.max(0, request.timestampMicros() - previousMicros));
+      putVarLong(request.status());
+      putVarLong(request.durationMicros());
+      putVarLong(request.bodySize() + 1);
+      putVarLong(request.pathVariables().size());
+      for (Map.Entry<String, String> variable : request.pathVariables().entrySet()) {
+        putString(variable.getKey());
+        putString(variable.getValue());
+      }
+      putString(request.query() == null ? "" : request.query());
+    } catch (BufferOverflowException e) {
+      // A pathological query string; not worth replaying.
+      return true;
+    }
+    if (!write()) {
+      return false;
+    }
+    previousMicros = Math.max(previousMicros, request.timestampMicros());
+    return true;
+  }
+
+  /** Copies the encoded record into the window, moving to the next window if needed. */
+  private boolean write() throws IOException {
+    record.flip();
+    if (window.remaining() < record.remaining()) {
+      long next = windowStart + windowSize;
+      if (next + windowSize > maxBytes) {
+        return false;
+      }
+      if (window.hasRemaining()) {
+        window.put(NEXT);
+      }
+      window = channel.map(FileChannel.MapMode.READ_WRITE, next, windowSize);
+      windowStart = next;
+    }
+    window.put(record);
+    return true;
+  }
+
+  private void putVarLong(long value) {
+    while ((value & ~0x7FL) != 0) {
+      record.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    record.put((byte) value);
+  }
+
+  private void putString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    putVarLong(bytes.length);
+    record.put(bytes);
+  }
+
+  /** Forces the written pages to disk and closes the file. */
+  @Override
+  public void close() throws IOException {
+    window.force();
+    channel.close();
+  }
+}
@@ -0,0 +1,12 @@
+package batistaReviver.studentApi.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a multi-get request ({@code ?ids=...}).
+ *
+ * @param items The resources that were found, in the order their IDs were requested.
+ * @param notFound The requested IDs that do not match any resource.
+ * @param <T> The type of the returned resources.
+ */
+public record BatchResponse<T>(List<T> items, List<Long> notFound) {}
@@ -0,0 +1,32 @@
+package batistaReviver.studentApi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the status of an enrollment accepted by the write-behind enrollment queue.
+ *
+ * @param ticketId The ID of the ticket, returned when the enrollment was accepted.
+ * @param status The current status of the enrollment.
+ * @param studentId The ID of the student.
+ * @param studyClassId The ID of the class.
+ * @param acceptedAt The date the enrollment was accepted; it becomes the subscription date.
+ * @param reason Why the enrollment failed, or null.
+ */
+public record EnrollmentTicketDto(
+    String ticketId,
+    Status status,
+    Long studentId,
+    Long studyClassId,
+    LocalDateTime acceptedAt,
+    String reason) {
+
+  /** The lifecycle of an accepted enrollment. */
+  public enum Status {
+    /** Accepted and journaled, but not written to the database yet. */
+    PENDING,
+    /** Written to the database; the student is subscribed. */
+    COMMITTED,
+    /** Could not be written; see the reason. */
+    FAILED
+  }
+}
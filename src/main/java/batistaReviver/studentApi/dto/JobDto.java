@@ -0,0 +1,54 @@
+package batistaReviver.studentApi.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO for a background job submitted through {@code /manage/jobs}.
+ *
+ * @param id The ID of the job.
+ * @param type The type of the job, e.g. {@code subscription-export}.
+ * @param status The current status of the job.
+ * @param parameters The parameters the job was submitted with.
+ * @param processed How many items (rows, lines) the job has processed and checkpointed.
+ * @param total How many items the job will process, or null while unknown.
+ * @param counters Counts reported by the job, e.g. {@code imported} and {@code rejected}.
+ * @param attempts How many times the job was started; above 1 after resuming from a restart.
+ * @param cancelRequested Whether cancellation was requested; a running job stops at its next
+ *     checkpoint.
+ * @param submittedAt When the job was submitted.
+ * @param startedAt When the job first started, or null while queued.
+ * @param finishedAt When the job finished, or null while queued or running.
+ * @param resultBytes The size of the result file written so far.
+ * @param error Why the job failed, or null.
+ */
+public record JobDto(
+    long id,
+    String type,
+    Status status,
+    Map<String, String> parameters,
+    long processed,
+    Long total,
+    Map<String, Long> counters,
+    int attempts,
+    boolean cancelRequested,
+    Instant submittedAt,
+    Instant startedAt,
+    Instant finishedAt,
+    long resultBytes,
+    String error) {
+
+  /** The lifecycle of a job. */
+  public enum Status {
+    /** Waiting for a worker thread. */
+    QUEUED,
+    /** Running on a worker thread. */
+    RUNNING,
+    /** Finished; its result can be downloaded. */
+    SUCCEEDED,
+    /** Stopped by an error; see the error. */
+    FAILED,
+    /** Cancelled before it finished. */
+    CANCELLED
+  }
+}
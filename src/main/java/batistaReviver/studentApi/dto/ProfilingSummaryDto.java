@@ -0,0 +1,61 @@
+package batistaReviver.studentApi.dto;
+
+import java.util.List;
+
+/**
+ * Live profiling summary built from JDK Flight Recorder events streamed for a few seconds.
+ *
+ * @param seconds How long events were collected.
+ * @param executionSamples The number of CPU execution samples taken.
+ * @param hotMethods The methods most often on top of the stack.
+ * @param hotApplicationMethods The application methods most often on the stack, at their innermost
+ *     application frame.
+ * @param sampledAllocationBytes The bytes allocated, as estimated from allocation samples.
+ * @param allocationRateMbPerSecond The estimated allocation rate.
+ * @param topAllocations The types with the most bytes allocated, with their top application frame.
+ * @param gcCount The number of garbage collections.
+ * @param gcPauseMs The total time the garbage collections paused the application.
+ * @param contendedLocks The monitors and parked-on objects threads waited the longest for.
+ */
+public record ProfilingSummaryDto(
+    long seconds,
+    long executionSamples,
+    List<MethodSample> hotMethods,
+    List<MethodSample> hotApplicationMethods,
+    long sampledAllocationBytes,
+    double allocationRateMbPerSecond,
+    List<Allocation> topAllocations,
+    long gcCount,
+    double gcPauseMs,
+    List<LockContention> contendedLocks) {
+
+  /**
+   * A method and how often it was sampled.
+   *
+   * @param method The fully qualified method name.
+   * @param samples The number of samples.
+   * @param percent The share of all samples.
+   */
+  public record MethodSample(String method, long samples, double percent) {}
+
+  /**
+   * Bytes allocated for one type at one site.
+   *
+   * @param type The allocated type.
+   * @param site The innermost application frame that allocated it, or null.
+   * @param bytes The estimated bytes allocated.
+   */
+  public record Allocation(String type, String site, long bytes) {}
+
+  /**
+   * Time threads spent waiting on one kind of lock.
+   *
+   * @param kind {@code monitor} (synchronized) or {@code park} (java.util.concurrent locks).
+   * @param lockClass The class of the monitor or of the object parked on.
+   * @param count The number of waits above the threshold.
+   * @param totalMs The total waiting time.
+   * @param maxMs The longest wait.
+   */
+  public record LockContention(
+      String kind, String lockClass, long count, double totalMs, double maxMs) {}
+}
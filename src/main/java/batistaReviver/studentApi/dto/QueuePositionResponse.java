@@ -0,0 +1,26 @@
+package batistaReviver.studentApi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response returned by the admission controller to a client that has to wait for its turn.
+ *
+ * @param timestamp The time of the response.
+ * @param status The HTTP status code.
+ * @param error The HTTP status name.
+ * @param path The requested path.
+ * @param position The position of the client in the queue.
+ * @param retryAfterSeconds How long the client should wait before retrying.
+ * @param queueToken The signed token to send back in the {@code Queue-Token} header when retrying,
+ *     which keeps the client's place in the queue.
+ * @param message A human-readable explanation.
+ */
+public record QueuePositionResponse(
+    LocalDateTime timestamp,
+    int status,
+    String error,
+    String path,
+    long position,
+    long retryAfterSeconds,
+    String queueToken,
+    String message) {}
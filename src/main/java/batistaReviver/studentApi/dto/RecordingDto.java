@@ -0,0 +1,28 @@
+package batistaReviver.studentApi.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A JDK Flight Recorder recording started through {@code /manage/profiling/recordings}.
+ *
+ * @param id The ID of the recording.
+ * @param name The name of the recording.
+ * @param state The state of the recording: {@code RUNNING}, {@code STOPPED} or {@code CLOSED}.
+ * @param settings The name of the base settings ({@code default} or {@code profile}).
+ * @param overrides The event settings set on top of the base settings.
+ * @param startTime When the recording started.
+ * @param stopTime When the recording stopped, or null while it is running.
+ * @param maxDurationSeconds After how long the recording stops by itself.
+ * @param sizeBytes The size of the recording file, or of the data recorded so far.
+ */
+public record RecordingDto(
+    long id,
+    String name,
+    String state,
+    String settings,
+    Map<String, String> overrides,
+    Instant startTime,
+    Instant stopTime,
+    long maxDurationSeconds,
+    long sizeBytes) {}
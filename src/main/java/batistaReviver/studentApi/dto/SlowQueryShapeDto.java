@@ -0,0 +1,24 @@
+package batistaReviver.studentApi.dto;
+
+/**
+ * Execution statistics of one statement shape (its SQL with the values and {@code IN} lists
+ * collapsed), as returned by {@code GET /manage/slow-queries}.
+ *
+ * @param shape The SQL shape.
+ * @param count The number of executions.
+ * @param slowCount The number of executions above the slow-query threshold.
+ * @param totalMs The total time of all executions, including reading their results.
+ * @param meanMs The mean time of an execution.
+ * @param maxMs The time of the slowest execution.
+ * @param maxRoute The HTTP route that ran the slowest execution, or "none".
+ * @param maxRepositoryMethod The repository method that ran the slowest execution, or null.
+ */
+public record SlowQueryShapeDto(
+    String shape,
+    long count,
+    long slowCount,
+    double totalMs,
+    double meanMs,
+    double maxMs,
+    String maxRoute,
+    String maxRepositoryMethod) {}
@@ -0,0 +1,72 @@
+package batistaReviver.studentApi.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the student dashboard: a student together with every class they are enrolled in.
+ *
+ * @param studentId The student ID.
+ * @param name The name of the student.
+ * @param email The email of the student.
+ * @param register The registration number of the student.
+ * @param classes The classes the student is enrolled in.
+ */
+public record StudentDashboardDto(
+    Long studentId, String name, String email, String register, List<EnrolledClass> classes) {
+
+  /**
+   * A class the student is enrolled in.
+   *
+   * @param subscriptionId The ID of the subscription.
+   * @param subscribedAt The date of the subscription.
+   * @param studyClassId The ID of the class.
+   * @param classCode The unique code of the class.
+   * @param year The academic year.
+   * @param semester The semester.
+   * @param courseId The ID of the course.
+   * @param courseName The name of the course.
+   * @param professorId The ID of the professor (can be null).
+   * @param professorName The name of the professor (can be null).
+   */
+  public record EnrolledClass(
+      Long subscriptionId,
+      LocalDateTime subscribedAt,
+      Long studyClassId,
+      String classCode,
+      int year,
+      int semester,
+      Long courseId,
+      String courseName,
+      Long professorId,
+      String professorName) {}
+
+  /**
+   * Assembles a dashboard from the rows of the dashboard query.
+   *
+   * @param rows The rows of a single student, as returned by the query (must not be empty).
+   * @return The dashboard of the student.
+   */
+  public static StudentDashboardDto fromRows(List<StudentDashboardRow> rows) {
+    StudentDashboardRow first = rows.get(0);
+    List<EnrolledClass> classes =
+        rows.stream()
+            .filter(row -> row.subscriptionId() != null)
+            .map(
+                row ->
+                    new EnrolledClass(
+                        row.subscriptionId(),
+                        row.subscribedAt(),
+                        row.studyClassId(),
+                        row.classCode(),
+                        row.year(),
+                        row.semester(),
+                        row.courseId(),
+                        row.courseName(),
+                        row.professorId(),
+                        row.professorName()))
+            .toList();
+    return new StudentDashboardDto(
+        first.studentId(), first.name(), first.email(), first.register(), classes);
+  }
+}
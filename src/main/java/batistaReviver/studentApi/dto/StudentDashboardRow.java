@@ -0,0 +1,25 @@
+package batistaReviver.studentApi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row returned by the student dashboard query: one row per subscription of the student, or a
+ * single row with null class columns if the student has no subscriptions.
+ *
+ * <p>Class columns are boxed because they come from outer joins.
+ */
+public record StudentDashboardRow(
+    Long studentId,
+    String name,
+    String email,
+    String register,
+    Long subscriptionId,
+    LocalDateTime subscribedAt,
+    Long studyClassId,
+    String classCode,
+    Integer year,
+    Integer semester,
+    Long courseId,
+    String courseName,
+    Long professorId,
+    String professorName) {}
@@ -1,5 +1,7 @@
 package batistaReviver.studentApi.dto;
 
+import batistaReviver.studentApi.model.Course;
+import batistaReviver.studentApi.model.Professor;
 import batistaReviver.studentApi.model.StudyClass;
 
 /**
@@ -10,6 +12,7 @@ import batistaReviver.studentApi.model.StudyClass;
  * @param classCode The unique code for the class.
  * @param year The academic year.
  * @param semester The semester.
+ * @param capacity The maximum number of students (null if the class is not limited).
  * @param courseId The ID of the course.
  * @param courseName The name of the course.
  * @param professorId The ID of the professor (can be null).
@@ -20,19 +23,33 @@ public record StudyClassDto(
     String classCode,
     int year,
     int semester,
+    Integer capacity,
     Long courseId,
     String courseName,
     Long professorId,
     String professorName) {
   public StudyClassDto(StudyClass studyClass) {
+    this(studyClass, studyClass.getCourse(), studyClass.getProfessor());
+  }
+
+  /**
+   * Builds the DTO from associations that were already loaded, e.g. by {@link
+   * batistaReviver.studentApi.service.AssociationLoader}.
+   *
+   * @param studyClass The class.
+   * @param course The loaded course of the class.
+   * @param professor The loaded professor of the class (can be null).
+   */
+  public StudyClassDto(StudyClass studyClass, Course course, Professor professor) {
     this(
         studyClass.getId(),
         studyClass.getClassCode(),
         studyClass.getYear(),
         studyClass.getSemester(),
-        studyClass.getCourse().getId(),
-        studyClass.getCourse().getName(),
-        studyClass.getProfessor() != null ? studyClass.getProfessor().getId() : null,
-        studyClass.getProfessor() != null ? studyClass.getProfessor().getName() : null);
+        studyClass.getCapacity(),
+        course.getId(),
+        course.getName(),
+        professor != null ? professor.getId() : null,
+        professor != null ? professor.getName() : null);
   }
 }
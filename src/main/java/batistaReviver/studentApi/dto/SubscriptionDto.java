@@ -1,5 +1,7 @@
 package batistaReviver.studentApi.dto;
 
+import batistaReviver.studentApi.model.Student;
+import batistaReviver.studentApi.model.StudyClass;
 import batistaReviver.studentApi.model.Subscription;
 import java.time.LocalDateTime;
 
@@ -22,12 +24,24 @@ public record SubscriptionDto(
     Long studyClassId,
     String classCode) {
   public SubscriptionDto(Subscription subscription) {
+    this(subscription, subscription.getStudent(), subscription.getStudyClass());
+  }
+
+  /**
+   * Builds the DTO from associations that were already loaded, e.g. by {@link
+   * batistaReviver.studentApi.service.AssociationLoader}.
+   *
+   * @param subscription The subscription.
+   * @param student The loaded student of the subscription.
+   * @param studyClass The loaded class of the subscription.
+   */
+  public SubscriptionDto(Subscription subscription, Student student, StudyClass studyClass) {
     this(
         subscription.getId(),
         subscription.getDate(),
-        subscription.getStudent().getId(),
-        subscription.getStudent().getName(),
-        subscription.getStudyClass().getId(),
-        subscription.getStudyClass().getClassCode());
+        student.getId(),
+        student.getName(),
+        studyClass.getId(),
+        studyClass.getClassCode());
   }
 }
@@ -0,0 +1,22 @@
+package batistaReviver.studentApi.dto;
+
+import batistaReviver.studentApi.model.WaitlistEntry;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for representing a {@link WaitlistEntry} together with its current place in the waitlist.
+ *
+ * @param id The waitlist entry ID.
+ * @param createdAt The date the student joined the waitlist.
+ * @param studentId The ID of the waiting student.
+ * @param studyClassId The ID of the class.
+ * @param position The 1-based position of the student in the waitlist.
+ * @param waitlistSize The number of students currently waiting for the class.
+ */
+public record WaitlistEntryDto(
+    Long id,
+    LocalDateTime createdAt,
+    Long studentId,
+    Long studyClassId,
+    int position,
+    int waitlistSize) {}
@@ -1,12 +1,15 @@
 package batistaReviver.studentApi.exception;
 
+import batistaReviver.studentApi.util.RequestDeadline;
 import jakarta.servlet.http.HttpServletRequest;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -44,16 +47,58 @@ public class GlobalExceptionHandler {
   }
 
   @ExceptionHandler({
+          JobStateException.class,
           ProfessorEnrolledException.class,
+          ProfilingBusyException.class,
           StudentEnrolledException.class,
           StudyClassExistsException.class,
-          SubscriptionFoundException.class
+          StudyClassFullException.class,
+          StudyClassNotFullException.class,
+          SubscriptionFoundException.class,
+          TermArchivedException.class
   })
   public ResponseEntity<ErrorResponseApp> handleConflict(
           RuntimeException e, HttpServletRequest request) {
     return buildError(e, HttpStatus.CONFLICT, request, null);
   }
 
+  @ExceptionHandler(JobQueueFullException.class)
+  public ResponseEntity<ErrorResponseApp> handleJobQueueFull(
+          JobQueueFullException e, HttpServletRequest request) {
+    return buildError(e, HttpStatus.SERVICE_UNAVAILABLE, request, null);
+  }
+
+  @ExceptionHandler({
+          RequestCancelledException.class,
+          QueryTimeoutException.class,
+          TransactionTimedOutException.class
+  })
+  public ResponseEntity<ErrorResponseApp> handleCancelled(
+          RuntimeException e, HttpServletRequest request) {
+    return buildError(
+            new RequestCancelledException("Request cancelled: " + cancellationReason(e) + "."),
+            HttpStatus.SERVICE_UNAVAILABLE,
+            request,
+            null);
+  }
+
+  /**
+   * Explains why a request was cancelled: the reason recorded on its deadline (deadline exceeded or
+   * client disconnected), or the message of the timeout raised by the database.
+   */
+  private String cancellationReason(RuntimeException e) {
+    RequestDeadline deadline = RequestDeadline.current();
+    if (deadline != null) {
+      if (deadline.cancelReason() != null) {
+        return deadline.cancelReason();
+      }
+      if (deadline.remainingMillis() <= 0) {
+        return deadline.deadlineExceededReason();
+      }
+    }
+    return e instanceof RequestCancelledException ? e.getMessage() : "query timed out";
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponseApp> handleValidationErrors(
           MethodArgumentNotValidException e, HttpServletRequest request) {
@@ -78,6 +123,11 @@ public class GlobalExceptionHandler {
   public ResponseEntity<ErrorResponseApp> handleGeneric(
           Exception e, HttpServletRequest request) {
 
+    // A cancelled statement may surface as any persistence error; report the cancellation instead.
+    RequestDeadline deadline = RequestDeadline.current();
+    if (deadline != null && deadline.cancelReason() != null) {
+      return handleCancelled(new RequestCancelledException(deadline.cancelReason()), request);
+    }
     return buildError(e, HttpStatus.INTERNAL_SERVER_ERROR, request, null);
   }
 }
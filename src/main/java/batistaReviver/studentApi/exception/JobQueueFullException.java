@@ -0,0 +1,24 @@
+package batistaReviver.studentApi.exception;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a job cannot be submitted because the job queue already holds the maximum
+ * number of waiting jobs.
+ *
+ * <p>This is an unchecked exception. When thrown, it is caught by the {@link
+ * GlobalExceptionHandler}, which returns an HTTP 503 Service Unavailable response.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class JobQueueFullException extends RuntimeException {
+
+  /** A unique identifier for this serializable class. */
+  @Serial private static final long serialVersionUID = 1L;
+
+  /** Constructs a new {@code JobQueueFullException} with the specified detail message. */
+  public JobQueueFullException(String message) {
+    super(message);
+  }
+}
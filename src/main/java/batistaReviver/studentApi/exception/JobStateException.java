@@ -0,0 +1,24 @@
+package batistaReviver.studentApi.exception;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an operation does not apply to a job in its current state, such as
+ * downloading the result of a job that has not succeeded or deleting a running job.
+ *
+ * <p>This is an unchecked exception. When thrown, it is caught by the {@link
+ * GlobalExceptionHandler}, which returns an HTTP 409 Conflict response.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class JobStateException extends RuntimeException {
+
+  /** A unique identifier for this serializable class. */
+  @Serial private static final long serialVersionUID = 1L;
+
+  /** Constructs a new {@code JobStateException} with the specified detail message. */
+  public JobStateException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,24 @@
+package batistaReviver.studentApi.exception;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a profiling request cannot start because the profiling limits are already
+ * in use (too many recordings running, or a live summary in progress).
+ *
+ * <p>This is an unchecked exception. When thrown, it is caught by the {@link
+ * GlobalExceptionHandler}, which returns an HTTP 409 Conflict response.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ProfilingBusyException extends RuntimeException {
+
+  /** A unique identifier for this serializable class. */
+  @Serial private static final long serialVersionUID = 1L;
+
+  /** Constructs a new {@code ProfilingBusyException} with the specified detail message. */
+  public ProfilingBusyException(String message) {
+    super(message);
+  }
+}
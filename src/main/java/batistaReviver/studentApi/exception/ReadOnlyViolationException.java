@@ -0,0 +1,24 @@
+package batistaReviver.studentApi.exception;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a GET request executes a JDBC statement outside of a read-only transaction,
+ * and the {@link batistaReviver.studentApi.metrics.ReadOnlyGuard} runs in {@code fail} mode.
+ *
+ * <p>This is an unchecked exception. When thrown, it is caught by the {@link
+ * GlobalExceptionHandler}, which returns an HTTP 500 Internal Server Error response.
+ */
+@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+public class ReadOnlyViolationException extends RuntimeException {
+
+  /** A unique identifier for this serializable class. */
+  @Serial private static final long serialVersionUID = 1L;
+
+  /** Constructs a new {@code ReadOnlyViolationException} with the specified detail message. */
+  public ReadOnlyViolationException(String message) {
+    super(message);
+  }
+}
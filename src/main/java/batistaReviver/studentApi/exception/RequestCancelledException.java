@@ -0,0 +1,25 @@
+package batistaReviver.studentApi.exception;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request is cancelled before it completes, because its deadline passed or
+ * the client disconnected.
+ *
+ * <p>This is an unchecked exception. When thrown, it is caught by the {@link
+ * GlobalExceptionHandler}, which returns an HTTP 503 Service Unavailable response with the reason
+ * for the cancellation.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RequestCancelledException extends RuntimeException {
+
+  /** A unique identifier for this serializable class. */
+  @Serial private static final long serialVersionUID = 1L;
+
+  /** Constructs a new {@code RequestCancelledException} with the specified detail message. */
+  public RequestCancelledException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,27 @@
+package batistaReviver.studentApi.exception;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request executes more JDBC statements than the {@link
+ * batistaReviver.studentApi.metrics.StatementBudget} of its endpoint allows, and the budget is
+ * enforced in {@code fail} mode.
+ *
+ * <p>This is an unchecked exception. When thrown, it is caught by the {@link
+ * GlobalExceptionHandler}, which returns an HTTP 500 Internal Server Error response.
+ */
+@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+public class StatementBudgetExceededException extends RuntimeException {
+
+  /** A unique identifier for this serializable class. */
+  @Serial private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructs a new {@code StatementBudgetExceededException} with the specified detail message.
+   */
+  public StatementBudgetExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,23 @@
+package batistaReviver.studentApi.exception;
+
+import java.io.Serial;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a student tries to subscribe to a study class that has no seats left.
+ *
+ * <p>This is an unchecked exception. When thrown, it is caught by the {@link
+ * GlobalExceptionHandler}, which returns an HTTP 409 Conflict response.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StudyClassFullException extends RuntimeException {
+
+  /** A unique identifier for this serializable class. */
+  @Serial private static final long serialVersionUID = 1L;
+
+  /** Constructs a new {@code StudyClassFullException} with the specified detail message. */
+  public StudyClassFullException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,98 @@
+package batistaReviver.studentApi.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to measured latency, using a gradient algorithm.
+ *
+ * <p>Two exponentially weighted averages of the request latency are kept: a slow one that stands
+ * for the latency of the group when it is healthy, and a fast one for the current latency. After
+ * each request the limit is moved towards {@code limit * slow / fast + sqrt(limit)}: it grows while
+ * latency is stable and shrinks as soon as queuing in the worker or connection pool makes requests
+ * slower. The square-root term leaves headroom to detect when more concurrency is available.
+ * Requests above the limit are rejected instead of queued.
+ */
+final class AdaptiveLimiter {
+
+  private static final double TOLERANCE = 1.5;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  /** The current limit; only updated under the lock of this object. */
+  private volatile double limit;
+
+  private double longRttNanos;
+  private double shortRttNanos;
+
+  AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = initialLimit;
+  }
+
+  /**
+   * Tries to start a request.
+   *
+   * @return {@code true} if the request may run; it must then call {@link #release}.
+   */
+  boolean tryAcquire() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= (int) limit) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /**
+   * Ends a request and feeds its latency into the limit.
+   *
+   * @param rttNanos How long the request took.
+   * @param dropped {@code true} if the request failed in a way that signals overload, e.g. a
+   *     timeout; the limit is then cut without waiting for the averages to move.
+   */
+  void release(long rttNanos, boolean dropped) {
+    int current = inFlight.getAndDecrement();
+    synchronized (this) {
+      if (dropped) {
+        limit = Math.max(minLimit, limit * 0.9);
+        return;
+      }
+      if (longRttNanos == 0) {
+        longRttNanos = rttNanos;
+        shortRttNanos = rttNanos;
+        return;
+      }
+      shortRttNanos += (rttNanos - shortRttNanos) * 0.1;
+      longRttNanos += (rttNanos - longRttNanos) * (1.0 / 600);
+      // The healthy latency never drifts far above the current one, so recovery is quick.
+      if (longRttNanos > shortRttNanos * 2) {
+        longRttNanos = shortRttNanos * 2;
+      }
+
+      // Do not grow a limit that the traffic is not using.
+      if (current < limit / 2) {
+        return;
+      }
+      // Latency up to TOLERANCE times the healthy one is not treated as queuing.
+      double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+      double target = limit * gradient + Math.sqrt(limit);
+      double next = limit * 0.8 + target * 0.2;
+      limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+  }
+
+  /** Returns the current limit. */
+  int limit() {
+    return (int) limit;
+  }
+
+  /** Returns the number of requests currently running. */
+  int inFlight() {
+    return inFlight.get();
+  }
+}
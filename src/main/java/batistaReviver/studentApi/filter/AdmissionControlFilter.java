@@ -0,0 +1,275 @@
+package batistaReviver.studentApi.filter;
+
+import batistaReviver.studentApi.dto.QueuePositionResponse;
+import batistaReviver.studentApi.exception.ErrorResponseApp;
+import batistaReviver.studentApi.util.ObjectMapperApp;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Virtual waiting room in front of the enrollment endpoints.
+ *
+ * <p>Runs before Spring Security, so a registration-day burst is turned away before it takes a
+ * Tomcat worker for authentication, a Hikari connection or a transaction. At most {@code
+ * api.admission.max-concurrent} requests to the guarded paths run at once. Excess clients get a
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header, their position in the queue and
+ * a signed {@code Queue-Token}; sending the token back on the retry keeps their place, and tickets
+ * are admitted in FIFO order (see {@link WaitingRoom}). A token is spent once its ticket is
+ * admitted; presenting it again queues the client anew. Only when the queue itself is full is a
+ * {@code 503 Service Unavailable} returned.
+ *
+ * <p>Queue tokens are signed with a key derived from {@code api.security.token.secret}, so they
+ * cannot be forged or used as access tokens, and are bound to this instance's waiting room.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+@ConditionalOnProperty(name = "api.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  /** Name of the request and response header carrying the signed queue token. */
+  public static final String QUEUE_TOKEN_HEADER = "Queue-Token";
+
+  private static final String TICKET_CLAIM = "ticket";
+  private static final String ROOM_CLAIM = "room";
+
+  private final WaitingRoom waitingRoom;
+  private final List<String> paths;
+  private final SecretKey tokenKey;
+  private final long tokenTtlMillis;
+  private final long maxRetryAfterSeconds;
+  private final String roomId = UUID.randomUUID().toString();
+  private final CorsConfigurationSource corsConfigurationSource;
+  private final DefaultCorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+  private final Counter admitted;
+  private final Counter queued;
+  private final Counter rejected;
+
+  /**
+   * Constructs the filter with its configuration values.
+   *
+   * @param paths The paths guarded by the waiting room, with everything below them.
+   * @param maxConcurrent The maximum number of guarded requests running at once.
+   * @param maxWaiting The maximum number of tickets waiting before requests are rejected.
+   * @param reservationTimeoutSeconds How long a permit is kept for a ticket whose turn has come.
+   * @param tokenTtlSeconds How long a queue token remains valid.
+   * @param maxRetryAfterSeconds The upper bound of the {@code Retry-After} hint.
+   * @param secret The secret the queue token key is derived from.
+   * @param corsConfigurationSource The CORS configuration, applied to queue responses.
+   * @param meterRegistry The registry the queue metrics are published to.
+   */
+  public AdmissionControlFilter(
+      @Value("${api.admission.paths:/subscriptions,/study-classes}") List<String> paths,
+      @Value("${api.admission.max-concurrent:64}") int maxConcurrent,
+      @Value("${api.admission.max-waiting:100000}") long maxWaiting,
+      @Value("${api.admission.reservation-timeout-seconds:10}") long reservationTimeoutSeconds,
+      @Value("${api.admission.token-ttl-seconds:600}") long tokenTtlSeconds,
+      @Value("${api.admission.max-retry-after-seconds:30}") long maxRetryAfterSeconds,
+      @Value("${api.security.token.secret}") String secret,
+      CorsConfigurationSource corsConfigurationSource,
+      MeterRegistry meterRegistry) {
+    this.waitingRoom =
+        new WaitingRoom(
+            maxConcurrent, maxWaiting, TimeUnit.SECONDS.toNanos(reservationTimeoutSeconds));
+    this.paths = paths;
+    this.tokenKey = deriveKey(secret);
+    this.tokenTtlMillis = TimeUnit.SECONDS.toMillis(tokenTtlSeconds);
+    this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+    this.corsConfigurationSource = corsConfigurationSource;
+
+    Gauge.builder("studysystem.admission.active", waitingRoom, WaitingRoom::active)
+        .description("Guarded requests currently running")
+        .register(meterRegistry);
+    Gauge.builder("studysystem.admission.waiting", waitingRoom, WaitingRoom::waiting)
+        .description("Tickets waiting for their turn")
+        .register(meterRegistry);
+    this.admitted = outcome(meterRegistry, "admitted");
+    this.queued = outcome(meterRegistry, "queued");
+    this.rejected = outcome(meterRegistry, "rejected");
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+      return true; // CORS preflight requests are cheap and must not be queued.
+    }
+    String uri = request.getRequestURI();
+    return paths.stream().noneMatch(path -> uri.equals(path) || uri.startsWith(path + "/"));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    long start = System.nanoTime();
+    WaitingRoom.Admission admission =
+        waitingRoom.tryEnter(ticketOf(request.getHeader(QUEUE_TOKEN_HEADER)), start);
+
+    if (!admission.admitted()) {
+      if (admission.ticket() < 0) {
+        rejected.increment();
+        writeUnavailable(request, response);
+      } else {
+        queued.increment();
+        writeQueued(request, response, admission);
+      }
+      return;
+    }
+
+    admitted.increment();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      long end = System.nanoTime();
+      waitingRoom.exit(end - start, end);
+    }
+  }
+
+  /** Writes a 429 with the client's place in the queue and a token to keep it. */
+  private void writeQueued(
+      HttpServletRequest request, HttpServletResponse response, WaitingRoom.Admission admission)
+      throws IOException {
+    long retryAfter = retryAfterSeconds(admission.position());
+    String token = issueToken(admission.ticket());
+
+    HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+    applyCors(request, response);
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+    response.setHeader(QUEUE_TOKEN_HEADER, token);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    ObjectMapperApp.write(
+        response,
+        new QueuePositionResponse(
+            LocalDateTime.now(),
+            status.value(),
+            status.name(),
+            request.getRequestURI(),
+            admission.position(),
+            retryAfter,
+            token,
+            "The service is busy. Retry after "
+                + retryAfter
+                + " seconds with the "
+                + QUEUE_TOKEN_HEADER
+                + " header to keep your place in the queue."));
+  }
+
+  /** Writes a 503 when the waiting room itself is full. */
+  private void writeUnavailable(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+    applyCors(request, response);
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(maxRetryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    ObjectMapperApp.write(
+        response,
+        new ErrorResponseApp(
+            LocalDateTime.now(),
+            status.value(),
+            status.name(),
+            request.getMethod(),
+            request.getRequestURI(),
+            null,
+            "The waiting room is full. Please try again later."));
+  }
+
+  /** Bounds the estimated wait to between one second and the configured maximum. */
+  private long retryAfterSeconds(long position) {
+    long seconds = TimeUnit.MILLISECONDS.toSeconds(waitingRoom.estimateWaitMillis(position) + 999);
+    return Math.max(1, Math.min(maxRetryAfterSeconds, seconds));
+  }
+
+  /** Adds the CORS headers, since this filter answers before Spring Security's CORS filter. */
+  private void applyCors(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    CorsConfiguration configuration = corsConfigurationSource.getCorsConfiguration(request);
+    if (configuration != null) {
+      corsProcessor.processRequest(configuration, request, response);
+    }
+  }
+
+  private String issueToken(long ticket) {
+    long now = System.currentTimeMillis();
+    return Jwts.builder()
+        .subject("queue")
+        .claim(TICKET_CLAIM, ticket)
+        .claim(ROOM_CLAIM, roomId)
+        .issuedAt(new Date(now))
+        .expiration(new Date(now + tokenTtlMillis))
+        .signWith(tokenKey)
+        .compact();
+  }
+
+  /**
+   * Reads the ticket of a queue token.
+   *
+   * @return The ticket, or {@code 0} if there is no token or it is invalid, expired or was issued
+   *     by another waiting room.
+   */
+  private long ticketOf(String token) {
+    if (token == null || token.isBlank()) {
+      return 0;
+    }
+    try {
+      var claims = Jwts.parser().verifyWith(tokenKey).build().parseSignedClaims(token).getPayload();
+      if (!roomId.equals(claims.get(ROOM_CLAIM, String.class))) {
+        return 0;
+      }
+      Long ticket = claims.get(TICKET_CLAIM, Long.class);
+      return ticket != null ? ticket : 0;
+    } catch (JwtException | IllegalArgumentException e) {
+      return 0;
+    }
+  }
+
+  private static SecretKey deriveKey(String secret) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return Keys.hmacShaKeyFor(
+          digest.digest(("admission-queue:" + secret).getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("studysystem.admission.requests")
+        .description("Requests to guarded paths by admission outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,130 @@
+package batistaReviver.studentApi.filter;
+
+import batistaReviver.studentApi.exception.ErrorResponseApp;
+import batistaReviver.studentApi.security.RouteRegistry;
+import batistaReviver.studentApi.util.ObjectMapperApp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Per-route-group bulkheads with adaptive concurrency limits.
+ *
+ * <p>Every request is assigned to a group with {@link RouteRegistry#groupOf}, and each group has
+ * its own {@link AdaptiveLimiter}. A group whose requests slow down (e.g. {@code subscriptions}
+ * waiting on the connection pool) has its limit cut, and its excess requests are answered at once
+ * with {@code 503 Service Unavailable}, so they cannot occupy the worker threads and connections
+ * that cheap groups like {@code courses} need. Runs just after the {@link AdmissionControlFilter}
+ * and before Spring Security.
+ *
+ * <p>Each group publishes {@code studysystem.bulkhead.limit}, {@code studysystem.bulkhead.inflight}
+ * and {@code studysystem.bulkhead.rejected}, tagged with the group.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 8)
+@ConditionalOnProperty(name = "api.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+  private final Map<String, AdaptiveLimiter> limiters = new HashMap<>();
+  private final Map<String, Counter> rejections = new HashMap<>();
+
+  /**
+   * Constructs the filter, with one limiter per route group.
+   *
+   * @param initialLimit The starting concurrency limit of each group.
+   * @param minLimit The lowest limit a group can be cut to.
+   * @param maxLimit The highest limit a group can grow to.
+   * @param meterRegistry The registry the bulkhead metrics are published to.
+   */
+  public BulkheadFilter(
+      @Value("${api.bulkhead.initial-limit:20}") int initialLimit,
+      @Value("${api.bulkhead.min-limit:2}") int minLimit,
+      @Value("${api.bulkhead.max-limit:200}") int maxLimit,
+      MeterRegistry meterRegistry) {
+    for (String group : RouteRegistry.groups()) {
+      AdaptiveLimiter limiter = new AdaptiveLimiter(initialLimit, minLimit, maxLimit);
+      limiters.put(group, limiter);
+      Gauge.builder("studysystem.bulkhead.limit", limiter, AdaptiveLimiter::limit)
+          .description("Current adaptive concurrency limit of the route group")
+          .tag("group", group)
+          .register(meterRegistry);
+      Gauge.builder("studysystem.bulkhead.inflight", limiter, AdaptiveLimiter::inFlight)
+          .description("Requests of the route group currently running")
+          .tag("group", group)
+          .register(meterRegistry);
+      rejections.put(
+          group,
+          Counter.builder("studysystem.bulkhead.rejected")
+              .description("Requests of the route group shed because its limit was reached")
+              .tag("group", group)
+              .register(meterRegistry));
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return HttpMethod.OPTIONS.matches(request.getMethod());
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    String group = RouteRegistry.groupOf(request.getRequestURI());
+    AdaptiveLimiter limiter = limiters.get(group);
+    if (!limiter.tryAcquire()) {
+      rejections.get(group).increment();
+      writeOverloaded(request, response, group);
+      return;
+    }
+
+    // Only a request that ends in an exception counts as dropped. A 503 written further down (e.g.
+    // an expired deadline) is a normal, if slow, latency sample; this filter's own rejections never
+    // reach the limiter.
+    long start = System.nanoTime();
+    boolean dropped = true;
+    try {
+      filterChain.doFilter(request, response);
+      dropped = false;
+    } finally {
+      limiter.release(System.nanoTime() - start, dropped);
+    }
+  }
+
+  private void writeOverloaded(
+      HttpServletRequest request, HttpServletResponse response, String group) throws IOException {
+    HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    ObjectMapperApp.write(
+        response,
+        new ErrorResponseApp(
+            LocalDateTime.now(),
+            status.value(),
+            status.name(),
+            request.getMethod(),
+            request.getRequestURI(),
+            null,
+            "Too many concurrent '" + group + "' requests. Please retry shortly."));
+  }
+}
@@ -0,0 +1,160 @@
+package batistaReviver.studentApi.filter;
+
+import batistaReviver.studentApi.security.RouteRegistry;
+import batistaReviver.studentApi.util.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Gives every request a deadline and cancels its database work when the deadline passes or the
+ * client goes away.
+ *
+ * <p>The budget comes from the {@code Request-Timeout} header (in milliseconds, capped at {@code
+ * api.deadline.max-ms}) or, without it, from the default of the request's {@link RouteRegistry}
+ * group. The deadline is exposed to the rest of the request through {@link RequestDeadline}: it
+ * caps transaction timeouts and JDBC query timeouts, and its running statements are cancelled once
+ * it expires. The canceller threads also periodically check whether the client of a request with a
+ * running statement has disconnected, and cancel it too.
+ *
+ * <p>Cancelling a statement blocks (MySQL runs a {@code KILL QUERY} on another connection), so the
+ * watchdog only keeps time and hands the cancellation to a small pool of canceller threads; a slow
+ * cancel never delays the deadlines behind it. Deadline timers are removed from the watchdog's
+ * queue as soon as their request completes, so it only holds the timers of running requests.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 6)
+@ConditionalOnProperty(name = "api.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineFilter extends OncePerRequestFilter implements DisposableBean {
+
+  /** Name of the request header carrying the client's timeout, in milliseconds. */
+  public static final String REQUEST_TIMEOUT_HEADER = "Request-Timeout";
+
+  /** Threads running statement cancellations and disconnect checks. */
+  private static final int CANCELLER_THREADS = 2;
+
+  private final long defaultMillis;
+  private final long maxMillis;
+  private final Map<String, Long> groupMillis = new HashMap<>();
+  private final Set<RequestDeadline> active = ConcurrentHashMap.newKeySet();
+  private final ScheduledThreadPoolExecutor watchdog;
+  private final ScheduledExecutorService canceller;
+
+  /**
+   * Constructs the filter with its configuration values.
+   *
+   * @param defaultMillis The budget of requests whose group has no default of its own.
+   * @param maxMillis The highest budget a client may ask for.
+   * @param groups Per-group budgets, as {@code group:millis} entries (e.g. {@code courses:3000}).
+   * @param disconnectCheckMillis How often clients of running statements are checked.
+   */
+  public DeadlineFilter(
+      @Value("${api.deadline.default-ms:15000}") long defaultMillis,
+      @Value("${api.deadline.max-ms:60000}") long maxMillis,
+      @Value("${api.deadline.groups:}") List<String> groups,
+      @Value("${api.deadline.disconnect-check-ms:500}") long disconnectCheckMillis) {
+    this.defaultMillis = defaultMillis;
+    this.maxMillis = maxMillis;
+    for (String entry : groups) {
+      String[] parts = entry.trim().split(":");
+      if (parts.length == 2) {
+        groupMillis.put(parts[0].trim(), Long.parseLong(parts[1].trim()));
+      }
+    }
+    this.watchdog =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "request-deadline-watchdog");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.watchdog.setRemoveOnCancelPolicy(true);
+    AtomicInteger cancellers = new AtomicInteger();
+    this.canceller =
+        Executors.newScheduledThreadPool(
+            CANCELLER_THREADS,
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      runnable, "request-deadline-canceller-" + cancellers.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    canceller.scheduleWithFixedDelay(
+        () -> active.forEach(RequestDeadline::checkClient),
+        disconnectCheckMillis,
+        disconnectCheckMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    long budget = budgetOf(request);
+    BooleanSupplier probe =
+        request.getAttribute(RequestDeadline.CONNECTION_PROBE_ATTRIBUTE)
+                instanceof BooleanSupplier b
+            ? b
+            : null;
+    RequestDeadline deadline = RequestDeadline.start(budget, probe);
+    active.add(deadline);
+    ScheduledFuture<?> expiry =
+        watchdog.schedule(
+            () -> canceller.execute(() -> deadline.cancel(deadline.deadlineExceededReason())),
+            budget,
+            TimeUnit.MILLISECONDS);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      expiry.cancel(false);
+      active.remove(deadline);
+      RequestDeadline.clear();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    watchdog.shutdownNow();
+    canceller.shutdownNow();
+  }
+
+  /** Returns the budget asked for by the client, or the default of the request's group. */
+  private long budgetOf(HttpServletRequest request) {
+    String header = request.getHeader(REQUEST_TIMEOUT_HEADER);
+    if (header != null) {
+      try {
+        long requested = Long.parseLong(header.trim());
+        if (requested > 0) {
+          return Math.min(requested, maxMillis);
+        }
+      } catch (NumberFormatException e) {
+        // Ignore a malformed header and use the default.
+      }
+    }
+    return groupMillis.getOrDefault(RouteRegistry.groupOf(request.getRequestURI()), defaultMillis);
+  }
+}
@@ -0,0 +1,319 @@
+package batistaReviver.studentApi.filter;
+
+import batistaReviver.studentApi.exception.ErrorResponseApp;
+import batistaReviver.studentApi.util.ObjectMapperApp;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Filter that makes {@code POST} requests carrying an {@code Idempotency-Key} header safe to retry.
+ *
+ * <p>The first request with a given key is executed normally and its response is stored in an
+ * {@link IdempotencyStore}. Retries within the configured window get the stored response back
+ * without reaching the controllers or the database, marked with an {@code Idempotent-Replayed}
+ * header. Concurrent retries wait for the first execution instead of running in parallel.
+ *
+ * <p>Keys are scoped to the authenticated user and the request path, so two users cannot collide on
+ * the same key. The request body, read up front (at most {@code api.idempotency.max-body-bytes},
+ * larger bodies get 413), is fingerprinted with SHA-256: a key reused with a different body gets
+ * 422 instead of the response of another request. The replayed response carries the status, body
+ * and headers (e.g. {@code Location}) set by the first execution. Responses with a 5xx status are
+ * not stored, allowing a later retry to execute again. Login requests are never stored, since their
+ * responses contain access tokens.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "api.idempotency.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  /** Name of the request header carrying the idempotency key. */
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+  /** Name of the response header set on replayed responses. */
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyStore store;
+  private final long waitTimeoutMillis;
+  private final int maxBodyBytes;
+
+  /**
+   * Constructs the filter with its configuration values.
+   *
+   * @param maxEntries The maximum number of keys kept in memory.
+   * @param windowSeconds How long a stored response is replayed for, in seconds.
+   * @param waitTimeoutMillis How long a concurrent retry waits for the first execution.
+   * @param maxBodyBytes The largest request body accepted with an idempotency key.
+   */
+  public IdempotencyFilter(
+      @Value("${api.idempotency.max-entries:10000}") int maxEntries,
+      @Value("${api.idempotency.window-seconds:600}") long windowSeconds,
+      @Value("${api.idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis,
+      @Value("${api.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+    this.store = new IdempotencyStore(maxEntries, TimeUnit.SECONDS.toMillis(windowSeconds));
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    this.maxBodyBytes = maxBodyBytes;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !HttpMethod.POST.matches(request.getMethod())
+        || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+        || request.getRequestURI().startsWith("/authentication");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+    if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      writeError(
+          request,
+          response,
+          HttpStatus.BAD_REQUEST,
+          IDEMPOTENCY_KEY_HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters.");
+      return;
+    }
+
+    byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+    if (body.length > maxBodyBytes) {
+      writeError(
+          request,
+          response,
+          HttpStatus.PAYLOAD_TOO_LARGE,
+          "Requests with an "
+              + IDEMPOTENCY_KEY_HEADER
+              + " can have a body of at most "
+              + maxBodyBytes
+              + " bytes.");
+      return;
+    }
+    String fingerprint = fingerprint(body);
+
+    String key = scope() + ":" + request.getRequestURI() + ":" + idempotencyKey;
+    IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+
+    if (!claim.owner()) {
+      if (!claim.fingerprint().equals(fingerprint)) {
+        writeError(
+            request,
+            response,
+            HttpStatus.UNPROCESSABLE_ENTITY,
+            "This "
+                + IDEMPOTENCY_KEY_HEADER
+                + " was already used for a request with a different body.");
+        return;
+      }
+      replay(request, response, claim);
+      return;
+    }
+
+    Set<String> headersBefore = new HashSet<>(response.getHeaderNames());
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    IdempotencyStore.StoredResponse stored = null;
+    try {
+      filterChain.doFilter(new BufferedBodyRequest(request, body), wrapper);
+      stored =
+          new IdempotencyStore.StoredResponse(
+              wrapper.getStatus(),
+              wrapper.getContentType(),
+              headersSetBy(wrapper, headersBefore),
+              wrapper.getContentAsByteArray());
+    } finally {
+      if (stored != null && stored.status() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+        store.complete(key, claim, stored);
+      } else {
+        store.release(
+            key,
+            claim,
+            stored != null
+                ? stored
+                : new IdempotencyStore.StoredResponse(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(), null, Map.of(), new byte[0]));
+      }
+      wrapper.copyBodyToResponse();
+    }
+  }
+
+  /** Waits for the first execution of the key and writes its response. */
+  private void replay(
+      HttpServletRequest request, HttpServletResponse response, IdempotencyStore.Claim claim)
+      throws IOException {
+    IdempotencyStore.StoredResponse stored;
+    try {
+      stored = claim.response().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException | ExecutionException e) {
+      writeError(
+          request,
+          response,
+          HttpStatus.CONFLICT,
+          "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed.");
+      return;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+
+    response.setStatus(stored.status());
+    stored
+        .headers()
+        .forEach(
+            (name, values) -> {
+              response.setHeader(name, values.get(0));
+              values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+            });
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    response.setHeader(REPLAYED_HEADER, "true");
+    response.setContentLength(stored.body().length);
+    response.getOutputStream().write(stored.body());
+  }
+
+  /**
+   * Returns the headers set on the response while the request executed, without the ones written
+   * from the stored body (content type and length).
+   */
+  private static Map<String, List<String>> headersSetBy(
+      HttpServletResponse response, Set<String> headersBefore) {
+    Map<String, List<String>> headers = new LinkedHashMap<>();
+    for (String name : response.getHeaderNames()) {
+      if (!headersBefore.contains(name)
+          && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+          && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+          && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+        headers.putIfAbsent(name, List.copyOf(response.getHeaders(name)));
+      }
+    }
+    return headers;
+  }
+
+  private static String fingerprint(byte[] body) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Returns the identity the key is scoped to: the authenticated user, if any. */
+  private String scope() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null ? String.valueOf(authentication.getPrincipal()) : "anonymous";
+  }
+
+  private void writeError(
+      HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+      throws IOException {
+    ErrorResponseApp error =
+        new ErrorResponseApp(
+            LocalDateTime.now(),
+            status.value(),
+            status.name(),
+            request.getMethod(),
+            request.getRequestURI(),
+            null,
+            message);
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    ObjectMapperApp.write(response, error);
+  }
+
+  /** Request whose body, already read to fingerprint it, is served from memory. */
+  private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+}
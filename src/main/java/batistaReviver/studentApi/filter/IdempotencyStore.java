@@ -0,0 +1,129 @@
+package batistaReviver.studentApi.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Size-bounded, thread-safe store of responses keyed by idempotency key.
+ *
+ * <p>Each key maps to a future of the response of the first request that used it, together with the
+ * fingerprint of that request's body. The first caller to {@link #claim(String, String) claim} a
+ * key executes the request; every concurrent or later caller with the same key receives the same
+ * future and waits for its result instead of executing the request again.
+ *
+ * <p>Keys whose request is still executing are kept apart from the completed ones and are never
+ * evicted, so a retry always finds the execution it must wait for. Completed responses are held in
+ * a Caffeine cache that expires them after the configured window and evicts the least valuable ones
+ * once it is full.
+ */
+public class IdempotencyStore {
+
+  /**
+   * A response captured for replay.
+   *
+   * @param status The HTTP status code.
+   * @param contentType The content type of the body (can be null).
+   * @param headers The headers set while the request executed, by name.
+   * @param body The raw response body.
+   */
+  public record StoredResponse(
+      int status, String contentType, Map<String, List<String>> headers, byte[] body) {}
+
+  /**
+   * The result of claiming a key.
+   *
+   * @param response The future response for the key.
+   * @param fingerprint The fingerprint of the body of the request that first used the key.
+   * @param owner {@code true} if the caller must execute the request and complete the future.
+   */
+  public record Claim(
+      CompletableFuture<StoredResponse> response, String fingerprint, boolean owner) {}
+
+  private record Entry(CompletableFuture<StoredResponse> response, String fingerprint) {}
+
+  private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+  private final Cache<String, Entry> completed;
+
+  /**
+   * Constructs the store.
+   *
+   * @param maxEntries The maximum number of completed keys kept.
+   * @param windowMillis How long a stored response is replayed for, in milliseconds.
+   */
+  public IdempotencyStore(int maxEntries, long windowMillis) {
+    this.completed =
+        Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofMillis(windowMillis))
+            .build();
+  }
+
+  /**
+   * Claims a key. Expired entries are treated as absent.
+   *
+   * @param key The scoped idempotency key.
+   * @param fingerprint The fingerprint of the request body.
+   * @return The claim, telling the caller whether it owns the execution.
+   */
+  public Claim claim(String key, String fingerprint) {
+    Claim[] claim = new Claim[1];
+    pending.compute(
+        key,
+        (k, running) -> {
+          Entry entry = running != null ? running : completed.getIfPresent(k);
+          if (entry != null) {
+            claim[0] = new Claim(entry.response(), entry.fingerprint(), false);
+            return running;
+          }
+          Entry created = new Entry(new CompletableFuture<>(), fingerprint);
+          claim[0] = new Claim(created.response(), fingerprint, true);
+          return created;
+        });
+    return claim[0];
+  }
+
+  /**
+   * Completes a claimed key with a response that will be replayed for the rest of the window.
+   *
+   * @param key The scoped idempotency key.
+   * @param claim The claim returned to the owner.
+   * @param response The captured response.
+   */
+  public void complete(String key, Claim claim, StoredResponse response) {
+    claim.response().complete(response);
+    completed.put(key, new Entry(claim.response(), claim.fingerprint()));
+    removePending(key, claim);
+  }
+
+  /**
+   * Releases a claimed key without storing its response, so a later retry executes again. Callers
+   * already waiting on the key receive the given response.
+   *
+   * @param key The scoped idempotency key.
+   * @param claim The claim returned to the owner.
+   * @param response The response handed to the waiting callers.
+   */
+  public void release(String key, Claim claim, StoredResponse response) {
+    removePending(key, claim);
+    claim.response().complete(response);
+  }
+
+  /**
+   * Returns the number of keys currently stored.
+   *
+   * @return The number of executing and completed keys, including expired ones not yet evicted.
+   */
+  public long size() {
+    return pending.size() + completed.estimatedSize();
+  }
+
+  private void removePending(String key, Claim claim) {
+    pending.computeIfPresent(
+        key, (k, entry) -> entry.response() == claim.response() ? null : entry);
+  }
+}
@@ -0,0 +1,156 @@
+package batistaReviver.studentApi.filter;
+
+import batistaReviver.studentApi.metrics.EndpointMetricsInterceptor;
+import batistaReviver.studentApi.metrics.RequestResources;
+import batistaReviver.studentApi.metrics.RequestResources.Phase;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Accounts the CPU time and the bytes allocated by each request, in total and for its JWT,
+ * repository and serialization phases (see {@link RequestResources}).
+ *
+ * <p>Runs before every other filter, and publishes per endpoint:
+ *
+ * <ul>
+ *   <li>{@code studysystem.request.cpu}: CPU time of the request thread;
+ *   <li>{@code studysystem.request.allocation}: bytes allocated by the request thread;
+ *   <li>{@code studysystem.request.phase.time}, {@code studysystem.request.phase.cpu} and {@code
+ *       studysystem.request.phase.allocation}: the same for each phase, tagged with the phase.
+ * </ul>
+ *
+ * <p>With {@code api.resource-accounting.server-timing=true}, the measurements are also returned in
+ * a {@code Server-Timing} header, e.g. {@code total;dur=12.4, cpu;dur=8.1, repository;dur=6.0}. The
+ * response body is then buffered so that the header can be added once it is known.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 12)
+@ConditionalOnProperty(
+    name = "api.resource-accounting.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ResourceAccountingFilter extends OncePerRequestFilter {
+
+  /** Response header carrying the measurements, when enabled. */
+  public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private final MeterRegistry meterRegistry;
+  private final boolean serverTiming;
+
+  /**
+   * Constructs the filter.
+   *
+   * @param meterRegistry The registry the measurements are published to.
+   * @param serverTiming Whether to add a {@code Server-Timing} header to the responses.
+   */
+  public ResourceAccountingFilter(
+      MeterRegistry meterRegistry,
+      @Value("${api.resource-accounting.server-timing:false}") boolean serverTiming) {
+    this.meterRegistry = meterRegistry;
+    this.serverTiming = serverTiming;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    ContentCachingResponseWrapper buffered =
+        serverTiming ? new ContentCachingResponseWrapper(response) : null;
+    RequestResources resources = RequestResources.start();
+    try {
+      filterChain.doFilter(request, buffered != null ? buffered : response);
+    } finally {
+      resources.finish();
+      String endpoint = EndpointMetricsInterceptor.endpoint(request);
+      record(endpoint, resources);
+      if (buffered != null) {
+        if (!buffered.isCommitted()) {
+          buffered.setHeader(SERVER_TIMING_HEADER, serverTiming(resources));
+        }
+        buffered.copyBodyToResponse();
+      }
+    }
+  }
+
+  private void record(String endpoint, RequestResources resources) {
+    if (resources.cpuNanos() >= 0) {
+      Timer.builder("studysystem.request.cpu")
+          .description("CPU time used by the request thread")
+          .tag("endpoint", endpoint)
+          .register(meterRegistry)
+          .record(resources.cpuNanos(), TimeUnit.NANOSECONDS);
+    }
+    if (resources.allocatedBytes() >= 0) {
+      DistributionSummary.builder("studysystem.request.allocation")
+          .description("Bytes allocated by the request thread")
+          .baseUnit("bytes")
+          .tag("endpoint", endpoint)
+          .register(meterRegistry)
+          .record(resources.allocatedBytes());
+    }
+    for (Phase phase : Phase.values()) {
+      long nanos = resources.wallNanos(phase);
+      if (nanos == 0) {
+        continue;
+      }
+      Timer.builder("studysystem.request.phase.time")
+          .description("Wall time of a phase of the request")
+          .tags("endpoint", endpoint, "phase", phase.tag())
+          .register(meterRegistry)
+          .record(nanos, TimeUnit.NANOSECONDS);
+      if (resources.cpuNanos(phase) >= 0) {
+        Timer.builder("studysystem.request.phase.cpu")
+            .description("CPU time of a phase of the request")
+            .tags("endpoint", endpoint, "phase", phase.tag())
+            .register(meterRegistry)
+            .record(resources.cpuNanos(phase), TimeUnit.NANOSECONDS);
+      }
+      if (resources.allocatedBytes(phase) >= 0) {
+        DistributionSummary.builder("studysystem.request.phase.allocation")
+            .description("Bytes allocated in a phase of the request")
+            .baseUnit("bytes")
+            .tags("endpoint", endpoint, "phase", phase.tag())
+            .register(meterRegistry)
+            .record(resources.allocatedBytes(phase));
+      }
+    }
+  }
+
+  private static String serverTiming(RequestResources resources) {
+    StringBuilder header = new StringBuilder();
+    header.append("total;dur=").append(millis(resources.wallNanos()));
+    if (resources.cpuNanos() >= 0) {
+      header.append(", cpu;dur=").append(millis(resources.cpuNanos()));
+    }
+    if (resources.allocatedBytes() >= 0) {
+      header.append(", alloc;desc=\"").append(resources.allocatedBytes()).append(" bytes\"");
+    }
+    for (Phase phase : Phase.values()) {
+      if (resources.wallNanos(phase) > 0) {
+        header.append(", ").append(phase.tag()).append(";dur=");
+        header.append(millis(resources.wallNanos(phase)));
+      }
+    }
+    return header.toString();
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+  }
+}
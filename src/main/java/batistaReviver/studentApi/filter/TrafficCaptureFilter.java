@@ -0,0 +1,139 @@
+package batistaReviver.studentApi.filter;
+
+import batistaReviver.studentApi.config.WarmUpRunner;
+import batistaReviver.studentApi.diagnostics.CapturedRequest;
+import batistaReviver.studentApi.diagnostics.TrafficCapture;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Captures the sanitized shape of requests (see {@link CapturedRequest}) for replay against a
+ * candidate build.
+ *
+ * <p>Only registered when {@code api.traffic-capture.enabled=true}, so it costs nothing otherwise.
+ * Runs right after {@link ResourceAccountingFilter}, so requests rejected by admission control,
+ * bulkheads or deadlines are captured with their status. Headers and bodies are never read; query
+ * parameters whose names look like credentials are dropped. Paths under {@code
+ * api.traffic-capture.exclude} and requests of the {@link WarmUpRunner warm-up} are not captured,
+ * and {@code sample-rate} captures a fraction of the remaining requests.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 11)
+@ConditionalOnProperty(name = "api.traffic-capture.enabled", havingValue = "true")
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+  private static final Pattern SECRET_PARAMETER =
+      Pattern.compile("(?i).*(token|password|secret|key|auth|credential|session).*");
+
+  private final TrafficCapture capture;
+  private final List<String> excludedPrefixes;
+  private final double sampleRate;
+
+  /**
+   * Constructs the filter.
+   *
+   * @param capture The capture the requests are offered to.
+   * @param excludedPrefixes Path prefixes that are never captured.
+   * @param sampleRate The fraction of requests to capture, between 0 and 1.
+   */
+  public TrafficCaptureFilter(
+      TrafficCapture capture,
+      @Value("${api.traffic-capture.exclude:/manage,/actuator,/authentication}")
+          List<String> excludedPrefixes,
+      @Value("${api.traffic-capture.sample-rate:1.0}") double sampleRate) {
+    this.capture = capture;
+    this.excludedPrefixes = excludedPrefixes;
+    this.sampleRate = sampleRate;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (request.getHeader(WarmUpRunner.WARM_UP_HEADER) != null) {
+      return true;
+    }
+    String uri = request.getRequestURI();
+    for (String prefix : excludedPrefixes) {
+      if (uri.equals(prefix) || uri.startsWith(prefix + "/")) {
+        return true;
+      }
+    }
+    return sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long timestampMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    long start = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      capture.offer(
+          new CapturedRequest(
+              timestampMicros,
+              request.getMethod(),
+              route(request),
+              handler(request),
+              pathVariables(request),
+              sanitize(request.getQueryString()),
+              request.getContentLengthLong(),
+              response.getStatus(),
+              TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+    }
+  }
+
+  private static String route(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : request.getRequestURI();
+  }
+
+  private static String handler(HttpServletRequest request) {
+    return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+            instanceof HandlerMethod method
+        ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+        : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, String> pathVariables(HttpServletRequest request) {
+    Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    return variables instanceof Map<?, ?> map ? Map.copyOf((Map<String, String>) map) : Map.of();
+  }
+
+  /** Drops the query parameters whose names look like credentials. */
+  static String sanitize(String query) {
+    if (query == null || query.isEmpty()) {
+      return null;
+    }
+    StringBuilder sanitized = new StringBuilder(query.length());
+    for (String parameter : query.split("&")) {
+      int equals = parameter.indexOf('=');
+      String name = equals < 0 ? parameter : parameter.substring(0, equals);
+      if (SECRET_PARAMETER.matcher(name).matches()) {
+        continue;
+      }
+      if (!sanitized.isEmpty()) {
+        sanitized.append('&');
+      }
+      sanitized.append(parameter);
+    }
+    return sanitized.isEmpty() ? null : sanitized.toString();
+  }
+}
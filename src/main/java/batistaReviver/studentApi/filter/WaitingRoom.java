@@ -0,0 +1,129 @@
+package batistaReviver.studentApi.filter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FIFO admission state behind the {@link AdmissionControlFilter}.
+ *
+ * <p>At most {@code maxConcurrent} requests run at once. When no permit is free, a client gets the
+ * next ticket number and is sent away with it. As permits are released, they are reserved for the
+ * lowest waiting tickets, in order, so a newcomer can never take a permit ahead of a ticket holder.
+ * Reservations belong to their ticket: one whose holder does not come back within {@code
+ * reservationTimeoutNanos} is passed on to the next ticket, and a holder that returns after that
+ * goes to the back of the queue with a new ticket. A ticket is single use: once admitted, it holds
+ * no reservation, so presenting it again makes the client a newcomer. All methods are synchronized;
+ * each call only does a few arithmetic steps.
+ */
+final class WaitingRoom {
+
+  /** The outcome of an admission attempt. */
+  record Admission(boolean admitted, long ticket, long position) {}
+
+  private final int maxConcurrent;
+  private final long maxWaiting;
+  private final long reservationTimeoutNanos;
+
+  /** Permits that are neither held by a running request nor reserved. */
+  private int free;
+
+  /** The last ticket handed out. */
+  private long issued;
+
+  /** The highest ticket a permit was reserved for. */
+  private long admitted;
+
+  /** Expiry times of the reserved permits, by ticket, oldest first. */
+  private final Map<Long, Long> reservations = new LinkedHashMap<>();
+
+  /** Exponentially weighted average time a request holds its permit, in nanoseconds. */
+  private long averageServiceNanos = 50_000_000L;
+
+  WaitingRoom(int maxConcurrent, long maxWaiting, long reservationTimeoutNanos) {
+    this.maxConcurrent = maxConcurrent;
+    this.maxWaiting = maxWaiting;
+    this.reservationTimeoutNanos = reservationTimeoutNanos;
+    this.free = maxConcurrent;
+  }
+
+  /**
+   * Tries to let a request in.
+   *
+   * @param ticket The ticket the client already holds, or {@code 0} for a newcomer. A ticket that
+   *     was already admitted, or whose reservation expired, counts as {@code 0}.
+   * @param now The current {@link System#nanoTime()}.
+   * @return The admission; if not admitted, the ticket to hand back to the client. A ticket of
+   *     {@code -1} means the waiting room is full.
+   */
+  synchronized Admission tryEnter(long ticket, long now) {
+    expireReservations(now);
+    if (ticket <= admitted && !reservations.containsKey(ticket)) {
+      ticket = 0;
+    }
+    if (ticket <= 0) {
+      if (issued == admitted && free > 0) {
+        free--;
+        return new Admission(true, 0, 0);
+      }
+      if (issued - admitted >= maxWaiting) {
+        return new Admission(false, -1, issued - admitted);
+      }
+      ticket = ++issued;
+      reserveForWaiting(now);
+    }
+    if (reservations.remove(ticket) != null) {
+      return new Admission(true, ticket, 0);
+    }
+    return new Admission(false, ticket, ticket - admitted);
+  }
+
+  /**
+   * Releases the permit of an admitted request and reserves it for the next ticket, if any.
+   *
+   * @param serviceNanos How long the request held its permit.
+   * @param now The current {@link System#nanoTime()}.
+   */
+  synchronized void exit(long serviceNanos, long now) {
+    averageServiceNanos += (serviceNanos - averageServiceNanos) / 8;
+    free++;
+    reserveForWaiting(now);
+  }
+
+  /**
+   * Estimates how long a client at the given position will wait for its turn.
+   *
+   * @param position The position of the client in the queue.
+   * @return The estimated wait, in milliseconds.
+   */
+  synchronized long estimateWaitMillis(long position) {
+    return position * averageServiceNanos / maxConcurrent / 1_000_000L;
+  }
+
+  /** Returns the number of requests currently holding a permit. */
+  synchronized int active() {
+    return maxConcurrent - free - reservations.size();
+  }
+
+  /** Returns the number of tickets that have not been given a permit yet. */
+  synchronized long waiting() {
+    return issued - admitted;
+  }
+
+  private void reserveForWaiting(long now) {
+    while (free > 0 && admitted < issued) {
+      free--;
+      admitted++;
+      reservations.put(admitted, now + reservationTimeoutNanos);
+    }
+  }
+
+  private void expireReservations(long now) {
+    Iterator<Long> expiries = reservations.values().iterator();
+    while (expiries.hasNext() && expiries.next() - now <= 0) {
+      expiries.remove();
+      free++;
+    }
+    reserveForWaiting(now);
+  }
+}
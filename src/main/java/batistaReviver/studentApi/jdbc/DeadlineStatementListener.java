@@ -0,0 +1,47 @@
+package batistaReviver.studentApi.jdbc;
+
+import batistaReviver.studentApi.util.RequestDeadline;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the {@link RequestDeadline} of the current request to every statement it executes: the
+ * JDBC query timeout is capped to the time left, and the statement is registered so it can be
+ * cancelled when the deadline passes or the client disconnects. Statements executed outside of a
+ * request are left untouched.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineStatementListener implements StatementListener {
+
+  @Override
+  public void beforeExecute(StatementExecution execution) {
+    RequestDeadline deadline = RequestDeadline.current();
+    if (deadline == null) {
+      return;
+    }
+    deadline.checkNotCancelled();
+    Statement statement = execution.statement();
+    try {
+      int remaining = deadline.remainingSeconds();
+      int current = statement.getQueryTimeout();
+      if (current == 0 || remaining < current) {
+        statement.setQueryTimeout(remaining);
+      }
+    } catch (SQLException e) {
+      // The driver does not support query timeouts; cancellation still applies.
+    }
+    deadline.register(statement);
+  }
+
+  @Override
+  public void afterExecute(StatementExecution execution) {
+    RequestDeadline deadline = RequestDeadline.current();
+    if (deadline != null) {
+      deadline.unregister(execution.statement());
+    }
+  }
+}
@@ -0,0 +1,271 @@
+package batistaReviver.studentApi.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} that reports every statement execution to a list of {@link
+ * StatementListener}s.
+ *
+ * <p>Connections and statements are wrapped in JDK dynamic proxies; every method other than the
+ * {@code execute*} family is passed straight to the driver. {@link #unwrap} still reaches the pool,
+ * so pool metrics keep working.
+ *
+ * <p>When a listener {@linkplain StatementListener#needsDetails() needs details}, the bind
+ * parameters of prepared statements are recorded, and result sets are wrapped to count the rows
+ * read; an execution that returns a result set is then completed only when the result set (or its
+ * statement) is closed.
+ */
+public class ListeningDataSource extends DelegatingDataSource {
+
+  private final Supplier<List<StatementListener>> listeners;
+  private volatile Boolean details;
+
+  /**
+   * Wraps a data source.
+   *
+   * @param target The data source to wrap, usually the connection pool.
+   * @param listeners Supplies the listeners; resolved lazily, on first use.
+   */
+  public ListeningDataSource(DataSource target, Supplier<List<StatementListener>> listeners) {
+    super(target);
+    this.listeners = listeners;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return proxyConnection(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return proxyConnection(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection proxyConnection(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            ListeningDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection));
+  }
+
+  private final class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+
+    private ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = invokeTarget(target, method, args);
+      String name = method.getName();
+      if (result instanceof Statement statement
+          && (name.equals("createStatement")
+              || name.equals("prepareStatement")
+              || name.equals("prepareCall"))) {
+        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+        Class<?> type =
+            statement instanceof CallableStatement
+                ? CallableStatement.class
+                : statement instanceof PreparedStatement
+                    ? PreparedStatement.class
+                    : Statement.class;
+        return Proxy.newProxyInstance(
+            ListeningDataSource.class.getClassLoader(),
+            new Class<?>[] {type},
+            new StatementHandler(statement, sql, (Connection) proxy));
+      }
+      return result;
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+    private final Statement target;
+    private final String preparedSql;
+    private final Connection connection;
+    private List<Object> parameters;
+    private StatementExecution pending;
+
+    private StatementHandler(Statement target, String preparedSql, Connection connection) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("getConnection")) {
+        return connection;
+      }
+      if (name.startsWith("execute")) {
+        return execute(proxy, method, args);
+      }
+      if (name.equals("getResultSet") && pending != null) {
+        Object resultSet = invokeTarget(target, method, args);
+        return resultSet == null ? null : proxyResultSet((ResultSet) resultSet, proxy, pending);
+      }
+      if (name.equals("close")) {
+        try {
+          return invokeTarget(target, method, args);
+        } finally {
+          completePending();
+        }
+      }
+      if (details() && target instanceof PreparedStatement) {
+        if (name.startsWith("set")
+            && args != null
+            && args.length >= 2
+            && args[0] instanceof Integer index) {
+          bind(index, name.equals("setNull") ? null : args[1]);
+        } else if (name.equals("clearParameters") && parameters != null) {
+          parameters.clear();
+        }
+      }
+      return invokeTarget(target, method, args);
+    }
+
+    private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+      // A new execution closes the result set of the previous one.
+      completePending();
+      String name = method.getName();
+      String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+      StatementExecution execution =
+          new StatementExecution(
+              target,
+              sql,
+              name.equals("executeBatch") || name.equals("executeLargeBatch"),
+              parameters == null
+                  ? List.of()
+                  : Collections.unmodifiableList(new ArrayList<>(parameters)));
+      List<StatementListener> resolved = listeners.get();
+      // Listeners called before the execution are called after it, even if one of them aborts it.
+      int called = 0;
+      Throwable error = null;
+      try {
+        while (called < resolved.size()) {
+          resolved.get(called++).beforeExecute(execution);
+        }
+        return results(execution, invokeTarget(target, method, args), proxy);
+      } catch (Throwable e) {
+        error = e;
+        throw e;
+      } finally {
+        execution.finish(error);
+        for (int i = called - 1; i >= 0; i--) {
+          resolved.get(i).afterExecute(execution);
+        }
+        if (execution != pending) {
+          complete(execution, resolved.subList(0, called));
+        }
+      }
+    }
+
+    /**
+     * Records the row count of an execution. A result set is wrapped to count its rows, and the
+     * execution stays pending until the result set or the statement is closed.
+     */
+    private Object results(StatementExecution execution, Object result, Object proxy) {
+      if (result instanceof ResultSet resultSet) {
+        if (details()) {
+          pending = execution;
+          execution.rows(0);
+          return proxyResultSet(resultSet, proxy, execution);
+        }
+      } else if (result instanceof Boolean hasResultSet) {
+        if (hasResultSet && details()) {
+          pending = execution;
+          execution.rows(0);
+        }
+      } else if (result instanceof Number count) {
+        execution.rows(count.longValue());
+      } else if (result instanceof int[] counts) {
+        execution.rows(Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum());
+      } else if (result instanceof long[] counts) {
+        execution.rows(Arrays.stream(counts).filter(count -> count > 0).sum());
+      }
+      return result;
+    }
+
+    private void bind(int index, Object value) {
+      if (parameters == null) {
+        parameters = new ArrayList<>();
+      }
+      while (parameters.size() < index) {
+        parameters.add(null);
+      }
+      parameters.set(index - 1, value);
+    }
+
+    private void completePending() {
+      StatementExecution execution = pending;
+      if (execution != null) {
+        pending = null;
+        complete(execution, listeners.get());
+      }
+    }
+
+    private ResultSet proxyResultSet(
+        ResultSet resultSet, Object statement, StatementExecution execution) {
+      return (ResultSet)
+          Proxy.newProxyInstance(
+              ListeningDataSource.class.getClassLoader(),
+              new Class<?>[] {ResultSet.class},
+              (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.equals("getStatement")) {
+                  return statement;
+                }
+                Object result = invokeTarget(resultSet, method, args);
+                if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                  execution.rowRead();
+                } else if (name.equals("close") && pending == execution) {
+                  completePending();
+                }
+                return result;
+              });
+    }
+  }
+
+  private void complete(StatementExecution execution, List<StatementListener> called) {
+    execution.complete();
+    for (StatementListener listener : called) {
+      listener.afterComplete(execution);
+    }
+  }
+
+  /** Returns whether bind parameters and row counts are collected for the listeners. */
+  private boolean details() {
+    Boolean details = this.details;
+    if (details == null) {
+      details = listeners.get().stream().anyMatch(StatementListener::needsDetails);
+      this.details = details;
+    }
+    return details;
+  }
+
+  private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package batistaReviver.studentApi.jdbc;
+
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Wraps every {@link DataSource} bean in a {@link ListeningDataSource}, so that all {@link
+ * StatementListener} beans see the statements executed by JPA, Spring Data and {@code JdbcTemplate}
+ * alike.
+ */
+@Component
+public class ListeningDataSourcePostProcessor implements BeanPostProcessor {
+
+  private final ObjectProvider<StatementListener> listeners;
+
+  public ListeningDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+    this.listeners = listeners;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource && !(bean instanceof ListeningDataSource)) {
+      return new ListeningDataSource(
+          dataSource, SingletonSupplier.of(() -> List.copyOf(listeners.orderedStream().toList())));
+    }
+    return bean;
+  }
+}
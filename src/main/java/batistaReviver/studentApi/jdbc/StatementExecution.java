@@ -0,0 +1,131 @@
+package batistaReviver.studentApi.jdbc;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/** One execution of a JDBC statement, as seen by a {@link StatementListener}. */
+public final class StatementExecution {
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern PARAMETER_LIST =
+      Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final Statement statement;
+  private final String sql;
+  private final boolean batch;
+  private final List<Object> parameters;
+  private final long startNanos;
+  private long elapsedNanos;
+  private long totalNanos;
+  private long rows = -1;
+  private Throwable error;
+  private String shape;
+
+  StatementExecution(Statement statement, String sql, boolean batch, List<Object> parameters) {
+    this.statement = statement;
+    this.sql = sql;
+    this.batch = batch;
+    this.parameters = parameters;
+    this.startNanos = System.nanoTime();
+  }
+
+  void finish(Throwable error) {
+    this.elapsedNanos = System.nanoTime() - startNanos;
+    this.error = error;
+  }
+
+  void complete() {
+    this.totalNanos = System.nanoTime() - startNanos;
+  }
+
+  void rows(long rows) {
+    this.rows = rows;
+  }
+
+  void rowRead() {
+    rows++;
+  }
+
+  /** Returns the underlying (unproxied) JDBC statement. */
+  public Statement statement() {
+    return statement;
+  }
+
+  /** Returns the SQL text, or null if it is unknown (e.g. a batch of plain statements). */
+  public String sql() {
+    return sql;
+  }
+
+  /**
+   * Returns the shape of the SQL: its text with literals replaced by {@code ?}, parameter lists
+   * such as {@code in (?,?,?)} collapsed to {@code (?)} and whitespace normalized. Executions that
+   * differ only in their values have the same shape.
+   */
+  public String shape() {
+    if (shape == null) {
+      shape = shapeOf(sql);
+    }
+    return shape;
+  }
+
+  /**
+   * Computes the shape of a SQL text.
+   *
+   * @param sql The SQL text, or null.
+   * @return The shape, or {@code "<unknown>"} if the SQL is null.
+   * @see #shape()
+   */
+  public static String shapeOf(String sql) {
+    if (sql == null) {
+      return "<unknown>";
+    }
+    String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+    return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+  }
+
+  /** Returns whether the execution is a batch. */
+  public boolean batch() {
+    return batch;
+  }
+
+  /**
+   * Returns the bind parameters of a prepared statement, by position (the first one is at index 0);
+   * for a batch, those of its last row. Empty unless a listener {@linkplain
+   * StatementListener#needsDetails() needs details}.
+   */
+  public List<Object> parameters() {
+    return parameters;
+  }
+
+  /** Returns how long the execution took, in nanoseconds; 0 before it finished. */
+  public long elapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Returns how long the execution took including reading its result set, in nanoseconds; 0 before
+   * it completed.
+   */
+  public long totalNanos() {
+    return totalNanos;
+  }
+
+  /**
+   * Returns the rows read from the result set, or the rows affected by an update or batch; -1 if
+   * unknown. Counted only when a listener {@linkplain StatementListener#needsDetails() needs
+   * details}, and final only once the execution completed.
+   */
+  public long rows() {
+    return rows;
+  }
+
+  /** Returns the error thrown by the execution, or null if it succeeded. */
+  public Throwable error() {
+    return error;
+  }
+}
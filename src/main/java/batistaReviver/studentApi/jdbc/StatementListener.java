@@ -0,0 +1,43 @@
+package batistaReviver.studentApi.jdbc;
+
+/**
+ * Callback invoked around every JDBC statement executed through the application {@link
+ * javax.sql.DataSource}.
+ *
+ * <p>Listeners are Spring beans; they are picked up by {@link ListeningDataSourcePostProcessor} and
+ * called in {@link org.springframework.core.annotation.Order} on the thread executing the
+ * statement. They must be fast and must not execute statements themselves.
+ */
+public interface StatementListener {
+
+  /**
+   * Called before a statement is executed. Throwing a runtime exception aborts the execution.
+   *
+   * @param execution The statement about to run.
+   */
+  default void beforeExecute(StatementExecution execution) {}
+
+  /**
+   * Called after a statement was executed, whether it succeeded or not.
+   *
+   * @param execution The statement that ran, with its elapsed time and error, if any.
+   */
+  default void afterExecute(StatementExecution execution) {}
+
+  /**
+   * Called once the results of an execution have been read: when its result set or statement is
+   * closed, or right after {@link #afterExecute} for executions without a result set (or when no
+   * listener {@linkplain #needsDetails() needs details}).
+   *
+   * @param execution The execution, with its row count and total time.
+   */
+  default void afterComplete(StatementExecution execution) {}
+
+  /**
+   * Returns whether this listener reads the bind parameters and row counts of executions. They are
+   * collected only if a listener needs them.
+   */
+  default boolean needsDetails() {
+    return false;
+  }
+}
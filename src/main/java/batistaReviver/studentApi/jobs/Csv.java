@@ -0,0 +1,70 @@
+package batistaReviver.studentApi.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Minimal RFC 4180 CSV formatting and parsing for job inputs and results. */
+final class Csv {
+
+  private Csv() {}
+
+  /**
+   * Formats values as one CSV line, quoting the values that contain separators or quotes.
+   *
+   * @param values The values; null is written as an empty field.
+   * @return The line, ending with a line feed.
+   */
+  static String line(Object... values) {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        line.append(',');
+      }
+      String value = values[i] == null ? "" : values[i].toString();
+      if (value.indexOf(',') >= 0
+          || value.indexOf('"') >= 0
+          || value.indexOf('\n') >= 0
+          || value.indexOf('\r') >= 0) {
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+      } else {
+        line.append(value);
+      }
+    }
+    return line.append('\n').toString();
+  }
+
+  /**
+   * Splits one CSV line into its fields. Quoted fields may contain commas and doubled quotes, but
+   * not line breaks.
+   *
+   * @param line The line, without its line break.
+   * @return The fields, unquoted.
+   */
+  static List<String> parse(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
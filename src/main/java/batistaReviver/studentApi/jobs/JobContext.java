@@ -0,0 +1,180 @@
+package batistaReviver.studentApi.jobs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * What a {@link JobHandler} sees of the job it runs: its parameters and input, the cursor to resume
+ * from, and the result file it writes to.
+ *
+ * <p>Text written with {@link #write(CharSequence)} is buffered and only becomes part of the result
+ * at the next {@link #checkpoint(String, long)}, which forces the result file to disk and then
+ * saves the cursor. Cancellation and shutdown are also honoured at checkpoints.
+ */
+public final class JobContext {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final JobRecord job;
+  private final JobStore store;
+  private final FileChannel result;
+  private final Writer writer;
+  private final int chunkSize;
+  private final BooleanSupplier stopping;
+
+  JobContext(
+      JobRecord job, JobStore store, FileChannel result, int chunkSize, BooleanSupplier stopping) {
+    this.job = job;
+    this.store = store;
+    this.result = result;
+    this.writer =
+        new BufferedWriter(
+            new OutputStreamWriter(Channels.newOutputStream(result), StandardCharsets.UTF_8),
+            BUFFER_SIZE);
+    this.chunkSize = chunkSize;
+    this.stopping = stopping;
+  }
+
+  /**
+   * Returns the parameters the job was submitted with.
+   *
+   * @return The parameters, by name.
+   */
+  public Map<String, String> parameters() {
+    return job.parameters;
+  }
+
+  /**
+   * Returns the cursor saved by the last checkpoint.
+   *
+   * @return The cursor, or null if the job starts from the beginning.
+   */
+  public String cursor() {
+    return job.cursor;
+  }
+
+  /**
+   * Returns how many items a chunk should hold ({@code api.jobs.chunk-size}).
+   *
+   * @return The chunk size.
+   */
+  public int chunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Returns the input uploaded with the submission.
+   *
+   * @return The path of the input file.
+   * @throws IllegalStateException if the job was submitted without an input.
+   */
+  public Path input() {
+    if (!job.hasInput) {
+      throw new IllegalStateException("Job " + job.id + " has no input.");
+    }
+    return store.input(job.id);
+  }
+
+  /**
+   * Returns whether the job was checkpointed before, i.e. runs for the first time.
+   *
+   * @return {@code true} if no checkpoint was saved yet.
+   */
+  public boolean isFirstRun() {
+    return job.cursor == null;
+  }
+
+  /**
+   * Sets how many items the job will process, shown with the progress.
+   *
+   * @param total The number of items.
+   */
+  public void setTotal(long total) {
+    job.total = total;
+  }
+
+  /**
+   * Returns the total set by {@link #setTotal(long)}, possibly in a previous run.
+   *
+   * @return The total, or null if it was not set.
+   */
+  public Long total() {
+    return job.total;
+  }
+
+  /**
+   * Appends text to the result file.
+   *
+   * @param text The text to append.
+   * @throws IOException if the result file cannot be written.
+   */
+  public void write(CharSequence text) throws IOException {
+    writer.append(text);
+  }
+
+  /**
+   * Adds to a counter shown with the job, e.g. the number of rejected lines.
+   *
+   * @param counter The name of the counter.
+   * @param delta The amount to add.
+   */
+  public void count(String counter, long delta) {
+    synchronized (job) {
+      job.counters.merge(counter, delta, Long::sum);
+    }
+  }
+
+  /**
+   * Records that a chunk is complete: its output is forced to disk and the cursor is saved, so a
+   * restart resumes after the chunk.
+   *
+   * @param cursor Where the next chunk starts; handed back by {@link #cursor()} on resume.
+   * @param processed How many items the chunk processed.
+   * @throws IOException if the result file cannot be written.
+   * @throws Cancelled if the job was cancelled.
+   * @throws Suspended if the application is shutting down.
+   */
+  public void checkpoint(String cursor, long processed) throws IOException {
+    flush();
+    job.cursor = cursor;
+    job.processed += processed;
+    synchronized (job) {
+      store.save(job);
+    }
+    if (job.cancelRequested) {
+      throw new Cancelled();
+    }
+    if (stopping.getAsBoolean()) {
+      throw new Suspended();
+    }
+  }
+
+  /** Forces the output written so far to disk and records the size of the result. */
+  void flush() throws IOException {
+    writer.flush();
+    result.force(false);
+    job.resultBytes = result.position();
+  }
+
+  /** Thrown at a checkpoint when the job was cancelled. */
+  static final class Cancelled extends RuntimeException {
+    private Cancelled() {
+      super("Cancelled", null, false, false);
+    }
+  }
+
+  /** Thrown at a checkpoint when the application is shutting down; the job resumes on restart. */
+  static final class Suspended extends RuntimeException {
+    private Suspended() {
+      super("Suspended", null, false, false);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.exception.EntityValidationException;
+import java.util.Map;
+
+/**
+ * A type of job run by the {@link JobService}. Every {@code JobHandler} bean is registered under
+ * its {@link #type()}. Results are CSV files.
+ *
+ * <p>A handler works in chunks: it processes a bounded number of items, each chunk in its own
+ * transaction, and then calls {@link JobContext#checkpoint(String, long)} with a cursor that
+ * identifies where the next chunk starts. After a restart, the job runs again with {@link
+ * JobContext#cursor()} set to the last checkpointed cursor and the result file cut back to its size
+ * at that checkpoint, so a handler must be able to repeat the chunk that was in progress.
+ */
+public interface JobHandler {
+
+  /**
+   * Returns the name under which jobs of this handler are submitted.
+   *
+   * @return The job type, e.g. {@code subscription-export}.
+   */
+  String type();
+
+  /**
+   * Returns whether jobs of this handler read an input file uploaded with the submission.
+   *
+   * @return {@code true} if an input is required.
+   */
+  default boolean requiresInput() {
+    return false;
+  }
+
+  /**
+   * Checks the parameters of a submission before the job is queued.
+   *
+   * @param parameters The parameters of the job.
+   * @throws EntityValidationException if a parameter is missing or invalid.
+   */
+  default void validate(Map<String, String> parameters) {}
+
+  /**
+   * Runs the job, or resumes it from {@link JobContext#cursor()}.
+   *
+   * @param context The progress, input and result of the job.
+   * @throws Exception if the job fails; its message becomes the error of the job.
+   */
+  void run(JobContext context) throws Exception;
+}
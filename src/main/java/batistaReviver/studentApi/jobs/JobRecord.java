@@ -0,0 +1,73 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.dto.JobDto;
+import batistaReviver.studentApi.dto.JobDto.Status;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+
+/**
+ * The state of a job, as kept in memory by the {@link JobService} and in its state file by the
+ * {@link JobStore}. Progress fields are only changed by the worker running the job; the status, the
+ * counters and the state file are changed while holding the record's lock.
+ */
+final class JobRecord {
+
+  final long id;
+  final String type;
+  final Map<String, String> parameters;
+  final boolean hasInput;
+  final Instant submittedAt;
+
+  volatile Status status = Status.QUEUED;
+  volatile Instant startedAt;
+  volatile Instant finishedAt;
+  volatile String cursor;
+  volatile long processed;
+  volatile Long total;
+  volatile long resultBytes;
+  volatile int attempts;
+  volatile String error;
+  volatile boolean cancelRequested;
+  volatile Future<?> future;
+
+  /** Counters reported by the handler; guarded by the record. */
+  final Map<String, Long> counters = new LinkedHashMap<>();
+
+  JobRecord(
+      long id, String type, Map<String, String> parameters, boolean hasInput, Instant submittedAt) {
+    this.id = id;
+    this.type = type;
+    this.parameters = Map.copyOf(parameters);
+    this.hasInput = hasInput;
+    this.submittedAt = submittedAt;
+  }
+
+  boolean isFinished() {
+    return status != Status.QUEUED && status != Status.RUNNING;
+  }
+
+  JobDto toDto() {
+    Map<String, Long> countersCopy;
+    synchronized (this) {
+      countersCopy = new LinkedHashMap<>(counters);
+    }
+    return new JobDto(
+        id,
+        type,
+        status,
+        new TreeMap<>(parameters),
+        processed,
+        total,
+        countersCopy,
+        attempts,
+        cancelRequested,
+        submittedAt,
+        startedAt,
+        finishedAt,
+        resultBytes,
+        error);
+  }
+}
@@ -0,0 +1,413 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.dto.JobDto;
+import batistaReviver.studentApi.dto.JobDto.Status;
+import batistaReviver.studentApi.exception.EntityNotFoundException;
+import batistaReviver.studentApi.exception.EntityValidationException;
+import batistaReviver.studentApi.exception.JobQueueFullException;
+import batistaReviver.studentApi.exception.JobStateException;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs long operations, such as exports and imports, as background jobs.
+ *
+ * <p>A submitted job is queued and answered right away; a fixed pool of {@code api.jobs.threads}
+ * workers runs the queued jobs, and at most {@code api.jobs.max-queued} jobs may wait, so a burst
+ * of submissions cannot take every database connection. Each job is run by the {@link JobHandler}
+ * of its type, which processes its items in chunks and checkpoints after each one.
+ *
+ * <p>The state of every job is kept in {@code api.jobs.directory} (see {@link JobStore}). On
+ * startup, jobs that were queued or running when the application stopped are queued again and
+ * resume from their last checkpoint. Finished jobs and their files are deleted after {@code
+ * api.jobs.retention-hours}.
+ */
+@Service
+public class JobService {
+
+  private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+  private final Map<String, JobHandler> handlers;
+  private final JobStore store;
+  private final ExecutorService executor;
+  private final int maxQueued;
+  private final int chunkSize;
+  private final long maxInputBytes;
+  private final Duration retention;
+  private final Map<Long, JobRecord> jobs = new ConcurrentHashMap<>();
+  private final AtomicLong nextId = new AtomicLong(1);
+  private volatile boolean stopping;
+
+  /**
+   * Constructs the service.
+   *
+   * @param handlers The handlers of every job type.
+   * @param directory Where the state, input and result files of the jobs are kept.
+   * @param threads How many jobs run at once.
+   * @param maxQueued How many jobs may wait for a worker.
+   * @param chunkSize How many items a job processes per chunk and transaction.
+   * @param maxInputMb The largest input that may be uploaded with a job.
+   * @param retentionHours How long finished jobs are kept.
+   */
+  public JobService(
+      List<JobHandler> handlers,
+      @Value("${api.jobs.directory:data/jobs}") Path directory,
+      @Value("${api.jobs.threads:2}") int threads,
+      @Value("${api.jobs.max-queued:20}") int maxQueued,
+      @Value("${api.jobs.chunk-size:1000}") int chunkSize,
+      @Value("${api.jobs.max-input-mb:100}") long maxInputMb,
+      @Value("${api.jobs.retention-hours:24}") long retentionHours) {
+    this.handlers =
+        handlers.stream().collect(Collectors.toMap(JobHandler::type, Function.identity()));
+    this.store = new JobStore(directory);
+    this.maxQueued = maxQueued;
+    this.chunkSize = chunkSize;
+    this.maxInputBytes = maxInputMb * 1024 * 1024;
+    this.retention = Duration.ofHours(retentionHours);
+    AtomicInteger workers = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            task -> {
+              Thread thread = new Thread(task, "job-" + workers.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** Reads the jobs kept in the directory. */
+  @PostConstruct
+  void load() {
+    for (JobRecord job : store.load()) {
+      jobs.put(job.id, job);
+      nextId.accumulateAndGet(job.id + 1, Math::max);
+    }
+  }
+
+  /**
+   * Queues again the jobs that were queued or running when the application stopped. Runs once the
+   * application is ready, so resumed jobs do not compete with startup.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void resume() {
+    List<JobRecord> unfinished =
+        jobs.values().stream()
+            .filter(job -> !job.isFinished())
+            .sorted(Comparator.comparingLong(job -> job.id))
+            .toList();
+    for (JobRecord job : unfinished) {
+      if (!handlers.containsKey(job.type)) {
+        finish(job, Status.FAILED, "Unknown job type '" + job.type + "'.");
+        continue;
+      }
+      job.status = Status.QUEUED;
+      job.future = executor.submit(() -> run(job));
+    }
+    if (!unfinished.isEmpty()) {
+      logger.warn("Resuming {} unfinished jobs", unfinished.size());
+    }
+  }
+
+  /**
+   * Submits a job without an input.
+   *
+   * @param type The type of the job.
+   * @param parameters The parameters of the job; may be null.
+   * @return The queued job.
+   * @throws EntityValidationException if the type is unknown, requires an input, or the parameters
+   *     are invalid.
+   * @throws JobQueueFullException if {@code api.jobs.max-queued} jobs are already waiting.
+   */
+  public JobDto submit(String type, Map<String, String> parameters) {
+    JobHandler handler = handler(type);
+    if (handler.requiresInput()) {
+      throw new EntityValidationException(
+          "Jobs of type '" + type + "' require an input uploaded as the request body.");
+    }
+    return enqueue(type, parameters, null);
+  }
+
+  /**
+   * Submits a job with an input, which is streamed to the job directory before the job is queued.
+   *
+   * @param type The type of the job.
+   * @param parameters The parameters of the job; may be null.
+   * @param input The input of the job.
+   * @return The queued job.
+   * @throws EntityValidationException if the type is unknown, does not take an input, the
+   *     parameters are invalid or the input is larger than {@code api.jobs.max-input-mb}.
+   * @throws JobQueueFullException if {@code api.jobs.max-queued} jobs are already waiting.
+   */
+  public JobDto submit(String type, Map<String, String> parameters, InputStream input) {
+    JobHandler handler = handler(type);
+    if (!handler.requiresInput()) {
+      throw new EntityValidationException("Jobs of type '" + type + "' do not take an input.");
+    }
+    return enqueue(type, parameters, input);
+  }
+
+  /**
+   * Lists the jobs, newest first.
+   *
+   * @return All jobs that were not deleted.
+   */
+  public List<JobDto> list() {
+    return jobs.values().stream()
+        .sorted(Comparator.comparingLong((JobRecord job) -> job.id).reversed())
+        .map(JobRecord::toDto)
+        .toList();
+  }
+
+  /**
+   * Retrieves a job with its progress.
+   *
+   * @param id The ID of the job.
+   * @return The job.
+   * @throws EntityNotFoundException if there is no such job.
+   */
+  public JobDto get(long id) {
+    return find(id).toDto();
+  }
+
+  /**
+   * Cancels a job. A queued job is cancelled at once; a running job stops at its next checkpoint.
+   *
+   * @param id The ID of the job.
+   * @return The job.
+   * @throws EntityNotFoundException if there is no such job.
+   * @throws JobStateException if the job has already finished.
+   */
+  public JobDto cancel(long id) {
+    JobRecord job = find(id);
+    synchronized (job) {
+      if (job.isFinished()) {
+        throw new JobStateException("Job " + id + " has already finished.");
+      }
+      job.cancelRequested = true;
+      if (job.status == Status.QUEUED) {
+        if (job.future != null) {
+          job.future.cancel(false);
+        }
+        finish(job, Status.CANCELLED, null);
+      } else {
+        store.save(job);
+      }
+    }
+    return job.toDto();
+  }
+
+  /**
+   * Deletes a finished job with its files.
+   *
+   * @param id The ID of the job.
+   * @throws EntityNotFoundException if there is no such job.
+   * @throws JobStateException if the job is queued or running.
+   */
+  public void delete(long id) {
+    JobRecord job = find(id);
+    synchronized (job) {
+      if (!job.isFinished()) {
+        throw new JobStateException("Job " + id + " has not finished; cancel it first.");
+      }
+      jobs.remove(id);
+      store.delete(id);
+    }
+  }
+
+  /**
+   * Returns the result file of a job that succeeded.
+   *
+   * @param id The ID of the job.
+   * @return The path of the result file.
+   * @throws EntityNotFoundException if there is no such job.
+   * @throws JobStateException if the job has not succeeded.
+   */
+  public Path result(long id) {
+    JobRecord job = find(id);
+    if (job.status != Status.SUCCEEDED) {
+      throw new JobStateException("Job " + id + " is " + job.status + "; it has no result yet.");
+    }
+    return store.result(id);
+  }
+
+  /** Deletes the finished jobs older than the retention, with their files. */
+  @Scheduled(fixedDelayString = "${api.jobs.cleanup-interval-ms:600000}")
+  public void expire() {
+    Instant expiry = Instant.now().minus(retention);
+    for (JobRecord job : jobs.values()) {
+      synchronized (job) {
+        if (job.isFinished() && job.finishedAt.isBefore(expiry)) {
+          jobs.remove(job.id);
+          store.delete(job.id);
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops the workers when the application shuts down. Running jobs stop at their next checkpoint
+   * and keep their status, so they resume on the next start. This runs when the context starts
+   * closing, before the data source and the other beans the handlers use are destroyed.
+   */
+  @EventListener(ContextClosedEvent.class)
+  void shutdown() throws InterruptedException {
+    stopping = true;
+    executor.shutdown();
+    if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+      executor.shutdownNow();
+    }
+  }
+
+  private JobDto enqueue(String type, Map<String, String> parameters, InputStream input) {
+    Map<String, String> effective = parameters == null ? Map.of() : parameters;
+    handler(type).validate(effective);
+
+    JobRecord job;
+    synchronized (jobs) {
+      long queued = jobs.values().stream().filter(j -> j.status == Status.QUEUED).count();
+      if (queued >= maxQueued) {
+        throw new JobQueueFullException(
+            queued + " jobs are already waiting. Retry once some have started.");
+      }
+      job = new JobRecord(nextId.getAndIncrement(), type, effective, input != null, Instant.now());
+      jobs.put(job.id, job);
+    }
+
+    try {
+      if (input != null) {
+        copy(input, store.input(job.id));
+      }
+      synchronized (job) {
+        store.save(job);
+        job.future = executor.submit(() -> run(job));
+      }
+    } catch (RuntimeException e) {
+      jobs.remove(job.id);
+      store.delete(job.id);
+      throw e;
+    }
+    return job.toDto();
+  }
+
+  /** Streams an input to disk, failing once it grows beyond the maximum size. */
+  private void copy(InputStream input, Path target) {
+    byte[] buffer = new byte[64 * 1024];
+    long copied = 0;
+    try (OutputStream out = Files.newOutputStream(target)) {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        copied += read;
+        if (copied > maxInputBytes) {
+          throw new EntityValidationException(
+              "The input is larger than " + maxInputBytes / (1024 * 1024) + " MB.");
+        }
+        out.write(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not store the input", e);
+    }
+  }
+
+  private void run(JobRecord job) {
+    synchronized (job) {
+      if (job.isFinished() || stopping) {
+        return;
+      }
+      if (job.cancelRequested) {
+        finish(job, Status.CANCELLED, null);
+        return;
+      }
+      job.status = Status.RUNNING;
+      job.attempts++;
+      if (job.startedAt == null) {
+        job.startedAt = Instant.now();
+      }
+      store.save(job);
+    }
+
+    try (FileChannel result =
+        FileChannel.open(
+            store.result(job.id), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      // Drop whatever was written after the last checkpoint before resuming from it.
+      result.truncate(job.resultBytes);
+      result.position(job.resultBytes);
+      JobContext context = new JobContext(job, store, result, chunkSize, () -> stopping);
+      handlers.get(job.type).run(context);
+      context.flush();
+      finish(job, Status.SUCCEEDED, null);
+    } catch (JobContext.Cancelled e) {
+      finish(job, Status.CANCELLED, null);
+    } catch (JobContext.Suspended e) {
+      logger.info("Job {} suspended at cursor {}", job.id, job.cursor);
+    } catch (Exception e) {
+      if (stopping) {
+        logger.info("Job {} interrupted by shutdown at cursor {}", job.id, job.cursor);
+        return;
+      }
+      logger.error("Job {} ({}) failed", job.id, job.type, e);
+      finish(job, Status.FAILED, e.getMessage() == null ? e.toString() : e.getMessage());
+    }
+  }
+
+  private void finish(JobRecord job, Status status, String error) {
+    synchronized (job) {
+      job.status = status;
+      job.error = error;
+      job.finishedAt = Instant.now();
+      store.save(job);
+    }
+  }
+
+  private JobHandler handler(String type) {
+    JobHandler handler = type == null ? null : handlers.get(type);
+    if (handler == null) {
+      throw new EntityValidationException(
+          "Unknown job type '"
+              + type
+              + "'. Allowed values: "
+              + String.join(",", handlers.keySet().stream().sorted().toList()));
+    }
+    return handler;
+  }
+
+  private JobRecord find(long id) {
+    JobRecord job = jobs.get(id);
+    if (job == null) {
+      throw new EntityNotFoundException("Job " + id + " not found.");
+    }
+    return job;
+  }
+}
@@ -0,0 +1,189 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.dto.JobDto.Status;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Keeps the jobs in a directory: for each job, a {@code job-<id>.properties} state file, its
+ * uploaded {@code job-<id>.input} if any, and its {@code job-<id>.result}.
+ *
+ * <p>State files are replaced atomically (written to a temporary file, then moved), so a crash
+ * leaves either the previous or the new checkpoint. Callers synchronize per job.
+ */
+class JobStore {
+
+  private static final String PARAMETER = "parameter.";
+  private static final String COUNTER = "counter.";
+
+  private final Path directory;
+
+  /**
+   * Creates a store over a directory, which is created on {@link #load()}.
+   *
+   * @param directory Where the job files are kept.
+   */
+  JobStore(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Reads the state file of every job in the directory.
+   *
+   * @return The jobs, in no particular order.
+   */
+  List<JobRecord> load() {
+    List<JobRecord> jobs = new ArrayList<>();
+    try {
+      Files.createDirectories(directory);
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "job-*.properties")) {
+        for (Path file : files) {
+          Properties properties = new Properties();
+          try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+          }
+          jobs.add(toRecord(properties));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read jobs from " + directory, e);
+    }
+    return jobs;
+  }
+
+  /**
+   * Writes the state file of a job.
+   *
+   * @param job The job.
+   */
+  void save(JobRecord job) {
+    Properties properties = toProperties(job);
+    Path file = directory.resolve("job-" + job.id + ".properties");
+    Path temporary = directory.resolve("job-" + job.id + ".properties.tmp");
+    try {
+      try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+        properties.store(writer, null);
+      }
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not save job " + job.id, e);
+    }
+  }
+
+  /**
+   * Deletes every file of a job.
+   *
+   * @param id The ID of the job.
+   */
+  void delete(long id) {
+    try {
+      Files.deleteIfExists(input(id));
+      Files.deleteIfExists(result(id));
+      Files.deleteIfExists(directory.resolve("job-" + id + ".properties"));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not delete job " + id, e);
+    }
+  }
+
+  /**
+   * Returns the path of the uploaded input of a job.
+   *
+   * @param id The ID of the job.
+   * @return The path, which exists only for jobs submitted with an input.
+   */
+  Path input(long id) {
+    return directory.resolve("job-" + id + ".input");
+  }
+
+  /**
+   * Returns the path of the result of a job.
+   *
+   * @param id The ID of the job.
+   * @return The path, which exists once the job has started.
+   */
+  Path result(long id) {
+    return directory.resolve("job-" + id + ".result");
+  }
+
+  private static Properties toProperties(JobRecord job) {
+    Properties properties = new Properties();
+    properties.setProperty("id", Long.toString(job.id));
+    properties.setProperty("type", job.type);
+    properties.setProperty("status", job.status.name());
+    properties.setProperty("input", Boolean.toString(job.hasInput));
+    properties.setProperty("submittedAt", job.submittedAt.toString());
+    setIfPresent(properties, "startedAt", job.startedAt);
+    setIfPresent(properties, "finishedAt", job.finishedAt);
+    setIfPresent(properties, "cursor", job.cursor);
+    setIfPresent(properties, "total", job.total);
+    setIfPresent(properties, "error", job.error);
+    properties.setProperty("processed", Long.toString(job.processed));
+    properties.setProperty("resultBytes", Long.toString(job.resultBytes));
+    properties.setProperty("attempts", Integer.toString(job.attempts));
+    properties.setProperty("cancelRequested", Boolean.toString(job.cancelRequested));
+    job.parameters.forEach((name, value) -> properties.setProperty(PARAMETER + name, value));
+    synchronized (job) {
+      job.counters.forEach(
+          (name, value) -> properties.setProperty(COUNTER + name, Long.toString(value)));
+    }
+    return properties;
+  }
+
+  private static JobRecord toRecord(Properties properties) {
+    Map<String, String> parameters = new HashMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      if (name.startsWith(PARAMETER)) {
+        parameters.put(name.substring(PARAMETER.length()), properties.getProperty(name));
+      }
+    }
+    JobRecord job =
+        new JobRecord(
+            Long.parseLong(properties.getProperty("id")),
+            properties.getProperty("type"),
+            parameters,
+            Boolean.parseBoolean(properties.getProperty("input")),
+            Instant.parse(properties.getProperty("submittedAt")));
+    job.status = Status.valueOf(properties.getProperty("status"));
+    job.startedAt = instant(properties.getProperty("startedAt"));
+    job.finishedAt = instant(properties.getProperty("finishedAt"));
+    job.cursor = properties.getProperty("cursor");
+    String total = properties.getProperty("total");
+    job.total = total == null ? null : Long.valueOf(total);
+    job.error = properties.getProperty("error");
+    job.processed = Long.parseLong(properties.getProperty("processed", "0"));
+    job.resultBytes = Long.parseLong(properties.getProperty("resultBytes", "0"));
+    job.attempts = Integer.parseInt(properties.getProperty("attempts", "0"));
+    job.cancelRequested = Boolean.parseBoolean(properties.getProperty("cancelRequested"));
+    for (String name : properties.stringPropertyNames()) {
+      if (name.startsWith(COUNTER)) {
+        job.counters.put(
+            name.substring(COUNTER.length()), Long.valueOf(properties.getProperty(name)));
+      }
+    }
+    return job;
+  }
+
+  private static void setIfPresent(Properties properties, String name, Object value) {
+    if (value != null) {
+      properties.setProperty(name, value.toString());
+    }
+  }
+
+  private static Instant instant(String value) {
+    return value == null ? null : Instant.parse(value);
+  }
+}
@@ -0,0 +1,277 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.exception.EntityValidationException;
+import batistaReviver.studentApi.model.Student;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports students from an uploaded CSV file with the header {@code name,phone,email,register}.
+ *
+ * <p>Each chunk of lines is validated with the constraints of {@link Student} and inserted with one
+ * JDBC batch in its own transaction; the cursor is the byte offset and number of the next line.
+ * Students whose register already exists are skipped, which also makes repeating a chunk after a
+ * restart harmless. If a batch fails, its rows are inserted one by one so that a single conflicting
+ * row does not reject its neighbours. The result lists every rejected line with the reason.
+ */
+@Component
+public class StudentImportJob implements JobHandler {
+
+  private static final List<String> HEADER = List.of("name", "phone", "email", "register");
+
+  private static final String INSERT_SQL =
+      "INSERT INTO students (name, phone, email, register) VALUES (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+
+  /**
+   * Constructs the handler.
+   *
+   * @param jdbcTemplate The template the students are inserted with.
+   * @param transactionManager The transaction manager of the chunks.
+   * @param validator The validator checking each line against the {@link Student} constraints.
+   */
+  public StudentImportJob(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      Validator validator) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.validator = validator;
+  }
+
+  @Override
+  public String type() {
+    return "student-import";
+  }
+
+  @Override
+  public boolean requiresInput() {
+    return true;
+  }
+
+  @Override
+  public void run(JobContext context) throws Exception {
+    Path input = context.input();
+    long offset = 0;
+    long lineNumber = 0;
+    if (context.isFirstRun()) {
+      context.setTotal(Math.max(0, countLines(input) - 1));
+      context.write(Csv.line("line", "register", "reason"));
+    } else {
+      String[] cursor = context.cursor().split(":");
+      offset = Long.parseLong(cursor[0]);
+      lineNumber = Long.parseLong(cursor[1]);
+    }
+
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      channel.position(offset);
+      LineReader reader = new LineReader(Channels.newInputStream(channel), offset);
+      if (offset == 0) {
+        String header = reader.readLine();
+        lineNumber++;
+        if (header == null
+            || !Csv.parse(header.replace("\uFEFF", "").toLowerCase(Locale.ROOT).replace(" ", ""))
+                .equals(HEADER)) {
+          throw new EntityValidationException(
+              "The first line must be the header " + String.join(",", HEADER) + ".");
+        }
+      }
+
+      while (true) {
+        Map<Long, Student> rows = new LinkedHashMap<>();
+        int read = 0;
+        String line;
+        while (read < context.chunkSize() && (line = reader.readLine()) != null) {
+          lineNumber++;
+          read++;
+          if (!line.isBlank()) {
+            Student student = parse(lineNumber, line, context);
+            if (student != null) {
+              rows.put(lineNumber, student);
+            }
+          }
+        }
+        if (read == 0) {
+          return;
+        }
+        importChunk(rows, context);
+        context.checkpoint(reader.offset() + ":" + lineNumber, read);
+      }
+    }
+  }
+
+  /** Parses and validates a line, or writes it to the result as rejected and returns null. */
+  private Student parse(long lineNumber, String line, JobContext context) throws IOException {
+    List<String> fields = Csv.parse(line);
+    if (fields.size() != HEADER.size()) {
+      reject(context, lineNumber, null, "Expected " + HEADER.size() + " fields.");
+      return null;
+    }
+    Student student =
+        new Student(
+            fields.get(0).trim(), fields.get(1).trim(), fields.get(2).trim(), fields.get(3).trim());
+    Set<ConstraintViolation<Student>> violations = validator.validate(student);
+    if (!violations.isEmpty()) {
+      reject(
+          context,
+          lineNumber,
+          student.getRegister(),
+          violations.stream()
+              .map(ConstraintViolation::getMessage)
+              .sorted()
+              .collect(Collectors.joining("; ")));
+      return null;
+    }
+    return student;
+  }
+
+  /** Skips the students already present and inserts the others. */
+  private void importChunk(Map<Long, Student> rows, JobContext context) throws IOException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    List<String> registers = rows.values().stream().map(Student::getRegister).toList();
+    Set<String> present =
+        new HashSet<>(
+            jdbcTemplate.queryForList(
+                "SELECT register FROM students WHERE register IN ("
+                    + String.join(",", Collections.nCopies(registers.size(), "?"))
+                    + ")",
+                String.class,
+                registers.toArray()));
+
+    List<Map.Entry<Long, Student>> inserts = new ArrayList<>();
+    for (Map.Entry<Long, Student> row : rows.entrySet()) {
+      if (present.add(row.getValue().getRegister())) {
+        inserts.add(row);
+      } else {
+        context.count("skipped", 1);
+      }
+    }
+    if (inserts.isEmpty()) {
+      return;
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(
+          status ->
+              jdbcTemplate.batchUpdate(
+                  INSERT_SQL,
+                  inserts,
+                  inserts.size(),
+                  (statement, row) -> {
+                    Student student = row.getValue();
+                    statement.setString(1, student.getName());
+                    statement.setString(2, student.getPhone());
+                    statement.setString(3, student.getEmail());
+                    statement.setString(4, student.getRegister());
+                  }));
+      context.count("imported", inserts.size());
+      return;
+    } catch (DataIntegrityViolationException batchFailure) {
+      // A row conflicts with an existing student; find it by inserting the rows one by one.
+    }
+
+    for (Map.Entry<Long, Student> row : inserts) {
+      Student student = row.getValue();
+      try {
+        jdbcTemplate.update(
+            INSERT_SQL,
+            student.getName(),
+            student.getPhone(),
+            student.getEmail(),
+            student.getRegister());
+        context.count("imported", 1);
+      } catch (DataIntegrityViolationException e) {
+        reject(context, row.getKey(), student.getRegister(), "Email or phone already in use.");
+      }
+    }
+  }
+
+  private static void reject(JobContext context, long lineNumber, String register, String reason)
+      throws IOException {
+    context.write(Csv.line(lineNumber, register, reason));
+    context.count("rejected", 1);
+  }
+
+  private static long countLines(Path input) throws IOException {
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+      long lines = 0;
+      byte last = '\n';
+      while (channel.read(buffer) != -1) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          last = buffer.get();
+          if (last == '\n') {
+            lines++;
+          }
+        }
+        buffer.clear();
+      }
+      return last == '\n' ? lines : lines + 1;
+    }
+  }
+
+  /** Reads UTF-8 lines while tracking the byte offset of the next line. */
+  private static final class LineReader {
+
+    private final InputStream in;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private long offset;
+
+    private LineReader(InputStream in, long offset) {
+      this.in = new BufferedInputStream(in, 64 * 1024);
+      this.offset = offset;
+    }
+
+    /** Returns the next line without its line break, or null at the end of the input. */
+    private String readLine() throws IOException {
+      line.reset();
+      int b;
+      while ((b = in.read()) != -1) {
+        offset++;
+        if (b == '\n') {
+          break;
+        }
+        line.write(b);
+      }
+      if (b == -1 && line.size() == 0) {
+        return null;
+      }
+      String text = line.toString(StandardCharsets.UTF_8);
+      return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    private long offset() {
+      return offset;
+    }
+  }
+}
@@ -0,0 +1,251 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.exception.EntityValidationException;
+import batistaReviver.studentApi.util.AcademicTerm;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the subscriptions of past terms from {@code subscriptions} to {@code
+ * subscriptions_archive}, so that the live table, and every query on it, only covers the recent
+ * terms.
+ *
+ * <p>Parameter: {@code keepTerms}, optional, the number of terms up to the current one that stay
+ * live (by default {@code api.subscriptions.archive.keep-terms}). The job first flags the classes
+ * of the older terms as archived, which closes them to new subscriptions and makes their reads
+ * include the archive. It then moves their subscriptions term by term, oldest first, each chunk
+ * copied and deleted in one transaction, so a subscription is always in exactly one of the tables.
+ * The cursor is the first kept term, the term being moved and how many of its subscriptions were
+ * moved. The result lists the number of subscriptions archived per term.
+ *
+ * <p>On MySQL the archive is compressed and partitioned by term: before the first move, the primary
+ * key is extended with the term (partitioned tables require it) and the table is given one
+ * catch-all partition, from which a partition is split off for each newly archived term.
+ */
+@Component
+public class SubscriptionArchiveJob implements JobHandler {
+
+  /** The type under which archival jobs are submitted. */
+  public static final String TYPE = "subscription-archive";
+
+  private static final Logger logger = LoggerFactory.getLogger(SubscriptionArchiveJob.class);
+
+  private static final String ARCHIVE = "subscriptions_archive";
+
+  private static final String CATCH_ALL = "p_future";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int keepTerms;
+
+  /**
+   * Constructs the handler.
+   *
+   * @param jdbcTemplate The template the subscriptions are moved with.
+   * @param transactionManager The transaction manager of the chunks.
+   * @param keepTerms The default number of terms, up to the current one, that are not archived.
+   */
+  public SubscriptionArchiveJob(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${api.subscriptions.archive.keep-terms:2}") int keepTerms) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.keepTerms = keepTerms;
+  }
+
+  @Override
+  public String type() {
+    return TYPE;
+  }
+
+  @Override
+  public void validate(Map<String, String> parameters) {
+    keepTerms(parameters);
+  }
+
+  @Override
+  public void run(JobContext context) throws Exception {
+    int firstKept;
+    int term = 0;
+    long moved = 0;
+    if (context.isFirstRun()) {
+      firstKept =
+          AcademicTerm.minus(AcademicTerm.of(LocalDate.now()), keepTerms(context.parameters()) - 1);
+      if (isMySql()) {
+        prepareArchive();
+      }
+      context.setTotal(
+          jdbcTemplate.queryForObject(
+              "SELECT COUNT(*) FROM subscriptions WHERE term < ?", Long.class, firstKept));
+      context.write(Csv.line("term", "subscriptions"));
+    } else {
+      String[] cursor = context.cursor().split(":");
+      firstKept = Integer.parseInt(cursor[0]);
+      term = Integer.parseInt(cursor[1]);
+      moved = Long.parseLong(cursor[2]);
+    }
+
+    int archived =
+        jdbcTemplate.update(
+            "UPDATE study_classes SET archived = TRUE"
+                + " WHERE archived = FALSE AND year * 10 + semester < ?",
+            firstKept);
+    if (archived > 0) {
+      logger.info("Closed {} study classes of terms before {}", archived, firstKept);
+    }
+
+    boolean mySql = isMySql();
+    while (true) {
+      Integer next =
+          jdbcTemplate.queryForObject(
+              "SELECT MIN(term) FROM subscriptions WHERE term >= ? AND term < ?",
+              Integer.class,
+              term,
+              firstKept);
+      if (next == null || next != term) {
+        if (moved > 0) {
+          context.write(Csv.line(term, moved));
+        }
+        if (next == null) {
+          return;
+        }
+        term = next;
+        moved = 0;
+        if (mySql) {
+          addPartition(term);
+        }
+      }
+
+      int count = moveChunk(term, context.chunkSize());
+      moved += count;
+      context.count("archived", count);
+      context.checkpoint(firstKept + ":" + term + ":" + moved, count);
+    }
+  }
+
+  /** Copies the oldest subscriptions of a term to the archive and deletes them, atomically. */
+  private int moveChunk(int term, int chunkSize) {
+    Integer count =
+        transactionTemplate.execute(
+            status -> {
+              List<Long> ids =
+                  jdbcTemplate.queryForList(
+                      "SELECT id FROM subscriptions WHERE term = ? ORDER BY id LIMIT ? FOR UPDATE",
+                      Long.class,
+                      term,
+                      chunkSize);
+              if (ids.isEmpty()) {
+                return 0;
+              }
+              String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+              jdbcTemplate.update(
+                  "INSERT INTO "
+                      + ARCHIVE
+                      + " (id, date, term, student_id, study_class_id)"
+                      + " SELECT id, date, term, student_id, study_class_id FROM subscriptions"
+                      + " WHERE id IN ("
+                      + in
+                      + ")",
+                  ids.toArray());
+              jdbcTemplate.update(
+                  "DELETE FROM subscriptions WHERE id IN (" + in + ")", ids.toArray());
+              return ids.size();
+            });
+    return count == null ? 0 : count;
+  }
+
+  private boolean isMySql() {
+    return "MySQL"
+        .equals(
+            jdbcTemplate.execute(
+                (ConnectionCallback<String>)
+                    connection -> connection.getMetaData().getDatabaseProductName()));
+  }
+
+  /** Compresses and partitions the archive, unless it is partitioned already. */
+  private void prepareArchive() {
+    if (!partitions().isEmpty()) {
+      return;
+    }
+    jdbcTemplate.execute(
+        "ALTER TABLE "
+            + ARCHIVE
+            + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, term),"
+            + " ROW_FORMAT=COMPRESSED, KEY_BLOCK_SIZE=8");
+    jdbcTemplate.execute(
+        "ALTER TABLE "
+            + ARCHIVE
+            + " PARTITION BY RANGE (term) (PARTITION "
+            + CATCH_ALL
+            + " VALUES LESS THAN MAXVALUE)");
+    logger.info("Compressed and partitioned {} by term", ARCHIVE);
+  }
+
+  /**
+   * Splits a partition for a term off the catch-all partition, which is empty at that point since
+   * terms are archived in ascending order. An older term, archived late, is left in the partition
+   * that covers it.
+   */
+  private void addPartition(int term) {
+    int highest = 0;
+    for (Map<String, Object> partition : partitions()) {
+      if (("p" + term).equals(partition.get("PARTITION_NAME"))) {
+        return;
+      }
+      String bound = String.valueOf(partition.get("PARTITION_DESCRIPTION"));
+      if (!"MAXVALUE".equalsIgnoreCase(bound)) {
+        highest = Math.max(highest, Integer.parseInt(bound));
+      }
+    }
+    if (term < highest) {
+      return;
+    }
+    jdbcTemplate.execute(
+        "ALTER TABLE "
+            + ARCHIVE
+            + " REORGANIZE PARTITION "
+            + CATCH_ALL
+            + " INTO (PARTITION p"
+            + term
+            + " VALUES LESS THAN ("
+            + (term + 1)
+            + "), PARTITION "
+            + CATCH_ALL
+            + " VALUES LESS THAN MAXVALUE)");
+    logger.info("Added partition p{} to {}", term, ARCHIVE);
+  }
+
+  private List<Map<String, Object>> partitions() {
+    return jdbcTemplate.queryForList(
+        "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS"
+            + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+        ARCHIVE);
+  }
+
+  private int keepTerms(Map<String, String> parameters) {
+    String value = parameters.get("keepTerms");
+    if (value == null || value.isBlank()) {
+      return keepTerms;
+    }
+    try {
+      int terms = Integer.parseInt(value.trim());
+      if (terms >= 1) {
+        return terms;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below.
+    }
+    throw new EntityValidationException("Parameter 'keepTerms' must be a number of at least 1.");
+  }
+}
@@ -0,0 +1,51 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.dto.JobDto;
+import batistaReviver.studentApi.dto.JobDto.Status;
+import batistaReviver.studentApi.exception.JobQueueFullException;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Submits a {@link SubscriptionArchiveJob} on the schedule {@code api.subscriptions.archive.cron}
+ * (daily at 03:00 by default, {@code -} to disable), unless one is already queued or running.
+ * Between two term changes a run finds nothing to move, so a frequent schedule is cheap.
+ */
+@Component
+public class SubscriptionArchiveScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(SubscriptionArchiveScheduler.class);
+
+  private final JobService jobService;
+
+  /**
+   * Constructs the scheduler.
+   *
+   * @param jobService The service the archival jobs are submitted to.
+   */
+  public SubscriptionArchiveScheduler(JobService jobService) {
+    this.jobService = jobService;
+  }
+
+  /** Submits an archival job with the default parameters. */
+  @Scheduled(cron = "${api.subscriptions.archive.cron:0 0 3 * * *}")
+  public void archive() {
+    boolean pending =
+        jobService.list().stream()
+            .filter(job -> SubscriptionArchiveJob.TYPE.equals(job.type()))
+            .map(JobDto::status)
+            .anyMatch(status -> status == Status.QUEUED || status == Status.RUNNING);
+    if (pending) {
+      return;
+    }
+    try {
+      JobDto job = jobService.submit(SubscriptionArchiveJob.TYPE, Map.of());
+      logger.info("Submitted subscription archival job {}", job.id());
+    } catch (JobQueueFullException e) {
+      logger.warn("Subscription archival skipped: {}", e.getMessage());
+    }
+  }
+}
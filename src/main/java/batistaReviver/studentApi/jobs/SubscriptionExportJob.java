@@ -0,0 +1,183 @@
+package batistaReviver.studentApi.jobs;
+
+import batistaReviver.studentApi.exception.EntityValidationException;
+import batistaReviver.studentApi.util.AcademicTerm;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Exports the subscriptions of a term, or of every term, as CSV: one line per subscription with its
+ * student, class and course.
+ *
+ * <p>Parameters: {@code year} and {@code semester}, both optional. Subscriptions are read by
+ * ascending ID in chunks, each in its own read-only transaction (so on the read replica when one is
+ * configured), with the last exported ID as the cursor. Both the live table and the archive are
+ * read, filtered on their {@code term} column, so archived terms are exported like the others.
+ */
+@Component
+public class SubscriptionExportJob implements JobHandler {
+
+  /** The joins of the chunk query; {@code s} is the merged chunk of both tables. */
+  private static final String JOINS =
+      " JOIN students st ON st.id = s.student_id"
+          + " JOIN study_classes c ON c.id = s.study_class_id"
+          + " JOIN courses co ON co.id = c.course_id";
+
+  private static final String COLUMNS =
+      "SELECT s.id, s.date, st.id, st.name, st.email, st.register,"
+          + " c.class_code, c.year, c.semester, co.name";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnly;
+
+  /**
+   * Constructs the handler.
+   *
+   * @param jdbcTemplate The template the subscriptions are read with.
+   * @param transactionManager The transaction manager of the chunks.
+   */
+  public SubscriptionExportJob(
+      JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+  }
+
+  @Override
+  public String type() {
+    return "subscription-export";
+  }
+
+  @Override
+  public void validate(Map<String, String> parameters) {
+    Integer semester = integer(parameters, "semester");
+    integer(parameters, "year");
+    if (semester != null && (semester < 1 || semester > 2)) {
+      throw new EntityValidationException("Parameter 'semester' must be 1 or 2.");
+    }
+  }
+
+  @Override
+  public void run(JobContext context) throws Exception {
+    StringBuilder where = new StringBuilder(" WHERE id > ?");
+    List<Object> filters = new ArrayList<>();
+    Integer year = integer(context.parameters(), "year");
+    Integer semester = integer(context.parameters(), "semester");
+    if (year != null && semester != null) {
+      where.append(" AND term = ?");
+      filters.add(AcademicTerm.of(year, semester));
+    } else if (year != null) {
+      where.append(" AND term BETWEEN ? AND ?");
+      filters.add(AcademicTerm.of(year, 1));
+      filters.add(AcademicTerm.of(year, 2));
+    } else if (semester != null) {
+      where.append(" AND MOD(term, 10) = ?");
+      filters.add(semester);
+    }
+
+    if (context.isFirstRun()) {
+      List<Object> countArguments = new ArrayList<>();
+      for (int table = 0; table < 2; table++) {
+        countArguments.add(0L);
+        countArguments.addAll(filters);
+      }
+      context.setTotal(
+          readOnly.execute(
+              status ->
+                  jdbcTemplate.queryForObject(
+                      "SELECT (SELECT COUNT(*) FROM subscriptions"
+                          + where
+                          + ") + (SELECT COUNT(*) FROM subscriptions_archive"
+                          + where
+                          + ")",
+                      Long.class,
+                      countArguments.toArray())));
+      context.write(
+          Csv.line(
+              "subscription_id",
+              "date",
+              "student_id",
+              "student_name",
+              "student_email",
+              "student_register",
+              "class_code",
+              "year",
+              "semester",
+              "course_name"));
+    }
+
+    // Each table is read by ascending ID up to the chunk size, and the first rows of both form the
+    // chunk. A subscription is in exactly one of them, even while the archival job moves it.
+    String branch = " ORDER BY id LIMIT ?)";
+    String sql =
+        COLUMNS
+            + " FROM ((SELECT id, date, student_id, study_class_id FROM subscriptions"
+            + where
+            + branch
+            + " UNION ALL (SELECT id, date, student_id, study_class_id FROM subscriptions_archive"
+            + where
+            + branch
+            + ") s"
+            + JOINS
+            + " ORDER BY s.id LIMIT ?";
+    long after = context.isFirstRun() ? 0 : Long.parseLong(context.cursor());
+    while (true) {
+      List<Object> arguments = new ArrayList<>();
+      for (int table = 0; table < 2; table++) {
+        arguments.add(after);
+        arguments.addAll(filters);
+        arguments.add(context.chunkSize());
+      }
+      arguments.add(context.chunkSize());
+      StringBuilder chunk = new StringBuilder();
+      long[] last = {after, 0};
+      readOnly.executeWithoutResult(
+          status ->
+              jdbcTemplate.query(
+                  sql,
+                  rs -> {
+                    last[0] = rs.getLong(1);
+                    last[1]++;
+                    chunk.append(
+                        Csv.line(
+                            rs.getLong(1),
+                            rs.getTimestamp(2).toLocalDateTime(),
+                            rs.getLong(3),
+                            rs.getString(4),
+                            rs.getString(5),
+                            rs.getString(6),
+                            rs.getString(7),
+                            rs.getInt(8),
+                            rs.getInt(9),
+                            rs.getString(10)));
+                  },
+                  arguments.toArray()));
+      if (last[1] == 0) {
+        return;
+      }
+      context.write(chunk);
+      after = last[0];
+      context.checkpoint(Long.toString(after), last[1]);
+      if (last[1] < context.chunkSize()) {
+        return;
+      }
+    }
+  }
+
+  private static Integer integer(Map<String, String> parameters, String name) {
+    String value = parameters.get(name);
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      throw new EntityValidationException("Parameter '" + name + "' must be a number.");
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package batistaReviver.studentApi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times every controller method and publishes the data-access work each endpoint does.
+ *
+ * <p>For each request dispatched to a controller it records:
+ *
+ * <ul>
+ *   <li>{@code studysystem.controller}: a timer tagged with the controller, the method and the
+ *       response status;
+ *   <li>{@code studysystem.request.statements}: the JDBC statements the request executed;
+ *   <li>{@code studysystem.request.entities.loaded}: the entities Hibernate loaded for it.
+ * </ul>
+ *
+ * <p>The summaries are tagged with the endpoint (HTTP method and route pattern, e.g. {@code GET
+ * /students/{id}}), the same tag {@link EndpointRepositoryTagsProvider} adds to repository timers.
+ * Percentiles are configured with the {@code management.metrics.distribution.percentiles.*}
+ * properties.
+ *
+ * <p>The {@link StatementBudget} of the controller method, if any, is applied to the request's
+ * statistics. Requests without one may still repeat a statement shape at most {@code
+ * api.statement-budget.max-repeats} times.
+ */
+@Component
+public class EndpointMetricsInterceptor implements HandlerInterceptor {
+
+  private static final String SAMPLE_ATTRIBUTE =
+      EndpointMetricsInterceptor.class.getName() + ".SAMPLE";
+
+  private final MeterRegistry meterRegistry;
+  private final int defaultMaxRepeats;
+
+  /**
+   * Constructs the interceptor.
+   *
+   * @param meterRegistry The registry the metrics are published to.
+   * @param defaultMaxRepeats The most executions of one statement shape allowed per request when
+   *     the controller method does not set its own budget; -1 for no limit.
+   */
+  public EndpointMetricsInterceptor(
+      MeterRegistry meterRegistry,
+      @Value("${api.statement-budget.max-repeats:20}") int defaultMaxRepeats) {
+    this.meterRegistry = meterRegistry;
+    this.defaultMaxRepeats = defaultMaxRepeats;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (handler instanceof HandlerMethod method) {
+      request.setAttribute(SAMPLE_ATTRIBUTE, Timer.start(meterRegistry));
+      RequestStatistics statistics = RequestStatistics.start(endpoint(request));
+      StatementBudget budget = method.getMethodAnnotation(StatementBudget.class);
+      if (budget == null) {
+        budget = method.getBeanType().getAnnotation(StatementBudget.class);
+      }
+      if (budget == null) {
+        statistics.limit(-1, defaultMaxRepeats);
+      } else {
+        statistics.limit(
+            budget.value(), budget.maxRepeats() >= 0 ? budget.maxRepeats() : defaultMaxRepeats);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (!(handler instanceof HandlerMethod method)
+        || !(request.getAttribute(SAMPLE_ATTRIBUTE) instanceof Timer.Sample sample)) {
+      return;
+    }
+    sample.stop(
+        Timer.builder("studysystem.controller")
+            .description("Time spent in a controller method")
+            .tag("controller", method.getBeanType().getSimpleName())
+            .tag("method", method.getMethod().getName())
+            .tag("status", String.valueOf(response.getStatus()))
+            .register(meterRegistry));
+
+    RequestStatistics statistics = RequestStatistics.current();
+    if (statistics == null) {
+      return;
+    }
+    statistics.finish();
+    DistributionSummary.builder("studysystem.request.statements")
+        .description("JDBC statements executed by a request")
+        .tag("endpoint", statistics.endpoint())
+        .register(meterRegistry)
+        .record(statistics.statements());
+    DistributionSummary.builder("studysystem.request.entities.loaded")
+        .description("Entities loaded by Hibernate for a request")
+        .tag("endpoint", statistics.endpoint())
+        .register(meterRegistry)
+        .record(statistics.entitiesLoaded());
+  }
+
+  /**
+   * Returns the endpoint of a request: its HTTP method and the route pattern that matched it, e.g.
+   * {@code GET /students/{id}}, or {@code UNKNOWN} for the pattern when no route matched (yet).
+   *
+   * @param request The request.
+   * @return The endpoint.
+   */
+  public static String endpoint(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+  }
+}
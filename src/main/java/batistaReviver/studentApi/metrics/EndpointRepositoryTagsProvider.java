@@ -0,0 +1,22 @@
+package batistaReviver.studentApi.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tags the {@code spring.data.repository.invocations} timer with the endpoint that made the call,
+ * in addition to the default repository, method, state and exception tags, so that the repository
+ * call dominating an endpoint's latency can be read directly from the metrics.
+ */
+@Component
+public class EndpointRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+  @Override
+  public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+    return Tags.of(super.repositoryTags(invocation))
+        .and("endpoint", RequestStatistics.currentEndpoint());
+  }
+}
@@ -0,0 +1,21 @@
+package batistaReviver.studentApi.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate interceptor that counts the entities loaded by the current request in its {@link
+ * RequestStatistics}. It is stateless and shared by all sessions of the session factory.
+ */
+public class EntityLoadCountingInterceptor implements Interceptor {
+
+  @Override
+  public boolean onLoad(
+      Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+    RequestStatistics statistics = RequestStatistics.current();
+    if (statistics != null) {
+      statistics.entityLoaded();
+    }
+    return false;
+  }
+}
@@ -0,0 +1,150 @@
+package batistaReviver.studentApi.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.ToDoubleFunction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the session factory {@link Statistics} of Hibernate as {@code hibernate.*} meters:
+ * sessions, statements, entity and collection loads, queries, flushes, transactions and
+ * second-level and query cache hits, misses and puts.
+ *
+ * <p>Requires {@code hibernate.generate_statistics=true}; without it every meter stays at 0.
+ */
+@Component
+public class HibernateStatisticsBinder implements MeterBinder {
+
+  private final Statistics statistics;
+
+  /**
+   * Constructs the binder.
+   *
+   * @param entityManagerFactory The application's entity manager factory.
+   */
+  public HibernateStatisticsBinder(EntityManagerFactory entityManagerFactory) {
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    counter(
+        registry, "hibernate.sessions.open", "Sessions opened", Statistics::getSessionOpenCount);
+    counter(
+        registry, "hibernate.sessions.closed", "Sessions closed", Statistics::getSessionCloseCount);
+    counter(
+        registry,
+        "hibernate.connections.obtained",
+        "JDBC connections obtained",
+        Statistics::getConnectCount);
+    counter(
+        registry,
+        "hibernate.statements",
+        "JDBC statements prepared",
+        Statistics::getPrepareStatementCount,
+        "status",
+        "prepared");
+    counter(
+        registry,
+        "hibernate.statements",
+        "JDBC statements closed",
+        Statistics::getCloseStatementCount,
+        "status",
+        "closed");
+    counter(registry, "hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+    counter(
+        registry,
+        "hibernate.transactions",
+        "Transactions completed successfully",
+        Statistics::getSuccessfulTransactionCount,
+        "result",
+        "success");
+    counter(
+        registry,
+        "hibernate.transactions",
+        "Transactions that failed",
+        s -> s.getTransactionCount() - s.getSuccessfulTransactionCount(),
+        "result",
+        "failure");
+    counter(
+        registry,
+        "hibernate.optimistic.failures",
+        "Optimistic lock failures",
+        Statistics::getOptimisticFailureCount);
+
+    entity(registry, "loads", "Entities loaded", Statistics::getEntityLoadCount);
+    entity(registry, "fetches", "Entities fetched lazily", Statistics::getEntityFetchCount);
+    entity(registry, "inserts", "Entities inserted", Statistics::getEntityInsertCount);
+    entity(registry, "updates", "Entities updated", Statistics::getEntityUpdateCount);
+    entity(registry, "deletes", "Entities deleted", Statistics::getEntityDeleteCount);
+    counter(
+        registry,
+        "hibernate.collections.loads",
+        "Collections loaded",
+        Statistics::getCollectionLoadCount);
+    counter(
+        registry,
+        "hibernate.collections.fetches",
+        "Collections fetched lazily",
+        Statistics::getCollectionFetchCount);
+
+    counter(
+        registry,
+        "hibernate.query.executions",
+        "Queries executed",
+        Statistics::getQueryExecutionCount);
+    Gauge.builder(
+            "hibernate.query.executions.max", statistics, Statistics::getQueryExecutionMaxTime)
+        .description("Time of the slowest query executed")
+        .baseUnit("milliseconds")
+        .register(registry);
+    cache(
+        registry,
+        "hibernate.second.level.cache",
+        "Second-level cache",
+        Statistics::getSecondLevelCacheHitCount,
+        Statistics::getSecondLevelCacheMissCount,
+        Statistics::getSecondLevelCachePutCount);
+    cache(
+        registry,
+        "hibernate.query.cache",
+        "Query cache",
+        Statistics::getQueryCacheHitCount,
+        Statistics::getQueryCacheMissCount,
+        Statistics::getQueryCachePutCount);
+  }
+
+  private void cache(
+      MeterRegistry registry,
+      String name,
+      String description,
+      ToDoubleFunction<Statistics> hits,
+      ToDoubleFunction<Statistics> misses,
+      ToDoubleFunction<Statistics> puts) {
+    counter(registry, name + ".requests", description + " hits", hits, "result", "hit");
+    counter(registry, name + ".requests", description + " misses", misses, "result", "miss");
+    counter(registry, name + ".puts", description + " puts", puts);
+  }
+
+  private void entity(
+      MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> value) {
+    counter(registry, "hibernate.entities." + name, description, value);
+  }
+
+  private void counter(
+      MeterRegistry registry,
+      String name,
+      String description,
+      ToDoubleFunction<Statistics> value,
+      String... tags) {
+    FunctionCounter.builder(name, statistics, value)
+        .description(description)
+        .tags(tags)
+        .register(registry);
+  }
+}
@@ -0,0 +1,76 @@
+package batistaReviver.studentApi.metrics;
+
+import batistaReviver.studentApi.exception.ReadOnlyViolationException;
+import batistaReviver.studentApi.jdbc.StatementExecution;
+import batistaReviver.studentApi.jdbc.StatementListener;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Checks that GET requests only execute statements inside read-only transactions.
+ *
+ * <p>A read-only transaction runs in its own Hibernate session with flush mode {@code MANUAL} and
+ * read-only entities, so no snapshots are kept for dirty checking, on a connection flagged
+ * read-only, which {@link batistaReviver.studentApi.config.ReadReplicaConfig} sends to the replica.
+ * A statement of a GET request outside of one, such as a service method missing {@code
+ * Transactional(readOnly = true)}, is recorded in {@link #violations()} with its endpoint. In
+ * {@code log} mode it is logged as a warning and executed; in {@code fail} mode it is not executed
+ * and a {@link ReadOnlyViolationException} ends the request.
+ */
+@Component
+@ConditionalOnProperty(name = "api.read-only-guard.enabled", havingValue = "true")
+public class ReadOnlyGuard implements StatementListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReadOnlyGuard.class);
+
+  private final boolean fail;
+  private final ConcurrentMap<String, String> violations = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs the guard.
+   *
+   * @param mode What to do with a statement outside of a read-only transaction: {@code log} or
+   *     {@code fail}.
+   */
+  public ReadOnlyGuard(@Value("${api.read-only-guard.mode:log}") String mode) {
+    this.fail = "fail".equalsIgnoreCase(mode);
+  }
+
+  @Override
+  public void beforeExecute(StatementExecution execution) {
+    String endpoint = RequestStatistics.currentEndpoint();
+    if (!endpoint.startsWith("GET ")
+        || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return;
+    }
+    violations.putIfAbsent(endpoint, execution.shape());
+    String message =
+        "Statement outside of a read-only transaction in " + endpoint + ": " + execution.shape();
+    if (fail) {
+      throw new ReadOnlyViolationException(message + ".");
+    }
+    logger.warn(message);
+  }
+
+  /**
+   * Returns the GET endpoints that executed a statement outside of a read-only transaction.
+   *
+   * @return The first offending statement shape of each endpoint, by endpoint.
+   */
+  public Map<String, String> violations() {
+    return new TreeMap<>(violations);
+  }
+
+  /** Forgets the violations recorded so far. */
+  public void reset() {
+    violations.clear();
+  }
+}
@@ -0,0 +1,153 @@
+package batistaReviver.studentApi.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * CPU time and allocated bytes of the request being handled by the current thread, in total and for
+ * the phases worth breaking out: JWT validation, repository calls and response serialization.
+ *
+ * <p>Started by {@link batistaReviver.studentApi.filter.ResourceAccountingFilter}. Measurements
+ * come from the JVM's per-thread counters ({@link com.sun.management.ThreadMXBean}); a counter the
+ * JVM does not support reads as -1. Phases measured outside of a request are ignored.
+ */
+public final class RequestResources {
+
+  /** A part of request handling that is measured separately. */
+  public enum Phase {
+    /** Validation of the JWT bearer token. */
+    JWT,
+    /** Spring Data repository calls (the outermost call, if they nest). */
+    REPOSITORY,
+    /** Serialization of the response body. */
+    SERIALIZATION;
+
+    /** Returns the name used in metric tags and {@code Server-Timing} headers. */
+    public String tag() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /** A running measurement of a phase. */
+  public interface Span {
+    /** Stops the measurement and adds it to the phase. Extra calls are ignored. */
+    void stop();
+  }
+
+  private static final Span NO_SPAN = () -> {};
+
+  private static final ThreadLocal<RequestResources> CURRENT = new ThreadLocal<>();
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private static final boolean CPU_SUPPORTED =
+      THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+  private static final boolean ALLOCATION_SUPPORTED =
+      THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+
+  private final long startNanos = System.nanoTime();
+  private final long startCpuNanos = threadCpuNanos();
+  private final long startBytes = threadAllocatedBytes();
+  private final long[] phaseNanos = new long[Phase.values().length];
+  private final long[] phaseCpuNanos = new long[Phase.values().length];
+  private final long[] phaseBytes = new long[Phase.values().length];
+  private long wallNanos;
+  private long cpuNanos = -1;
+  private long bytes = -1;
+
+  private RequestResources() {}
+
+  /**
+   * Starts measuring for the current thread.
+   *
+   * @return The new measurements.
+   */
+  public static RequestResources start() {
+    RequestResources resources = new RequestResources();
+    CURRENT.set(resources);
+    return resources;
+  }
+
+  /**
+   * Starts measuring a phase of the current request.
+   *
+   * @param phase The phase.
+   * @return The running measurement; a no-op outside of a request.
+   */
+  public static Span measure(Phase phase) {
+    RequestResources resources = CURRENT.get();
+    if (resources == null) {
+      return NO_SPAN;
+    }
+    long start = System.nanoTime();
+    long startCpu = threadCpuNanos();
+    long startAllocated = threadAllocatedBytes();
+    return new Span() {
+      private boolean stopped;
+
+      @Override
+      public void stop() {
+        if (stopped) {
+          return;
+        }
+        stopped = true;
+        int index = phase.ordinal();
+        resources.phaseNanos[index] += System.nanoTime() - start;
+        resources.phaseCpuNanos[index] += threadCpuNanos() - startCpu;
+        resources.phaseBytes[index] += threadAllocatedBytes() - startAllocated;
+      }
+    };
+  }
+
+  /** Stops measuring and removes the measurements from the current thread. */
+  public void finish() {
+    wallNanos = System.nanoTime() - startNanos;
+    if (CPU_SUPPORTED) {
+      cpuNanos = threadCpuNanos() - startCpuNanos;
+    }
+    if (ALLOCATION_SUPPORTED) {
+      bytes = threadAllocatedBytes() - startBytes;
+    }
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+    }
+  }
+
+  /** Returns the wall time of the request, in nanoseconds. */
+  public long wallNanos() {
+    return wallNanos;
+  }
+
+  /** Returns the CPU time used by the request thread, in nanoseconds; -1 if unsupported. */
+  public long cpuNanos() {
+    return cpuNanos;
+  }
+
+  /** Returns the bytes allocated by the request thread; -1 if unsupported. */
+  public long allocatedBytes() {
+    return bytes;
+  }
+
+  /** Returns the wall time spent in a phase, in nanoseconds. */
+  public long wallNanos(Phase phase) {
+    return phaseNanos[phase.ordinal()];
+  }
+
+  /** Returns the CPU time spent in a phase, in nanoseconds; -1 if unsupported. */
+  public long cpuNanos(Phase phase) {
+    return CPU_SUPPORTED ? phaseCpuNanos[phase.ordinal()] : -1;
+  }
+
+  /** Returns the bytes allocated in a phase; -1 if unsupported. */
+  public long allocatedBytes(Phase phase) {
+    return ALLOCATION_SUPPORTED ? phaseBytes[phase.ordinal()] : -1;
+  }
+
+  private static long threadCpuNanos() {
+    return CPU_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+  }
+
+  private static long threadAllocatedBytes() {
+    return ALLOCATION_SUPPORTED ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+  }
+}
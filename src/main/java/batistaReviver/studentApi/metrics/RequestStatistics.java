@@ -0,0 +1,187 @@
+package batistaReviver.studentApi.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data-access statistics of the request being handled by the current thread.
+ *
+ * <p>Started by {@link EndpointMetricsInterceptor} when a controller method is dispatched. The JDBC
+ * statements and the entities Hibernate loads while it runs are counted here and published per
+ * endpoint when the request completes. Statements are also counted per shape (see {@link
+ * batistaReviver.studentApi.jdbc.StatementExecution#shape()}), so that a statement repeated once
+ * per row, the signature of an N+1 query, can be detected against a {@link StatementBudget}. Work
+ * done outside of a request (scheduled jobs, the write-behind flush) is not counted.
+ *
+ * <p>Statistics can be nested: a scope started while another is active (e.g. a request dispatched
+ * by a test that measures its statements) counts into both.
+ */
+public final class RequestStatistics {
+
+  /** Endpoint tag used for work that does not belong to a request. */
+  public static final String NO_ENDPOINT = "none";
+
+  private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+  private final String endpoint;
+  private final RequestStatistics parent;
+  private final Map<String, Integer> shapes = new HashMap<>();
+  private int statements;
+  private int entitiesLoaded;
+  private int maxStatements = -1;
+  private int maxRepeats = -1;
+
+  private RequestStatistics(String endpoint, RequestStatistics parent) {
+    this.endpoint = endpoint;
+    this.parent = parent;
+  }
+
+  /**
+   * Starts counting for the current thread.
+   *
+   * @param endpoint The endpoint being handled, e.g. {@code POST /subscriptions}.
+   * @return The new statistics.
+   */
+  public static RequestStatistics start(String endpoint) {
+    RequestStatistics statistics = new RequestStatistics(endpoint, CURRENT.get());
+    CURRENT.set(statistics);
+    return statistics;
+  }
+
+  /**
+   * Returns the statistics of the current thread.
+   *
+   * @return The statistics, or null outside of a request.
+   */
+  public static RequestStatistics current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Returns the endpoint the current thread is handling.
+   *
+   * @return The endpoint, or {@link #NO_ENDPOINT} outside of a request.
+   */
+  public static String currentEndpoint() {
+    RequestStatistics statistics = CURRENT.get();
+    return statistics == null ? NO_ENDPOINT : statistics.endpoint;
+  }
+
+  /** Stops counting; the enclosing statistics, if any, become current again. */
+  public void finish() {
+    if (CURRENT.get() != this) {
+      return;
+    }
+    if (parent == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(parent);
+    }
+  }
+
+  /**
+   * Sets the statement budget checked by {@link #recordStatement}.
+   *
+   * @param maxStatements The most statements allowed, or -1 for no limit.
+   * @param maxRepeats The most executions of one statement shape allowed, or -1 for no limit.
+   */
+  public void limit(int maxStatements, int maxRepeats) {
+    this.maxStatements = maxStatements;
+    this.maxRepeats = maxRepeats;
+  }
+
+  /** Returns the endpoint being handled, e.g. {@code GET /students/{id}}. */
+  public String endpoint() {
+    return endpoint;
+  }
+
+  /** Returns the number of JDBC statements executed so far. */
+  public int statements() {
+    return statements;
+  }
+
+  /** Returns the number of entities Hibernate has loaded so far. */
+  public int entitiesLoaded() {
+    return entitiesLoaded;
+  }
+
+  /** Returns the number of executions of each statement shape so far. */
+  public Map<String, Integer> shapes() {
+    return Collections.unmodifiableMap(shapes);
+  }
+
+  /**
+   * Returns the number of executions of the most repeated statement shape.
+   *
+   * @return The highest count, or 0 if no statement was executed.
+   */
+  public int maxRepeats() {
+    return shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+  }
+
+  /**
+   * Checks all the statements executed so far against a budget.
+   *
+   * @param maxStatements The most statements allowed, or -1 for no limit.
+   * @param maxRepeats The most executions of one statement shape allowed, or -1 for no limit.
+   * @return A description of the first limit exceeded, or null if the budget was kept.
+   */
+  public String checkBudget(int maxStatements, int maxRepeats) {
+    if (maxStatements >= 0 && statements > maxStatements) {
+      return statementsExceeded(maxStatements);
+    }
+    if (maxRepeats >= 0) {
+      for (Map.Entry<String, Integer> shape : shapes.entrySet()) {
+        if (shape.getValue() > maxRepeats) {
+          return repeatsExceeded(shape.getKey(), shape.getValue(), maxRepeats);
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Counts a statement, here and in the enclosing statistics.
+   *
+   * @param shape The shape of the statement.
+   * @return A description of the limit of this budget the statement exceeds, or null. Each limit is
+   *     reported only by the statement that first exceeds it.
+   */
+  String recordStatement(String shape) {
+    if (parent != null) {
+      parent.recordStatement(shape);
+    }
+    statements++;
+    int repeats = shapes.merge(shape, 1, Integer::sum);
+    if (statements == maxStatements + 1 && maxStatements >= 0) {
+      return statementsExceeded(maxStatements);
+    }
+    if (repeats == maxRepeats + 1 && maxRepeats >= 0) {
+      return repeatsExceeded(shape, repeats, maxRepeats);
+    }
+    return null;
+  }
+
+  void entityLoaded() {
+    if (parent != null) {
+      parent.entityLoaded();
+    }
+    entitiesLoaded++;
+  }
+
+  private String statementsExceeded(int budget) {
+    return statements + " statements executed by " + endpoint + ", budget is " + budget;
+  }
+
+  private String repeatsExceeded(String shape, int repeats, int budget) {
+    return "Statement executed "
+        + repeats
+        + " times by "
+        + endpoint
+        + " (budget is "
+        + budget
+        + "), possible N+1 query: "
+        + shape;
+  }
+}
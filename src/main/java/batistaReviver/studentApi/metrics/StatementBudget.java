@@ -0,0 +1,40 @@
+package batistaReviver.studentApi.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Statement budget of a controller method (or of all the methods of a controller).
+ *
+ * <p>The JDBC statements executed while the method handles a request are counted; when the request
+ * executes more than {@link #value()} statements, or repeats one statement shape more than {@link
+ * #maxRepeats()} times, the budget is exceeded. Depending on {@code api.statement-budget.mode} this
+ * is logged as a warning ({@code log}) or fails the request ({@code fail}) before the offending
+ * statement runs.
+ *
+ * <p>Test methods can carry the same annotation; {@code StatementBudgetExtension} then fails the
+ * test when the statements it executed exceed the budget.
+ *
+ * <pre>{@code
+ * @StatementBudget(value = 3, maxRepeats = 1)
+ * @GetMapping
+ * public List<StudyClassDto> getAllStudyClasses() { ... }
+ * }</pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StatementBudget {
+
+  /** The most statements allowed; -1 for no limit. */
+  int value() default -1;
+
+  /**
+   * The most executions allowed of statements with the same shape; -1 to use {@code
+   * api.statement-budget.max-repeats}.
+   */
+  int maxRepeats() default -1;
+}
@@ -0,0 +1,50 @@
+package batistaReviver.studentApi.metrics;
+
+import batistaReviver.studentApi.exception.StatementBudgetExceededException;
+import batistaReviver.studentApi.jdbc.StatementExecution;
+import batistaReviver.studentApi.jdbc.StatementListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the JDBC statements executed by the current request in its {@link RequestStatistics} and
+ * enforces its {@link StatementBudget}.
+ *
+ * <p>In {@code log} mode, the statement exceeding a budget is logged as a warning and executed. In
+ * {@code fail} mode, it is not executed and a {@link StatementBudgetExceededException} ends the
+ * request.
+ */
+@Component
+public class StatementBudgetListener implements StatementListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(StatementBudgetListener.class);
+
+  private final boolean fail;
+
+  /**
+   * Constructs the listener.
+   *
+   * @param mode What to do when a budget is exceeded: {@code log} or {@code fail}.
+   */
+  public StatementBudgetListener(@Value("${api.statement-budget.mode:log}") String mode) {
+    this.fail = "fail".equalsIgnoreCase(mode);
+  }
+
+  @Override
+  public void beforeExecute(StatementExecution execution) {
+    RequestStatistics statistics = RequestStatistics.current();
+    if (statistics == null) {
+      return;
+    }
+    String exceeded = statistics.recordStatement(execution.shape());
+    if (exceeded == null) {
+      return;
+    }
+    if (fail) {
+      throw new StatementBudgetExceededException("Statement budget exceeded: " + exceeded + ".");
+    }
+    logger.warn("Statement budget exceeded: {}", exceeded);
+  }
+}
@@ -0,0 +1,36 @@
+package batistaReviver.studentApi.metrics;
+
+import batistaReviver.studentApi.metrics.RequestResources.Phase;
+import batistaReviver.studentApi.metrics.RequestResources.Span;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * JSON message converter that measures the serialization of response bodies as the {@link
+ * Phase#SERIALIZATION} phase of the request's {@link RequestResources}.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+  /**
+   * Constructs the converter.
+   *
+   * @param objectMapper The object mapper of the converter it replaces.
+   */
+  public TimedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+    super(objectMapper);
+  }
+
+  @Override
+  protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+      throws IOException {
+    Span span = RequestResources.measure(Phase.SERIALIZATION);
+    try {
+      super.writeInternal(object, type, outputMessage);
+    } finally {
+      span.stop();
+    }
+  }
+}
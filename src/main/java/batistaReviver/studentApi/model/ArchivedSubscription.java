@@ -0,0 +1,55 @@
+package batistaReviver.studentApi.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A subscription of an archived term, moved out of {@code subscriptions} by the {@code
+ * subscription-archive} job.
+ *
+ * <p>Rows keep the ID, date and term of the original subscription and are never changed. The table
+ * has no foreign keys, so on MySQL the job can partition it by term and compress it; the students
+ * and classes it refers to cannot be removed while it does.
+ */
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(
+    name = "subscriptions_archive",
+    indexes = {
+      @Index(name = "idx_archive_student_term", columnList = "student_id, term"),
+      @Index(name = "idx_archive_term_class", columnList = "term, study_class_id")
+    })
+public class ArchivedSubscription {
+
+  /** The ID the subscription had in {@code subscriptions}. */
+  @Id private Long id;
+
+  /** The timestamp of when the subscription was created. */
+  @Column(nullable = false)
+  private LocalDateTime date;
+
+  /** The term of the class, as encoded by {@link batistaReviver.studentApi.util.AcademicTerm}. */
+  @Column(nullable = false)
+  private int term;
+
+  /** The student who was subscribed. */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "student_id",
+      nullable = false,
+      foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+  private Student student;
+
+  /** The class the student was subscribed to. */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "study_class_id",
+      nullable = false,
+      foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+  private StudyClass studyClass;
+}
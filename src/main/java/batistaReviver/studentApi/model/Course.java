@@ -36,7 +36,11 @@ public class Course {
   @Column(nullable = false, unique = true)
   private String name;
 
-  /** A brief description of the course content. */
+  /**
+   * A brief description of the course content. As a TEXT column, it is only read when accessed, or
+   * when a query asks for it (see {@link batistaReviver.studentApi.repository.CourseRepository}).
+   */
+  @Basic(fetch = FetchType.LAZY)
   @Column(columnDefinition = "TEXT")
   private String description;
 
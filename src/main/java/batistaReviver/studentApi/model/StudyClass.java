@@ -47,6 +47,14 @@ public class StudyClass {
   @Column(nullable = false)
   private int semester;
 
+  /**
+   * The maximum number of students that can subscribe to the class. A null capacity means the class
+   * is not limited.
+   */
+  @Min(value = 1, message = "Capacity must be at least 1")
+  @Column(nullable = true)
+  private Integer capacity;
+
   /**
    * The course that this class is an offering of. Establishes a many-to-one relationship with the
    * Course entity.
@@ -64,6 +72,14 @@ public class StudyClass {
   @JoinColumn(name = "professor_id", nullable = true)
   private Professor professor;
 
+  /**
+   * Whether the term of the class has been archived. Set by the {@code subscription-archive} job:
+   * the class no longer accepts subscriptions, and its subscriptions are read from the archive as
+   * well.
+   */
+  @Column(nullable = false)
+  private boolean archived;
+
   /**
    * Constructs a new StudyClass instance. This constructor is typically used when creating a new
    * StudyClass object before it's persisted to the database.
@@ -1,5 +1,6 @@
 package batistaReviver.studentApi.model;
 
+import batistaReviver.studentApi.util.AcademicTerm;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -14,14 +15,23 @@ import org.hibernate.annotations.CreationTimestamp;
  * Represents the enrollment of a Student in a specific StudyClass.
  *
  * <p>This entity acts as a many-to-many join table between the Student and StudyClass entities. It
- * records the exact time of the subscription.
+ * records the exact time of the subscription. A student can be subscribed to a class only once.
+ *
+ * <p>The table only holds the terms that have not been archived yet; the subscriptions of past
+ * terms are moved to {@link ArchivedSubscription} by the {@code subscription-archive} job.
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "subscriptions")
+@Table(
+    name = "subscriptions",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_subscription_student_class",
+            columnNames = {"student_id", "study_class_id"}),
+    indexes = @Index(name = "idx_subscription_term", columnList = "term"))
 public class Subscription {
 
   /** The unique identifier for the subscription. */
@@ -55,6 +65,13 @@ public class Subscription {
   @JoinColumn(name = "study_class_id", nullable = false)
   private StudyClass studyClass;
 
+  /**
+   * The term of the class, as encoded by {@link batistaReviver.studentApi.util.AcademicTerm}. It is
+   * copied from the class so that the subscriptions of a term can be found without a join.
+   */
+  @Column(nullable = false, updatable = false)
+  private int term;
+
   /**
    * Constructs a new Subscription instance.
    *
@@ -64,6 +81,7 @@ public class Subscription {
   public Subscription(Student student, StudyClass studyClass) {
     this.student = student;
     this.studyClass = studyClass;
+    this.term = AcademicTerm.of(studyClass.getYear(), studyClass.getSemester());
   }
 
   /**
@@ -0,0 +1,71 @@
+package batistaReviver.studentApi.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Represents a Student waiting for a seat in a full StudyClass.
+ *
+ * <p>Entries of a class are ordered by their {@code sequence}, which is assigned when the student
+ * joins the waitlist and never changes. The entry with the lowest sequence is the head of the
+ * waitlist and is the next one promoted to a {@link Subscription} when a seat is freed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "waitlist_entries",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_waitlist_student_class",
+            columnNames = {"student_id", "study_class_id"}),
+    indexes = @Index(name = "idx_waitlist_class_sequence", columnList = "study_class_id, sequence"))
+public class WaitlistEntry {
+
+  /** The unique identifier for the waitlist entry. */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /** The order of the entry within the waitlist of its class. Lower values are promoted first. */
+  @Column(nullable = false, updatable = false)
+  private int sequence;
+
+  /** The timestamp of when the student joined the waitlist. */
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  /** The student who is waiting for a seat. */
+  @NotNull(message = "Student is required")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "student_id", nullable = false)
+  private Student student;
+
+  /** The class the student is waiting for. */
+  @NotNull(message = "Study Class is required")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "study_class_id", nullable = false)
+  private StudyClass studyClass;
+
+  /**
+   * Constructs a new WaitlistEntry instance.
+   *
+   * @param student The student joining the waitlist.
+   * @param studyClass The class whose waitlist is joined.
+   * @param sequence The order of the entry within the waitlist.
+   */
+  public WaitlistEntry(Student student, StudyClass studyClass, int sequence) {
+    this.student = student;
+    this.studyClass = studyClass;
+    this.sequence = sequence;
+  }
+}
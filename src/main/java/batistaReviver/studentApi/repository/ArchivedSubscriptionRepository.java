@@ -0,0 +1,94 @@
+package batistaReviver.studentApi.repository;
+
+import batistaReviver.studentApi.dto.StudentDashboardRow;
+import batistaReviver.studentApi.dto.SubscriptionDto;
+import batistaReviver.studentApi.model.ArchivedSubscription;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Spring Data JPA repository for the {@link ArchivedSubscription} entity.
+ *
+ * <p>Archived subscriptions are only read, to merge past terms into the history of a student or a
+ * class. The queries select DTOs with their joins, so reading the archive costs one statement.
+ */
+public interface ArchivedSubscriptionRepository extends JpaRepository<ArchivedSubscription, Long> {
+
+  /**
+   * Finds the archived subscriptions of a student.
+   *
+   * @param studentId The ID of the student.
+   * @return The subscriptions of the student in archived terms.
+   */
+  @Query(
+      """
+      select new batistaReviver.studentApi.dto.SubscriptionDto(
+          a.id, a.date, st.id, st.name, sc.id, sc.classCode)
+      from ArchivedSubscription a
+      join a.student st
+      join a.studyClass sc
+      where st.id = :studentId
+      order by a.id
+      """)
+  List<SubscriptionDto> findHistoryByStudentId(Long studentId);
+
+  /**
+   * Finds the archived subscriptions of a class. The term restricts the search to the partition of
+   * the class.
+   *
+   * @param term The term of the class.
+   * @param studyClassId The ID of the class.
+   * @return The archived subscriptions of the class.
+   */
+  @Query(
+      """
+      select new batistaReviver.studentApi.dto.SubscriptionDto(
+          a.id, a.date, st.id, st.name, sc.id, sc.classCode)
+      from ArchivedSubscription a
+      join a.student st
+      join a.studyClass sc
+      where a.term = :term and sc.id = :studyClassId
+      order by a.id
+      """)
+  List<SubscriptionDto> findHistoryByStudyClass(int term, Long studyClassId);
+
+  /**
+   * Loads the archived subscriptions of a student as dashboard rows, with the class, course and
+   * professor of each.
+   *
+   * @param studentId The ID of the student.
+   * @return One row per archived subscription of the student.
+   */
+  @Query(
+      """
+      select new batistaReviver.studentApi.dto.StudentDashboardRow(
+          s.id, s.name, s.email, s.register,
+          a.id, a.date, sc.id, sc.classCode, sc.year, sc.semester,
+          c.id, c.name, p.id, p.name)
+      from ArchivedSubscription a
+      join a.student s
+      join a.studyClass sc
+      join sc.course c
+      left join sc.professor p
+      where s.id = :studentId
+      """)
+  List<StudentDashboardRow> findDashboardRows(Long studentId);
+
+  /**
+   * Checks if a student has any archived subscription.
+   *
+   * @param studentId The ID of the student.
+   * @return {@code true} if the student was subscribed to a class of an archived term.
+   */
+  boolean existsByStudentId(Long studentId);
+
+  /**
+   * Checks if a class has any archived subscription.
+   *
+   * @param term The term of the class.
+   * @param studyClassId The ID of the class.
+   * @return {@code true} if the class has archived subscriptions.
+   */
+  boolean existsByTermAndStudyClassId(int term, Long studyClassId);
+}
@@ -1,6 +1,9 @@
 package batistaReviver.studentApi.repository;
 
 import batistaReviver.studentApi.model.Course;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +12,39 @@ import org.springframework.stereotype.Repository;
  *
  * <p>This interface provides the mechanism for storage, retrieval, and search behavior for Course
  * objects. Spring will automatically provide the implementation at runtime.
+ *
+ * <p>{@link Course#getDescription() description} is a lazy attribute, so {@link #findById} and the
+ * association from a study class do not read it. The methods that return courses to clients fetch
+ * it in the same query instead of with one query per course.
  */
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {}
+public interface CourseRepository extends JpaRepository<Course, Long> {
+
+  /**
+   * Finds all courses, including their description.
+   *
+   * @return A list of all {@link Course} entities.
+   */
+  @Override
+  @EntityGraph(attributePaths = "description")
+  List<Course> findAll();
+
+  /**
+   * Finds all courses with the given IDs, including their description.
+   *
+   * @param ids The IDs of the courses.
+   * @return The courses found, in no particular order.
+   */
+  @Override
+  @EntityGraph(attributePaths = "description")
+  List<Course> findAllById(Iterable<Long> ids);
+
+  /**
+   * Finds a course by its ID, including its description.
+   *
+   * @param id The ID of the course.
+   * @return An {@link Optional} with the course, or empty if none has that ID.
+   */
+  @EntityGraph(attributePaths = "description")
+  Optional<Course> findWithDescriptionById(Long id);
+}
@@ -0,0 +1,110 @@
+package batistaReviver.studentApi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for sparse fieldset queries.
+ *
+ * <p>Builds a tuple query that selects only the attribute paths requested by the client, so a
+ * request for {@code fields=studentName} reads a single column through a single join instead of
+ * loading full entities. Paths ending in {@code .id} are resolved through the foreign key column
+ * and never add a join.
+ */
+@Repository
+public class ProjectionRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Selects the given fields from all rows of an entity matching the filters.
+   *
+   * @param entityType The root entity class.
+   * @param selection An ordered map of output field names to attribute paths.
+   * @param filters Attribute paths to filter on; collection values are matched with {@code IN}.
+   * @return One ordered map per row, keyed by the output field names.
+   */
+  public List<Map<String, Object>> findFields(
+      Class<?> entityType, Map<String, String> selection, Map<String, Object> filters) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<?> root = query.from(entityType);
+    Map<String, From<?, ?>> joins = new HashMap<>();
+
+    List<Selection<?>> selections = new ArrayList<>();
+    selection.forEach((field, path) -> selections.add(resolve(root, joins, path).alias(field)));
+    query.multiselect(selections);
+
+    List<Predicate> predicates = new ArrayList<>();
+    filters.forEach(
+        (path, value) -> {
+          Path<Object> attribute = resolve(root, joins, path);
+          predicates.add(
+              value instanceof Collection<?> values
+                  ? attribute.in(values)
+                  : cb.equal(attribute, value));
+        });
+    query.where(predicates.toArray(new Predicate[0]));
+
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      for (String field : selection.keySet()) {
+        row.put(field, tuple.get(field));
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  /**
+   * Selects the given fields from a single entity.
+   *
+   * @param entityType The root entity class.
+   * @param selection An ordered map of output field names to attribute paths.
+   * @param id The ID of the entity.
+   * @return An {@link Optional} with the selected fields, or empty if no entity has that ID.
+   */
+  public Optional<Map<String, Object>> findFieldsById(
+      Class<?> entityType, Map<String, String> selection, Long id) {
+    return findFields(entityType, selection, Map.of("id", id)).stream().findFirst();
+  }
+
+  /**
+   * Resolves a dotted attribute path, left-joining each association at most once per query.
+   *
+   * <p>{@code professor.id} reads the foreign key of the root row; {@code professor.name} adds a
+   * left join so that rows without a professor are still returned.
+   */
+  private Path<Object> resolve(Root<?> root, Map<String, From<?, ?>> joins, String path) {
+    int dot = path.indexOf('.');
+    if (dot < 0) {
+      return root.get(path);
+    }
+    String association = path.substring(0, dot);
+    String attribute = path.substring(dot + 1);
+    if ("id".equals(attribute)) {
+      return root.get(association).get(attribute);
+    }
+    return joins
+        .computeIfAbsent(association, name -> root.join(name, JoinType.LEFT))
+        .get(attribute);
+  }
+}
@@ -1,8 +1,11 @@
 package batistaReviver.studentApi.repository;
 
+import batistaReviver.studentApi.dto.StudentDashboardRow;
 import batistaReviver.studentApi.model.Student;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -31,4 +34,28 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
    *     student is found with the given email.
    */
   Optional<Student> findByEmail(String email);
+
+  /**
+   * Loads a student together with every class they are enrolled in, including course and professor
+   * names, in a single joined query.
+   *
+   * @param studentId The ID of the student.
+   * @return One row per subscription, a single row with null class columns if the student has no
+   *     subscriptions, or an empty list if the student does not exist.
+   */
+  @Query(
+      """
+      select new batistaReviver.studentApi.dto.StudentDashboardRow(
+          s.id, s.name, s.email, s.register,
+          sub.id, sub.date, sc.id, sc.classCode, sc.year, sc.semester,
+          c.id, c.name, p.id, p.name)
+      from Student s
+      left join Subscription sub on sub.student = s
+      left join sub.studyClass sc
+      left join sc.course c
+      left join sc.professor p
+      where s.id = :studentId
+      order by sc.year desc, sc.semester desc, sub.date
+      """)
+  List<StudentDashboardRow> findDashboardRows(Long studentId);
 }
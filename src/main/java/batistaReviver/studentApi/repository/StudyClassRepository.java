@@ -1,7 +1,9 @@
 package batistaReviver.studentApi.repository;
 
 import batistaReviver.studentApi.model.StudyClass;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -23,6 +25,16 @@ public interface StudyClassRepository extends JpaRepository<StudyClass, Long> {
    */
   List<StudyClass> findByProfessorId(Long professorId);
 
+  /**
+   * Finds all study classes with the given IDs, fetching their course and professor in the same
+   * query.
+   *
+   * @param ids The IDs of the study classes.
+   * @return The study classes found, in no particular order.
+   */
+  @EntityGraph(attributePaths = {"course", "professor"})
+  List<StudyClass> findByIdIn(Collection<Long> ids);
+
   /**
    * Finds all study classes for a specific course.
    *
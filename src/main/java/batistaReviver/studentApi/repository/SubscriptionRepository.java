@@ -1,8 +1,10 @@
 package batistaReviver.studentApi.repository;
 
+import batistaReviver.studentApi.dto.SubscriptionDto;
 import batistaReviver.studentApi.model.Subscription;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 /**
  * Spring Data JPA repository for the {@link Subscription} entity.
@@ -25,13 +27,23 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
   boolean existsByStudentIdAndStudyClassId(Long studentId, Long studyClassId);
 
   /**
-   * Finds all subscriptions for a given student ID. Spring Data JPA automatically implements this
-   * method.
+   * Finds the subscriptions of a student as DTOs, with the student and class of each joined in the
+   * same query.
    *
    * @param studentId The ID of the student.
-   * @return A list of subscriptions for that student.
+   * @return The subscriptions of the student in the terms that have not been archived.
    */
-  List<Subscription> findByStudentId(Long studentId);
+  @Query(
+      """
+      select new batistaReviver.studentApi.dto.SubscriptionDto(
+          s.id, s.date, st.id, st.name, sc.id, sc.classCode)
+      from Subscription s
+      join s.student st
+      join s.studyClass sc
+      where st.id = :studentId
+      order by s.id
+      """)
+  List<SubscriptionDto> findHistoryByStudentId(Long studentId);
 
   /**
    * Finds all subscriptions for a given studyClass ID. Spring Data JPA automatically implements
@@ -42,6 +54,14 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
    */
   List<Subscription> findByStudyClassId(Long studyClassId);
 
+  /**
+   * Counts the subscriptions of a given studyClass ID.
+   *
+   * @param studyClassId The ID of the studyClass.
+   * @return The number of students subscribed to the studyClass.
+   */
+  long countByStudyClassId(Long studyClassId);
+
   /**
    * Checks if any subscription exists for a given student ID.
    *
@@ -0,0 +1,67 @@
+package batistaReviver.studentApi.repository;
+
+import batistaReviver.studentApi.model.WaitlistEntry;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Spring Data JPA repository for the {@link WaitlistEntry} entity.
+ *
+ * <p>Lookups by class and sequence are served by the {@code (study_class_id, sequence)} index.
+ */
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+  /**
+   * Finds the waitlist entry of a student for a class.
+   *
+   * @param studentId The ID of the student.
+   * @param studyClassId The ID of the class.
+   * @return An {@link Optional} with the entry, or empty if the student is not waiting.
+   */
+  Optional<WaitlistEntry> findByStudentIdAndStudyClassId(Long studentId, Long studyClassId);
+
+  /**
+   * Finds the waitlist entry of a class with the given sequence.
+   *
+   * @param studyClassId The ID of the class.
+   * @param sequence The sequence of the entry.
+   * @return An {@link Optional} with the entry, or empty if there is none.
+   */
+  Optional<WaitlistEntry> findByStudyClassIdAndSequence(Long studyClassId, int sequence);
+
+  /**
+   * Finds all waitlist entries of a student.
+   *
+   * @param studentId The ID of the student.
+   * @return A list of the entries of that student.
+   */
+  List<WaitlistEntry> findByStudentId(Long studentId);
+
+  /**
+   * Lists the sequences of all entries of a class, used to rebuild its in-memory position index.
+   *
+   * @param studyClassId The ID of the class.
+   * @return The sequences of the entries of the class.
+   */
+  @Query("SELECT w.sequence FROM WaitlistEntry w WHERE w.studyClass.id = :studyClassId")
+  List<Integer> findSequencesByStudyClassId(Long studyClassId);
+
+  /**
+   * Checks if a student is on the waitlist of a class.
+   *
+   * @param studentId The ID of the student.
+   * @param studyClassId The ID of the class.
+   * @return {@code true} if the student is waiting for the class, {@code false} otherwise.
+   */
+  boolean existsByStudentIdAndStudyClassId(Long studentId, Long studyClassId);
+
+  /**
+   * Checks if any student is on the waitlist of a class.
+   *
+   * @param studyClassId The ID of the class.
+   * @return {@code true} if the waitlist of the class is not empty, {@code false} otherwise.
+   */
+  boolean existsByStudyClassId(Long studyClassId);
+}
@@ -1,6 +1,7 @@
 package batistaReviver.studentApi.security;
 
 import batistaReviver.studentApi.exception.JwtAuthenticationException;
+import batistaReviver.studentApi.metrics.RequestResources;
 import batistaReviver.studentApi.service.JwtService;
 import batistaReviver.studentApi.util.Role;
 import jakarta.servlet.FilterChain;
@@ -65,23 +66,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     String token = authHeader.substring(7); // after "Bearer "
 
+    RequestResources.Span jwtSpan = RequestResources.measure(RequestResources.Phase.JWT);
     try {
-      // Let JwtService throw detailed exceptions
-      jwtService.validateOrThrow(token);
+      long userId;
+      Role role;
+      UsernamePasswordAuthenticationToken authenticationToken;
+      try {
+        // Let JwtService throw detailed exceptions
+        jwtService.validateOrThrow(token);
 
-      long userId = jwtService.getUserIdFromToken(token);
-      Role role = jwtService.getRoleFromToken(token);
+        userId = jwtService.getUserIdFromToken(token);
+        role = jwtService.getRoleFromToken(token);
 
-      var authenticationToken = new UsernamePasswordAuthenticationToken(
-              userId,
-              null,
-              List.of(new SimpleGrantedAuthority("ROLE_" + role))
-      );
+        authenticationToken = new UsernamePasswordAuthenticationToken(
+                userId,
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role))
+        );
 
-      authenticationToken.setDetails(
-              new WebAuthenticationDetailsSource().buildDetails(request));
+        authenticationToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request));
 
-      SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+      } finally {
+        // Stopped whatever the outcome, so only the token handling is measured
+        jwtSpan.stop();
+      }
 
       filterChain.doFilter(request, response);
       System.out.println(" - - - - - - - - - - -");
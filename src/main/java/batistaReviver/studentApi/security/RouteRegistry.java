@@ -2,6 +2,8 @@ package batistaReviver.studentApi.security;
 
 import batistaReviver.studentApi.dto.RouteRule;
 import batistaReviver.studentApi.util.Permission;
+import java.util.LinkedHashSet;
+import java.util.List;
 import org.springframework.http.HttpMethod;
 
 public class RouteRegistry {
@@ -11,6 +13,7 @@ public class RouteRegistry {
             // PUBLIC
             new RouteRule(HttpMethod.GET,  "/courses/**",          Permission.PUBLIC),
             new RouteRule(HttpMethod.POST, "/authentication/**",   Permission.PUBLIC),
+            new RouteRule(HttpMethod.GET,  "/actuator/health/**",  Permission.PUBLIC),
 
             // USER or ADMIN
             new RouteRule(HttpMethod.GET,  "/students/**",         Permission.USER),
@@ -22,12 +25,22 @@ public class RouteRegistry {
             new RouteRule(HttpMethod.GET,  "/study-classes/**",    Permission.USER),
             new RouteRule(HttpMethod.POST, "/study-classes/**",    Permission.USER),
 
+            // ADMIN only for diagnostics (must precede the /manage/** rules)
+            new RouteRule(HttpMethod.GET,  "/manage/slow-queries/**", Permission.ADMIN),
+            new RouteRule(HttpMethod.GET,  "/manage/profiling/**", Permission.ADMIN),
+            new RouteRule(HttpMethod.POST, "/manage/profiling/**", Permission.ADMIN),
+            new RouteRule(HttpMethod.GET,  "/manage/jobs/**",      Permission.ADMIN),
+            new RouteRule(HttpMethod.POST, "/manage/jobs/**",      Permission.ADMIN),
+
             new RouteRule(HttpMethod.GET,  "/manage/**",           Permission.USER),
             new RouteRule(HttpMethod.POST, "/manage/**",           Permission.USER),
 
             new RouteRule(HttpMethod.GET,    "/subscriptions/**",  Permission.USER),
             new RouteRule(HttpMethod.POST,   "/subscriptions/**",  Permission.USER),
 
+            // ADMIN only for operational endpoints
+            new RouteRule(HttpMethod.GET,    "/actuator/**",       Permission.ADMIN),
+
             // ADMIN only for UPDATE & DELETE in core resources
             new RouteRule(HttpMethod.PUT,    "/students/**",       Permission.ADMIN),
             new RouteRule(HttpMethod.DELETE, "/students/**",       Permission.ADMIN),
@@ -45,4 +58,41 @@ public class RouteRegistry {
             new RouteRule(HttpMethod.PUT,    "/subscriptions/**",  Permission.ADMIN),
             new RouteRule(HttpMethod.DELETE, "/subscriptions/**",  Permission.ADMIN)
     };
+
+    /** Group of the requests that match none of the {@link #RULES}. */
+    public static final String OTHER_GROUP = "other";
+
+    private RouteRegistry() {}
+
+    /**
+     * Returns the route group of a request path: the first segment of the pattern of the rule it
+     * matches (e.g. {@code /courses/1} belongs to {@code courses}).
+     *
+     * @param uri The request path.
+     * @return The group name, or {@link #OTHER_GROUP} if no rule matches the path.
+     */
+    public static String groupOf(String uri) {
+        for (RouteRule rule : RULES) {
+            String prefix = rule.pattern().replace("/**", "");
+            if (uri.equals(prefix) || uri.startsWith(prefix + "/")) {
+                int end = prefix.indexOf('/', 1);
+                return end < 0 ? prefix.substring(1) : prefix.substring(1, end);
+            }
+        }
+        return OTHER_GROUP;
+    }
+
+    /**
+     * Returns every route group declared in the {@link #RULES}, in declaration order.
+     *
+     * @return The distinct group names.
+     */
+    public static List<String> groups() {
+        LinkedHashSet<String> groups = new LinkedHashSet<>();
+        for (RouteRule rule : RULES) {
+            groups.add(groupOf(rule.pattern().replace("/**", "")));
+        }
+        groups.add(OTHER_GROUP);
+        return List.copyOf(groups);
+    }
 }
@@ -1,12 +1,17 @@
 package batistaReviver.studentApi.security;
 
 import batistaReviver.studentApi.dto.RouteRule;
+import batistaReviver.studentApi.filter.AdmissionControlFilter;
+import batistaReviver.studentApi.filter.DeadlineFilter;
+import batistaReviver.studentApi.filter.IdempotencyFilter;
+import batistaReviver.studentApi.filter.ResourceAccountingFilter;
 import batistaReviver.studentApi.service.UserAppService;
 import batistaReviver.studentApi.util.Role;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -141,8 +146,21 @@ public class SecurityConfig {
     configuration.setAllowedOrigins(List.of("http://localhost:3000"));
 
     configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
-    configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
-    configuration.setExposedHeaders(List.of("Authorization"));
+    configuration.setAllowedHeaders(
+            List.of(
+                    "Authorization",
+                    "Content-Type",
+                    "Accept",
+                    IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+                    AdmissionControlFilter.QUEUE_TOKEN_HEADER,
+                    DeadlineFilter.REQUEST_TIMEOUT_HEADER));
+    configuration.setExposedHeaders(
+            List.of(
+                    "Authorization",
+                    IdempotencyFilter.REPLAYED_HEADER,
+                    AdmissionControlFilter.QUEUE_TOKEN_HEADER,
+                    HttpHeaders.RETRY_AFTER,
+                    ResourceAccountingFilter.SERVER_TIMING_HEADER));
     configuration.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
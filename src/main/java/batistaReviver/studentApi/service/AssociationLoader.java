@@ -0,0 +1,116 @@
+package batistaReviver.studentApi.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Batches the loading of lazy {@code @ManyToOne} associations when converting lists of entities
+ * into DTOs.
+ *
+ * <p>Instead of letting every {@code getStudent()} or {@code getCourse()} call initialize its own
+ * proxy, the loader reads the identifiers of all referenced entities (which does not touch the
+ * database), then fetches the ones not yet loaded with one {@code IN} query per entity type.
+ * Entities loaded during an HTTP request are remembered for the rest of that request, so the same
+ * course or professor is never fetched twice while building a response. Outside of a request (e.g.
+ * background jobs) each call starts with an empty cache.
+ */
+@Component
+public class AssociationLoader {
+
+  private static final String CACHE_ATTRIBUTE = AssociationLoader.class.getName() + ".CACHE";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final int chunkSize;
+
+  /**
+   * Constructs the loader.
+   *
+   * @param chunkSize The maximum number of IDs bound to a single {@code IN} query.
+   */
+  public AssociationLoader(@Value("${api.batch.chunk-size:100}") int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Loads the association of every source entity, batching all uninitialized references.
+   *
+   * @param sources The entities whose association is needed (e.g. a list of subscriptions).
+   * @param association Reads the (possibly lazy) association from a source entity.
+   * @param type The entity class of the association.
+   * @return The loaded associated entities, keyed by ID. Null associations are skipped.
+   */
+  public <S, A> Map<Long, A> load(
+      Collection<S> sources, Function<S, A> association, Class<A> type) {
+    PersistenceUnitUtil unitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+    Map<Long, Object> cache = requestCache(type);
+    Map<Long, A> loaded = new HashMap<>();
+    Set<Long> missing = new LinkedHashSet<>();
+
+    for (S source : sources) {
+      A reference = association.apply(source);
+      if (reference == null) {
+        continue;
+      }
+      Long id = (Long) unitUtil.getIdentifier(reference);
+      Object cached = cache.get(id);
+      if (cached != null) {
+        loaded.put(id, type.cast(cached));
+      } else if (unitUtil.isLoaded(reference)) {
+        loaded.put(id, reference);
+        cache.put(id, reference);
+      } else {
+        missing.add(id);
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      String query =
+          "select e from "
+              + entityManager.getMetamodel().entity(type).getName()
+              + " e"
+              + " where e.id in :ids";
+      List<Long> ids = new ArrayList<>(missing);
+      for (int from = 0; from < ids.size(); from += chunkSize) {
+        List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+        for (A entity :
+            entityManager.createQuery(query, type).setParameter("ids", chunk).getResultList()) {
+          Long id = (Long) unitUtil.getIdentifier(entity);
+          loaded.put(id, entity);
+          cache.put(id, entity);
+        }
+      }
+    }
+    return loaded;
+  }
+
+  /** Returns the per-request cache for an entity type, or a throwaway map outside of a request. */
+  @SuppressWarnings("unchecked")
+  private Map<Long, Object> requestCache(Class<?> type) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return new HashMap<>();
+    }
+    Map<Class<?>, Map<Long, Object>> caches =
+        (Map<Class<?>, Map<Long, Object>>)
+            attributes.getAttribute(CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (caches == null) {
+      caches = new HashMap<>();
+      attributes.setAttribute(CACHE_ATTRIBUTE, caches, RequestAttributes.SCOPE_REQUEST);
+    }
+    return caches.computeIfAbsent(type, key -> new HashMap<>());
+  }
+}
@@ -0,0 +1,107 @@
+package batistaReviver.studentApi.service;
+
+import batistaReviver.studentApi.dto.BatchResponse;
+import batistaReviver.studentApi.exception.EntityValidationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves multi-get requests ({@code ?ids=1,2,3}) with as few queries as possible.
+ *
+ * <p>The requested IDs are de-duplicated and capped, then loaded with one {@code IN} query per
+ * chunk of {@code api.batch.chunk-size} IDs. Results are returned in request order together with
+ * the IDs that were not found.
+ */
+@Component
+public class BatchLookup {
+
+  private final int maxIds;
+  private final int chunkSize;
+
+  /**
+   * Constructs the lookup with its configured limits.
+   *
+   * @param maxIds The maximum number of distinct IDs accepted in a single request.
+   * @param chunkSize The maximum number of IDs bound to a single {@code IN} query.
+   */
+  public BatchLookup(
+      @Value("${api.batch.max-ids:200}") int maxIds,
+      @Value("${api.batch.chunk-size:100}") int chunkSize) {
+    this.maxIds = maxIds;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Loads the requested resources in chunks and maps them in request order.
+   *
+   * @param ids The requested IDs (duplicates are ignored).
+   * @param loader Loads all entities whose ID is in the given chunk, in any order.
+   * @param idOf Extracts the ID of a loaded entity.
+   * @param mapper Converts a loaded entity into the returned representation.
+   * @return The found resources and the IDs that were not found.
+   * @throws EntityValidationException if no IDs or more than {@code api.batch.max-ids} IDs are
+   *     requested.
+   */
+  public <E, T> BatchResponse<T> fetch(
+      List<Long> ids,
+      Function<List<Long>, List<E>> loader,
+      Function<E, Long> idOf,
+      Function<E, T> mapper) {
+    List<Long> distinctIds = validate(ids);
+
+    Map<Long, E> found = new HashMap<>();
+    for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+      List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+      for (E entity : loader.apply(chunk)) {
+        found.put(idOf.apply(entity), entity);
+      }
+    }
+
+    List<T> items = new ArrayList<>(found.size());
+    List<Long> notFound = new ArrayList<>();
+    for (Long id : distinctIds) {
+      E entity = found.get(id);
+      if (entity == null) {
+        notFound.add(id);
+      } else {
+        items.add(mapper.apply(entity));
+      }
+    }
+    return new BatchResponse<>(items, notFound);
+  }
+
+  /**
+   * Returns a copy of a sparse fieldset selection that always includes the {@code id} field, which
+   * is needed to match rows back to the requested IDs.
+   *
+   * @param selection The fields requested by the client.
+   * @return The selection with {@code id} as its first field.
+   */
+  public Map<String, String> withId(Map<String, String> selection) {
+    Map<String, String> withId = new LinkedHashMap<>();
+    withId.put("id", "id");
+    withId.putAll(selection);
+    return withId;
+  }
+
+  private List<Long> validate(List<Long> ids) {
+    List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+    distinctIds.removeIf(Objects::isNull);
+    if (distinctIds.isEmpty()) {
+      throw new EntityValidationException("At least one id must be requested.");
+    }
+    if (distinctIds.size() > maxIds) {
+      throw new EntityValidationException(
+          "At most " + maxIds + " ids can be requested at once, got " + distinctIds.size() + ".");
+    }
+    return distinctIds;
+  }
+}
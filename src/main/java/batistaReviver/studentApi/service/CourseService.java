@@ -1,14 +1,20 @@
 package batistaReviver.studentApi.service;
 
+import batistaReviver.studentApi.config.CacheConfig;
 import batistaReviver.studentApi.controller.CourseController;
+import batistaReviver.studentApi.dto.BatchResponse;
 import batistaReviver.studentApi.exception.EntityNotFoundException;
 import batistaReviver.studentApi.exception.StudyClassExistsException;
 import batistaReviver.studentApi.model.Course;
 import batistaReviver.studentApi.repository.CourseRepository;
+import batistaReviver.studentApi.repository.ProjectionRepository;
 import batistaReviver.studentApi.repository.StudyClassRepository;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service class for handling business logic related to {@link Course} entities.
@@ -22,12 +28,15 @@ public class CourseService {
 
   private final CourseRepository courseRepository;
   private final StudyClassRepository studyClassRepository;
+  private final ProjectionRepository projectionRepository;
+  private final BatchLookup batchLookup;
 
   /**
    * Retrieves all courses from the database.
    *
    * @return A list of all {@link Course} entities.
    */
+  @Transactional(readOnly = true)
   public List<Course> getAllCourses() {
     return courseRepository.findAll();
   }
@@ -39,12 +48,70 @@ public class CourseService {
    * @return The {@link Course} entity with the specified ID.
    * @throws EntityNotFoundException if no course with the given ID is found.
    */
+  @Transactional(readOnly = true)
   public Course getCourseById(Long id) {
     return courseRepository
-        .findById(id)
+        .findWithDescriptionById(id)
         .orElseThrow(() -> new EntityNotFoundException("Course not found with id: " + id));
   }
 
+  /**
+   * Retrieves only the selected fields of all courses. The TEXT {@code description} column is read
+   * only when it is part of the selection.
+   *
+   * @param selection The fields to select, as resolved by {@link
+   *     batistaReviver.studentApi.util.SparseFields#select}.
+   * @return One map of field values per course.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getAllCourses(Map<String, String> selection) {
+    return projectionRepository.findFields(Course.class, selection, Map.of());
+  }
+
+  /**
+   * Retrieves only the selected fields of a course.
+   *
+   * @param id The ID of the course to retrieve.
+   * @param selection The fields to select.
+   * @return The field values of the course.
+   * @throws EntityNotFoundException if no course with the given ID is found.
+   */
+  @Transactional(readOnly = true)
+  public Map<String, Object> getCourseById(Long id, Map<String, String> selection) {
+    return projectionRepository
+        .findFieldsById(Course.class, selection, id)
+        .orElseThrow(() -> new EntityNotFoundException("Course not found with id: " + id));
+  }
+
+  /**
+   * Retrieves several courses by their IDs.
+   *
+   * @param ids The IDs of the courses to retrieve.
+   * @return The courses found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<Course> getCoursesByIds(List<Long> ids) {
+    return batchLookup.fetch(ids, courseRepository::findAllById, Course::getId, course -> course);
+  }
+
+  /**
+   * Retrieves only the selected fields of several courses. The {@code id} field is always included.
+   *
+   * @param ids The IDs of the courses to retrieve.
+   * @param selection The fields to select.
+   * @return The field values found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<Map<String, Object>> getCoursesByIds(
+      List<Long> ids, Map<String, String> selection) {
+    Map<String, String> withId = batchLookup.withId(selection);
+    return batchLookup.fetch(
+        ids,
+        chunk -> projectionRepository.findFields(Course.class, withId, Map.of("id", chunk)),
+        row -> (Long) row.get("id"),
+        row -> row);
+  }
+
   /**
    * Creates and persists a new course.
    *
@@ -64,8 +131,12 @@ public class CourseService {
    * @return The updated {@link Course} entity.
    * @throws EntityNotFoundException if no course with the given ID is found.
    */
+  @CacheEvict(cacheNames = CacheConfig.STUDENT_DASHBOARDS, allEntries = true)
   public Course updateCourse(Long id, Course courseDetails) {
-    Course existingCourse = getCourseById(id);
+    Course existingCourse =
+        courseRepository
+            .findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Course not found with id: " + id));
 
     existingCourse.setName(courseDetails.getName());
     existingCourse.setDescription(
@@ -0,0 +1,125 @@
+package batistaReviver.studentApi.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file log of the write-behind enrollment queue.
+ *
+ * <p>Every record is one line of {@code |}-separated fields. An accepted enrollment is written as
+ * {@code E|ticket|studentId|studyClassId|acceptedAtMillis} and its outcome as {@code C|ticket} or
+ * {@code F|ticket|reason}. On startup, enrollments without an outcome are replayed. The file is
+ * truncated once no enrollment is pending. This class is not thread-safe; callers synchronize.
+ */
+class EnrollmentJournal implements AutoCloseable {
+
+  private final Path path;
+  private final boolean fsync;
+  private FileChannel channel;
+
+  /**
+   * Creates a journal over a file. The file is opened by {@link #open()}.
+   *
+   * @param path The journal file.
+   * @param fsync Whether appends are forced to disk before returning.
+   */
+  EnrollmentJournal(Path path, boolean fsync) {
+    this.path = path;
+    this.fsync = fsync;
+  }
+
+  /**
+   * Reads every record left in the journal and opens it for appending.
+   *
+   * @return The records, oldest first, split into their fields.
+   */
+  List<String[]> open() {
+    try {
+      Path parent = path.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      List<String[]> records = new ArrayList<>();
+      if (Files.exists(path)) {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+              records.add(line.split("\\|", -1));
+            }
+          }
+        }
+      }
+      channel =
+          FileChannel.open(
+              path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+      return records;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open enrollment journal " + path, e);
+    }
+  }
+
+  /**
+   * Appends records to the journal, forcing them to disk if configured.
+   *
+   * @param records The records to append, each already joined with {@code |}.
+   */
+  void append(List<String> records) {
+    StringBuilder lines = new StringBuilder();
+    for (String record : records) {
+      lines.append(record).append('\n');
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      if (fsync) {
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write enrollment journal " + path, e);
+    }
+  }
+
+  /** Discards every record. Only called when no enrollment is pending. */
+  void truncate() {
+    try {
+      channel.truncate(0);
+      if (fsync) {
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not truncate enrollment journal " + path, e);
+    }
+  }
+
+  /**
+   * Returns the size of the journal file.
+   *
+   * @return The size in bytes.
+   */
+  long size() {
+    try {
+      return channel.size();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,447 @@
+package batistaReviver.studentApi.service;
+
+import batistaReviver.studentApi.config.CacheConfig;
+import batistaReviver.studentApi.dto.EnrollmentTicketDto;
+import batistaReviver.studentApi.dto.EnrollmentTicketDto.Status;
+import batistaReviver.studentApi.exception.EntityNotFoundException;
+import batistaReviver.studentApi.exception.StudentEnrolledException;
+import batistaReviver.studentApi.exception.StudyClassFullException;
+import batistaReviver.studentApi.exception.TermArchivedException;
+import batistaReviver.studentApi.model.StudyClass;
+import batistaReviver.studentApi.repository.StudentRepository;
+import batistaReviver.studentApi.repository.StudyClassRepository;
+import batistaReviver.studentApi.repository.SubscriptionRepository;
+import batistaReviver.studentApi.util.AcademicTerm;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind enrollment queue for registration-day bursts.
+ *
+ * <p>When enabled, {@code POST /subscriptions} validates the enrollment, reserves a seat, appends
+ * the enrollment to a local {@link EnrollmentJournal} and answers {@code 202 Accepted} with a
+ * ticket, without waiting for an INSERT to commit. A scheduled flusher writes pending enrollments
+ * to {@code subscriptions} with JDBC batch inserts, falling back to one insert per row when a batch
+ * fails so a single bad row does not fail its neighbours. Enrollments left in the journal by a
+ * crash are replayed on startup; the unique key on {@code (student_id, study_class_id)} makes the
+ * replay of an already written enrollment harmless.
+ */
+@Service
+@ConditionalOnProperty(name = "api.enrollment.write-behind.enabled", havingValue = "true")
+public class EnrollmentQueue {
+
+  private static final Logger logger = LoggerFactory.getLogger(EnrollmentQueue.class);
+
+  private static final String INSERT_SQL =
+      "INSERT INTO subscriptions (date, student_id, study_class_id, term) VALUES (?, ?, ?, ?)";
+
+  private final StudentRepository studentRepository;
+  private final StudyClassRepository studyClassRepository;
+  private final SubscriptionRepository subscriptionRepository;
+  private final SeatAllocator seatAllocator;
+  private final CacheManager cacheManager;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final EnrollmentJournal journal;
+  private final int batchSize;
+  private final Duration ticketRetention;
+
+  /** Enrollments waiting to be written, oldest first. */
+  private final Deque<Ticket> pending = new ConcurrentLinkedDeque<>();
+
+  /** Every known ticket by ID, including completed ones until they expire. */
+  private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+  /**
+   * The student/class pairs of pending enrollments, to reject duplicates before they are written.
+   */
+  private final Set<String> pendingPairs = ConcurrentHashMap.newKeySet();
+
+  /** Set once the journal is closed on shutdown; guarded by the queue's monitor, like flushing. */
+  private boolean closed;
+
+  /**
+   * An accepted enrollment and its current status. The term of the class is looked up when the
+   * ticket is created, so the journal does not need to record it.
+   */
+  private static final class Ticket {
+    private final String id;
+    private final Long studentId;
+    private final Long studyClassId;
+    private final int term;
+    private final LocalDateTime acceptedAt;
+    private final boolean seatReserved;
+    private volatile boolean alreadyEnrolled;
+    private volatile Status status = Status.PENDING;
+    private volatile String reason;
+    private volatile Instant completedAt;
+
+    private Ticket(
+        String id,
+        Long studentId,
+        Long studyClassId,
+        int term,
+        LocalDateTime acceptedAt,
+        boolean seatReserved) {
+      this.id = id;
+      this.studentId = studentId;
+      this.studyClassId = studyClassId;
+      this.term = term;
+      this.acceptedAt = acceptedAt;
+      this.seatReserved = seatReserved;
+    }
+
+    private String pair() {
+      return studentId + ":" + studyClassId;
+    }
+
+    private EnrollmentTicketDto toDto() {
+      return new EnrollmentTicketDto(id, status, studentId, studyClassId, acceptedAt, reason);
+    }
+  }
+
+  public EnrollmentQueue(
+      StudentRepository studentRepository,
+      StudyClassRepository studyClassRepository,
+      SubscriptionRepository subscriptionRepository,
+      SeatAllocator seatAllocator,
+      CacheManager cacheManager,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${api.enrollment.write-behind.journal:data/enrollment.journal}") String journalPath,
+      @Value("${api.enrollment.write-behind.fsync:true}") boolean fsync,
+      @Value("${api.enrollment.write-behind.batch-size:500}") int batchSize,
+      @Value("${api.enrollment.write-behind.ticket-retention-seconds:3600}")
+          long retentionSeconds) {
+    this.studentRepository = studentRepository;
+    this.studyClassRepository = studyClassRepository;
+    this.subscriptionRepository = subscriptionRepository;
+    this.seatAllocator = seatAllocator;
+    this.cacheManager = cacheManager;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.journal = new EnrollmentJournal(Path.of(journalPath), fsync);
+    this.batchSize = batchSize;
+    this.ticketRetention = Duration.ofSeconds(retentionSeconds);
+  }
+
+  /**
+   * Opens the journal and re-queues every enrollment that was accepted but never written, e.g.
+   * because the application crashed before the flusher ran. An enrollment whose class is gone, or
+   * has no seat left for it anymore, is marked failed instead.
+   */
+  @PostConstruct
+  void replay() {
+    Map<String, String[]> unfinished = new LinkedHashMap<>();
+    for (String[] record : journal.open()) {
+      if ("E".equals(record[0]) && record.length == 5) {
+        unfinished.put(record[1], record);
+      } else {
+        unfinished.remove(record[1]);
+      }
+    }
+    int failed = 0;
+    for (String[] record : unfinished.values()) {
+      Long studentId = Long.valueOf(record[2]);
+      Long studyClassId = Long.valueOf(record[3]);
+      LocalDateTime acceptedAt =
+          LocalDateTime.ofInstant(
+              Instant.ofEpochMilli(Long.parseLong(record[4])), ZoneId.systemDefault());
+      StudyClass studyClass = studyClassRepository.findById(studyClassId).orElse(null);
+      int term = 0;
+      boolean seatReserved = false;
+      String failure = null;
+      if (studyClass == null) {
+        failure = "StudyClass with id = " + studyClassId + " not found.";
+      } else if (studyClass.isArchived()) {
+        failure = "StudyClass with id = " + studyClassId + " belongs to an archived term.";
+      } else {
+        term = AcademicTerm.of(studyClass.getYear(), studyClass.getSemester());
+        if (studyClass.getCapacity() != null) {
+          seatReserved = seatAllocator.tryReserve(studyClass);
+          if (!seatReserved) {
+            failure = "StudyClass with id = " + studyClassId + " has no seats left.";
+          }
+        }
+      }
+
+      Ticket ticket =
+          new Ticket(record[1], studentId, studyClassId, term, acceptedAt, seatReserved);
+      tickets.put(ticket.id, ticket);
+      if (failure != null) {
+        complete(List.of(ticket), Status.FAILED, failure);
+        failed++;
+        continue;
+      }
+      pendingPairs.add(ticket.pair());
+      pending.add(ticket);
+    }
+    if (!unfinished.isEmpty()) {
+      logger.warn(
+          "Replaying {} unflushed enrollments from the journal, {} of them failed",
+          unfinished.size(),
+          failed);
+    }
+  }
+
+  /**
+   * Validates an enrollment, reserves a seat and journals it for a later write.
+   *
+   * @param studentId The ID of the student subscribing.
+   * @param studyClassId The ID of the class to subscribe to.
+   * @return The {@link EnrollmentTicketDto} of the accepted enrollment, with status PENDING.
+   * @throws EntityNotFoundException if the student or class with the given IDs are not found.
+   * @throws StudentEnrolledException if the student is already subscribed, or has a pending
+   *     enrollment, for the class.
+   * @throws StudyClassFullException if the class has a capacity and no seats are left.
+   * @throws TermArchivedException if the term of the class has been archived.
+   */
+  public EnrollmentTicketDto accept(Long studentId, Long studyClassId) {
+    if (!studentRepository.existsById(studentId)) {
+      throw new EntityNotFoundException("Student with id = " + studentId + " not found.");
+    }
+    StudyClass studyClass =
+        studyClassRepository
+            .findById(studyClassId)
+            .orElseThrow(
+                () ->
+                    new EntityNotFoundException(
+                        "StudyClass with id = " + studyClassId + " not found."));
+    if (studyClass.isArchived()) {
+      throw new TermArchivedException(
+          "StudyClass with id = " + studyClassId + " belongs to an archived term.");
+    }
+    if (subscriptionRepository.existsByStudentIdAndStudyClassId(studentId, studyClassId)) {
+      throw new StudentEnrolledException("Student is already subscribed to this class.");
+    }
+
+    String pair = studentId + ":" + studyClassId;
+    if (!pendingPairs.add(pair)) {
+      throw new StudentEnrolledException(
+          "Student already has a pending subscription to this class.");
+    }
+    boolean seatReserved = false;
+    try {
+      if (studyClass.getCapacity() != null) {
+        if (!seatAllocator.tryReserve(studyClass)) {
+          throw new StudyClassFullException(
+              "StudyClass with id = " + studyClassId + " has no seats left.");
+        }
+        seatReserved = true;
+      }
+
+      Ticket ticket =
+          new Ticket(
+              UUID.randomUUID().toString(),
+              studentId,
+              studyClassId,
+              AcademicTerm.of(studyClass.getYear(), studyClass.getSemester()),
+              LocalDateTime.now(),
+              seatReserved);
+      long acceptedAtMillis =
+          ticket.acceptedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+      synchronized (journal) {
+        journal.append(
+            List.of(
+                String.join(
+                    "|",
+                    "E",
+                    ticket.id,
+                    studentId.toString(),
+                    studyClassId.toString(),
+                    Long.toString(acceptedAtMillis))));
+        tickets.put(ticket.id, ticket);
+        pending.add(ticket);
+      }
+      return ticket.toDto();
+    } catch (RuntimeException e) {
+      pendingPairs.remove(pair);
+      if (seatReserved) {
+        seatAllocator.settle(studyClassId, false);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Retrieves the status of an accepted enrollment.
+   *
+   * @param ticketId The ID of the ticket returned when the enrollment was accepted.
+   * @return The {@link EnrollmentTicketDto} with the current status.
+   * @throws EntityNotFoundException if the ticket is unknown or has expired.
+   */
+  public EnrollmentTicketDto getTicket(String ticketId) {
+    Ticket ticket = tickets.get(ticketId);
+    if (ticket == null) {
+      throw new EntityNotFoundException("Enrollment ticket " + ticketId + " not found.");
+    }
+    return ticket.toDto();
+  }
+
+  /**
+   * Writes pending enrollments to the database in batches, then forgets expired tickets and
+   * truncates the journal if nothing is pending anymore. Runs are serialized with each other and
+   * with {@link #shutdown}, and do nothing once the journal is closed.
+   */
+  @Scheduled(fixedDelayString = "${api.enrollment.write-behind.flush-interval-ms:200}")
+  public synchronized void flush() {
+    if (!closed) {
+      writePending();
+    }
+  }
+
+  /** Writes what is still pending before the application stops. */
+  @PreDestroy
+  synchronized void shutdown() throws IOException {
+    if (closed) {
+      return;
+    }
+    writePending();
+    journal.close();
+    closed = true;
+  }
+
+  private void writePending() {
+    List<Ticket> batch = drain();
+    while (!batch.isEmpty()) {
+      if (!write(batch)) {
+        break; // The database is unavailable; retry on the next run.
+      }
+      batch = drain();
+    }
+
+    Instant expiry = Instant.now().minus(ticketRetention);
+    tickets
+        .values()
+        .removeIf(ticket -> ticket.completedAt != null && ticket.completedAt.isBefore(expiry));
+    synchronized (journal) {
+      if (pending.isEmpty() && journal.size() > 0) {
+        journal.truncate();
+      }
+    }
+  }
+
+  private List<Ticket> drain() {
+    List<Ticket> batch = new ArrayList<>(batchSize);
+    Ticket ticket;
+    while (batch.size() < batchSize && (ticket = pending.poll()) != null) {
+      batch.add(ticket);
+    }
+    return batch;
+  }
+
+  /**
+   * Writes a batch in one transaction, or row by row if the batch fails.
+   *
+   * @return {@code false} if the database could not be reached and the batch was put back.
+   */
+  private boolean write(List<Ticket> batch) {
+    try {
+      transactionTemplate.executeWithoutResult(
+          status ->
+              jdbcTemplate.batchUpdate(
+                  INSERT_SQL,
+                  batch,
+                  batch.size(),
+                  (statement, ticket) -> {
+                    statement.setTimestamp(1, Timestamp.valueOf(ticket.acceptedAt));
+                    statement.setLong(2, ticket.studentId);
+                    statement.setLong(3, ticket.studyClassId);
+                    statement.setInt(4, ticket.term);
+                  }));
+      complete(batch, Status.COMMITTED, null);
+      return true;
+    } catch (DataAccessException batchFailure) {
+      logger.warn(
+          "Batch of {} enrollments failed, retrying row by row: {}",
+          batch.size(),
+          batchFailure.getMessage());
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      Ticket ticket = batch.get(i);
+      try {
+        jdbcTemplate.update(
+            INSERT_SQL,
+            Timestamp.valueOf(ticket.acceptedAt),
+            ticket.studentId,
+            ticket.studyClassId,
+            ticket.term);
+        complete(List.of(ticket), Status.COMMITTED, null);
+      } catch (DuplicateKeyException e) {
+        // Written before a crash, or subscribed through another path: the student is enrolled, but
+        // the existing subscription already holds a seat, so the reserved one is given back.
+        ticket.alreadyEnrolled = true;
+        complete(List.of(ticket), Status.COMMITTED, null);
+      } catch (DataIntegrityViolationException e) {
+        complete(List.of(ticket), Status.FAILED, "Student or study class no longer exists.");
+      } catch (DataAccessException e) {
+        logger.error("Could not write enrollments, will retry: {}", e.getMessage());
+        for (int j = batch.size() - 1; j >= i; j--) {
+          pending.addFirst(batch.get(j));
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void complete(List<Ticket> completed, Status status, String reason) {
+    List<String> records = new ArrayList<>(completed.size());
+    Instant now = Instant.now();
+    for (Ticket ticket : completed) {
+      ticket.status = status;
+      ticket.reason = reason;
+      ticket.completedAt = now;
+      records.add(
+          status == Status.COMMITTED
+              ? "C|" + ticket.id
+              : "F|" + ticket.id + "|" + reason.replaceAll("[|\\r\\n]", " "));
+    }
+    synchronized (journal) {
+      journal.append(records);
+    }
+
+    Cache dashboards = cacheManager.getCache(CacheConfig.STUDENT_DASHBOARDS);
+    for (Ticket ticket : completed) {
+      pendingPairs.remove(ticket.pair());
+      if (ticket.seatReserved) {
+        seatAllocator.settle(
+            ticket.studyClassId, status == Status.COMMITTED && !ticket.alreadyEnrolled);
+      }
+      if (dashboards != null) {
+        dashboards.evict(ticket.studentId);
+      }
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package batistaReviver.studentApi.service;
 
+import batistaReviver.studentApi.config.CacheConfig;
+import batistaReviver.studentApi.dto.BatchResponse;
 import batistaReviver.studentApi.exception.EntityNotFoundException;
 import batistaReviver.studentApi.model.Professor;
 import batistaReviver.studentApi.repository.ProfessorRepository;
+import batistaReviver.studentApi.repository.ProjectionRepository;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +24,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProfessorService {
 
   private final ProfessorRepository professorRepository;
+  private final ProjectionRepository projectionRepository;
+  private final BatchLookup batchLookup;
 
   /**
    * Creates and saves a new professor.
@@ -56,6 +63,65 @@ public class ProfessorService {
             () -> new EntityNotFoundException("Professor with id = " + id + " not found."));
   }
 
+  /**
+   * Retrieves only the selected fields of all professors.
+   *
+   * @param selection The fields to select, as resolved by {@link
+   *     batistaReviver.studentApi.util.SparseFields#select}.
+   * @return One map of field values per professor.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getAllProfessors(Map<String, String> selection) {
+    return projectionRepository.findFields(Professor.class, selection, Map.of());
+  }
+
+  /**
+   * Retrieves only the selected fields of a professor.
+   *
+   * @param id The ID of the professor to retrieve.
+   * @param selection The fields to select.
+   * @return The field values of the professor.
+   * @throws EntityNotFoundException if no professor with the given ID is found.
+   */
+  @Transactional(readOnly = true)
+  public Map<String, Object> getProfessorById(Long id, Map<String, String> selection) {
+    return projectionRepository
+        .findFieldsById(Professor.class, selection, id)
+        .orElseThrow(
+            () -> new EntityNotFoundException("Professor with id = " + id + " not found."));
+  }
+
+  /**
+   * Retrieves several professors by their IDs.
+   *
+   * @param ids The IDs of the professors to retrieve.
+   * @return The professors found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<Professor> getProfessorsByIds(List<Long> ids) {
+    return batchLookup.fetch(
+        ids, professorRepository::findAllById, Professor::getId, professor -> professor);
+  }
+
+  /**
+   * Retrieves only the selected fields of several professors. The {@code id} field is always
+   * included.
+   *
+   * @param ids The IDs of the professors to retrieve.
+   * @param selection The fields to select.
+   * @return The field values found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<Map<String, Object>> getProfessorsByIds(
+      List<Long> ids, Map<String, String> selection) {
+    Map<String, String> withId = batchLookup.withId(selection);
+    return batchLookup.fetch(
+        ids,
+        chunk -> projectionRepository.findFields(Professor.class, withId, Map.of("id", chunk)),
+        row -> (Long) row.get("id"),
+        row -> row);
+  }
+
   /**
    * Updates an existing professor's information.
    *
@@ -64,6 +130,7 @@ public class ProfessorService {
    * @return The updated {@link Professor} entity.
    * @throws EntityNotFoundException if no professor with the given ID is found.
    */
+  @CacheEvict(cacheNames = CacheConfig.STUDENT_DASHBOARDS, allEntries = true)
   @Transactional
   public Professor updateProfessor(Long id, Professor professorDetails) {
     Professor existingProfessor = getProfessorById(id);
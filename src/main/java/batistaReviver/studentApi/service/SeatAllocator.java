@@ -0,0 +1,325 @@
+package batistaReviver.studentApi.service;
+
+import batistaReviver.studentApi.model.StudyClass;
+import batistaReviver.studentApi.repository.SubscriptionRepository;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory seat accounting for capacity-limited study classes.
+ *
+ * <p>Each class has a counter of taken seats, initialized from the number of subscriptions in the
+ * database the first time the class is enrolled into. Seats are reserved with a compare-and-set
+ * loop, so concurrent enrollments in the same class never block each other and never take a row
+ * lock on {@code study_classes}. A reservation made inside a transaction is returned automatically
+ * if that transaction rolls back.
+ *
+ * <p>The counter also holds the live capacity of the class, read from the entity when the counter
+ * is created and changed in place by {@link #resize}. Reservations are checked against it rather
+ * than against the (possibly stale) capacity of the entity they were given, so a transaction that
+ * loaded the class before its capacity was lowered cannot take a seat beyond the new capacity.
+ *
+ * <p>The counters are reconciled with the database periodically, which corrects drift caused by
+ * writes from other application instances or manual changes. A class is only reconciled while it
+ * has no reservations in flight.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatAllocator {
+
+  private static final Logger logger = LoggerFactory.getLogger(SeatAllocator.class);
+
+  private final SubscriptionRepository subscriptionRepository;
+
+  private final Map<Long, SeatCounter> counters = new ConcurrentHashMap<>();
+
+  /**
+   * Seats taken in a class, seat changes whose transaction has not completed yet (reservations and
+   * releases), the number of such changes ever started, and the capacity of the class (null when
+   * unlimited).
+   */
+  private static final class SeatCounter {
+    private final AtomicInteger taken;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile Integer capacity;
+
+    private SeatCounter(int taken, Integer capacity) {
+      this.taken = new AtomicInteger(taken);
+      this.capacity = capacity;
+    }
+  }
+
+  /**
+   * Reserves a seat in a class. Classes without a capacity always have a seat.
+   *
+   * <p>When called inside a transaction, the seat is given back if the transaction rolls back.
+   *
+   * @param studyClass The class to reserve a seat in.
+   * @return {@code true} if a seat was reserved, {@code false} if the class is full.
+   */
+  public boolean tryAcquire(StudyClass studyClass) {
+    SeatCounter counter = counter(studyClass);
+    if (counter == null) {
+      return true;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return reserve(counter);
+    }
+
+    // Counted in flight before the seat is taken, so the reconciler never sees the seat without it.
+    begin(counter);
+    if (!reserve(counter)) {
+      counter.inFlight.decrementAndGet();
+      return false;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+              counter.taken.decrementAndGet();
+            }
+            counter.inFlight.decrementAndGet();
+          }
+        });
+    return true;
+  }
+
+  /**
+   * Reserves a seat in a class until {@link #settle} is called, independently of any transaction.
+   * Used when the subscription is written later, e.g. by the write-behind enrollment queue. Classes
+   * without a capacity always have a seat and need no settling.
+   *
+   * @param studyClass The class to reserve a seat in.
+   * @return {@code true} if a seat was reserved, {@code false} if the class is full.
+   */
+  public boolean tryReserve(StudyClass studyClass) {
+    SeatCounter counter = counter(studyClass);
+    if (counter == null) {
+      return true;
+    }
+    begin(counter);
+    if (!reserve(counter)) {
+      counter.inFlight.decrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Settles a seat reserved with {@link #tryReserve}.
+   *
+   * @param studyClassId The ID of the class.
+   * @param kept {@code true} if the subscription was written, {@code false} to give the seat back.
+   */
+  public void settle(Long studyClassId, boolean kept) {
+    SeatCounter counter = counters.get(studyClassId);
+    if (counter == null) {
+      return; // Unlimited class, or forgotten since the reservation.
+    }
+    if (!kept) {
+      counter.taken.updateAndGet(taken -> Math.max(0, taken - 1));
+    }
+    counter.inFlight.updateAndGet(inFlight -> Math.max(0, inFlight - 1));
+  }
+
+  /**
+   * Gives a seat back to a class, once the current transaction (if any) commits. The release is
+   * counted in flight until the seat has been given back, so the reconciler cannot count the
+   * committed delete and then see the seat given back a second time.
+   *
+   * @param studyClassId The ID of the class.
+   */
+  public void release(Long studyClassId) {
+    SeatCounter counter = counters.get(studyClassId);
+    if (counter == null) {
+      return; // Unlimited class, or not counted yet: the next count reads the database.
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      decrement(counter);
+      return;
+    }
+    begin(counter);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+              decrement(counter);
+            }
+            counter.inFlight.decrementAndGet();
+          }
+        });
+  }
+
+  /**
+   * Tells whether a class has a free seat, without reserving it.
+   *
+   * @param studyClass The class.
+   * @return {@code true} if the class has no capacity or fewer seats taken than its capacity.
+   */
+  public boolean hasFreeSeat(StudyClass studyClass) {
+    SeatCounter counter = counter(studyClass);
+    if (counter == null) {
+      return true;
+    }
+    Integer capacity = counter.capacity;
+    return capacity == null || counter.taken.get() < capacity;
+  }
+
+  /**
+   * Changes the capacity of a class in place. The seats already taken, including the reservations
+   * still in flight, are kept, so the new capacity applies to every later reservation at once. When
+   * called inside a transaction, the previous capacity is restored if that transaction rolls back.
+   *
+   * @param studyClass The class, with its current capacity.
+   * @param capacity The new capacity (null means unlimited).
+   * @return {@code true} if the capacity was changed, {@code false} if more seats are taken or
+   *     reserved than the new capacity allows.
+   */
+  public boolean resize(StudyClass studyClass, Integer capacity) {
+    Long studyClassId = studyClass.getId();
+    SeatCounter counter = counters.get(studyClassId);
+    if (counter == null) {
+      int taken = (int) subscriptionRepository.countByStudyClassId(studyClassId);
+      counters.putIfAbsent(studyClassId, new SeatCounter(taken, studyClass.getCapacity()));
+      counter = counters.get(studyClassId);
+    }
+
+    Integer previous;
+    synchronized (counter) {
+      previous = counter.capacity;
+      counter.capacity = capacity;
+      // A reservation racing with this check re-reads the capacity after taking its seat.
+      if (capacity != null && counter.taken.get() > capacity) {
+        counter.capacity = previous;
+        return false;
+      }
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      SeatCounter resized = counter;
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              if (status != STATUS_COMMITTED) {
+                synchronized (resized) {
+                  if (Objects.equals(resized.capacity, capacity)) {
+                    resized.capacity = previous;
+                  }
+                }
+              }
+            }
+          });
+    }
+    return true;
+  }
+
+  /**
+   * Drops the counter of a class, so it is re-read from the database on next use. Used when the
+   * class is deleted.
+   *
+   * @param studyClassId The ID of the class.
+   */
+  public void forget(Long studyClassId) {
+    counters.remove(studyClassId);
+  }
+
+  /**
+   * Returns the number of seats currently taken in a class, as seen by this instance.
+   *
+   * @param studyClassId The ID of the class.
+   * @return The number of taken seats.
+   */
+  public int taken(Long studyClassId) {
+    SeatCounter counter = counters.get(studyClassId);
+    return counter != null
+        ? counter.taken.get()
+        : (int) subscriptionRepository.countByStudyClassId(studyClassId);
+  }
+
+  /**
+   * Re-reads the seat count of every idle class from the database. A class is skipped if any seat
+   * change was in flight or started while it was being counted, since the count may then miss a
+   * write the counter already holds; the final update is a compare-and-set on the value read.
+   */
+  @Scheduled(fixedDelayString = "${api.enrollment.seat-reconcile-interval-ms:60000}")
+  public void reconcile() {
+    counters.forEach(
+        (studyClassId, counter) -> {
+          long epoch = counter.epoch.get();
+          if (counter.inFlight.get() != 0) {
+            return;
+          }
+          int expected = counter.taken.get();
+          int actual = (int) subscriptionRepository.countByStudyClassId(studyClassId);
+          if (expected != actual
+              && counter.inFlight.get() == 0
+              && counter.epoch.get() == epoch
+              && counter.taken.compareAndSet(expected, actual)) {
+            logger.info(
+                "Seat counter of study class {} reconciled from {} to {}",
+                studyClassId,
+                expected,
+                actual);
+          }
+        });
+  }
+
+  private static boolean reserve(SeatCounter counter) {
+    int taken;
+    do {
+      taken = counter.taken.get();
+      Integer capacity = counter.capacity;
+      if (capacity != null && taken >= capacity) {
+        return false;
+      }
+    } while (!counter.taken.compareAndSet(taken, taken + 1));
+
+    // The capacity may have been lowered between the check and the increment.
+    Integer capacity = counter.capacity;
+    if (capacity != null && taken >= capacity) {
+      counter.taken.decrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  /** Starts a seat change: bumps the epoch, then counts the change in flight. */
+  private static void begin(SeatCounter counter) {
+    counter.epoch.incrementAndGet();
+    counter.inFlight.incrementAndGet();
+  }
+
+  private static void decrement(SeatCounter counter) {
+    counter.taken.updateAndGet(taken -> Math.max(0, taken - 1));
+  }
+
+  /**
+   * Returns the counter of a class, creating it for a limited class. Returns null for an unlimited
+   * class whose capacity was never changed, which needs no counting.
+   */
+  private SeatCounter counter(StudyClass studyClass) {
+    Long studyClassId = studyClass.getId();
+    SeatCounter counter = counters.get(studyClassId);
+    if (counter != null || studyClass.getCapacity() == null) {
+      return counter;
+    }
+    int taken = (int) subscriptionRepository.countByStudyClassId(studyClassId);
+    SeatCounter existing =
+        counters.putIfAbsent(studyClassId, new SeatCounter(taken, studyClass.getCapacity()));
+    return existing != null ? existing : counters.get(studyClassId);
+  }
+}
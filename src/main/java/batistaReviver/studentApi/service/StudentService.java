@@ -1,12 +1,23 @@
 package batistaReviver.studentApi.service;
 
+import batistaReviver.studentApi.config.CacheConfig;
+import batistaReviver.studentApi.dto.BatchResponse;
+import batistaReviver.studentApi.dto.StudentDashboardDto;
+import batistaReviver.studentApi.dto.StudentDashboardRow;
 import batistaReviver.studentApi.exception.EntityNotFoundException;
 import batistaReviver.studentApi.exception.StudentEnrolledException;
 import batistaReviver.studentApi.model.Student;
+import batistaReviver.studentApi.repository.ArchivedSubscriptionRepository;
+import batistaReviver.studentApi.repository.ProjectionRepository;
 import batistaReviver.studentApi.repository.StudentRepository;
 import batistaReviver.studentApi.repository.SubscriptionRepository;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,14 +29,26 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class StudentService {
 
+  /** Order of the classes on a dashboard: latest term first, then by subscription date. */
+  private static final Comparator<StudentDashboardRow> DASHBOARD_ORDER =
+      Comparator.comparing(StudentDashboardRow::year)
+          .thenComparing(StudentDashboardRow::semester)
+          .reversed()
+          .thenComparing(StudentDashboardRow::subscribedAt);
+
   private final StudentRepository studentRepository;
   private final SubscriptionRepository subscriptionRepository;
+  private final ArchivedSubscriptionRepository archivedSubscriptionRepository;
+  private final ProjectionRepository projectionRepository;
+  private final BatchLookup batchLookup;
+  private final WaitlistService waitlistService;
 
   /**
    * Retrieves all students.
    *
    * @return a list of all {@link Student} entities.
    */
+  @Transactional(readOnly = true)
   public List<Student> getAllStudents() {
     return studentRepository.findAll();
   }
@@ -37,12 +60,101 @@ public class StudentService {
    * @return The {@link Student} entity if found.
    * @throws EntityNotFoundException if no student is found with the given ID.
    */
+  @Transactional(readOnly = true)
   public Student getStudentById(Long id) {
     return studentRepository
         .findById(id)
         .orElseThrow(() -> new EntityNotFoundException("Student with id = " + id + " not found."));
   }
 
+  /**
+   * Retrieves only the selected fields of all students.
+   *
+   * @param selection The fields to select, as resolved by {@link
+   *     batistaReviver.studentApi.util.SparseFields#select}.
+   * @return One map of field values per student.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getAllStudents(Map<String, String> selection) {
+    return projectionRepository.findFields(Student.class, selection, Map.of());
+  }
+
+  /**
+   * Retrieves only the selected fields of a student.
+   *
+   * @param id The ID of the student to retrieve.
+   * @param selection The fields to select.
+   * @return The field values of the student.
+   * @throws EntityNotFoundException if no student is found with the given ID.
+   */
+  @Transactional(readOnly = true)
+  public Map<String, Object> getStudentById(Long id, Map<String, String> selection) {
+    return projectionRepository
+        .findFieldsById(Student.class, selection, id)
+        .orElseThrow(() -> new EntityNotFoundException("Student with id = " + id + " not found."));
+  }
+
+  /**
+   * Retrieves several students by their IDs.
+   *
+   * @param ids The IDs of the students to retrieve.
+   * @return The students found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<Student> getStudentsByIds(List<Long> ids) {
+    return batchLookup.fetch(
+        ids, studentRepository::findAllById, Student::getId, student -> student);
+  }
+
+  /**
+   * Retrieves only the selected fields of several students. The {@code id} field is always
+   * included.
+   *
+   * @param ids The IDs of the students to retrieve.
+   * @param selection The fields to select.
+   * @return The field values found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<Map<String, Object>> getStudentsByIds(
+      List<Long> ids, Map<String, String> selection) {
+    Map<String, String> withId = batchLookup.withId(selection);
+    return batchLookup.fetch(
+        ids,
+        chunk -> projectionRepository.findFields(Student.class, withId, Map.of("id", chunk)),
+        row -> (Long) row.get("id"),
+        row -> row);
+  }
+
+  /**
+   * Retrieves the dashboard of a student: the student and every class they are enrolled in, with
+   * course and professor names, built from a single joined query. The classes of archived terms are
+   * read from the archive with a second one.
+   *
+   * <p>The result is cached per student and evicted whenever one of their subscriptions, or the
+   * professor assignment of a class, changes.
+   *
+   * @param id The ID of the student.
+   * @return The {@link StudentDashboardDto} of the student.
+   * @throws EntityNotFoundException if no student is found with the given ID.
+   */
+  @Cacheable(cacheNames = CacheConfig.STUDENT_DASHBOARDS, key = "#id")
+  @Transactional(readOnly = true)
+  public StudentDashboardDto getDashboard(Long id) {
+    List<StudentDashboardRow> rows = studentRepository.findDashboardRows(id);
+    if (rows.isEmpty()) {
+      throw new EntityNotFoundException("Student with id = " + id + " not found.");
+    }
+    List<StudentDashboardRow> archived = archivedSubscriptionRepository.findDashboardRows(id);
+    if (!archived.isEmpty()) {
+      rows =
+          Stream.concat(
+                  rows.stream().filter(row -> row.subscriptionId() != null), archived.stream())
+              .sorted(DASHBOARD_ORDER)
+              .toList();
+    }
+    return StudentDashboardDto.fromRows(rows);
+  }
+
   /**
    * Adds a new student to the database.
    *
@@ -61,6 +173,7 @@ public class StudentService {
    * @return The updated {@link Student} entity.
    * @throws EntityNotFoundException if no student is found with the given ID.
    */
+  @CacheEvict(cacheNames = CacheConfig.STUDENT_DASHBOARDS, key = "#id")
   @Transactional
   public Student modifyStudent(Long id, Student studentDetails) {
     Student student = getStudentById(id);
@@ -71,19 +184,24 @@ public class StudentService {
   }
 
   /**
-   * Removes a student from the database by their ID.
+   * Removes a student from the database by their ID, along with any waitlist entries.
    *
    * @param id The ID of the student to remove.
    * @throws EntityNotFoundException if no student is found with the given ID.
-   * @throws StudentEnrolledException if the student is currently enrolled in any class.
+   * @throws StudentEnrolledException if the student is enrolled in any class, including classes of
+   *     archived terms.
    */
+  @CacheEvict(cacheNames = CacheConfig.STUDENT_DASHBOARDS, key = "#id")
+  @Transactional
   public void removeStudent(Long id) {
     if (!studentRepository.existsById(id)) {
       throw new EntityNotFoundException("Student with id = " + id + " not found.");
     }
-    if (subscriptionRepository.existsByStudentId(id)) {
+    if (subscriptionRepository.existsByStudentId(id)
+        || archivedSubscriptionRepository.existsByStudentId(id)) {
       throw new StudentEnrolledException("Student is enrolled in a class and cannot be removed.");
     }
+    waitlistService.removeStudent(id);
     studentRepository.deleteById(id);
   }
 }
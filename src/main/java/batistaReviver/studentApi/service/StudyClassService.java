@@ -1,5 +1,7 @@
 package batistaReviver.studentApi.service;
 
+import batistaReviver.studentApi.config.CacheConfig;
+import batistaReviver.studentApi.dto.BatchResponse;
 import batistaReviver.studentApi.dto.StudyClassDto;
 import batistaReviver.studentApi.exception.EntityNotFoundException;
 import batistaReviver.studentApi.exception.EntityValidationException;
@@ -8,12 +10,21 @@ import batistaReviver.studentApi.exception.SubscriptionFoundException;
 import batistaReviver.studentApi.model.Course;
 import batistaReviver.studentApi.model.Professor;
 import batistaReviver.studentApi.model.StudyClass;
+import batistaReviver.studentApi.model.Subscription;
+import batistaReviver.studentApi.repository.ArchivedSubscriptionRepository;
 import batistaReviver.studentApi.repository.CourseRepository;
 import batistaReviver.studentApi.repository.ProfessorRepository;
+import batistaReviver.studentApi.repository.ProjectionRepository;
 import batistaReviver.studentApi.repository.StudyClassRepository;
 import batistaReviver.studentApi.repository.SubscriptionRepository;
+import batistaReviver.studentApi.repository.WaitlistEntryRepository;
+import batistaReviver.studentApi.util.AcademicTerm;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +36,14 @@ public class StudyClassService {
   private final CourseRepository courseRepository;
   private final ProfessorRepository professorRepository;
   private final SubscriptionRepository subscriptionRepository;
+  private final ArchivedSubscriptionRepository archivedSubscriptionRepository;
+  private final ProjectionRepository projectionRepository;
+  private final BatchLookup batchLookup;
+  private final AssociationLoader associationLoader;
+  private final SeatAllocator seatAllocator;
+  private final WaitlistEntryRepository waitlistEntryRepository;
+  private final WaitlistService waitlistService;
+  private final CacheManager cacheManager;
 
   /**
    * Creates a new StudyClass for a given course, year, and semester. A professor can be optionally
@@ -34,11 +53,16 @@ public class StudyClassService {
    * @param semester The semester.
    * @param courseId The ID of the course.
    * @param professorId The ID of the professor (optional, can be null).
+   * @param capacity The maximum number of students (optional, null means unlimited).
    * @return The newly created {@link StudyClassDto}.
    * @throws EntityNotFoundException if the course or professor (if provided) is not found.
+   * @throws EntityValidationException if the capacity is not positive.
    */
   @Transactional
-  public StudyClassDto createStudyClass(int year, int semester, Long courseId, Long professorId) {
+  public StudyClassDto createStudyClass(
+      int year, int semester, Long courseId, Long professorId, Integer capacity) {
+    validateCapacity(capacity);
+
     Course course =
         courseRepository
             .findById(courseId)
@@ -58,6 +82,7 @@ public class StudyClassService {
     }
 
     StudyClass newStudyClass = new StudyClass(year, semester, course, professor);
+    newStudyClass.setCapacity(capacity);
     // Set a temporary code; we need the ID to make it final.
     newStudyClass.setClassCode("TEMP-" + System.currentTimeMillis());
     // First save to generate the entity ID.
@@ -97,7 +122,7 @@ public class StudyClassService {
    */
   @Transactional(readOnly = true)
   public List<StudyClassDto> getAllStudyClasses() {
-    return studyClassRepository.findAll().stream().map(StudyClassDto::new).toList();
+    return toDtos(studyClassRepository.findAll());
   }
 
   /**
@@ -129,9 +154,7 @@ public class StudyClassService {
     if (!professorRepository.existsById(professorId)) {
       throw new EntityNotFoundException("Professor with id = " + professorId + " not found.");
     }
-    return studyClassRepository.findByProfessorId(professorId).stream()
-        .map(StudyClassDto::new)
-        .toList();
+    return toDtos(studyClassRepository.findByProfessorId(professorId));
   }
 
   /**
@@ -146,7 +169,127 @@ public class StudyClassService {
     if (!courseRepository.existsById(courseId)) {
       throw new EntityNotFoundException("Course with id = " + courseId + " not found.");
     }
-    return studyClassRepository.findByCourseId(courseId).stream().map(StudyClassDto::new).toList();
+    return toDtos(studyClassRepository.findByCourseId(courseId));
+  }
+
+  /**
+   * Retrieves several study classes by their IDs. Each chunk of IDs is loaded together with the
+   * course and professor of every class in a single query.
+   *
+   * @param ids The IDs of the classes to retrieve.
+   * @return The classes found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<StudyClassDto> getStudyClassesByIds(List<Long> ids) {
+    return batchLookup.fetch(
+        ids, studyClassRepository::findByIdIn, StudyClass::getId, StudyClassDto::new);
+  }
+
+  /**
+   * Retrieves only the selected fields of several study classes. The {@code id} field is always
+   * included.
+   *
+   * @param ids The IDs of the classes to retrieve.
+   * @param selection The fields to select.
+   * @return The field values found, in request order, and the IDs that were not found.
+   */
+  @Transactional(readOnly = true)
+  public BatchResponse<Map<String, Object>> getStudyClassesByIds(
+      List<Long> ids, Map<String, String> selection) {
+    Map<String, String> withId = batchLookup.withId(selection);
+    return batchLookup.fetch(
+        ids,
+        chunk -> projectionRepository.findFields(StudyClass.class, withId, Map.of("id", chunk)),
+        row -> (Long) row.get("id"),
+        row -> row);
+  }
+
+  /**
+   * Retrieves only the selected fields of all study classes.
+   *
+   * @param selection The fields to select, as resolved by {@link
+   *     batistaReviver.studentApi.util.SparseFields#select}.
+   * @return One map of field values per class.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getAllStudyClasses(Map<String, String> selection) {
+    return projectionRepository.findFields(StudyClass.class, selection, Map.of());
+  }
+
+  /**
+   * Retrieves only the selected fields of a study class.
+   *
+   * @param id The ID of the class.
+   * @param selection The fields to select.
+   * @return The field values of the class.
+   * @throws EntityNotFoundException if no class is found with the given ID.
+   */
+  @Transactional(readOnly = true)
+  public Map<String, Object> getStudyClassById(Long id, Map<String, String> selection) {
+    return projectionRepository
+        .findFieldsById(StudyClass.class, selection, id)
+        .orElseThrow(
+            () -> new EntityNotFoundException("StudyClass with id = " + id + " not found."));
+  }
+
+  /**
+   * Retrieves only the selected fields of the study classes taught by a professor.
+   *
+   * @param professorId The ID of the professor.
+   * @param selection The fields to select.
+   * @return One map of field values per class.
+   * @throws EntityNotFoundException if no professor is found with the given ID.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getClassesByProfessor(
+      Long professorId, Map<String, String> selection) {
+    if (!professorRepository.existsById(professorId)) {
+      throw new EntityNotFoundException("Professor with id = " + professorId + " not found.");
+    }
+    return projectionRepository.findFields(
+        StudyClass.class, selection, Map.of("professor.id", professorId));
+  }
+
+  /**
+   * Retrieves only the selected fields of the study classes of a course.
+   *
+   * @param courseId The ID of the course.
+   * @param selection The fields to select.
+   * @return One map of field values per class.
+   * @throws EntityNotFoundException if no course is found with the given ID.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> getClassesByCourse(
+      Long courseId, Map<String, String> selection) {
+    if (!courseRepository.existsById(courseId)) {
+      throw new EntityNotFoundException("Course with id = " + courseId + " not found.");
+    }
+    return projectionRepository.findFields(
+        StudyClass.class, selection, Map.of("course.id", courseId));
+  }
+
+  /**
+   * Converts study classes to DTOs, loading all their courses and professors with one query per
+   * entity type instead of one query per class.
+   *
+   * @param studyClasses The classes to convert.
+   * @return The {@link StudyClassDto}s, in the same order.
+   */
+  private List<StudyClassDto> toDtos(List<StudyClass> studyClasses) {
+    Map<Long, Course> courses =
+        associationLoader.load(studyClasses, StudyClass::getCourse, Course.class);
+    Map<Long, Professor> professors =
+        associationLoader.load(studyClasses, StudyClass::getProfessor, Professor.class);
+    return studyClasses.stream()
+        .map(
+            studyClass ->
+                new StudyClassDto(
+                    studyClass,
+                    courses.get(studyClass.getCourse().getId()),
+                    studyClass.getProfessor() != null
+                        ? professors.get(studyClass.getProfessor().getId())
+                        : null))
+        .toList();
   }
 
   /**
@@ -158,6 +301,7 @@ public class StudyClassService {
    * @throws EntityNotFoundException if the class or professor is not found.
    * @throws ProfessorEnrolledException if the class already has a professor assigned.
    */
+  @CacheEvict(cacheNames = CacheConfig.STUDENT_DASHBOARDS, allEntries = true)
   @Transactional
   public StudyClassDto assignProfessor(Long classId, Long professorId) {
     StudyClass studyClass =
@@ -184,6 +328,65 @@ public class StudyClassService {
     return new StudyClassDto(studyClass); // Transaction will handle the save.
   }
 
+  /**
+   * Changes the capacity of a study class. The capacity cannot be lowered below the number of
+   * students already subscribed, including the enrollments still in flight. The seat counter of the
+   * class is resized in place, so the new capacity applies to concurrent enrollments at once. When
+   * it is raised, waiting students are promoted into the new seats.
+   *
+   * @param classId The ID of the study class.
+   * @param capacity The new capacity (null means unlimited).
+   * @return An updated {@link StudyClassDto} with the new capacity.
+   * @throws EntityNotFoundException if the class is not found.
+   * @throws EntityValidationException if the capacity is not positive or is lower than the number
+   *     of subscribed or enrolling students.
+   */
+  @Transactional
+  public StudyClassDto updateCapacity(Long classId, Integer capacity) {
+    validateCapacity(capacity);
+    StudyClass studyClass =
+        studyClassRepository
+            .findById(classId)
+            .orElseThrow(
+                () ->
+                    new EntityNotFoundException("StudyClass with id = " + classId + " not found."));
+
+    long subscribed = subscriptionRepository.countByStudyClassId(classId);
+    if (capacity != null && capacity < subscribed) {
+      throw new EntityValidationException(
+          "StudyClass with id = "
+              + classId
+              + " already has "
+              + subscribed
+              + " subscriptions; capacity cannot be lower.");
+    }
+
+    if (!seatAllocator.resize(studyClass, capacity)) {
+      throw new EntityValidationException(
+          "StudyClass with id = "
+              + classId
+              + " has enrollments in progress beyond "
+              + capacity
+              + " seats; capacity cannot be lower.");
+    }
+
+    studyClass.setCapacity(capacity);
+    List<Subscription> promoted = waitlistService.promoteWhileSeatsFree(studyClass);
+
+    // The cache is transaction aware, so the evictions apply once the promotions commit.
+    Cache dashboards = cacheManager.getCache(CacheConfig.STUDENT_DASHBOARDS);
+    if (dashboards != null) {
+      promoted.forEach(subscription -> dashboards.evict(subscription.getStudent().getId()));
+    }
+    return new StudyClassDto(studyClass); // Transaction will handle the save.
+  }
+
+  private void validateCapacity(Integer capacity) {
+    if (capacity != null && capacity < 1) {
+      throw new EntityValidationException("Capacity must be at least 1.");
+    }
+  }
+
   /**
    * Unassigns a professor from a study class.
    *
@@ -192,6 +395,7 @@ public class StudyClassService {
    * @throws EntityNotFoundException if the class is not found.
    * @throws EntityValidationException if the class does not have a professor assigned.
    */
+  @CacheEvict(cacheNames = CacheConfig.STUDENT_DASHBOARDS, allEntries = true)
   @Transactional
   public StudyClassDto unassignProfessor(Long classId) {
     StudyClass studyClass =
@@ -215,7 +419,8 @@ public class StudyClassService {
    *
    * @param id The ID of the class to delete.
    * @throws EntityNotFoundException if no class is found with the given ID.
-   * @throws SubscriptionFoundException if the class has any student subscriptions.
+   * @throws SubscriptionFoundException if the class has any student subscriptions, including
+   *     archived ones, or students on its waitlist.
    */
   @Transactional
   public void deleteStudyClass(Long id) {
@@ -225,15 +430,25 @@ public class StudyClassService {
             .orElseThrow(
                 () -> new EntityNotFoundException("StudyClass with id = " + id + " not found."));
 
-    if (subscriptionRepository.existsByStudyClassId(id)) {
+    if (subscriptionRepository.existsByStudyClassId(id)
+        || (studyClass.isArchived()
+            && archivedSubscriptionRepository.existsByTermAndStudyClassId(
+                AcademicTerm.of(studyClass.getYear(), studyClass.getSemester()), id))) {
       throw new SubscriptionFoundException("Study class has subscriptions and cannot be removed.");
     }
 
+    if (waitlistEntryRepository.existsByStudyClassId(id)) {
+      throw new SubscriptionFoundException(
+          "Study class has students on its waitlist and cannot be removed.");
+    }
+
     if (studyClass.getProfessor() != null) {
       throw new ProfessorEnrolledException("Study class has professor and cannot be removed.");
     }
 
     studyClassRepository.save(studyClass); // Ensure the relationship is severed before deleting.
     studyClassRepository.deleteById(id);
+    seatAllocator.forget(id);
+    waitlistService.forget(id);
   }
 }
@@ -1,16 +1,29 @@
 package batistaReviver.studentApi.service;
 
+import batistaReviver.studentApi.config.CacheConfig;
 import batistaReviver.studentApi.dto.SubscriptionDto;
 import batistaReviver.studentApi.exception.EntityNotFoundException;
 import batistaReviver.studentApi.exception.StudentEnrolledException;
+import batistaReviver.studentApi.exception.StudyClassFullException;
+import batistaReviver.studentApi.exception.TermArchivedException;
+import batistaReviver.studentApi.model.ArchivedSubscription;
 import batistaReviver.studentApi.model.Student;
 import batistaReviver.studentApi.model.StudyClass;
 import batistaReviver.studentApi.model.Subscription;
+import batistaReviver.studentApi.repository.ArchivedSubscriptionRepository;
+import batistaReviver.studentApi.repository.ProjectionRepository;
 import batistaReviver.studentApi.repository.StudentRepository;
 import batistaReviver.studentApi.repository.StudyClassRepository;
 import batistaReviver.studentApi.repository.SubscriptionRepository;
+import batistaReviver.studentApi.util.AcademicTerm;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,23 +32,33 @@ import org.springframework.transaction.annotation.Transactional;
  *
  * <p>This class handles the creation, retrieval, and deletion of {@link Subscription} entities,
  * which link students to study classes.
+ *
+ * <p>Subscriptions of archived terms are only kept in {@code subscriptions_archive}. The history of
+ * a student, and the subscriptions of an archived class, are merged from both tables; the list of
+ * all subscriptions only covers the terms that have not been archived.
  */
 @Service
 @RequiredArgsConstructor
 public class SubscriptionService {
 
   private final SubscriptionRepository subscriptionRepository;
+  private final ArchivedSubscriptionRepository archivedSubscriptionRepository;
   private final StudentRepository studentRepository;
   private final StudyClassRepository studyClassRepository;
+  private final ProjectionRepository projectionRepository;
+  private final CacheManager cacheManager;
+  private final AssociationLoader associationLoader;
+  private final SeatAllocator seatAllocator;
+  private final WaitlistService waitlistService;
 
   /**
-   * Retrieves all subscriptions.
+   * Retrieves all subscriptions of the terms that have not been archived.
    *
-   * @return A list of all {@link SubscriptionDto}s.
+   * @return A list of all {@link SubscriptionDto}s of those terms.
    */
   @Transactional(readOnly = true)
   public List<SubscriptionDto> getAllSubscriptions() {
-    return subscriptionRepository.findAll().stream().map(SubscriptionDto::new).toList();
+    return toDtos(subscriptionRepository.findAll());
   }
 
   /**
@@ -46,7 +69,10 @@ public class SubscriptionService {
    * @return The newly created {@link SubscriptionDto}.
    * @throws EntityNotFoundException if the student or class with the given IDs are not found.
    * @throws StudentEnrolledException if the student is already subscribed to the class.
+   * @throws StudyClassFullException if the class has a capacity and no seats are left.
+   * @throws TermArchivedException if the term of the class has been archived.
    */
+  @CacheEvict(cacheNames = CacheConfig.STUDENT_DASHBOARDS, key = "#studentId")
   @Transactional
   public SubscriptionDto createSubscription(Long studentId, Long studyClassId) {
     // Prevent duplicate subscriptions
@@ -68,6 +94,16 @@ public class SubscriptionService {
                 () ->
                     new EntityNotFoundException(
                         "StudyClass with id = " + studyClassId + " not found."));
+    if (studyClass.isArchived()) {
+      throw new TermArchivedException(
+          "StudyClass with id = " + studyClassId + " belongs to an archived term.");
+    }
+
+    // Seats are reserved in memory; the reservation is returned if this transaction rolls back.
+    if (!seatAllocator.tryAcquire(studyClass)) {
+      throw new StudyClassFullException(
+          "StudyClass with id = " + studyClassId + " has no seats left.");
+    }
 
     Subscription newSubscription = new Subscription(student, studyClass);
     Subscription savedSubscription = subscriptionRepository.save(newSubscription);
@@ -76,21 +112,41 @@ public class SubscriptionService {
 
   /**
    * Deletes a subscription by its ID. This action does not affect the related {@link Student} or
-   * {@link StudyClass} entities.
+   * {@link StudyClass} entities, apart from freeing a seat in the class. If students are waiting
+   * for the class, the seat is given to the head of the waitlist in the same transaction.
    *
    * @param id The ID of the subscription to delete.
    * @throws EntityNotFoundException if no subscription with the given ID is found.
+   * @throws TermArchivedException if the subscription belongs to an archived term.
    */
   @Transactional
   public void deleteSubscription(Long id) {
-    if (!subscriptionRepository.existsById(id)) {
-      throw new EntityNotFoundException("Subscription with id = " + id + " not found.");
+    Subscription subscription =
+        subscriptionRepository
+            .findById(id)
+            .orElseThrow(
+                () ->
+                    archivedSubscriptionRepository.existsById(id)
+                        ? new TermArchivedException(
+                            "Subscription with id = " + id + " belongs to an archived term.")
+                        : new EntityNotFoundException(
+                            "Subscription with id = " + id + " not found."));
+    subscriptionRepository.delete(subscription);
+    // The freed seat is transferred to the promoted student, so it is only released otherwise.
+    Optional<Subscription> promoted = waitlistService.promoteHead(subscription.getStudyClass());
+    if (promoted.isEmpty()) {
+      seatAllocator.release(subscription.getStudyClass().getId());
+    }
+
+    Cache dashboards = cacheManager.getCache(CacheConfig.STUDENT_DASHBOARDS);
+    if (dashboards != null) {
+      dashboards.evict(subscription.getStudent().getId());
+      promoted.ifPresent(p -> dashboards.evict(p.getStudent().getId()));
     }
-    subscriptionRepository.deleteById(id);
   }
 
   /**
-   * Retrieves the subscription history for a specific student.
+   * Retrieves the subscription history for a specific student, archived terms first.
    *
    * @param studentId The ID of the student.
    * @return A list of {@link SubscriptionDto}s for the student.
@@ -101,13 +157,15 @@ public class SubscriptionService {
     if (!studentRepository.existsById(studentId)) {
       throw new EntityNotFoundException("Student with id = " + studentId + " not found.");
     }
-    return subscriptionRepository.findByStudentId(studentId).stream()
-        .map(SubscriptionDto::new)
-        .toList();
+    List<SubscriptionDto> history =
+        new ArrayList<>(archivedSubscriptionRepository.findHistoryByStudentId(studentId));
+    history.addAll(subscriptionRepository.findHistoryByStudentId(studentId));
+    return history;
   }
 
   /**
-   * Retrieves all subscriptions for a specific class.
+   * Retrieves all subscriptions for a specific class. The archive is only read if the term of the
+   * class has been archived.
    *
    * @param studyClassId The ID of the class.
    * @return A list of {@link SubscriptionDto}s for the class.
@@ -115,11 +173,101 @@ public class SubscriptionService {
    */
   @Transactional(readOnly = true)
   public List<SubscriptionDto> getSubscriptionsByClass(Long studyClassId) {
-    if (!studyClassRepository.existsById(studyClassId)) {
-      throw new EntityNotFoundException("StudyClass with id = " + studyClassId + " not found.");
+    StudyClass studyClass =
+        studyClassRepository
+            .findById(studyClassId)
+            .orElseThrow(
+                () ->
+                    new EntityNotFoundException(
+                        "StudyClass with id = " + studyClassId + " not found."));
+    List<SubscriptionDto> live = toDtos(subscriptionRepository.findByStudyClassId(studyClassId));
+    if (!studyClass.isArchived()) {
+      return live;
     }
-    return subscriptionRepository.findByStudyClassId(studyClassId).stream()
-        .map(SubscriptionDto::new)
+    List<SubscriptionDto> subscriptions =
+        new ArrayList<>(
+            archivedSubscriptionRepository.findHistoryByStudyClass(
+                AcademicTerm.of(studyClass.getYear(), studyClass.getSemester()), studyClassId));
+    subscriptions.addAll(live);
+    return subscriptions;
+  }
+
+  /**
+   * Converts subscriptions to DTOs, loading all their students and classes with one query per
+   * entity type instead of one query per subscription.
+   *
+   * @param subscriptions The subscriptions to convert.
+   * @return The {@link SubscriptionDto}s, in the same order.
+   */
+  private List<SubscriptionDto> toDtos(List<Subscription> subscriptions) {
+    Map<Long, Student> students =
+        associationLoader.load(subscriptions, Subscription::getStudent, Student.class);
+    Map<Long, StudyClass> studyClasses =
+        associationLoader.load(subscriptions, Subscription::getStudyClass, StudyClass.class);
+    return subscriptions.stream()
+        .map(
+            subscription ->
+                new SubscriptionDto(
+                    subscription,
+                    students.get(subscription.getStudent().getId()),
+                    studyClasses.get(subscription.getStudyClass().getId())))
         .toList();
   }
+
+  /**
+   * Retrieves only the selected fields of subscriptions, optionally filtered by student or class.
+   * Joins to {@code students} and {@code study_classes} are only added when a field from those
+   * tables is requested. Like the full responses, the history of a student or an archived class
+   * includes the archive, while the unfiltered list does not.
+   *
+   * @param studentId Optional ID of the student to filter by.
+   * @param studyClassId Optional ID of the class to filter by.
+   * @param selection The fields to select, as resolved by {@link
+   *     batistaReviver.studentApi.util.SparseFields#select}.
+   * @return One map of field values per subscription.
+   * @throws EntityNotFoundException if the given student or class does not exist.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> findSubscriptions(
+      Long studentId, Long studyClassId, Map<String, String> selection) {
+    if (studentId != null) {
+      if (!studentRepository.existsById(studentId)) {
+        throw new EntityNotFoundException("Student with id = " + studentId + " not found.");
+      }
+      List<Map<String, Object>> history =
+          projectionRepository.findFields(
+              ArchivedSubscription.class, selection, Map.of("student.id", studentId));
+      history.addAll(
+          projectionRepository.findFields(
+              Subscription.class, selection, Map.of("student.id", studentId)));
+      return history;
+    }
+    if (studyClassId != null) {
+      StudyClass studyClass =
+          studyClassRepository
+              .findById(studyClassId)
+              .orElseThrow(
+                  () ->
+                      new EntityNotFoundException(
+                          "StudyClass with id = " + studyClassId + " not found."));
+      List<Map<String, Object>> live =
+          projectionRepository.findFields(
+              Subscription.class, selection, Map.of("studyClass.id", studyClassId));
+      if (!studyClass.isArchived()) {
+        return live;
+      }
+      List<Map<String, Object>> subscriptions =
+          projectionRepository.findFields(
+              ArchivedSubscription.class,
+              selection,
+              Map.of(
+                  "term",
+                  AcademicTerm.of(studyClass.getYear(), studyClass.getSemester()),
+                  "studyClass.id",
+                  studyClassId));
+      subscriptions.addAll(live);
+      return subscriptions;
+    }
+    return projectionRepository.findFields(Subscription.class, selection, Map.of());
+  }
 }
@@ -14,6 +14,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for managing User entities and handling authentication lookup.
@@ -62,6 +63,7 @@ public class UserAppService implements UserDetailsService {
    *
    * @return A list of all {@link UserApp} entities.
    */
+  @Transactional(readOnly = true)
   public List<UserApp> fetchAllUserApps() {
     return userAppRepository.findAll();
   }
@@ -0,0 +1,403 @@
+package batistaReviver.studentApi.service;
+
+import batistaReviver.studentApi.config.CacheConfig;
+import batistaReviver.studentApi.dto.WaitlistEntryDto;
+import batistaReviver.studentApi.exception.EntityNotFoundException;
+import batistaReviver.studentApi.exception.StudentEnrolledException;
+import batistaReviver.studentApi.exception.StudyClassNotFullException;
+import batistaReviver.studentApi.exception.TermArchivedException;
+import batistaReviver.studentApi.model.Student;
+import batistaReviver.studentApi.model.StudyClass;
+import batistaReviver.studentApi.model.Subscription;
+import batistaReviver.studentApi.model.WaitlistEntry;
+import batistaReviver.studentApi.repository.StudentRepository;
+import batistaReviver.studentApi.repository.StudyClassRepository;
+import batistaReviver.studentApi.repository.SubscriptionRepository;
+import batistaReviver.studentApi.repository.WaitlistEntryRepository;
+import batistaReviver.studentApi.util.PositionIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service class for managing the waitlists of full study classes.
+ *
+ * <p>Entries are persisted as {@link WaitlistEntry} rows. Each class also keeps an in-memory {@link
+ * PositionIndex} of the sequences of its entries, built from the database the first time the class
+ * is used, so a student's position and the head of the waitlist are found in O(log n) without
+ * counting rows. The index is only changed once the transaction that changed the rows commits;
+ * promotion claims the head immediately and gives it back if the transaction rolls back, so two
+ * concurrent promotions never pick the same student.
+ */
+@Service
+public class WaitlistService {
+
+  private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+  private final WaitlistEntryRepository waitlistEntryRepository;
+  private final SubscriptionRepository subscriptionRepository;
+  private final StudentRepository studentRepository;
+  private final StudyClassRepository studyClassRepository;
+  private final SeatAllocator seatAllocator;
+  private final CacheManager cacheManager;
+  private final TransactionTemplate promotionTransaction;
+  private final Timer promotions;
+
+  private final Map<Long, ClassWaitlist> waitlists = new ConcurrentHashMap<>();
+
+  /** The position index of one class and the next sequence to hand out. */
+  private static final class ClassWaitlist {
+    private final PositionIndex index = new PositionIndex();
+    private int nextSequence = 1;
+  }
+
+  public WaitlistService(
+      WaitlistEntryRepository waitlistEntryRepository,
+      SubscriptionRepository subscriptionRepository,
+      StudentRepository studentRepository,
+      StudyClassRepository studyClassRepository,
+      SeatAllocator seatAllocator,
+      CacheManager cacheManager,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.waitlistEntryRepository = waitlistEntryRepository;
+    this.subscriptionRepository = subscriptionRepository;
+    this.studentRepository = studentRepository;
+    this.studyClassRepository = studyClassRepository;
+    this.seatAllocator = seatAllocator;
+    this.cacheManager = cacheManager;
+    this.promotionTransaction = new TransactionTemplate(transactionManager);
+    this.promotionTransaction.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.promotions =
+        Timer.builder("studysystem.waitlist.promotions")
+            .description("Students promoted from a waitlist to a subscription")
+            .register(meterRegistry);
+    Gauge.builder("studysystem.waitlist.size", this, WaitlistService::totalWaiting)
+        .description("Students currently waiting across all loaded waitlists")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Adds a student to the end of the waitlist of a class. Only classes with a capacity and no free
+   * seat have a waitlist.
+   *
+   * <p>A seat freed between the check and the commit finds nobody to promote, since the entry only
+   * enters the index once it commits. So once it has, waiting students are promoted into any seat
+   * that is free by then, in a transaction of its own.
+   *
+   * @param studentId The ID of the student.
+   * @param studyClassId The ID of the class.
+   * @return A {@link WaitlistEntryDto} with the position of the student.
+   * @throws EntityNotFoundException if the student or class is not found.
+   * @throws StudentEnrolledException if the student is already subscribed to, or waiting for, the
+   *     class.
+   * @throws TermArchivedException if the term of the class has been archived.
+   * @throws StudyClassNotFullException if the class has no capacity or still has free seats.
+   */
+  @Transactional
+  public WaitlistEntryDto join(Long studentId, Long studyClassId) {
+    if (subscriptionRepository.existsByStudentIdAndStudyClassId(studentId, studyClassId)) {
+      throw new StudentEnrolledException("Student is already subscribed to this class.");
+    }
+    if (waitlistEntryRepository.existsByStudentIdAndStudyClassId(studentId, studyClassId)) {
+      throw new StudentEnrolledException("Student is already on the waitlist of this class.");
+    }
+
+    Student student =
+        studentRepository
+            .findById(studentId)
+            .orElseThrow(
+                () ->
+                    new EntityNotFoundException("Student with id = " + studentId + " not found."));
+    StudyClass studyClass =
+        studyClassRepository
+            .findById(studyClassId)
+            .orElseThrow(
+                () ->
+                    new EntityNotFoundException(
+                        "StudyClass with id = " + studyClassId + " not found."));
+    if (studyClass.isArchived()) {
+      throw new TermArchivedException(
+          "StudyClass with id = " + studyClassId + " belongs to an archived term.");
+    }
+    if (seatAllocator.hasFreeSeat(studyClass)) {
+      throw new StudyClassNotFullException(
+          "StudyClass with id = " + studyClassId + " has free seats; subscribe to it instead.");
+    }
+
+    ClassWaitlist waitlist = waitlist(studyClassId);
+    int sequence;
+    int position;
+    int waiting;
+    synchronized (waitlist) {
+      sequence = waitlist.nextSequence++;
+      position = waitlist.index.rank(sequence) + 1;
+      waiting = waitlist.index.size() + 1;
+    }
+
+    WaitlistEntry saved =
+        waitlistEntryRepository.save(new WaitlistEntry(student, studyClass, sequence));
+    afterCommit(
+        () -> {
+          synchronized (waitlist) {
+            waitlist.index.add(sequence);
+          }
+          promoteIntoFreeSeats(studyClassId);
+        });
+    return new WaitlistEntryDto(
+        saved.getId(), saved.getCreatedAt(), studentId, studyClassId, position, waiting);
+  }
+
+  /**
+   * Retrieves the current position of a student in the waitlist of a class.
+   *
+   * @param studyClassId The ID of the class.
+   * @param studentId The ID of the student.
+   * @return A {@link WaitlistEntryDto} with the position of the student.
+   * @throws EntityNotFoundException if the student is not on the waitlist of the class.
+   */
+  @Transactional(readOnly = true)
+  public WaitlistEntryDto getPosition(Long studyClassId, Long studentId) {
+    WaitlistEntry entry = findEntry(studyClassId, studentId);
+    ClassWaitlist waitlist = waitlist(studyClassId);
+    synchronized (waitlist) {
+      return new WaitlistEntryDto(
+          entry.getId(),
+          entry.getCreatedAt(),
+          studentId,
+          studyClassId,
+          waitlist.index.rank(entry.getSequence()) + 1,
+          waitlist.index.size());
+    }
+  }
+
+  /**
+   * Removes a student from the waitlist of a class.
+   *
+   * @param studyClassId The ID of the class.
+   * @param studentId The ID of the student.
+   * @throws EntityNotFoundException if the student is not on the waitlist of the class.
+   */
+  @Transactional
+  public void leave(Long studyClassId, Long studentId) {
+    WaitlistEntry entry = findEntry(studyClassId, studentId);
+    waitlistEntryRepository.delete(entry);
+    unindexAfterCommit(studyClassId, entry.getSequence());
+  }
+
+  /**
+   * Removes a student from every waitlist, e.g. before the student is deleted.
+   *
+   * @param studentId The ID of the student.
+   */
+  @Transactional
+  public void removeStudent(Long studentId) {
+    List<WaitlistEntry> entries = waitlistEntryRepository.findByStudentId(studentId);
+    for (WaitlistEntry entry : entries) {
+      unindexAfterCommit(entry.getStudyClass().getId(), entry.getSequence());
+    }
+    waitlistEntryRepository.deleteAll(entries);
+  }
+
+  /**
+   * Promotes the head of the waitlist of a class to a subscription, in the caller's transaction.
+   * The caller must have a seat for the promoted student, e.g. the one freed by a deleted
+   * subscription.
+   *
+   * @param studyClass The class whose waitlist is promoted.
+   * @return The new {@link Subscription}, or empty if nobody is waiting.
+   */
+  @Transactional
+  public Optional<Subscription> promoteHead(StudyClass studyClass) {
+    Long studyClassId = studyClass.getId();
+    ClassWaitlist waitlist = waitlist(studyClassId);
+    while (true) {
+      int sequence;
+      synchronized (waitlist) {
+        sequence = waitlist.index.first();
+        if (sequence < 0) {
+          return Optional.empty();
+        }
+        waitlist.index.remove(sequence);
+      }
+      long start = System.nanoTime();
+      // Give the head back if the promotion does not commit.
+      onRollback(
+          () -> {
+            synchronized (waitlist) {
+              waitlist.index.add(sequence);
+            }
+          });
+
+      Optional<WaitlistEntry> head =
+          waitlistEntryRepository.findByStudyClassIdAndSequence(studyClassId, sequence);
+      if (head.isEmpty()) {
+        continue; // Removed by another instance; the index was stale.
+      }
+      WaitlistEntry entry = head.get();
+      waitlistEntryRepository.delete(entry);
+      Long studentId = entry.getStudent().getId();
+      if (subscriptionRepository.existsByStudentIdAndStudyClassId(studentId, studyClassId)) {
+        continue; // Subscribed directly while waiting.
+      }
+
+      Subscription subscription =
+          subscriptionRepository.save(new Subscription(entry.getStudent(), studyClass));
+      afterCommit(() -> promotions.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+      return Optional.of(subscription);
+    }
+  }
+
+  /**
+   * Promotes waiting students while the class has free seats, e.g. after its capacity was raised.
+   *
+   * @param studyClass The class whose waitlist is promoted.
+   * @return The new {@link Subscription}s.
+   */
+  @Transactional
+  public List<Subscription> promoteWhileSeatsFree(StudyClass studyClass) {
+    List<Subscription> promoted = new ArrayList<>();
+    while (hasWaiting(studyClass.getId()) && seatAllocator.tryAcquire(studyClass)) {
+      Optional<Subscription> subscription = promoteHead(studyClass);
+      if (subscription.isEmpty()) {
+        seatAllocator.release(studyClass.getId());
+        break;
+      }
+      promoted.add(subscription.get());
+    }
+    return promoted;
+  }
+
+  /**
+   * Drops the in-memory index of a class, so it is rebuilt from the database on next use.
+   *
+   * @param studyClassId The ID of the class.
+   */
+  public void forget(Long studyClassId) {
+    waitlists.remove(studyClassId);
+  }
+
+  /** Promotes waiting students into the free seats of a class, after the caller's commit. */
+  private void promoteIntoFreeSeats(Long studyClassId) {
+    try {
+      promotionTransaction.executeWithoutResult(
+          status -> {
+            StudyClass studyClass = studyClassRepository.findById(studyClassId).orElse(null);
+            if (studyClass == null || !seatAllocator.hasFreeSeat(studyClass)) {
+              return;
+            }
+            List<Subscription> promoted = promoteWhileSeatsFree(studyClass);
+
+            // The cache is transaction aware, so the evictions apply once the promotions commit.
+            Cache dashboards = cacheManager.getCache(CacheConfig.STUDENT_DASHBOARDS);
+            if (dashboards != null) {
+              promoted.forEach(subscription -> dashboards.evict(subscription.getStudent().getId()));
+            }
+          });
+    } catch (RuntimeException e) {
+      // The entry has committed; the next freed seat promotes it.
+      logger.warn("Could not promote the waitlist of study class {}", studyClassId, e);
+    }
+  }
+
+  private boolean hasWaiting(Long studyClassId) {
+    ClassWaitlist waitlist = waitlist(studyClassId);
+    synchronized (waitlist) {
+      return waitlist.index.size() > 0;
+    }
+  }
+
+  private double totalWaiting() {
+    int total = 0;
+    for (ClassWaitlist waitlist : waitlists.values()) {
+      synchronized (waitlist) {
+        total += waitlist.index.size();
+      }
+    }
+    return total;
+  }
+
+  private WaitlistEntry findEntry(Long studyClassId, Long studentId) {
+    return waitlistEntryRepository
+        .findByStudentIdAndStudyClassId(studentId, studyClassId)
+        .orElseThrow(
+            () ->
+                new EntityNotFoundException(
+                    "Student with id = "
+                        + studentId
+                        + " is not on the waitlist of StudyClass with id = "
+                        + studyClassId
+                        + "."));
+  }
+
+  private void unindexAfterCommit(Long studyClassId, int sequence) {
+    ClassWaitlist waitlist = waitlist(studyClassId);
+    afterCommit(
+        () -> {
+          synchronized (waitlist) {
+            waitlist.index.remove(sequence);
+          }
+        });
+  }
+
+  private ClassWaitlist waitlist(Long studyClassId) {
+    ClassWaitlist waitlist = waitlists.get(studyClassId);
+    if (waitlist != null) {
+      return waitlist;
+    }
+    ClassWaitlist loaded = new ClassWaitlist();
+    for (int sequence : waitlistEntryRepository.findSequencesByStudyClassId(studyClassId)) {
+      loaded.index.add(sequence);
+      loaded.nextSequence = Math.max(loaded.nextSequence, sequence + 1);
+    }
+    ClassWaitlist existing = waitlists.putIfAbsent(studyClassId, loaded);
+    return existing != null ? existing : loaded;
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  private static void onRollback(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+              action.run();
+            }
+          }
+        });
+  }
+}
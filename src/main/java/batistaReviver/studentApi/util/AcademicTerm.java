@@ -0,0 +1,69 @@
+package batistaReviver.studentApi.util;
+
+import java.time.LocalDate;
+
+/**
+ * Encodes an academic term, a year and a semester, as a single sortable number: {@code year * 10 +
+ * semester}, e.g. {@code 20251} for the first semester of 2025.
+ *
+ * <p>Subscriptions store their term in this form, so the subscriptions of a term, or of every term
+ * before another, are found with one index range.
+ */
+public final class AcademicTerm {
+
+  private AcademicTerm() {}
+
+  /**
+   * Encodes a term.
+   *
+   * @param year The academic year.
+   * @param semester The semester, 1 or 2.
+   * @return The encoded term.
+   */
+  public static int of(int year, int semester) {
+    return year * 10 + semester;
+  }
+
+  /**
+   * Returns the year of an encoded term.
+   *
+   * @param term The encoded term.
+   * @return The academic year.
+   */
+  public static int year(int term) {
+    return term / 10;
+  }
+
+  /**
+   * Returns the semester of an encoded term.
+   *
+   * @param term The encoded term.
+   * @return The semester, 1 or 2.
+   */
+  public static int semester(int term) {
+    return term % 10;
+  }
+
+  /**
+   * Returns the term a date falls in: the first semester runs from January to June, the second from
+   * July to December.
+   *
+   * @param date The date.
+   * @return The encoded term.
+   */
+  public static int of(LocalDate date) {
+    return of(date.getYear(), date.getMonthValue() <= 6 ? 1 : 2);
+  }
+
+  /**
+   * Returns the term a number of terms before another.
+   *
+   * @param term The encoded term.
+   * @param terms The number of terms to go back.
+   * @return The encoded earlier term.
+   */
+  public static int minus(int term, int terms) {
+    int index = year(term) * 2 + semester(term) - 1 - terms;
+    return of(index / 2, index % 2 + 1);
+  }
+}
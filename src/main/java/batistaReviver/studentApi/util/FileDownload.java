@@ -0,0 +1,76 @@
+package batistaReviver.studentApi.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Sends files as response bodies without copying them through the heap.
+ *
+ * <p>On Tomcat's NIO connector the file is handed over with the sendfile request attributes: once
+ * the handler returns, Tomcat writes it with {@link FileChannel#transferTo} straight into the
+ * socket, and the request thread is released before the transfer. Where sendfile is not available
+ * (TLS, another container, or a response buffered by {@code Server-Timing}), the file is written
+ * with {@link FileChannel#transferTo} into the response stream.
+ */
+public final class FileDownload {
+
+  // Request attributes of Tomcat's sendfile support (org.apache.catalina.Globals).
+  private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private FileDownload() {}
+
+  /**
+   * Sends a file as an attachment.
+   *
+   * @param request The current request.
+   * @param response The current response, not committed yet.
+   * @param file The file to send.
+   * @param contentType The media type of the file.
+   * @param filename The file name suggested to the client.
+   * @throws IOException if the file cannot be read or the response cannot be written.
+   */
+  public static void send(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Path file,
+      String contentType,
+      String filename)
+      throws IOException {
+    long length = Files.size(file);
+    response.setContentType(contentType);
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename(filename).build().toString());
+    response.setContentLengthLong(length);
+
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+        && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+      request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, 0L);
+      request.setAttribute(SENDFILE_END, length);
+      return;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = 0;
+      while (position < length) {
+        position += channel.transferTo(position, length - position, out);
+      }
+    }
+  }
+}
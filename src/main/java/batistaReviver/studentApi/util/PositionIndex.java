@@ -0,0 +1,127 @@
+package batistaReviver.studentApi.util;
+
+import java.util.BitSet;
+
+/**
+ * Order-statistic index over a set of positive sequence numbers, backed by a Fenwick (binary
+ * indexed) tree.
+ *
+ * <p>Adding or removing a sequence, counting the sequences before a given one and finding the
+ * smallest sequence all take O(log n). The tree grows by doubling when a sequence beyond its
+ * current capacity is added. This class is not thread-safe.
+ */
+public final class PositionIndex {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final BitSet present = new BitSet();
+  private int[] tree = new int[INITIAL_CAPACITY + 1];
+  private int size;
+
+  /**
+   * Adds a sequence to the index. Adding a sequence that is already present has no effect.
+   *
+   * @param sequence The sequence, starting at 1.
+   */
+  public void add(int sequence) {
+    if (sequence < 1) {
+      throw new IllegalArgumentException("Sequence must be positive: " + sequence);
+    }
+    if (present.get(sequence)) {
+      return;
+    }
+    if (sequence >= tree.length) {
+      grow(sequence);
+    }
+    present.set(sequence);
+    update(sequence, 1);
+    size++;
+  }
+
+  /**
+   * Removes a sequence from the index.
+   *
+   * @param sequence The sequence to remove.
+   * @return {@code true} if the sequence was present.
+   */
+  public boolean remove(int sequence) {
+    if (sequence < 1 || !present.get(sequence)) {
+      return false;
+    }
+    present.clear(sequence);
+    update(sequence, -1);
+    size--;
+    return true;
+  }
+
+  /**
+   * Checks whether a sequence is present.
+   *
+   * @param sequence The sequence to check.
+   * @return {@code true} if the sequence is in the index.
+   */
+  public boolean contains(int sequence) {
+    return sequence >= 1 && present.get(sequence);
+  }
+
+  /**
+   * Counts the sequences lower than the given one.
+   *
+   * @param sequence The sequence.
+   * @return The number of sequences in the index that come before it.
+   */
+  public int rank(int sequence) {
+    int index = Math.min(sequence - 1, tree.length - 1);
+    int count = 0;
+    for (; index > 0; index -= index & -index) {
+      count += tree[index];
+    }
+    return count;
+  }
+
+  /**
+   * Returns the smallest sequence in the index.
+   *
+   * @return The smallest sequence, or {@code -1} if the index is empty.
+   */
+  public int first() {
+    if (size == 0) {
+      return -1;
+    }
+    // Descend the tree looking for the last prefix whose sum is still 0.
+    int position = 0;
+    for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+      int next = position + step;
+      if (next < tree.length && tree[next] == 0) {
+        position = next;
+      }
+    }
+    return position + 1;
+  }
+
+  /**
+   * Returns the number of sequences in the index.
+   *
+   * @return The size of the index.
+   */
+  public int size() {
+    return size;
+  }
+
+  private void update(int sequence, int delta) {
+    for (int index = sequence; index < tree.length; index += index & -index) {
+      tree[index] += delta;
+    }
+  }
+
+  private void grow(int sequence) {
+    int capacity = tree.length - 1;
+    while (capacity <= sequence) {
+      capacity <<= 1;
+    }
+    tree = new int[capacity + 1];
+    for (int index = present.nextSetBit(1); index >= 0; index = present.nextSetBit(index + 1)) {
+      update(index, 1);
+    }
+  }
+}
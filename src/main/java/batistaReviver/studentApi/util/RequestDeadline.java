@@ -0,0 +1,174 @@
+package batistaReviver.studentApi.util;
+
+import batistaReviver.studentApi.exception.RequestCancelledException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Deadline and cancellation state of the request being handled by the current thread.
+ *
+ * <p>Started by {@link batistaReviver.studentApi.filter.DeadlineFilter}. JDBC statements executed
+ * during the request register themselves here, so that a watchdog thread can cancel them when the
+ * deadline passes or the client disconnects. Statements started after a cancellation fail at once
+ * with a {@link RequestCancelledException}.
+ */
+public final class RequestDeadline {
+
+  /**
+   * Request attribute holding a {@link BooleanSupplier} that returns {@code true} once the client
+   * has closed its connection. Set by the servlet container integration, when available.
+   */
+  public static final String CONNECTION_PROBE_ATTRIBUTE =
+      RequestDeadline.class.getName() + ".CONNECTION_PROBE";
+
+  private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+  private final long budgetMillis;
+  private final long deadlineNanos;
+  private final BooleanSupplier clientGone;
+  private final Set<Statement> running = new HashSet<>();
+  private volatile String cancelReason;
+
+  private RequestDeadline(long budgetMillis, BooleanSupplier clientGone) {
+    this.budgetMillis = budgetMillis;
+    this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    this.clientGone = clientGone;
+  }
+
+  /**
+   * Starts a deadline for the current thread.
+   *
+   * @param budgetMillis The time the request is allowed to take.
+   * @param clientGone Detects a closed client connection, or null if it cannot be detected.
+   * @return The new deadline.
+   */
+  public static RequestDeadline start(long budgetMillis, BooleanSupplier clientGone) {
+    RequestDeadline deadline = new RequestDeadline(budgetMillis, clientGone);
+    CURRENT.set(deadline);
+    return deadline;
+  }
+
+  /**
+   * Returns the deadline of the current thread.
+   *
+   * @return The deadline, or null outside of a request.
+   */
+  public static RequestDeadline current() {
+    return CURRENT.get();
+  }
+
+  /** Removes the deadline of the current thread. */
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+  /** Returns the time the request was allowed to take, in milliseconds. */
+  public long budgetMillis() {
+    return budgetMillis;
+  }
+
+  /** Returns the time left before the deadline, in milliseconds; negative once it has passed. */
+  public long remainingMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+  }
+
+  /**
+   * Returns the time left before the deadline in whole seconds, rounded up and at least 1, as
+   * needed by JDBC query timeouts and transaction timeouts.
+   */
+  public int remainingSeconds() {
+    long millis = remainingMillis();
+    return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis + 999));
+  }
+
+  /** Returns why the request was cancelled, or null if it was not. */
+  public String cancelReason() {
+    return cancelReason;
+  }
+
+  /**
+   * Fails if the request was cancelled or its deadline has passed.
+   *
+   * @throws RequestCancelledException if the request must not do any more work.
+   */
+  public void checkNotCancelled() {
+    if (cancelReason == null && remainingMillis() <= 0) {
+      cancel(deadlineExceededReason());
+    }
+    if (cancelReason != null) {
+      throw new RequestCancelledException("Request cancelled: " + cancelReason + ".");
+    }
+  }
+
+  /** Returns the cancellation reason used when the deadline passes. */
+  public String deadlineExceededReason() {
+    return "deadline of " + budgetMillis + " ms exceeded";
+  }
+
+  /**
+   * Registers a statement that is about to run.
+   *
+   * @param statement The statement.
+   */
+  public synchronized void register(Statement statement) {
+    running.add(statement);
+  }
+
+  /**
+   * Unregisters a statement that finished running. Once this returns, the connection probe is no
+   * longer in use, so the request thread may read from the connection again.
+   *
+   * @param statement The statement.
+   */
+  public synchronized void unregister(Statement statement) {
+    running.remove(statement);
+  }
+
+  /**
+   * Cancels the request: the running statements are cancelled and no new ones may start. Only the
+   * first reason is kept.
+   *
+   * @param reason Why the request is cancelled.
+   */
+  public void cancel(String reason) {
+    List<Statement> toCancel;
+    synchronized (this) {
+      if (cancelReason != null) {
+        return;
+      }
+      cancelReason = reason;
+      toCancel = new ArrayList<>(running);
+    }
+    for (Statement statement : toCancel) {
+      try {
+        statement.cancel();
+      } catch (SQLException | RuntimeException e) {
+        // The statement may have completed in the meantime; nothing left to cancel.
+      }
+    }
+  }
+
+  /**
+   * Cancels the request if the client has disconnected. The connection is only probed while a
+   * statement is running, since the request thread is then blocked in the driver and does not touch
+   * the connection itself.
+   */
+  public void checkClient() {
+    boolean gone;
+    synchronized (this) {
+      if (clientGone == null || cancelReason != null || running.isEmpty()) {
+        return;
+      }
+      gone = clientGone.getAsBoolean();
+    }
+    if (gone) {
+      cancel("the client disconnected");
+    }
+  }
+}
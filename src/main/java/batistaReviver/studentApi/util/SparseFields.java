@@ -0,0 +1,100 @@
+package batistaReviver.studentApi.util;
+
+import batistaReviver.studentApi.exception.EntityValidationException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Catalog of the fields each resource exposes through the {@code fields=} query parameter.
+ *
+ * <p>Every catalog maps the public field name (as serialized in the full response) to the entity
+ * attribute path used to select it, e.g. {@code studentName -> student.name}. Only the columns (and
+ * joins) referenced by the requested fields are selected by {@link
+ * batistaReviver.studentApi.repository.ProjectionRepository}.
+ */
+public final class SparseFields {
+
+  /** Fields of a {@link batistaReviver.studentApi.model.Student}. */
+  public static final Map<String, String> STUDENT =
+      paths("id", "id", "name", "name", "phone", "phone", "email", "email", "register", "register");
+
+  /** Fields of a {@link batistaReviver.studentApi.model.Professor}. */
+  public static final Map<String, String> PROFESSOR =
+      paths("id", "id", "name", "name", "phone", "phone", "email", "email", "register", "register");
+
+  /** Fields of a {@link batistaReviver.studentApi.model.Course}. */
+  public static final Map<String, String> COURSE =
+      paths("id", "id", "name", "name", "description", "description");
+
+  /** Fields of a {@link batistaReviver.studentApi.dto.StudyClassDto}. */
+  public static final Map<String, String> STUDY_CLASS =
+      paths(
+          "id", "id",
+          "classCode", "classCode",
+          "year", "year",
+          "semester", "semester",
+          "capacity", "capacity",
+          "courseId", "course.id",
+          "courseName", "course.name",
+          "professorId", "professor.id",
+          "professorName", "professor.name");
+
+  /** Fields of a {@link batistaReviver.studentApi.dto.SubscriptionDto}. */
+  public static final Map<String, String> SUBSCRIPTION =
+      paths(
+          "id", "id",
+          "date", "date",
+          "studentId", "student.id",
+          "studentName", "student.name",
+          "studyClassId", "studyClass.id",
+          "classCode", "studyClass.classCode");
+
+  private SparseFields() {}
+
+  /**
+   * Checks whether the client asked for a sparse fieldset.
+   *
+   * @param fields The raw value of the {@code fields} query parameter (may be null).
+   * @return {@code true} if at least one field name was provided.
+   */
+  public static boolean isRequested(String fields) {
+    return fields != null && !fields.isBlank();
+  }
+
+  /**
+   * Resolves a comma-separated list of field names against a resource catalog.
+   *
+   * @param fields The raw value of the {@code fields} query parameter (e.g. "id,studentName").
+   * @param catalog The catalog of fields supported by the resource.
+   * @return An ordered map of the requested field names to their attribute paths.
+   * @throws EntityValidationException if a requested field is not part of the catalog.
+   */
+  public static Map<String, String> select(String fields, Map<String, String> catalog) {
+    Map<String, String> selection = new LinkedHashMap<>();
+    for (String raw : fields.split(",")) {
+      String field = raw.trim();
+      if (field.isEmpty()) {
+        continue;
+      }
+      String path = catalog.get(field);
+      if (path == null) {
+        throw new EntityValidationException(
+            "Unknown field '" + field + "'. Allowed fields: " + String.join(",", catalog.keySet()));
+      }
+      selection.put(field, path);
+    }
+    if (selection.isEmpty()) {
+      throw new EntityValidationException("At least one field must be requested.");
+    }
+    return selection;
+  }
+
+  private static Map<String, String> paths(String... pairs) {
+    Map<String, String> map = new LinkedHashMap<>();
+    for (int i = 0; i < pairs.length; i += 2) {
+      map.put(pairs[i], pairs[i + 1]);
+    }
+    return Collections.unmodifiableMap(map);
+  }
+}
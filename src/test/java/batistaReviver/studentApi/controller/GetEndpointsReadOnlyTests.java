@@ -0,0 +1,168 @@
+package batistaReviver.studentApi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import batistaReviver.studentApi.dto.TokenResponse;
+import batistaReviver.studentApi.metrics.ReadOnlyGuard;
+import batistaReviver.studentApi.model.Course;
+import batistaReviver.studentApi.model.Professor;
+import batistaReviver.studentApi.model.Student;
+import batistaReviver.studentApi.repository.CourseRepository;
+import batistaReviver.studentApi.repository.ProfessorRepository;
+import batistaReviver.studentApi.repository.StudentRepository;
+import batistaReviver.studentApi.service.StudyClassService;
+import batistaReviver.studentApi.service.SubscriptionService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Guards the read path: every GET endpoint of the API must execute its statements inside read-only
+ * transactions, so it runs on a read-only session and, when configured, on the replica.
+ *
+ * <p>The endpoints are discovered from the handler mappings, so a new GET endpoint is covered
+ * without changing this test. Each one is called plainly and with the sparse field and batch
+ * variants, and the {@link ReadOnlyGuard} must not record any statement outside of a read-only
+ * transaction.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"api.read-only-guard.enabled=true", "api.warmup.enabled=false"})
+class GetEndpointsReadOnlyTests {
+
+  @Autowired private TestRestTemplate restTemplate;
+  @Autowired private ReadOnlyGuard guard;
+
+  @Autowired
+  @Qualifier("requestMappingHandlerMapping")
+  private RequestMappingHandlerMapping handlerMapping;
+
+  @Autowired private StudyClassService studyClassService;
+  @Autowired private SubscriptionService subscriptionService;
+  @Autowired private CourseRepository courseRepository;
+  @Autowired private ProfessorRepository professorRepository;
+  @Autowired private StudentRepository studentRepository;
+
+  private final Map<String, Long> ids = new TreeMap<>();
+  private Long subscriptionId;
+
+  @BeforeEach
+  void createFixtures() {
+    String suffix = Long.toString(System.nanoTime() % 100_000_000);
+    Course course = courseRepository.save(new Course("Course " + suffix, "Description"));
+    Professor professor =
+        professorRepository.save(
+            new Professor(
+                "Professor " + suffix,
+                "+55 31 8" + suffix,
+                "professor" + suffix + "@example.com",
+                "P-" + suffix));
+    Student student =
+        studentRepository.save(
+            new Student(
+                "Student " + suffix,
+                "+55 31 9" + suffix,
+                "student" + suffix + "@example.com",
+                "S-" + suffix));
+    Long classId =
+        studyClassService.createStudyClass(2025, 1, course.getId(), professor.getId(), null).id();
+    subscriptionId = subscriptionService.createSubscription(student.getId(), classId).id();
+
+    ids.put("courses", course.getId());
+    ids.put("professors", professor.getId());
+    ids.put("students", student.getId());
+    ids.put("study-classes", classId);
+    guard.reset();
+  }
+
+  @AfterEach
+  void deleteFixtures() {
+    subscriptionService.deleteSubscription(subscriptionId);
+    studyClassService.unassignProfessor(ids.get("study-classes"));
+    studyClassService.deleteStudyClass(ids.get("study-classes"));
+    studentRepository.deleteById(ids.get("students"));
+    professorRepository.deleteById(ids.get("professors"));
+    courseRepository.deleteById(ids.get("courses"));
+  }
+
+  @Test
+  void everyGetEndpointRunsInReadOnlyTransactions() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setBearerAuth(login());
+    HttpEntity<Void> request = new HttpEntity<>(headers);
+
+    List<String> urls = urls();
+    assertFalse(urls.isEmpty(), "No GET endpoints were found.");
+    for (String url : urls) {
+      int status =
+          restTemplate.exchange(url, HttpMethod.GET, request, String.class).getStatusCode().value();
+      assertTrue(status < 500, () -> "GET " + url + " answered " + status);
+    }
+
+    assertEquals(Map.of(), guard.violations(), "Statements outside of read-only transactions");
+  }
+
+  /** Returns the URLs to call: every API GET endpoint with its variants. */
+  private List<String> urls() {
+    List<String> urls = new ArrayList<>();
+    for (RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+      if (!info.getMethodsCondition().getMethods().contains(RequestMethod.GET)) {
+        continue;
+      }
+      for (String pattern : info.getPatternValues()) {
+        if (pattern.startsWith("/manage") || pattern.startsWith("/error")) {
+          continue;
+        }
+        String url = expand(pattern);
+        urls.add(url);
+        urls.add(url + "?fields=id");
+        if (!pattern.contains("{")) {
+          String resource = pattern.substring(1);
+          urls.add(url + "?ids=" + ids.getOrDefault(resource, 1L));
+        }
+        if (pattern.equals("/subscriptions")) {
+          urls.add(url + "?studentId=" + ids.get("students"));
+          urls.add(url + "?studyClassId=" + ids.get("study-classes"));
+        }
+      }
+    }
+    return urls;
+  }
+
+  /** Replaces the path variables of a pattern with the IDs of the fixtures. */
+  private String expand(String pattern) {
+    String resource = pattern.split("/")[1];
+    return pattern
+        .replace("{id}", String.valueOf(ids.getOrDefault(resource, 1L)))
+        .replace("{courseId}", String.valueOf(ids.get("courses")))
+        .replace("{professorId}", String.valueOf(ids.get("professors")))
+        .replace("{studentId}", String.valueOf(ids.get("students")))
+        .replace("{classId}", String.valueOf(ids.get("study-classes")))
+        .replace("{ticketId}", "unknown");
+  }
+
+  private String login() {
+    TokenResponse response =
+        restTemplate.postForObject(
+            "/authentication/login",
+            Map.of("email", "admin@studysystem.com", "password", "password"),
+            TokenResponse.class);
+    return response.token();
+  }
+}
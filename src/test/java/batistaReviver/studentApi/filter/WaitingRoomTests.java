@@ -0,0 +1,98 @@
+package batistaReviver.studentApi.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the admission order of {@link WaitingRoom} with a single permit, driving its clock by
+ * hand. A reservation lasts {@link #TIMEOUT} nanoseconds.
+ */
+class WaitingRoomTests {
+
+  private static final long TIMEOUT = 10;
+
+  private final WaitingRoom waitingRoom = new WaitingRoom(1, 100, TIMEOUT);
+
+  @Test
+  void admitsTicketsInOrderAheadOfNewcomers() {
+    assertTrue(waitingRoom.tryEnter(0, 0).admitted());
+    WaitingRoom.Admission first = waitingRoom.tryEnter(0, 0);
+    WaitingRoom.Admission second = waitingRoom.tryEnter(0, 0);
+    assertFalse(first.admitted());
+    assertEquals(1, first.position());
+    assertEquals(2, second.position());
+
+    waitingRoom.exit(1, 1);
+
+    assertFalse(waitingRoom.tryEnter(0, 2).admitted()); // The permit is reserved for the first.
+    assertFalse(waitingRoom.tryEnter(second.ticket(), 2).admitted());
+    assertTrue(waitingRoom.tryEnter(first.ticket(), 2).admitted());
+    assertEquals(1, waitingRoom.active());
+  }
+
+  @Test
+  void admittedTicketIsSingleUse() {
+    assertTrue(waitingRoom.tryEnter(0, 0).admitted());
+    long first = waitingRoom.tryEnter(0, 0).ticket();
+    long second = waitingRoom.tryEnter(0, 0).ticket();
+    waitingRoom.exit(1, 1);
+    assertTrue(waitingRoom.tryEnter(first, 2).admitted());
+    waitingRoom.exit(1, 3); // The permit is now reserved for the second ticket.
+
+    WaitingRoom.Admission reused = waitingRoom.tryEnter(first, 4);
+
+    assertFalse(reused.admitted());
+    assertTrue(reused.ticket() > second); // Queued anew, behind the second ticket.
+    assertTrue(waitingRoom.tryEnter(second, 4).admitted());
+  }
+
+  @Test
+  void expiredReservationPassesToNextTicket() {
+    assertTrue(waitingRoom.tryEnter(0, 0).admitted());
+    long first = waitingRoom.tryEnter(0, 0).ticket();
+    long second = waitingRoom.tryEnter(0, 0).ticket();
+    waitingRoom.exit(1, 1); // Reserved for the first ticket until 1 + TIMEOUT.
+
+    WaitingRoom.Admission early = waitingRoom.tryEnter(second, TIMEOUT);
+    assertFalse(early.admitted());
+    assertEquals(1, early.position());
+
+    assertTrue(waitingRoom.tryEnter(second, 1 + TIMEOUT).admitted());
+    assertEquals(0, waitingRoom.waiting());
+    assertFalse(waitingRoom.tryEnter(first, 2 + TIMEOUT).admitted());
+  }
+
+  @Test
+  void lateTicketDoesNotTakeNextTicketsReservation() {
+    assertTrue(waitingRoom.tryEnter(0, 0).admitted());
+    long first = waitingRoom.tryEnter(0, 0).ticket();
+    long second = waitingRoom.tryEnter(0, 0).ticket();
+    waitingRoom.exit(1, 1);
+
+    // The first ticket comes back after its reservation has passed to the second one.
+    WaitingRoom.Admission late = waitingRoom.tryEnter(first, 1 + TIMEOUT);
+
+    assertFalse(late.admitted());
+    assertTrue(late.ticket() > second);
+    assertEquals(1, late.position());
+    assertTrue(waitingRoom.tryEnter(second, 2 + TIMEOUT).admitted());
+    assertEquals(1, waitingRoom.active());
+  }
+
+  @Test
+  void expiredReservationFreesPermitWhenNobodyWaits() {
+    assertTrue(waitingRoom.tryEnter(0, 0).admitted());
+    long first = waitingRoom.tryEnter(0, 0).ticket();
+    waitingRoom.exit(1, 1);
+
+    assertTrue(waitingRoom.tryEnter(0, 1 + TIMEOUT).admitted());
+
+    WaitingRoom.Admission late = waitingRoom.tryEnter(first, 2 + TIMEOUT);
+    assertFalse(late.admitted());
+    assertEquals(1, late.position());
+    assertEquals(1, waitingRoom.active());
+  }
+}
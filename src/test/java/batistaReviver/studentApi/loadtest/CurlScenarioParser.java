@@ -0,0 +1,208 @@
+package batistaReviver.studentApi.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the curl scenario format of {@code service_request.txt} into {@link Scenario}s.
+ *
+ * <p>Each scenario is a comment header followed by a curl command, possibly continued over several
+ * lines with a trailing backslash:
+ *
+ * <pre>
+ * # =================================================================
+ * # 2. Get All Students
+ * # Weight: 30
+ * # =================================================================
+ * curl --location 'http://localhost:8080/students'
+ * </pre>
+ *
+ * <p>The title is the first free-text line of the header (a leading number is dropped), the
+ * optional {@code Weight:} line sets the relative frequency (default 1), and the host of the URL is
+ * ignored so the scenario can be sent to any base URL. {@code Authorization} headers are ignored as
+ * well; the load generator adds its own token.
+ */
+public final class CurlScenarioParser {
+
+  private static final Set<String> VALUED_OPTIONS =
+      Set.of(
+          "-X",
+          "--request",
+          "-H",
+          "--header",
+          "--url",
+          "-d",
+          "--data",
+          "--data-raw",
+          "--data-binary");
+  private static final Pattern TITLE = Pattern.compile("^(?:\\d+\\.\\s*)?(.+)$");
+  private static final Pattern KEY = Pattern.compile("^([A-Z][\\w ]*):\\s*(.*)$");
+
+  private CurlScenarioParser() {}
+
+  /**
+   * Parses every curl command of a document.
+   *
+   * @param text The document to parse.
+   * @return The scenarios in document order.
+   * @throws IllegalArgumentException if a command has no URL.
+   */
+  public static List<Scenario> parse(String text) {
+    List<Scenario> scenarios = new ArrayList<>();
+    List<String> header = new ArrayList<>();
+    boolean inSeparator = false;
+    StringBuilder command = null;
+
+    for (String line : text.split("\\R")) {
+      String trimmed = line.strip();
+      if (command != null) {
+        boolean continued = trimmed.endsWith("\\");
+        command.append(' ').append(continued ? trimmed.substring(0, trimmed.length() - 1) : line);
+        if (!continued && balancedQuotes(command)) {
+          scenarios.add(toScenario(header, command.toString()));
+          header.clear();
+          command = null;
+        }
+      } else if (trimmed.startsWith("#")) {
+        String comment = trimmed.substring(1).strip();
+        if (comment.startsWith("===")) {
+          inSeparator = !inSeparator;
+          if (inSeparator) {
+            header.clear();
+          }
+        } else if (!comment.isEmpty()) {
+          header.add(comment);
+        }
+      } else if (trimmed.startsWith("curl ")) {
+        boolean continued = trimmed.endsWith("\\");
+        command =
+            new StringBuilder(continued ? trimmed.substring(0, trimmed.length() - 1) : trimmed);
+        if (!continued && balancedQuotes(command)) {
+          scenarios.add(toScenario(header, command.toString()));
+          header.clear();
+          command = null;
+        }
+      }
+    }
+    return scenarios;
+  }
+
+  private static Scenario toScenario(List<String> header, String command) {
+    String title = null;
+    int weight = 1;
+    for (String comment : header) {
+      Matcher key = KEY.matcher(comment);
+      if (key.matches()) {
+        if ("Weight".equalsIgnoreCase(key.group(1))) {
+          weight = Integer.parseInt(key.group(2).strip());
+        }
+      } else if (title == null) {
+        Matcher matcher = TITLE.matcher(comment);
+        title = matcher.matches() ? matcher.group(1).strip() : comment;
+      }
+    }
+
+    String method = null;
+    String url = null;
+    String contentType = null;
+    String body = null;
+    List<String> tokens = tokenize(command);
+    for (int i = 1; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      if (!token.startsWith("-")) {
+        url = token;
+        continue;
+      }
+      if (!VALUED_OPTIONS.contains(token) || i + 1 == tokens.size()) {
+        continue;
+      }
+      String value = tokens.get(++i);
+      switch (token) {
+        case "-X", "--request" -> method = value;
+        case "-H", "--header" -> {
+          int colon = value.indexOf(':');
+          if (colon > 0 && "content-type".equalsIgnoreCase(value.substring(0, colon).strip())) {
+            contentType = value.substring(colon + 1).strip();
+          }
+        }
+        case "--url" -> url = value;
+        default -> body = value;
+      }
+    }
+    if (url == null) {
+      throw new IllegalArgumentException("curl command without a URL: " + command);
+    }
+    if (method == null) {
+      method = body == null ? "GET" : "POST";
+    }
+    if (body != null && contentType == null) {
+      contentType = "application/x-www-form-urlencoded";
+    }
+
+    String path = pathOf(url);
+    return new Scenario(
+        title == null ? method + " " + path : title, method, path, contentType, body, weight);
+  }
+
+  /** Drops the scheme and authority, keeping placeholders such as {@code {id}} intact. */
+  private static String pathOf(String url) {
+    int scheme = url.indexOf("://");
+    if (scheme < 0) {
+      return url.startsWith("/") ? url : "/" + url;
+    }
+    int slash = url.indexOf('/', scheme + 3);
+    if (slash < 0) {
+      return "/";
+    }
+    String path = url.substring(slash);
+    // Validate the rest of the URL with placeholders neutralized.
+    URI.create("http://host" + path.replaceAll("[{}]", "_"));
+    return path;
+  }
+
+  /** Splits a command into words, honouring single and double quotes. */
+  private static List<String> tokenize(String command) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = null;
+    char quote = 0;
+    for (int i = 0; i < command.length(); i++) {
+      char c = command.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        } else {
+          token.append(c);
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+        token = token == null ? new StringBuilder() : token;
+      } else if (Character.isWhitespace(c)) {
+        if (token != null) {
+          tokens.add(token.toString());
+          token = null;
+        }
+      } else {
+        token = token == null ? new StringBuilder() : token;
+        token.append(c);
+      }
+    }
+    if (token != null) {
+      tokens.add(token.toString());
+    }
+    return tokens;
+  }
+
+  private static boolean balancedQuotes(CharSequence command) {
+    int quotes = 0;
+    for (int i = 0; i < command.length(); i++) {
+      if (command.charAt(i) == '\'') {
+        quotes++;
+      }
+    }
+    return quotes % 2 == 0;
+  }
+}
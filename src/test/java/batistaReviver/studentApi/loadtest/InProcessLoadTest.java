@@ -0,0 +1,26 @@
+package batistaReviver.studentApi.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Runs a workload against the application started in-process on a random port.
+ *
+ * <p>Only runs with {@code mvn -Ploadtest test}; see {@link LoadTestSettings} for the options.
+ */
+@Tag("loadtest")
+@DisabledIfSystemProperty(named = "loadtest.capture", matches = ".+")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisabledIfSystemProperty(named = "loadtest.base-url", matches = ".+")
+class InProcessLoadTest {
+
+  @LocalServerPort private int port;
+
+  @Test
+  void runWorkload() throws Exception {
+    LoadTestRunner.run("http://localhost:" + port);
+  }
+}
@@ -0,0 +1,227 @@
+package batistaReviver.studentApi.loadtest;
+
+import batistaReviver.studentApi.loadtest.LoadTestResult.EndpointResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Closed-loop load generator: each virtual user logs in through {@code /authentication/login}, then
+ * sends scenarios of a {@link Workload} back to back until the run ends.
+ *
+ * <p>Latencies are recorded in microseconds into one HDR histogram per endpoint. Requests started
+ * during the warm-up are sent but not recorded. With a think time, latencies are corrected for
+ * coordinated omission using the think time as the expected interval.
+ */
+public class LoadGenerator {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  private final URI baseUrl;
+  private final HttpClient client;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+  private final Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a generator for an application instance.
+   *
+   * @param baseUrl The base URL of the instance, e.g. {@code http://localhost:8080}.
+   */
+  public LoadGenerator(String baseUrl) {
+    this.baseUrl = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+    this.client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+  }
+
+  /**
+   * Runs a workload to completion.
+   *
+   * @param workload The workload to run.
+   * @param settings The number of users, durations and ID ranges of the run.
+   * @return The throughput and latency distribution of every endpoint.
+   * @throws Exception if a virtual user cannot log in or the run is interrupted.
+   */
+  public LoadTestResult run(Workload workload, LoadTestSettings settings) throws Exception {
+    Instant startedAt = Instant.now();
+    long measureFrom = System.nanoTime() + settings.warmup().toNanos();
+    long measureUntil = measureFrom + settings.duration().toNanos();
+
+    try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> running = new ArrayList<>();
+      for (int user = 0; user < settings.users(); user++) {
+        Random random = new Random(settings.seed() + user);
+        running.add(
+            users.submit(
+                () -> {
+                  runUser(workload, settings, random, measureFrom, measureUntil);
+                  return null;
+                }));
+      }
+      for (Future<?> user : running) {
+        user.get();
+      }
+    }
+
+    double seconds = settings.duration().toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+    List<EndpointResult> endpoints = new ArrayList<>();
+    for (Map.Entry<String, Histogram> entry : new TreeMap<>(latencies).entrySet()) {
+      String endpoint = entry.getKey();
+      Map<Integer, Long> counts = new TreeMap<>();
+      statuses
+          .getOrDefault(endpoint, Map.of())
+          .forEach((status, count) -> counts.put(status, count.sum()));
+      long failed = errors.containsKey(endpoint) ? errors.get(endpoint).sum() : 0;
+      endpoints.add(EndpointResult.of(endpoint, entry.getValue(), counts, failed, seconds));
+    }
+    return LoadTestResult.of(
+        workload.name(), settings.label(), startedAt, settings.users(), seconds, endpoints);
+  }
+
+  private void runUser(
+      Workload workload,
+      LoadTestSettings settings,
+      Random random,
+      long measureFrom,
+      long measureUntil)
+      throws IOException, InterruptedException {
+    String token = login(settings.email(), settings.password());
+    long expectedInterval = TimeUnit.NANOSECONDS.toMicros(settings.thinkTime().toNanos());
+
+    while (System.nanoTime() < measureUntil) {
+      Scenario scenario = workload.choose(random);
+      HttpRequest request = request(scenario, token, settings.idRanges(), random);
+      String endpoint = scenario.endpoint();
+
+      long start = System.nanoTime();
+      int status = send(request);
+      long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+      if (start >= measureFrom && start < measureUntil) {
+        if (status < 0) {
+          errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        } else {
+          Histogram histogram =
+              latencies.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(3));
+          if (expectedInterval > 0) {
+            histogram.recordValueWithExpectedInterval(micros, expectedInterval);
+          } else {
+            histogram.recordValue(micros);
+          }
+          statuses
+              .computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+              .computeIfAbsent(status, key -> new LongAdder())
+              .increment();
+        }
+      }
+      if (!settings.thinkTime().isZero()) {
+        Thread.sleep(settings.thinkTime());
+      }
+    }
+  }
+
+  /**
+   * Logs in through {@code /authentication/login}.
+   *
+   * @param email The login.
+   * @param password The password.
+   * @return The access token.
+   * @throws IOException if the instance cannot be reached.
+   * @throws InterruptedException if interrupted while waiting for the response.
+   */
+  String login(String email, String password) throws IOException, InterruptedException {
+    String body = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+    HttpResponse<String> response =
+        client.send(
+            HttpRequest.newBuilder(baseUrl.resolve("authentication/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException(
+          "Login as " + email + " failed with " + response.statusCode() + ": " + response.body());
+    }
+    JsonNode token = objectMapper.readTree(response.body()).get("token");
+    if (token == null) {
+      throw new IllegalStateException("Login response without a token: " + response.body());
+    }
+    return token.asText();
+  }
+
+  /**
+   * Sends a request, discarding the response body.
+   *
+   * @param request The request.
+   * @return The HTTP status, or -1 if the request failed without a response.
+   * @throws InterruptedException if interrupted while waiting for the response.
+   */
+  int send(HttpRequest request) throws InterruptedException {
+    try {
+      return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Builds an authenticated request.
+   *
+   * @param method The HTTP method.
+   * @param path The path and query string, starting with a slash.
+   * @param contentType The {@code Content-Type} of the body, or null.
+   * @param body The body, or null.
+   * @param token The access token.
+   * @return The request.
+   */
+  HttpRequest request(String method, String path, String contentType, String body, String token) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(baseUrl.resolve(path.substring(1)))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + token)
+            .method(
+                method,
+                body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(body));
+    if (contentType != null) {
+      builder.header("Content-Type", contentType);
+    }
+    return builder.build();
+  }
+
+  private HttpRequest request(
+      Scenario scenario, String token, Map<String, long[]> ids, Random random) {
+    return request(
+        scenario.method(),
+        scenario.expandPath(ids, random),
+        scenario.contentType(),
+        scenario.expandBody(ids, random),
+        token);
+  }
+}
@@ -0,0 +1,227 @@
+package batistaReviver.studentApi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.HdrHistogram.Histogram;
+
+/**
+ * The outcome of a load-test run, saved as JSON so runs of different builds can be compared.
+ *
+ * @param workload The name of the workload.
+ * @param label The label of the build under test.
+ * @param startedAt When the run started.
+ * @param users The number of concurrent virtual users.
+ * @param seconds The length of the recorded part of the run.
+ * @param throughput The requests per second over all endpoints.
+ * @param endpoints The results of each endpoint.
+ */
+public record LoadTestResult(
+    String workload,
+    String label,
+    Instant startedAt,
+    int users,
+    double seconds,
+    double throughput,
+    List<EndpointResult> endpoints) {
+
+  private static final ObjectMapper OBJECT_MAPPER =
+      new ObjectMapper()
+          .findAndRegisterModules()
+          .enable(SerializationFeature.INDENT_OUTPUT)
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+  static LoadTestResult of(
+      String workload,
+      String label,
+      Instant startedAt,
+      int users,
+      double seconds,
+      List<EndpointResult> endpoints) {
+    long total = endpoints.stream().mapToLong(EndpointResult::count).sum();
+    return new LoadTestResult(
+        workload, label, startedAt, users, seconds, total / seconds, endpoints);
+  }
+
+  /**
+   * The results of one endpoint. Latencies are in microseconds.
+   *
+   * @param endpoint The method and path template.
+   * @param count The number of responses received.
+   * @param errors The number of requests that failed without a response.
+   * @param statuses The number of responses per HTTP status.
+   * @param throughput The responses per second.
+   * @param mean The mean latency.
+   * @param p50 The median latency.
+   * @param p90 The 90th percentile latency.
+   * @param p99 The 99th percentile latency.
+   * @param p999 The 99.9th percentile latency.
+   * @param max The maximum latency.
+   * @param histogram The full histogram, compressed and Base64 encoded.
+   */
+  public record EndpointResult(
+      String endpoint,
+      long count,
+      long errors,
+      Map<Integer, Long> statuses,
+      double throughput,
+      double mean,
+      long p50,
+      long p90,
+      long p99,
+      long p999,
+      long max,
+      String histogram) {
+
+    static EndpointResult of(
+        String endpoint,
+        Histogram histogram,
+        Map<Integer, Long> statuses,
+        long errors,
+        double seconds) {
+      ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+      int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+      return new EndpointResult(
+          endpoint,
+          histogram.getTotalCount(),
+          errors,
+          statuses,
+          histogram.getTotalCount() / seconds,
+          histogram.getMean(),
+          histogram.getValueAtPercentile(50),
+          histogram.getValueAtPercentile(90),
+          histogram.getValueAtPercentile(99),
+          histogram.getValueAtPercentile(99.9),
+          histogram.getMaxValue(),
+          Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+    }
+
+    /**
+     * Decodes the full histogram, e.g. to compute other percentiles or plot the distribution.
+     *
+     * @return The latency histogram in microseconds.
+     * @throws Exception if the histogram cannot be decoded.
+     */
+    public Histogram decodeHistogram() throws Exception {
+      return Histogram.decodeFromCompressedByteBuffer(
+          ByteBuffer.wrap(Base64.getDecoder().decode(histogram)), 0);
+    }
+  }
+
+  /**
+   * Writes the result to {@code <resultsDir>/<workload>/<timestamp>-<label>.json}.
+   *
+   * @param resultsDir The root directory of the results.
+   * @return The file written.
+   * @throws IOException if the file cannot be written.
+   */
+  public Path save(Path resultsDir) throws IOException {
+    Path directory = resultsDir.resolve(workload);
+    Files.createDirectories(directory);
+    Path file = directory.resolve(FILE_TIMESTAMP.format(startedAt) + "-" + label + ".json");
+    OBJECT_MAPPER.writeValue(file.toFile(), this);
+    return file;
+  }
+
+  /**
+   * Reads the most recent saved result of a workload.
+   *
+   * @param resultsDir The root directory of the results.
+   * @param workload The name of the workload.
+   * @return The latest result, or empty if the workload was never run.
+   * @throws IOException if the directory or the file cannot be read.
+   */
+  public static Optional<LoadTestResult> latest(Path resultsDir, String workload)
+      throws IOException {
+    Path directory = resultsDir.resolve(workload);
+    if (!Files.isDirectory(directory)) {
+      return Optional.empty();
+    }
+    Optional<Path> latest;
+    try (Stream<Path> files = Files.list(directory)) {
+      latest =
+          files
+              .filter(file -> file.getFileName().toString().endsWith(".json"))
+              .max(Comparator.comparing(file -> file.getFileName().toString()));
+    }
+    if (latest.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(OBJECT_MAPPER.readValue(latest.get().toFile(), LoadTestResult.class));
+  }
+
+  /**
+   * Formats the results as a table, with the change relative to a previous run if given.
+   *
+   * @param baseline A previous run of the same workload, or null.
+   * @return A human-readable report.
+   */
+  public String report(LoadTestResult baseline) {
+    Map<String, EndpointResult> previous =
+        baseline == null
+            ? Map.of()
+            : baseline.endpoints().stream()
+                .collect(Collectors.toMap(EndpointResult::endpoint, Function.identity()));
+    StringBuilder report = new StringBuilder();
+    report.append(
+        String.format(
+            "%s [%s] %d users, %.0fs: %.1f req/s%s%n",
+            workload,
+            label,
+            users,
+            seconds,
+            throughput,
+            baseline == null
+                ? ""
+                : " ("
+                    + change(baseline.throughput(), throughput)
+                    + " vs "
+                    + baseline.label()
+                    + ")"));
+    report.append(
+        String.format(
+            "%-50s %9s %8s %8s %8s %8s %8s%n",
+            "endpoint", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+    for (EndpointResult result : endpoints) {
+      EndpointResult before = previous.get(result.endpoint());
+      report.append(
+          String.format(
+              "%-50s %9.1f %8d %8.2f %8.2f %8.2f %8.2f%s%n",
+              result.endpoint(),
+              result.throughput(),
+              result.errors(),
+              result.p50() / 1000.0,
+              result.p99() / 1000.0,
+              result.p999() / 1000.0,
+              result.max() / 1000.0,
+              before == null
+                  ? ""
+                  : "   req/s "
+                      + change(before.throughput(), result.throughput())
+                      + ", p99 "
+                      + change(before.p99(), result.p99())));
+    }
+    return report.toString();
+  }
+
+  private static String change(double before, double after) {
+    return before == 0 ? "n/a" : String.format("%+.1f%%", (after - before) * 100 / before);
+  }
+}
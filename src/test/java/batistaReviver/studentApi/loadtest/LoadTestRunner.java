@@ -0,0 +1,40 @@
+package batistaReviver.studentApi.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import batistaReviver.studentApi.loadtest.LoadTestResult.EndpointResult;
+import java.nio.file.Path;
+
+/** Runs the configured workload, prints the report and saves the result for later comparison. */
+final class LoadTestRunner {
+
+  private LoadTestRunner() {}
+
+  /**
+   * Runs the workload selected by {@code loadtest.workload} against an instance.
+   *
+   * @param baseUrl The base URL of the instance under test.
+   * @return The result of the run.
+   * @throws Exception if the run fails.
+   */
+  static LoadTestResult run(String baseUrl) throws Exception {
+    LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    Workload workload = Workload.load(settings.workload());
+    LoadTestResult baseline =
+        LoadTestResult.latest(settings.resultsDir(), workload.name()).orElse(null);
+
+    LoadTestResult result = new LoadGenerator(baseUrl).run(workload, settings);
+    Path file = result.save(settings.resultsDir());
+
+    System.out.print(result.report(baseline));
+    System.out.println("Saved " + file.toAbsolutePath());
+
+    assertTrue(result.throughput() > 0, "no responses were recorded");
+    assertEquals(
+        0,
+        result.endpoints().stream().mapToLong(EndpointResult::errors).sum(),
+        "requests failed without a response");
+    return result;
+  }
+}
@@ -0,0 +1,85 @@
+package batistaReviver.studentApi.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load-test run, read from {@code loadtest.*} system properties so they can be passed
+ * on the Maven command line, e.g. {@code mvn -Ploadtest test -Dloadtest.users=64}.
+ *
+ * @param workload The name of the {@link Workload} to run ({@code loadtest.workload}).
+ * @param users The number of concurrent virtual users ({@code loadtest.users}).
+ * @param warmup How long to run before recording ({@code loadtest.warmup}, ISO-8601 or seconds).
+ * @param duration How long to record ({@code loadtest.duration}, ISO-8601 or seconds).
+ * @param thinkTime The pause of each virtual user between requests ({@code loadtest.think-time},
+ *     milliseconds).
+ * @param email The login of the virtual users ({@code loadtest.email}).
+ * @param password The password of the virtual users ({@code loadtest.password}).
+ * @param seed The seed of the scenario and ID choices, for reproducible runs ({@code
+ *     loadtest.seed}).
+ * @param idRanges The inclusive ID range of each placeholder ({@code loadtest.ids}, e.g. {@code
+ *     studentId=1-500,studyClassId=1-40}).
+ * @param label A name for the build under test, stored with the results ({@code loadtest.label}).
+ * @param resultsDir Where results are written and compared ({@code loadtest.results-dir}).
+ */
+public record LoadTestSettings(
+    String workload,
+    int users,
+    Duration warmup,
+    Duration duration,
+    Duration thinkTime,
+    String email,
+    String password,
+    long seed,
+    Map<String, long[]> idRanges,
+    String label,
+    Path resultsDir) {
+
+  private static final String DEFAULT_IDS =
+      "studentId=1-100,studyClassId=1-20,courseId=1-10,professorId=1-10";
+
+  /**
+   * Reads the settings from the system properties, falling back to a short local run.
+   *
+   * @return The settings of this run.
+   */
+  public static LoadTestSettings fromSystemProperties() {
+    return new LoadTestSettings(
+        property("workload", "catalog-browsing"),
+        Integer.parseInt(property("users", "16")),
+        duration(property("warmup", "5")),
+        duration(property("duration", "30")),
+        Duration.ofMillis(Long.parseLong(property("think-time", "0"))),
+        property("email", "user@studysystem.com"),
+        property("password", "password"),
+        Long.parseLong(property("seed", "42")),
+        ranges(property("ids", DEFAULT_IDS)),
+        property("label", "local"),
+        Path.of(property("results-dir", "loadtest-results")));
+  }
+
+  private static String property(String name, String defaultValue) {
+    String value = System.getProperty("loadtest." + name);
+    return value == null || value.isBlank() ? defaultValue : value.strip();
+  }
+
+  private static Duration duration(String value) {
+    return value.startsWith("P")
+        ? Duration.parse(value)
+        : Duration.ofSeconds(Long.parseLong(value));
+  }
+
+  private static Map<String, long[]> ranges(String value) {
+    Map<String, long[]> ranges = new LinkedHashMap<>();
+    for (String entry : value.split(",")) {
+      String[] nameAndRange = entry.split("=", 2);
+      String[] bounds = nameAndRange[1].split("-", 2);
+      ranges.put(
+          nameAndRange[0].strip(),
+          new long[] {Long.parseLong(bounds[0].strip()), Long.parseLong(bounds[1].strip())});
+    }
+    return ranges;
+  }
+}
@@ -0,0 +1,21 @@
+package batistaReviver.studentApi.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Runs a workload against an already running instance, e.g. {@code mvn -Ploadtest test
+ * -Dloadtest.base-url=http://localhost:8080}.
+ */
+@Tag("loadtest")
+@DisabledIfSystemProperty(named = "loadtest.capture", matches = ".+")
+@EnabledIfSystemProperty(named = "loadtest.base-url", matches = ".+")
+class RemoteLoadTest {
+
+  @Test
+  void runWorkload() throws Exception {
+    LoadTestRunner.run(System.getProperty("loadtest.base-url"));
+  }
+}
@@ -0,0 +1,82 @@
+package batistaReviver.studentApi.loadtest;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single request of a workload, as parsed from a curl command.
+ *
+ * <p>The path and body may contain placeholders such as {@code {studentId}}; they are replaced with
+ * a random ID from the matching {@link LoadTestSettings#idRanges() range} every time the request is
+ * sent.
+ *
+ * @param name The title of the scenario, taken from its comment header.
+ * @param method The HTTP method.
+ * @param path The path and query string, relative to the base URL.
+ * @param contentType The {@code Content-Type} header, or null if the request has no body.
+ * @param body The request body, or null.
+ * @param weight The relative frequency of the scenario within its workload.
+ */
+public record Scenario(
+    String name, String method, String path, String contentType, String body, int weight) {
+
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+
+  /**
+   * The label results are grouped by: the method and the path template without its query string.
+   *
+   * @return For example {@code GET /study-classes/{studyClassId}}.
+   */
+  public String endpoint() {
+    int query = path.indexOf('?');
+    return method + " " + (query < 0 ? path : path.substring(0, query));
+  }
+
+  /**
+   * Checks whether the scenario only reads data.
+   *
+   * @return {@code true} for GET requests.
+   */
+  public boolean isReadOnly() {
+    return "GET".equals(method);
+  }
+
+  /**
+   * Replaces the placeholders of the path with random IDs.
+   *
+   * @param ids The inclusive ID range of each placeholder name.
+   * @param random The source of randomness of the calling virtual user.
+   * @return The path to request.
+   */
+  public String expandPath(Map<String, long[]> ids, Random random) {
+    return expand(path, ids, random);
+  }
+
+  /**
+   * Replaces the placeholders of the body with random IDs.
+   *
+   * @param ids The inclusive ID range of each placeholder name.
+   * @param random The source of randomness of the calling virtual user.
+   * @return The body to send, or null if the scenario has none.
+   */
+  public String expandBody(Map<String, long[]> ids, Random random) {
+    return body == null ? null : expand(body, ids, random);
+  }
+
+  private static String expand(String template, Map<String, long[]> ids, Random random) {
+    Matcher matcher = PLACEHOLDER.matcher(template);
+    StringBuilder expanded = new StringBuilder();
+    while (matcher.find()) {
+      long[] range = ids.get(matcher.group(1));
+      if (range == null) {
+        throw new IllegalArgumentException("No ID range configured for " + matcher.group());
+      }
+      long id = range[0] + (long) (random.nextDouble() * (range[1] - range[0] + 1));
+      matcher.appendReplacement(expanded, Long.toString(id));
+    }
+    matcher.appendTail(expanded);
+    return expanded.toString();
+  }
+}
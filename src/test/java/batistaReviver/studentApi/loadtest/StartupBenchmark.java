@@ -0,0 +1,170 @@
+package batistaReviver.studentApi.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup of the fast-startup build; run by {@code mvn -Pfast package} once the jar is
+ * extracted and the CDS archive is trained.
+ *
+ * <p>Each variant starts the extracted application with the {@code fast} profile against the
+ * configured database, {@code runs} times, and reports the median of:
+ *
+ * <ul>
+ *   <li><b>listening</b>: until the server answers the liveness probe with any status;
+ *   <li><b>ready</b>: until the readiness probe reports {@code UP}, which includes the warm-up;
+ *   <li><b>first request</b>: the latency of the first authenticated GET once ready.
+ * </ul>
+ *
+ * <p>The output of every run goes to {@code startup-<variant>.log} next to the jar, and the report
+ * to {@code startup-report.txt}.
+ */
+final class StartupBenchmark {
+
+  private static final String FIRST_REQUEST = "/courses?fields=name";
+  private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+  private final Path directory;
+  private final Path jar;
+  private final int port;
+  private final HttpClient client =
+      HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(1))
+          .build();
+
+  private StartupBenchmark(Path directory, String jar, int port) {
+    this.directory = directory;
+    this.jar = directory.resolve(jar);
+    this.port = port;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The directory of the extracted application, the name of its jar, the number of runs
+   *     per variant and the port to start the application on.
+   * @throws Exception if a run fails.
+   */
+  public static void main(String[] args) throws Exception {
+    StartupBenchmark benchmark =
+        new StartupBenchmark(Path.of(args[0]), args[1], Integer.parseInt(args[3]));
+    int runs = Integer.parseInt(args[2]);
+    String jsa = "-XX:SharedArchiveFile=" + benchmark.directory.resolve("application.jsa");
+
+    StringBuilder report = new StringBuilder();
+    report.append(
+        String.format(
+            "Startup of %s, median of %d runs%n%-10s %12s %12s %16s%n",
+            benchmark.jar.getFileName(), runs, "variant", "listening", "ready", "first request"));
+    benchmark.measure("jar", runs, List.of(), report);
+    benchmark.measure("aot", runs, List.of("-Dspring.aot.enabled=true"), report);
+    benchmark.measure("aot+cds", runs, List.of("-Dspring.aot.enabled=true", jsa), report);
+
+    System.out.print(report);
+    Files.writeString(benchmark.directory.resolve("startup-report.txt"), report);
+  }
+
+  private void measure(String variant, int runs, List<String> options, StringBuilder report)
+      throws Exception {
+    long[][] samples = new long[3][runs];
+    for (int run = 0; run < runs; run++) {
+      long[] sample = start(variant, options);
+      for (int metric = 0; metric < samples.length; metric++) {
+        samples[metric][run] = sample[metric];
+      }
+    }
+    report.append(
+        String.format(
+            "%-10s %9d ms %9d ms %13d ms%n",
+            variant, median(samples[0]), median(samples[1]), median(samples[2])));
+  }
+
+  /** Starts the application once and returns the listening, ready and first request times. */
+  private long[] start(String variant, List<String> options) throws Exception {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(options);
+    command.add("-Dspring.profiles.active=fast");
+    command.add("-Dserver.port=" + port);
+    command.add("-jar");
+    command.add(jar.toString());
+
+    long started = System.nanoTime();
+    Process process =
+        new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(
+                ProcessBuilder.Redirect.appendTo(
+                    directory.resolve("startup-" + variant + ".log").toFile()))
+            .start();
+    try {
+      long deadline = started + TIMEOUT.toNanos();
+      awaitProbe(process, "/actuator/health/liveness", false, deadline);
+      long listening = System.nanoTime() - started;
+      awaitProbe(process, "/actuator/health/readiness", true, deadline);
+      long ready = System.nanoTime() - started;
+
+      LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+      LoadGenerator generator = new LoadGenerator("http://localhost:" + port);
+      String token = generator.login(settings.email(), settings.password());
+      long sent = System.nanoTime();
+      int status = generator.send(generator.request("GET", FIRST_REQUEST, null, null, token));
+      long firstRequest = System.nanoTime() - sent;
+      if (status != 200) {
+        throw new IllegalStateException("GET " + FIRST_REQUEST + " answered " + status);
+      }
+      return new long[] {
+        TimeUnit.NANOSECONDS.toMillis(listening),
+        TimeUnit.NANOSECONDS.toMillis(ready),
+        TimeUnit.NANOSECONDS.toMillis(firstRequest)
+      };
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  /** Polls a health probe until it answers, or answers 200 when {@code up} is set. */
+  private void awaitProbe(Process process, String path, boolean up, long deadline)
+      throws InterruptedException {
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(1))
+            .build();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException(
+            "The application exited with " + process.exitValue() + "; see the startup log.");
+      }
+      try {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (!up || status == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Not listening yet.
+      }
+      Thread.sleep(10);
+    }
+    throw new IllegalStateException(path + " was not reached within " + TIMEOUT);
+  }
+
+  private static long median(long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+}
@@ -0,0 +1,50 @@
+package batistaReviver.studentApi.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import batistaReviver.studentApi.diagnostics.CapturedRequest;
+import batistaReviver.studentApi.diagnostics.TrafficLogReader;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Replays a traffic capture against a candidate build and compares the latency of every controller
+ * method with the latency measured when the traffic was captured, e.g.:
+ *
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.capture=data/traffic/capture-20250301-090000.bin \
+ *     -Dloadtest.base-url=http://localhost:8080 -Dloadtest.replay-rate=2
+ * </pre>
+ *
+ * <p>Captured latencies are measured inside the application, replayed ones by the client, so the
+ * replay includes the network round trip.
+ */
+@Tag("loadtest")
+@EnabledIfSystemProperty(named = "loadtest.capture", matches = ".+")
+class TrafficReplayTest {
+
+  @Test
+  void replayCapture() throws Exception {
+    Path capture = Path.of(System.getProperty("loadtest.capture"));
+    String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    double rate = Double.parseDouble(System.getProperty("loadtest.replay-rate", "1"));
+    LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+    List<CapturedRequest> captured = TrafficLogReader.read(capture);
+    assertFalse(captured.isEmpty(), "the capture holds no requests");
+    String name = "replay-" + capture.getFileName().toString().replaceFirst("\\.bin$", "");
+
+    TrafficReplayer replayer = new TrafficReplayer(baseUrl);
+    LoadTestResult result = replayer.replay(name, captured, rate, settings);
+    Path file = result.save(settings.resultsDir());
+
+    System.out.printf(
+        "Replayed %d of %d captured requests at %.1fx%n",
+        captured.size() - replayer.skipped(), captured.size(), rate);
+    System.out.print(result.report(TrafficReplayer.original(name, captured)));
+    System.out.println("Saved " + file.toAbsolutePath());
+  }
+}
@@ -0,0 +1,188 @@
+package batistaReviver.studentApi.loadtest;
+
+import batistaReviver.studentApi.diagnostics.CapturedRequest;
+import batistaReviver.studentApi.loadtest.LoadTestResult.EndpointResult;
+import java.net.http.HttpRequest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Replays a traffic capture (see {@link batistaReviver.studentApi.diagnostics.TrafficCapture})
+ * against an instance, open loop: every request is sent at its original offset from the start of
+ * the capture, divided by the replay rate, whether or not earlier requests have completed.
+ * Latencies are measured from the intended send time, so a stalled server is not hidden by
+ * coordinated omission.
+ *
+ * <p>The capture holds no bodies. Requests with a body are replayed with the body of the scenario
+ * of a {@link Workload#BUILT_IN built-in workload} that has the same method and route, with random
+ * IDs; requests without such a scenario are skipped.
+ */
+public class TrafficReplayer {
+
+  private final LoadGenerator client;
+  private final Map<String, Scenario> bodies = new HashMap<>();
+
+  private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+  private final Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+  private final LongAdder skipped = new LongAdder();
+
+  /**
+   * Creates a replayer for an instance.
+   *
+   * @param baseUrl The base URL of the candidate build.
+   */
+  public TrafficReplayer(String baseUrl) {
+    this.client = new LoadGenerator(baseUrl);
+    for (String name : Workload.BUILT_IN) {
+      for (Scenario scenario : Workload.load(name).scenarios()) {
+        if (scenario.body() != null) {
+          bodies.putIfAbsent(scenario.endpoint(), scenario);
+        }
+      }
+    }
+  }
+
+  /**
+   * Replays the requests.
+   *
+   * @param name The name of the run, used as the workload name of the result.
+   * @param captured The captured requests, in arrival order.
+   * @param rate The speed-up of the replay: 1 for the original rate, 2 for twice as fast.
+   * @param settings The login and the ID ranges used for request bodies.
+   * @return The latency distribution of every controller method.
+   * @throws Exception if the login fails or the replay is interrupted.
+   */
+  public LoadTestResult replay(
+      String name, List<CapturedRequest> captured, double rate, LoadTestSettings settings)
+      throws Exception {
+    String token = client.login(settings.email(), settings.password());
+    Random random = new Random(settings.seed());
+    long firstMicros = captured.get(0).timestampMicros();
+    Instant startedAt = Instant.now();
+    long start = System.nanoTime();
+
+    try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (CapturedRequest request : captured) {
+        HttpRequest httpRequest = toHttpRequest(request, token, settings, random);
+        if (httpRequest == null) {
+          skipped.increment();
+          continue;
+        }
+        long intended = start + (long) ((request.timestampMicros() - firstMicros) * 1_000 / rate);
+        for (long wait = intended - System.nanoTime(); wait > 0; ) {
+          LockSupport.parkNanos(wait);
+          wait = intended - System.nanoTime();
+        }
+        senders.submit(
+            () -> {
+              int status = client.send(httpRequest);
+              record(request.endpoint(), status, System.nanoTime() - intended);
+              return null;
+            });
+      }
+    }
+    double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+    return result(name, settings.label(), startedAt, seconds);
+  }
+
+  /**
+   * The number of captured requests that were not replayed for lack of a body.
+   *
+   * @return The number of skipped requests.
+   */
+  public long skipped() {
+    return skipped.sum();
+  }
+
+  /**
+   * Summarizes the latencies measured by the capturing instance, as a baseline for the replay.
+   *
+   * @param name The name of the capture.
+   * @param captured The captured requests, in arrival order.
+   * @return The captured latency distribution of every controller method.
+   */
+  public static LoadTestResult original(String name, List<CapturedRequest> captured) {
+    Map<String, Histogram> histograms = new TreeMap<>();
+    Map<String, Map<Integer, Long>> counts = new HashMap<>();
+    for (CapturedRequest request : captured) {
+      histograms
+          .computeIfAbsent(request.endpoint(), key -> new Histogram(3))
+          .recordValue(request.durationMicros());
+      counts
+          .computeIfAbsent(request.endpoint(), key -> new TreeMap<>())
+          .merge(request.status(), 1L, Long::sum);
+    }
+    long firstMicros = captured.get(0).timestampMicros();
+    long lastMicros = captured.get(captured.size() - 1).timestampMicros();
+    double seconds = Math.max(1, lastMicros - firstMicros) / 1_000_000.0;
+    List<EndpointResult> endpoints = new ArrayList<>();
+    histograms.forEach(
+        (endpoint, histogram) ->
+            endpoints.add(
+                EndpointResult.of(endpoint, histogram, counts.get(endpoint), 0, seconds)));
+    return LoadTestResult.of(
+        name, "captured", Instant.ofEpochSecond(0, firstMicros * 1_000), 0, seconds, endpoints);
+  }
+
+  private HttpRequest toHttpRequest(
+      CapturedRequest request, String token, LoadTestSettings settings, Random random) {
+    if (request.bodySize() <= 0) {
+      return client.request(request.method(), request.path(), null, null, token);
+    }
+    Scenario scenario = bodies.get(request.method() + " " + request.route());
+    if (scenario == null) {
+      return null;
+    }
+    return client.request(
+        request.method(),
+        request.path(),
+        scenario.contentType(),
+        scenario.expandBody(settings.idRanges(), random),
+        token);
+  }
+
+  private void record(String endpoint, int status, long nanos) {
+    if (status < 0) {
+      errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+      return;
+    }
+    latencies
+        .computeIfAbsent(endpoint, key -> new ConcurrentHistogram(3))
+        .recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+    statuses
+        .computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+        .computeIfAbsent(status, key -> new LongAdder())
+        .increment();
+  }
+
+  private LoadTestResult result(String name, String label, Instant startedAt, double seconds) {
+    List<EndpointResult> endpoints = new ArrayList<>();
+    for (Map.Entry<String, Histogram> entry : new TreeMap<>(latencies).entrySet()) {
+      Map<Integer, Long> counts = new TreeMap<>();
+      statuses.get(entry.getKey()).forEach((status, count) -> counts.put(status, count.sum()));
+      LongAdder failed = errors.get(entry.getKey());
+      endpoints.add(
+          EndpointResult.of(
+              entry.getKey(),
+              entry.getValue(),
+              counts,
+              failed == null ? 0 : failed.sum(),
+              seconds));
+    }
+    return LoadTestResult.of(name, label, startedAt, 0, seconds, endpoints);
+  }
+}
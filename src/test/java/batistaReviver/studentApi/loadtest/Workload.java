@@ -0,0 +1,93 @@
+package batistaReviver.studentApi.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A named, weighted mix of {@link Scenario}s.
+ *
+ * <p>Workloads are curl scenario files under {@code src/test/resources/loadtest/<name>.curl}:
+ *
+ * <ul>
+ *   <li>{@code registration-day}: students enrolling in classes and checking their dashboards.
+ *   <li>{@code catalog-browsing}: anonymous and logged-in browsing of courses and classes.
+ *   <li>{@code roster-export}: professors and staff exporting class rosters.
+ * </ul>
+ *
+ * <p>The special name {@code captured} replays the read-only requests of {@code
+ * service_request.txt} with equal weights; its write requests target fixed IDs and are skipped.
+ *
+ * @param name The name of the workload.
+ * @param scenarios The scenarios of the workload, each with a positive weight.
+ */
+public record Workload(String name, List<Scenario> scenarios) {
+
+  /** The workload replaying {@code service_request.txt}. */
+  public static final String CAPTURED = "captured";
+
+  /** The workloads shipped under {@code src/test/resources/loadtest}. */
+  public static final List<String> BUILT_IN =
+      List.of("registration-day", "catalog-browsing", "roster-export");
+
+  public Workload {
+    scenarios = scenarios.stream().filter(scenario -> scenario.weight() > 0).toList();
+    if (scenarios.isEmpty()) {
+      throw new IllegalArgumentException("Workload '" + name + "' has no scenarios.");
+    }
+  }
+
+  /**
+   * Loads a workload by name.
+   *
+   * @param name {@link #CAPTURED} or the name of a {@code .curl} file under {@code loadtest/}.
+   * @return The parsed workload.
+   * @throws IllegalArgumentException if no workload has that name.
+   */
+  public static Workload load(String name) {
+    if (CAPTURED.equals(name)) {
+      try {
+        String text = Files.readString(Path.of("service_request.txt"));
+        return new Workload(
+            name, CurlScenarioParser.parse(text).stream().filter(Scenario::isReadOnly).toList());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    try (InputStream in = Workload.class.getResourceAsStream("/loadtest/" + name + ".curl")) {
+      if (in == null) {
+        throw new IllegalArgumentException("Unknown workload: " + name);
+      }
+      return new Workload(
+          name, CurlScenarioParser.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Picks the next scenario to send, proportionally to the weights.
+   *
+   * @param random The source of randomness of the calling virtual user.
+   * @return The chosen scenario.
+   */
+  public Scenario choose(Random random) {
+    int total = 0;
+    for (Scenario scenario : scenarios) {
+      total += scenario.weight();
+    }
+    int pick = random.nextInt(total);
+    for (Scenario scenario : scenarios) {
+      pick -= scenario.weight();
+      if (pick < 0) {
+        return scenario;
+      }
+    }
+    throw new IllegalStateException("unreachable");
+  }
+}
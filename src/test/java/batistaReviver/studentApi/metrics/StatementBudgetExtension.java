@@ -0,0 +1,99 @@
+package batistaReviver.studentApi.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * JUnit extension that counts the JDBC statements executed by each test method, with the same
+ * {@link RequestStatistics} used for HTTP requests.
+ *
+ * <p>Counting covers the test method body only, not {@code @BeforeEach} methods, so fixtures can be
+ * inserted freely. A test method can:
+ *
+ * <ul>
+ *   <li>carry a {@link StatementBudget}, and fails when it executes more statements, or repeats a
+ *       statement shape more often, than the budget allows ({@code maxRepeats} defaults to no limit
+ *       here);
+ *   <li>declare a {@link RequestStatistics} parameter to assert on the counts itself;
+ *   <li>call {@link #measure} to count the statements of a single block.
+ * </ul>
+ *
+ * <p>Statements are counted by the application's {@link StatementBudgetListener}, so the test must
+ * run against the Spring context (e.g. {@code @SpringBootTest}).
+ */
+public class StatementBudgetExtension
+    implements BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+
+  private static final ExtensionContext.Namespace NAMESPACE =
+      ExtensionContext.Namespace.create(StatementBudgetExtension.class);
+
+  /**
+   * Counts the statements executed by a block of code.
+   *
+   * @param block The code to run.
+   * @return The statistics of the block.
+   */
+  public static RequestStatistics measure(Runnable block) {
+    RequestStatistics statistics = RequestStatistics.start("measured block");
+    try {
+      block.run();
+    } finally {
+      statistics.finish();
+    }
+    return statistics;
+  }
+
+  @Override
+  public void beforeTestExecution(ExtensionContext context) {
+    Method method = context.getRequiredTestMethod();
+    RequestStatistics statistics =
+        RequestStatistics.start(
+            method.getDeclaringClass().getSimpleName() + "." + method.getName());
+    context.getStore(NAMESPACE).put(RequestStatistics.class, statistics);
+  }
+
+  @Override
+  public void afterTestExecution(ExtensionContext context) {
+    RequestStatistics statistics =
+        context.getStore(NAMESPACE).remove(RequestStatistics.class, RequestStatistics.class);
+    if (statistics == null) {
+      return;
+    }
+    statistics.finish();
+    StatementBudget budget = context.getRequiredTestMethod().getAnnotation(StatementBudget.class);
+    if (budget == null || context.getExecutionException().isPresent()) {
+      return;
+    }
+    String exceeded = statistics.checkBudget(budget.value(), budget.maxRepeats());
+    if (exceeded != null) {
+      throw new AssertionError(
+          "Statement budget exceeded: " + exceeded + "\nStatements:\n" + describe(statistics));
+    }
+  }
+
+  @Override
+  public boolean supportsParameter(
+      ParameterContext parameterContext, ExtensionContext extensionContext) {
+    return parameterContext.getParameter().getType() == RequestStatistics.class;
+  }
+
+  @Override
+  public Object resolveParameter(
+      ParameterContext parameterContext, ExtensionContext extensionContext) {
+    return extensionContext.getStore(NAMESPACE).get(RequestStatistics.class);
+  }
+
+  private static String describe(RequestStatistics statistics) {
+    return statistics.shapes().entrySet().stream()
+        .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+        .map(shape -> "  " + shape.getValue() + " x " + shape.getKey())
+        .collect(Collectors.joining("\n"));
+  }
+}
@@ -0,0 +1,126 @@
+package batistaReviver.studentApi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import batistaReviver.studentApi.model.StudyClass;
+import batistaReviver.studentApi.repository.SubscriptionRepository;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Interleaves {@link SeatAllocator#reconcile()} with seat changes whose transactions have not
+ * completed, and checks that the reconciler never hands out a seat that is still taken.
+ *
+ * <p>Transactions are simulated with {@link TransactionSynchronizationManager}: a "transaction" is
+ * a set of registered synchronizations, completed by {@link #commit()}. The database count is a
+ * mock, so each test decides what the reconciler reads.
+ */
+class SeatAllocatorTests {
+
+  private static final long CLASS_ID = 1L;
+
+  private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+  private final SeatAllocator seatAllocator = new SeatAllocator(subscriptionRepository);
+  private StudyClass studyClass;
+
+  @BeforeEach
+  void createClass() {
+    studyClass = new StudyClass();
+    studyClass.setId(CLASS_ID);
+    studyClass.setCapacity(2);
+  }
+
+  @AfterEach
+  void clearTransaction() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void reconcileSkipsClassWithUncommittedReservation() {
+    dbCount(0);
+    begin();
+    assertTrue(seatAllocator.tryAcquire(studyClass));
+
+    seatAllocator.reconcile(); // The insert is not committed, so the database still counts 0.
+    commit();
+
+    assertEquals(1, seatAllocator.taken(CLASS_ID));
+  }
+
+  @Test
+  void reconcileSkipsClassWithUncompletedRelease() {
+    dbCount(2);
+    assertFalse(seatAllocator.hasFreeSeat(studyClass)); // Counter starts at the 2 subscriptions.
+
+    begin();
+    seatAllocator.release(CLASS_ID);
+    dbCount(1); // The delete has committed, the seat is not given back yet.
+    seatAllocator.reconcile();
+    commit();
+
+    assertEquals(1, seatAllocator.taken(CLASS_ID));
+  }
+
+  @Test
+  void reconcileDiscardsCountTakenWhileSeatsChanged() {
+    dbCount(2);
+    assertFalse(seatAllocator.hasFreeSeat(studyClass)); // Counter starts at the 2 subscriptions.
+
+    // While the reconciler counts, one student leaves and another takes the seat: the counter goes
+    // from 2 to 1 and back to 2, but the count was taken between the delete and the insert.
+    when(subscriptionRepository.countByStudyClassId(CLASS_ID))
+        .thenAnswer(
+            invocation -> {
+              begin();
+              seatAllocator.release(CLASS_ID);
+              commit();
+              begin();
+              assertTrue(seatAllocator.tryAcquire(studyClass));
+              commit();
+              return 1L;
+            });
+    seatAllocator.reconcile();
+
+    assertEquals(2, seatAllocator.taken(CLASS_ID));
+    assertFalse(seatAllocator.hasFreeSeat(studyClass));
+  }
+
+  @Test
+  void reconcileCorrectsIdleCounter() {
+    dbCount(0);
+    assertTrue(seatAllocator.tryAcquire(studyClass));
+    assertEquals(1, seatAllocator.taken(CLASS_ID));
+
+    seatAllocator.reconcile(); // Nothing in flight: the subscription was removed elsewhere.
+
+    assertEquals(0, seatAllocator.taken(CLASS_ID));
+  }
+
+  private void dbCount(long count) {
+    when(subscriptionRepository.countByStudyClassId(CLASS_ID)).thenReturn(count);
+  }
+
+  private static void begin() {
+    TransactionSynchronizationManager.initSynchronization();
+  }
+
+  private static void commit() {
+    List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.forEach(TransactionSynchronization::afterCommit);
+    synchronizations.forEach(
+        synchronization ->
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+  }
+}
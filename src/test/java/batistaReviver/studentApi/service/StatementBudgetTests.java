@@ -0,0 +1,117 @@
+package batistaReviver.studentApi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import batistaReviver.studentApi.metrics.RequestStatistics;
+import batistaReviver.studentApi.metrics.StatementBudget;
+import batistaReviver.studentApi.metrics.StatementBudgetExtension;
+import batistaReviver.studentApi.model.Course;
+import batistaReviver.studentApi.model.Professor;
+import batistaReviver.studentApi.model.Student;
+import batistaReviver.studentApi.repository.CourseRepository;
+import batistaReviver.studentApi.repository.ProfessorRepository;
+import batistaReviver.studentApi.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Guards the statement counts of {@link StudyClassService} and {@link SubscriptionService} against
+ * N+1 regressions: converting a list of entities to DTOs must not execute one statement per row.
+ */
+@SpringBootTest
+@Transactional
+@ExtendWith(StatementBudgetExtension.class)
+class StatementBudgetTests {
+
+  @Autowired private StudyClassService studyClassService;
+  @Autowired private SubscriptionService subscriptionService;
+  @Autowired private CourseRepository courseRepository;
+  @Autowired private ProfessorRepository professorRepository;
+  @Autowired private StudentRepository studentRepository;
+  @Autowired private EntityManager entityManager;
+
+  private Student student;
+  private final List<Long> classIds = new ArrayList<>();
+
+  @BeforeEach
+  void createClasses() {
+    student =
+        studentRepository.save(
+            new Student("Ana Souza", "+55 31 90000-0000", "ana@example.com", "S-0001"));
+    addClasses(10);
+    for (Long classId : classIds) {
+      subscriptionService.createSubscription(student.getId(), classId);
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  @StatementBudget(value = 3, maxRepeats = 1)
+  void getAllStudyClassesLoadsCoursesAndProfessorsInBatches() {
+    assertEquals(classIds.size(), studyClassService.getAllStudyClasses().size());
+  }
+
+  @Test
+  void getAllStudyClassesStatementsDoNotGrowWithRows() {
+    int statements =
+        StatementBudgetExtension.measure(studyClassService::getAllStudyClasses).statements();
+    addClasses(10);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertEquals(
+        statements,
+        StatementBudgetExtension.measure(studyClassService::getAllStudyClasses).statements());
+  }
+
+  @Test
+  @StatementBudget(value = 4, maxRepeats = 1)
+  void getStudentHistoryLoadsStudentsAndClassesInBatches() {
+    assertEquals(classIds.size(), subscriptionService.getStudentHistory(student.getId()).size());
+  }
+
+  @Test
+  void createSubscriptionRunsEachStatementOnce(RequestStatistics statistics) {
+    Long classId = addClasses(1).get(0);
+    entityManager.flush();
+    entityManager.clear();
+    int before = statistics.statements();
+
+    subscriptionService.createSubscription(student.getId(), classId);
+    entityManager.flush();
+
+    assertEquals(1, statistics.maxRepeats(), () -> "Repeated statements: " + statistics.shapes());
+    assertEquals(
+        4, statistics.statements() - before, () -> "Statements: " + statistics.shapes().keySet());
+  }
+
+  private List<Long> addClasses(int count) {
+    List<Long> added = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int n = classIds.size();
+      Course course = courseRepository.save(new Course("Course " + n, "Description " + n));
+      Professor professor =
+          professorRepository.save(
+              new Professor(
+                  "Professor " + n,
+                  "+55 31 91000-" + String.format("%04d", n),
+                  "professor" + n + "@example.com",
+                  "P-" + n));
+      Long classId =
+          studyClassService
+              .createStudyClass(2025, 1 + n % 2, course.getId(), professor.getId(), null)
+              .id();
+      classIds.add(classId);
+      added.add(classId);
+    }
+    return added;
+  }
+}